@@ -2,7 +2,9 @@ package org.opentripplanner.ext.fares.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.ext.fares.impl.FareModelForTest.AIRPORT_STOP;
 import static org.opentripplanner.ext.fares.impl.FareModelForTest.AIRPORT_TO_CITY_CENTER_SET;
 import static org.opentripplanner.ext.fares.impl.FareModelForTest.CITY_CENTER_A_STOP;
@@ -11,8 +13,10 @@ import static org.opentripplanner.ext.fares.impl.FareModelForTest.INSIDE_CITY_CE
 import static org.opentripplanner.ext.fares.impl.FareModelForTest.SUBURB_STOP;
 import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
 
+import java.time.Duration;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.Place;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.routing.core.FareType;
@@ -98,4 +102,57 @@ class DefaultFareServiceTest implements PlanTestConstants {
     var firstBusLeg = itin.firstTransitLeg().get();
     assertEquals(List.of(firstBusLeg), component.legs());
   }
+
+  @Test
+  void legCacheGivesTheSameFares() {
+    var service = new DefaultFareService();
+    service.addFareRules(
+      FareType.regular,
+      List.of(AIRPORT_TO_CITY_CENTER_SET, INSIDE_CITY_CENTER_SET)
+    );
+    var cached = service.withLegCache();
+    assertNotSame(service, cached);
+
+    // The itineraries share the first leg, and the last two share the second leg
+    var itineraries = List.of(
+      newItinerary(Place.forStop(AIRPORT_STOP), T11_00)
+        .bus(1, T11_00, T11_12, Place.forStop(CITY_CENTER_A_STOP))
+        .build(),
+      newItinerary(Place.forStop(AIRPORT_STOP), T11_00)
+        .bus(1, T11_00, T11_12, Place.forStop(CITY_CENTER_A_STOP))
+        .bus(2, T11_15, T11_20, Place.forStop(CITY_CENTER_B_STOP))
+        .build(),
+      newItinerary(Place.forStop(AIRPORT_STOP), T11_00)
+        .bus(1, T11_00, T11_12, Place.forStop(CITY_CENTER_A_STOP))
+        .bus(2, T11_15, T11_20, Place.forStop(CITY_CENTER_B_STOP))
+        .bus(3, T11_23, T11_33, Place.forStop(SUBURB_STOP))
+        .build()
+    );
+
+    for (Itinerary it : itineraries) {
+      var expected = service.calculateFares(it);
+      var fare = cached.calculateFares(it);
+      assertEquals(expected.getFare(FareType.regular), fare.getFare(FareType.regular));
+      assertEquals(
+        expected.getComponents(FareType.regular),
+        fare.getComponents(FareType.regular)
+      );
+    }
+    // The cached service gives the same fares when called again
+    var last = itineraries.get(2);
+    assertEquals(
+      service.calculateFares(last).getComponents(FareType.regular),
+      cached.calculateFares(last).getComponents(FareType.regular)
+    );
+  }
+
+  @Test
+  void subclassesAreNotCopiedWithoutACopyHook() {
+    var service = new HighestFareInFreeTransferWindowFareService(
+      List.of(AIRPORT_TO_CITY_CENTER_SET),
+      Duration.ofMinutes(30),
+      false
+    );
+    assertSame(service, service.withLegCache());
+  }
 }
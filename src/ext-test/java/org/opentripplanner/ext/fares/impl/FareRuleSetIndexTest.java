@@ -0,0 +1,98 @@
+package org.opentripplanner.ext.fares.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.fares.model.FareAttribute;
+import org.opentripplanner.ext.fares.model.FareRuleSet;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class FareRuleSetIndexTest {
+
+  private static final FeedScopedId ROUTE_A = id("A");
+  private static final FeedScopedId ROUTE_B = id("B");
+  private static final FeedScopedId TRIP = id("T1");
+
+  private static final FareRuleSet ANY = ruleSet("any");
+  private static final FareRuleSet ROUTE_A_SET = ruleSet("route-a");
+  private static final FareRuleSet ROUTES_A_AND_B_SET = ruleSet("routes-a-and-b");
+  private static final FareRuleSet TRIP_SET = ruleSet("trip");
+  private static final FareRuleSet CONTAINS_SET = ruleSet("contains");
+  private static final FareRuleSet OTHER_FEED_SET = new FareRuleSet(
+    FareAttribute.of(new FeedScopedId("B", "other-feed")).build()
+  );
+
+  static {
+    ROUTE_A_SET.addRoute(ROUTE_A);
+    ROUTES_A_AND_B_SET.addRoute(ROUTE_A);
+    ROUTES_A_AND_B_SET.addRoute(ROUTE_B);
+    TRIP_SET.addTrip(TRIP);
+    CONTAINS_SET.addContains("1");
+    CONTAINS_SET.addContains("2");
+  }
+
+  private final List<FareRuleSet> fareRules = List.of(
+    ANY,
+    ROUTE_A_SET,
+    ROUTES_A_AND_B_SET,
+    TRIP_SET,
+    CONTAINS_SET,
+    OTHER_FEED_SET
+  );
+
+  private final FareRuleSetIndex subject = new FareRuleSetIndex(fareRules);
+
+  @Test
+  void isIndexOf() {
+    assertTrue(subject.isIndexOf(fareRules));
+    assertFalse(subject.isIndexOf(new ArrayList<>(fareRules)));
+  }
+
+  @Test
+  void candidatesByRoute() {
+    assertEquals(
+      List.of(ANY, ROUTE_A_SET, ROUTES_A_AND_B_SET),
+      subject.candidates("F", Set.of(ROUTE_A), Set.of(id("T2")), Set.of("1"))
+    );
+    assertEquals(
+      List.of(ANY, ROUTES_A_AND_B_SET),
+      subject.candidates("F", Set.of(ROUTE_A, ROUTE_B), Set.of(id("T2")), Set.of("1"))
+    );
+    assertEquals(
+      List.of(ANY),
+      subject.candidates("F", Set.of(id("C")), Set.of(id("T2")), Set.of("1"))
+    );
+  }
+
+  @Test
+  void candidatesByTrip() {
+    assertEquals(
+      List.of(ANY, TRIP_SET),
+      subject.candidates("F", Set.of(id("C")), Set.of(TRIP), Set.of("1"))
+    );
+  }
+
+  @Test
+  void candidatesByContains() {
+    assertEquals(
+      List.of(ANY, CONTAINS_SET),
+      subject.candidates("F", Set.of(id("C")), Set.of(id("T2")), Set.of("1", "2"))
+    );
+  }
+
+  @Test
+  void candidatesByFeed() {
+    assertEquals(List.of(OTHER_FEED_SET), subject.candidates("B", Set.of(), Set.of(), Set.of()));
+    assertEquals(List.of(), subject.candidates("C", Set.of(), Set.of(), Set.of()));
+  }
+
+  private static FareRuleSet ruleSet(String id) {
+    return new FareRuleSet(FareAttribute.of(id(id)).build());
+  }
+}
@@ -225,6 +225,100 @@ class GtfsFaresV2ServiceTest implements PlanTestConstants {
     }
   }
 
+  /**
+   * The rules matching a leg are looked up in an index by network and area, a rule without a
+   * network or area only applies if no other rule has the network or area of the leg.
+   */
+  @Nested
+  class NetworkAndArea {
+
+    GtfsFaresV2Service service = new GtfsFaresV2Service(
+      List.of(
+        new FareLegRule(LEG_GROUP1, null, null, null, single),
+        new FareLegRule(LEG_GROUP1, expressNetwork, null, null, expressPass),
+        new FareLegRule(LEG_GROUP1, expressNetwork, null, OUTER_ZONE, singleToOuter),
+        new FareLegRule(LEG_GROUP1, null, INNER_ZONE, OUTER_ZONE, innerToOuterZoneSingle)
+      ),
+      List.of(),
+      Multimaps.forMap(
+        Map.of(INNER_ZONE_STOP.stop.getId(), INNER_ZONE, OUTER_ZONE_STOP.stop.getId(), OUTER_ZONE)
+      )
+    );
+
+    Itinerary expressToOuter = newItinerary(A, 0)
+      .walk(20, B)
+      .faresV2Rail(ID, 0, 50, OUTER_ZONE_STOP, expressNetwork)
+      .build();
+    Itinerary expressWithoutArea = newItinerary(A, 0)
+      .walk(20, B)
+      .faresV2Rail(ID + 1, 0, 50, C, expressNetwork)
+      .build();
+    Itinerary expressFromInnerToOuter = newItinerary(A, 0)
+      .walk(20, INNER_ZONE_STOP)
+      .faresV2Rail(ID + 2, 0, 50, OUTER_ZONE_STOP, expressNetwork)
+      .build();
+    Itinerary localFromInnerToOuter = newItinerary(A, 0)
+      .walk(20, INNER_ZONE_STOP)
+      .faresV2Rail(ID + 3, 0, 50, OUTER_ZONE_STOP, localNetwork)
+      .build();
+    Itinerary localToOuter = newItinerary(A, 0)
+      .walk(20, B)
+      .faresV2Rail(ID + 4, 0, 50, OUTER_ZONE_STOP, localNetwork)
+      .build();
+    Itinerary busWithoutNetwork = newItinerary(A, 0).walk(20, B).bus(ID + 5, 0, 50, C).build();
+
+    @Test
+    void matchingRules() {
+      assertEquals(Set.of(singleToOuter), service.getProducts(expressToOuter).itineraryProducts());
+      assertEquals(
+        Set.of(expressPass),
+        service.getProducts(expressWithoutArea).itineraryProducts()
+      );
+      // The rule with the network has no from area, and the rule with the areas has no network
+      assertEquals(Set.of(), service.getProducts(expressFromInnerToOuter).itineraryProducts());
+      assertEquals(
+        Set.of(innerToOuterZoneSingle),
+        service.getProducts(localFromInnerToOuter).itineraryProducts()
+      );
+      assertEquals(Set.of(), service.getProducts(localToOuter).itineraryProducts());
+      assertEquals(Set.of(single), service.getProducts(busWithoutNetwork).itineraryProducts());
+    }
+
+    @Test
+    void legCacheGivesTheSameProducts() {
+      // Each trip is used for one leg only. The last itineraries share their legs with each other
+      // and with the single leg itineraries.
+      var itineraries = List.of(
+        expressToOuter,
+        expressWithoutArea,
+        expressFromInnerToOuter,
+        localFromInnerToOuter,
+        localToOuter,
+        busWithoutNetwork,
+        newItinerary(A, 0)
+          .walk(20, B)
+          .faresV2Rail(ID + 1, 0, 50, C, expressNetwork)
+          .faresV2Rail(ID + 6, 55, 70, OUTER_ZONE_STOP, expressNetwork)
+          .build(),
+        newItinerary(A, 0)
+          .walk(20, B)
+          .faresV2Rail(ID + 1, 0, 50, C, expressNetwork)
+          .faresV2Rail(ID + 6, 55, 70, OUTER_ZONE_STOP, expressNetwork)
+          .bus(ID + 7, 75, 90, D)
+          .build()
+      );
+
+      var cached = service.withLegCache();
+      for (var it : itineraries) {
+        assertEquals(service.getProducts(it), cached.getProducts(it));
+      }
+      // Again, with the products of all the legs in the cache
+      for (var it : itineraries) {
+        assertEquals(service.getProducts(it), cached.getProducts(it));
+      }
+    }
+  }
+
   @Nested
   class Transfers {
 
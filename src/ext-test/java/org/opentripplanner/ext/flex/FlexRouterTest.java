@@ -0,0 +1,123 @@
+package org.opentripplanner.ext.flex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.TestOtpModel;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.standalone.config.sandbox.FlexConfig;
+import org.opentripplanner.street.model.vertex.StreetLocation;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.transit.model.site.AreaStop;
+import org.opentripplanner.transit.service.DefaultTransitService;
+
+class FlexRouterTest extends FlexTest {
+
+  private static TestOtpModel model;
+  private static ExecutorService threadPool;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeAll
+  static void setup() {
+    model = FlexTest.buildFlexGraph(COBB_FLEX_GTFS);
+    threadPool = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @AfterEach
+  void resetFeatures() {
+    OTPFeature.enableFeatures(
+      Map.of(OTPFeature.FlexRouting, false, OTPFeature.ParallelRouting, false)
+    );
+    Metrics.globalRegistry.remove(registry);
+  }
+
+  @Test
+  void parallelRoutingGivesTheSameAccessesAndEgresses() {
+    OTPFeature.enableFeatures(Map.of(OTPFeature.FlexRouting, true));
+    var accesses = toStrings(router(null).createFlexAccesses());
+    var egresses = toStrings(router(null).createFlexEgresses());
+    assertFalse(accesses.isEmpty());
+    assertFalse(egresses.isEmpty());
+
+    OTPFeature.enableFeatures(Map.of(OTPFeature.ParallelRouting, true));
+    assertEquals(accesses, toStrings(router(threadPool).createFlexAccesses()));
+    assertEquals(egresses, toStrings(router(threadPool).createFlexEgresses()));
+  }
+
+  @Test
+  void recordTheNumberOfTemplates() {
+    OTPFeature.enableFeatures(Map.of(OTPFeature.FlexRouting, true));
+    Metrics.globalRegistry.add(registry);
+
+    var accesses = router(null).createFlexAccesses();
+
+    var summary = registry.find("routing.flex.templates").tag("type", "access").summary();
+    assertEquals(1, summary.count());
+    assertFalse(accesses.isEmpty());
+    assertEquals(0, registry.find("routing.flex.templates").tag("type", "egress").meters().size());
+  }
+
+  private static FlexRouter router(ExecutorService threadPool) {
+    var stops = nearbyStops();
+    return new FlexRouter(
+      model.graph(),
+      new DefaultTransitService(model.transitModel()),
+      FlexConfig.DEFAULT,
+      threadPool,
+      OffsetDateTime.parse("2021-12-16T12:00:00-05:00").toInstant(),
+      false,
+      1,
+      1,
+      stops,
+      stops
+    );
+  }
+
+  /**
+   * A nearby stop for each flex zone, so each flex trip can be boarded and alighted.
+   */
+  private static List<NearbyStop> nearbyStops() {
+    return model
+      .transitModel()
+      .getStopModel()
+      .listAreaStops()
+      .stream()
+      .map(FlexRouterTest::nearbyStop)
+      .toList();
+  }
+
+  private static NearbyStop nearbyStop(AreaStop stop) {
+    var id = stop.getId().getId();
+    return new NearbyStop(
+      stop,
+      0,
+      List.of(),
+      new State(new StreetLocation(id, new Coordinate(0, 0), id), StreetSearchRequest.of().build())
+    );
+  }
+
+  private static List<String> toStrings(Collection<FlexAccessEgress> accessEgresses) {
+    return accessEgresses.stream().map(FlexAccessEgress::toString).sorted().toList();
+  }
+}
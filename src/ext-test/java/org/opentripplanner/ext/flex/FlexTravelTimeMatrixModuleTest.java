@@ -0,0 +1,160 @@
+package org.opentripplanner.ext.flex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.ext.flex.flexpathcalculator.FlexTravelTimeMatrix.UNREACHED;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCalculator;
+import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.ext.flex.trip.UnscheduledTrip;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.config.sandbox.FlexConfig;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.AreaStop;
+import org.opentripplanner.transit.service.TransitModel;
+
+class FlexTravelTimeMatrixModuleTest {
+
+  private static final AreaStop AREA_A = areaStop("A");
+  private static final AreaStop AREA_B = areaStop("B");
+
+  private final Graph graph = new Graph();
+  private final TransitModel transitModel = new TransitModel();
+
+  /**
+   * A1 and A2 are in area A, B1 and B2 in area B. A1, A2 and B1 are connected by streets, B2 can
+   * not be reached.
+   */
+  private final StreetVertex a1 = vertex("A1", 0.0, AREA_A);
+  private final StreetVertex a2 = vertex("A2", 0.01, AREA_A);
+  private final StreetVertex b1 = vertex("B1", 0.02, AREA_B);
+  private final StreetVertex b2 = vertex("B2", 0.03, AREA_B);
+  private final List<StreetVertex> vertices = List.of(a1, a2, b1, b2);
+
+  @BeforeEach
+  void setUp() {
+    streetEdge(a1, a2);
+    streetEdge(a2, a1);
+    streetEdge(a2, b1);
+    streetEdge(b1, a2);
+    graph.hasStreets = true;
+  }
+
+  @Test
+  void matrixHasTheStreetPathDurationsAndDistances() {
+    var trip = addTrip("T1");
+
+    new FlexTravelTimeMatrixModule(graph, transitModel).buildGraph();
+
+    var matrix = transitModel.getFlexTravelTimeMatrix(trip.getId());
+    assertNotNull(matrix);
+    assertEquals(vertices.size(), matrix.size());
+
+    var calculator = new StreetFlexPathCalculator(false, FlexConfig.DEFAULT.maxFlexTripDuration());
+    for (var from : vertices) {
+      for (var to : vertices) {
+        int i = matrix.index(from);
+        int j = matrix.index(to);
+        var path = calculator.calculateFlexPath(from, to, 0, 1);
+        if (path == null) {
+          assertEquals(UNREACHED, matrix.durationInSeconds(i, j), from + " -> " + to);
+          assertEquals(UNREACHED, matrix.distanceMeters(i, j), from + " -> " + to);
+        } else {
+          assertEquals(path.durationSeconds, matrix.durationInSeconds(i, j), from + " -> " + to);
+          assertEquals(path.distanceMeters, matrix.distanceMeters(i, j), from + " -> " + to);
+        }
+      }
+    }
+  }
+
+  @Test
+  void unreachedVerticesAreStoredAsUnreached() {
+    var trip = addTrip("T1");
+
+    new FlexTravelTimeMatrixModule(graph, transitModel).buildGraph();
+
+    var matrix = transitModel.getFlexTravelTimeMatrix(trip.getId());
+    assertEquals(UNREACHED, matrix.durationInSeconds(matrix.index(a1), matrix.index(b2)));
+    assertEquals(UNREACHED, matrix.distanceMeters(matrix.index(a1), matrix.index(b2)));
+    assertEquals(UNREACHED, matrix.durationInSeconds(matrix.index(b2), matrix.index(b1)));
+    assertEquals(UNREACHED, matrix.distanceMeters(matrix.index(b2), matrix.index(b1)));
+  }
+
+  @Test
+  void tripsServingTheSameStopsShareTheMatrix() {
+    var t1 = addTrip("T1");
+    var t2 = addTrip("T2");
+
+    new FlexTravelTimeMatrixModule(graph, transitModel).buildGraph();
+
+    assertNotNull(transitModel.getFlexTravelTimeMatrix(t1.getId()));
+    assertSame(
+      transitModel.getFlexTravelTimeMatrix(t1.getId()),
+      transitModel.getFlexTravelTimeMatrix(t2.getId())
+    );
+  }
+
+  @Test
+  void skipTripsWithTooManyVertices() {
+    var trip = addTrip("T1");
+
+    new FlexTravelTimeMatrixModule(graph, transitModel, vertices.size() - 1).buildGraph();
+
+    assertNull(transitModel.getFlexTravelTimeMatrix(trip.getId()));
+  }
+
+  private FlexTrip<?, ?> addTrip(String id) {
+    var trip = UnscheduledTrip
+      .of(id(id))
+      .withStopTimes(List.of(stopTime(AREA_A, 0), stopTime(AREA_B, 1)))
+      .build();
+    transitModel.addFlexTrip(trip.getId(), trip);
+    return trip;
+  }
+
+  private StreetVertex vertex(String label, double x, AreaStop areaStop) {
+    var vertex = intersectionVertex(label, x, 0.0);
+    vertex.areaStops = Set.of(areaStop);
+    graph.addVertex(vertex);
+    return vertex;
+  }
+
+  private static StopTime stopTime(AreaStop stop, int seq) {
+    var stopTime = new StopTime();
+    stopTime.setStop(stop);
+    stopTime.setStopSequence(seq);
+    stopTime.setFlexWindowStart(10 * 3600);
+    stopTime.setFlexWindowEnd(14 * 3600);
+    return stopTime;
+  }
+
+  private static AreaStop areaStop(String id) {
+    return TransitModelForTest.areaStopForTest(
+      id,
+      GeometryUtils
+        .getGeometryFactory()
+        .createPolygon(
+          new Coordinate[] {
+            new Coordinate(0, 0),
+            new Coordinate(1, 0),
+            new Coordinate(1, 1),
+            new Coordinate(0, 1),
+            new Coordinate(0, 0),
+          }
+        )
+    );
+  }
+}
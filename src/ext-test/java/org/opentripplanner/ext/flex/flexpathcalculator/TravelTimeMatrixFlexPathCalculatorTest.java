@@ -0,0 +1,87 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.ext.flex.flexpathcalculator.FlexTravelTimeMatrix.UNREACHED;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V1;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V2;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V3;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V4;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+
+class TravelTimeMatrixFlexPathCalculatorTest {
+
+  private static final LineString STREET_GEOMETRY = GeometryUtils
+    .getGeometryFactory()
+    .createLineString(
+      new Coordinate[] { new Coordinate(0, 0), new Coordinate(1, 0), new Coordinate(1, 1) }
+    );
+  private static final FlexPath DELEGATE_PATH = new FlexPath(1, 2, () -> STREET_GEOMETRY);
+
+  /**
+   * V1 -> V2 takes 300s, V2 -> V1 600s, V3 can not be reached from V1 and V2 -> V3 takes too long.
+   * V4 is not in the matrix.
+   */
+  private final FlexTravelTimeMatrix matrix = new FlexTravelTimeMatrix(
+    List.of(V1, V2, V3),
+    new int[] { 0, 300, UNREACHED, 600, 0, 2000, 100, 200, 0 },
+    new int[] { 0, 3000, UNREACHED, 5000, 0, 20000, 1000, 2000, 0 },
+    Duration.ofMinutes(45)
+  );
+
+  private final TravelTimeMatrixFlexPathCalculator subject = new TravelTimeMatrixFlexPathCalculator(
+    matrix,
+    Duration.ofMinutes(30),
+    (fromv, tov, fromStopIndex, toStopIndex) -> DELEGATE_PATH
+  );
+
+  @Test
+  void lookUpTravelTime() {
+    var path = subject.calculateFlexPath(V1, V2, 0, 1);
+    assertEquals(300, path.durationSeconds);
+    assertEquals(3000, path.distanceMeters);
+
+    path = subject.calculateFlexPath(V2, V1, 0, 1);
+    assertEquals(600, path.durationSeconds);
+    assertEquals(5000, path.distanceMeters);
+  }
+
+  @Test
+  void geometryIsFoundByTheDelegate() {
+    assertSame(STREET_GEOMETRY, subject.calculateFlexPath(V1, V2, 0, 1).getGeometry());
+  }
+
+  @Test
+  void noStraightLineWhenTheDelegateHasNoPath() {
+    var noStreetPath = new TravelTimeMatrixFlexPathCalculator(
+      matrix,
+      Duration.ofMinutes(30),
+      (fromv, tov, fromStopIndex, toStopIndex) -> null
+    );
+    var path = noStreetPath.calculateFlexPath(V1, V2, 0, 1);
+
+    assertEquals(300, path.durationSeconds);
+    assertThrows(IllegalStateException.class, path::getGeometry);
+  }
+
+  @Test
+  void notReached() {
+    assertNull(subject.calculateFlexPath(V1, V3, 0, 1));
+    // Longer than the max flex trip duration
+    assertNull(subject.calculateFlexPath(V2, V3, 0, 1));
+  }
+
+  @Test
+  void vertexNotInMatrix() {
+    assertSame(DELEGATE_PATH, subject.calculateFlexPath(V1, V4, 0, 1));
+    assertSame(DELEGATE_PATH, subject.calculateFlexPath(V4, V1, 0, 1));
+  }
+}
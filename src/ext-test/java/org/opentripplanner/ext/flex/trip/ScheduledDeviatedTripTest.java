@@ -135,6 +135,7 @@ public class ScheduledDeviatedTripTest extends FlexTest {
       graph,
       new DefaultTransitService(transitModel),
       FlexConfig.DEFAULT,
+      null,
       OffsetDateTime.parse("2021-11-12T10:15:24-05:00").toInstant(),
       false,
       1,
@@ -0,0 +1,173 @@
+package org.opentripplanner.ext.legacygraphqlapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
+import org.opentripplanner.routing.services.TransitAlertService;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+class LegacyGraphQLRequestCacheTest {
+
+  private static final RegularStop STOP_A = TransitModelForTest.stop("A").build();
+  private static final RegularStop STOP_B = TransitModelForTest.stop("B").build();
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2023, 6, 1);
+
+  private final TransitModel transitModel = new TransitModel(new StopModel(), new Deduplicator());
+  private final CountingTransitService transitService = new CountingTransitService(transitModel);
+  private final LegacyGraphQLRequestCache subject = new LegacyGraphQLRequestCache(transitService);
+
+  @Test
+  void stopTimesAreLookedUpOncePerStopAndArguments() {
+    var first = subject.stopTimesForStop(STOP_A, 0, 3600, 5, ArrivalDeparture.BOTH, true);
+    var second = subject.stopTimesForStop(STOP_A, 0, 3600, 5, ArrivalDeparture.BOTH, true);
+    assertSame(first, second);
+    assertEquals(1, transitService.stopTimesLookups);
+
+    subject.stopTimesForStop(STOP_A, 0, 3600, 10, ArrivalDeparture.BOTH, true);
+    subject.stopTimesForStop(STOP_B, 0, 3600, 5, ArrivalDeparture.BOTH, true);
+    assertEquals(3, transitService.stopTimesLookups);
+  }
+
+  @Test
+  void stopTimesOnDateAreLookedUpOncePerStopAndArguments() {
+    subject.stopTimesForStop(STOP_A, SERVICE_DATE, ArrivalDeparture.DEPARTURES, false);
+    subject.stopTimesForStop(STOP_A, SERVICE_DATE, ArrivalDeparture.DEPARTURES, false);
+    assertEquals(1, transitService.stopTimesLookups);
+
+    subject.stopTimesForStop(STOP_A, SERVICE_DATE.plusDays(1), ArrivalDeparture.DEPARTURES, false);
+    assertEquals(2, transitService.stopTimesLookups);
+  }
+
+  @Test
+  void timetableIsLookedUpOncePerPatternAndDate() {
+    var pattern = TransitModelForTest.pattern(TransitMode.BUS).build();
+
+    subject.getTimetableForTripPattern(pattern, SERVICE_DATE);
+    subject.getTimetableForTripPattern(pattern, SERVICE_DATE);
+    assertEquals(1, transitService.timetableLookups);
+
+    subject.getTimetableForTripPattern(pattern, SERVICE_DATE.plusDays(1));
+    assertEquals(2, transitService.timetableLookups);
+  }
+
+  @Test
+  void alertsAreIndexedByStopRouteAndTrip() {
+    var stopAndRoute = alert("a1", new EntitySelector.StopAndRoute(STOP_A.getId(), id("R1")));
+    var stopAndTrip = alert("a2", new EntitySelector.StopAndTrip(STOP_A.getId(), id("T1")));
+    transitService.alertService.setAlerts(List.of(stopAndRoute, stopAndTrip));
+
+    assertEquals(List.of(stopAndRoute), subject.getStopAndRouteAlertsByStop(STOP_A.getId()));
+    assertEquals(List.of(stopAndRoute), subject.getStopAndRouteAlertsByRoute(id("R1")));
+    assertEquals(List.of(stopAndTrip), subject.getStopAndTripAlertsByStop(STOP_A.getId()));
+    assertEquals(List.of(stopAndTrip), subject.getStopAndTripAlertsByTrip(id("T1")));
+    assertEquals(List.of(), subject.getStopAndRouteAlertsByStop(STOP_B.getId()));
+    assertEquals(List.of(), subject.getStopAndTripAlertsByTrip(id("T2")));
+  }
+
+  @Test
+  void ofReturnsTheCacheOfTheQuery() {
+    var environment = DataFetchingEnvironmentImpl
+      .newDataFetchingEnvironment()
+      .graphQLContext(GraphQLContext.of(Map.of(LegacyGraphQLRequestCache.class, subject)))
+      .build();
+
+    assertSame(subject, LegacyGraphQLRequestCache.of(environment));
+  }
+
+  @Test
+  void ofWithoutCacheInTheQueryContext() {
+    var environment = DataFetchingEnvironmentImpl
+      .newDataFetchingEnvironment()
+      .context(
+        new LegacyGraphQLRequestContext(null, transitService, null, null, null, null, null, null)
+      )
+      .graphQLContext(GraphQLContext.newContext().build())
+      .build();
+
+    var cache = LegacyGraphQLRequestCache.of(environment);
+    assertNotNull(cache);
+
+    cache.stopTimesForStop(STOP_A, 0, 3600, 5, ArrivalDeparture.BOTH, true);
+    assertEquals(1, transitService.stopTimesLookups);
+  }
+
+  private static TransitAlert alert(String id, EntitySelector entity) {
+    return TransitAlert
+      .of(id(id))
+      .withHeaderText(new NonLocalizedString(id))
+      .addEntity(entity)
+      .build();
+  }
+
+  private static class CountingTransitService extends DefaultTransitService {
+
+    private final TransitAlertServiceImpl alertService;
+    private int stopTimesLookups = 0;
+    private int timetableLookups = 0;
+
+    private CountingTransitService(TransitModel transitModel) {
+      super(transitModel);
+      this.alertService = new TransitAlertServiceImpl(transitModel);
+    }
+
+    @Override
+    public List<StopTimesInPattern> stopTimesForStop(
+      StopLocation stop,
+      Instant startTime,
+      Duration timeRange,
+      int numberOfDepartures,
+      ArrivalDeparture arrivalDeparture,
+      boolean includeCancelledTrips
+    ) {
+      ++stopTimesLookups;
+      return List.of();
+    }
+
+    @Override
+    public List<StopTimesInPattern> getStopTimesForStop(
+      StopLocation stop,
+      LocalDate serviceDate,
+      ArrivalDeparture arrivalDeparture,
+      boolean includeCancellations
+    ) {
+      ++stopTimesLookups;
+      return List.of();
+    }
+
+    @Override
+    public Timetable getTimetableForTripPattern(TripPattern tripPattern, LocalDate serviceDate) {
+      ++timetableLookups;
+      return tripPattern.getScheduledTimetable();
+    }
+
+    @Override
+    public TransitAlertService getTransitAlertService() {
+      return alertService;
+    }
+  }
+}
@@ -0,0 +1,262 @@
+package org.opentripplanner.ext.siri;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.ext.siri.SiriTimetableSnapshotSource.PARALLEL_MATCHING_THRESHOLD;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.calendar.CalendarServiceData;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.organization.Agency;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.transit.service.TransitService;
+import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+import org.opentripplanner.updater.spi.UpdateResult;
+import uk.org.siri.siri20.DataFrameRefStructure;
+import uk.org.siri.siri20.EstimatedCall;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
+import uk.org.siri.siri20.FramedVehicleJourneyRefStructure;
+import uk.org.siri.siri20.LineRef;
+import uk.org.siri.siri20.OperatorRefStructure;
+import uk.org.siri.siri20.StopPointRef;
+
+class SiriTimetableSnapshotSourceTest {
+
+  private static final Agency AGENCY = TransitModelForTest.AGENCY;
+  private static final ZoneId TIME_ZONE = AGENCY.getTimezone();
+  private static final String FEED_ID = TransitModelForTest.FEED_ID;
+
+  private static final RegularStop STOP_A = TransitModelForTest.stop("A").build();
+  private static final RegularStop STOP_B = TransitModelForTest.stop("B").build();
+  private static final RegularStop STOP_C = TransitModelForTest.stop("C").build();
+  private static final List<RegularStop> STOPS = List.of(STOP_A, STOP_B, STOP_C);
+
+  private static final Route ROUTE = TransitModelForTest
+    .route("ROUTE_ID")
+    .withAgency(AGENCY)
+    .build();
+
+  private static final FeedScopedId SERVICE_ID = TransitModelForTest.id("CAL_1");
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2023, 2, 17);
+
+  private static final String ADDED_TRIP_ID = "ADDED_TRIP";
+
+  private final TransitModel transitModel = new TransitModel(
+    StopModel.of().withRegularStop(STOP_A).withRegularStop(STOP_B).withRegularStop(STOP_C).build(),
+    new Deduplicator()
+  );
+  private final TripPattern pattern = TransitModelForTest
+    .tripPattern("PATTERN_ID", ROUTE)
+    .withStopPattern(TransitModelForTest.stopPattern(STOP_A, STOP_B, STOP_C))
+    .build();
+  private TransitService transitService;
+  private EntityResolver entityResolver;
+  private SiriTimetableSnapshotSource subject;
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < PARALLEL_MATCHING_THRESHOLD; ++i) {
+      pattern.add(scheduledTripTimes(i));
+    }
+    transitModel.addAgency(AGENCY);
+    transitModel.addTripPattern(pattern.getId(), pattern);
+
+    CalendarServiceData calendarServiceData = new CalendarServiceData();
+    calendarServiceData.putServiceDatesForServiceId(SERVICE_ID, List.of(SERVICE_DATE));
+    transitModel.getServiceCodes().put(SERVICE_ID, 0);
+    transitModel.updateCalendarServiceData(true, calendarServiceData, DataImportIssueStore.NOOP);
+    transitModel.index();
+
+    transitService = new DefaultTransitService(transitModel);
+    entityResolver = new EntityResolver(transitService, FEED_ID);
+
+    // Commit the buffer after each message
+    subject =
+      new SiriTimetableSnapshotSource(
+        TimetableSnapshotSourceParameters.DEFAULT
+          .withMaxSnapshotFrequency(Duration.ofMillis(-1))
+          .withPurgeExpiredData(false),
+        transitModel
+      );
+  }
+
+  @Test
+  void matchLargeMessagesInParallel() {
+    var journeys = IntStream
+      .range(0, PARALLEL_MATCHING_THRESHOLD)
+      .mapToObj(i -> updatedJourney(i, i % 5))
+      .toList();
+
+    var result = apply(journeys);
+
+    assertEquals(PARALLEL_MATCHING_THRESHOLD, result.successful());
+    assertEquals(0, result.failed());
+
+    var timetable = subject.getTimetableSnapshot().resolve(pattern, SERVICE_DATE);
+    for (int i = 0; i < PARALLEL_MATCHING_THRESHOLD; ++i) {
+      var tripTimes = timetable.getTripTimes(scheduledTrip(i));
+      assertEquals(60 * (i % 5), tripTimes.getDepartureDelay(0));
+      assertEquals(60 * (i % 5), tripTimes.getArrivalDelay(2));
+    }
+  }
+
+  @Test
+  void matchJourneysAfterAnAddedTripAgain() {
+    // The update of the added trip can only be matched after the trip is added
+    var journeys = new ArrayList<EstimatedVehicleJourney>();
+    journeys.add(addedJourney());
+    journeys.add(addedJourneyUpdate(2));
+    for (int i = 0; i < PARALLEL_MATCHING_THRESHOLD; ++i) {
+      journeys.add(updatedJourney(i, 1));
+    }
+
+    var result = apply(journeys);
+
+    assertEquals(journeys.size(), result.successful());
+    assertEquals(0, result.failed());
+
+    var addedTrip = transitService.getTripForId(TransitModelForTest.id(ADDED_TRIP_ID));
+    var addedTripTimes = subject
+      .getTimetableSnapshot()
+      .resolve(transitService.getPatternForTrip(addedTrip), SERVICE_DATE)
+      .getTripTimes(addedTrip);
+    assertEquals(120, addedTripTimes.getDepartureDelay(0));
+
+    var timetable = subject.getTimetableSnapshot().resolve(pattern, SERVICE_DATE);
+    assertEquals(60, timetable.getTripTimes(scheduledTrip(0)).getDepartureDelay(0));
+  }
+
+  private UpdateResult apply(List<EstimatedVehicleJourney> journeys) {
+    var frame = new EstimatedVersionFrameStructure();
+    frame.getEstimatedVehicleJourneies().addAll(journeys);
+    var delivery = new EstimatedTimetableDeliveryStructure();
+    delivery.getEstimatedJourneyVersionFrames().add(frame);
+    return subject.applyEstimatedTimetable(null, entityResolver, FEED_ID, false, List.of(delivery));
+  }
+
+  private Trip scheduledTrip(int i) {
+    return transitService.getTripForId(TransitModelForTest.id("TRIP_" + i));
+  }
+
+  /**
+   * Trip {@code i} departs from A at 10:00 plus {@code i} minutes, and arrives at C 20 minutes
+   * later.
+   */
+  private static TripTimes scheduledTripTimes(int i) {
+    var trip = trip(i);
+    var stopTimes = new ArrayList<StopTime>();
+    for (int stop = 0; stop < STOPS.size(); ++stop) {
+      var stopTime = new StopTime();
+      stopTime.setTrip(trip);
+      stopTime.setStop(STOPS.get(stop));
+      stopTime.setArrivalTime(secondsInDay(10, i + 10 * stop));
+      stopTime.setDepartureTime(secondsInDay(10, i + 10 * stop));
+      stopTime.setStopSequence(stop);
+      stopTimes.add(stopTime);
+    }
+    return new TripTimes(trip, stopTimes, new Deduplicator());
+  }
+
+  private static Trip trip(int i) {
+    return TransitModelForTest
+      .trip("TRIP_" + i)
+      .withRoute(ROUTE)
+      .withServiceId(SERVICE_ID)
+      .build();
+  }
+
+  /**
+   * A journey delaying scheduled trip {@code i} with the given number of minutes.
+   */
+  private static EstimatedVehicleJourney updatedJourney(int i, int delayMinutes) {
+    var dataFrameRef = new DataFrameRefStructure();
+    dataFrameRef.setValue(SERVICE_DATE.toString());
+    var framedVehicleJourneyRef = new FramedVehicleJourneyRefStructure();
+    framedVehicleJourneyRef.setDataFrameRef(dataFrameRef);
+    framedVehicleJourneyRef.setDatedVehicleJourneyRef("TRIP_" + i);
+
+    var journey = journey(i, delayMinutes);
+    journey.setFramedVehicleJourneyRef(framedVehicleJourneyRef);
+    return journey;
+  }
+
+  /**
+   * A journey adding a new trip, departing from A at 11:40.
+   */
+  private static EstimatedVehicleJourney addedJourney() {
+    var journey = addedJourneyUpdate(0);
+    journey.setExtraJourney(true);
+    var operatorRef = new OperatorRefStructure();
+    operatorRef.setValue("OPERATOR");
+    journey.setOperatorRef(operatorRef);
+    var lineRef = new LineRef();
+    lineRef.setValue(ROUTE.getId().getId());
+    journey.setLineRef(lineRef);
+    return journey;
+  }
+
+  /**
+   * A journey delaying the added trip with the given number of minutes.
+   */
+  private static EstimatedVehicleJourney addedJourneyUpdate(int delayMinutes) {
+    var journey = journey(100, delayMinutes);
+    journey.setEstimatedVehicleJourneyCode(ADDED_TRIP_ID);
+    return journey;
+  }
+
+  private static EstimatedVehicleJourney journey(int i, int delayMinutes) {
+    var calls = new EstimatedVehicleJourney.EstimatedCalls();
+    for (int stop = 0; stop < STOPS.size(); ++stop) {
+      var aimedTime = zonedDateTime(10, i + 10 * stop);
+      var expectedTime = aimedTime.plusMinutes(delayMinutes);
+      var stopPointRef = new StopPointRef();
+      stopPointRef.setValue(STOPS.get(stop).getId().getId());
+
+      var call = new EstimatedCall();
+      call.setStopPointRef(stopPointRef);
+      if (stop > 0) {
+        call.setAimedArrivalTime(aimedTime);
+        call.setExpectedArrivalTime(expectedTime);
+      }
+      if (stop < STOPS.size() - 1) {
+        call.setAimedDepartureTime(aimedTime);
+        call.setExpectedDepartureTime(expectedTime);
+      }
+      calls.getEstimatedCalls().add(call);
+    }
+
+    var journey = new EstimatedVehicleJourney();
+    journey.setMonitored(true);
+    journey.setEstimatedCalls(calls);
+    return journey;
+  }
+
+  private static ZonedDateTime zonedDateTime(int hour, int minute) {
+    return ZonedDateTime.of(SERVICE_DATE, LocalTime.of(hour, 0), TIME_ZONE).plusMinutes(minute);
+  }
+
+  private static int secondsInDay(int hours, int minutes) {
+    return (hours * 60 + minutes) * 60;
+  }
+}
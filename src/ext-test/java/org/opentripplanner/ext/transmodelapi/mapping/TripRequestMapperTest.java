@@ -23,12 +23,14 @@ import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.ext.transmodelapi.TransmodelRequestContext;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.preference.TimeSlopeSafetyTriangle;
 import org.opentripplanner.routing.core.BicycleOptimizeType;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
 import org.opentripplanner.service.vehiclepositions.internal.DefaultVehiclePositionService;
 import org.opentripplanner.service.vehiclerental.internal.DefaultVehicleRentalService;
 import org.opentripplanner.service.worldenvelope.internal.DefaultWorldEnvelopeRepository;
@@ -68,6 +70,8 @@ public class TripRequestMapperTest implements PlanTestConstants {
           RouterConfig.DEFAULT.transitTuningConfig(),
           defaultRequest,
           RaptorConfig.defaultConfigForTest(),
+          SearchContinuationCache.of(RouterConfig.DEFAULT.transitTuningConfig()),
+          RoutingRequestCoalescer.of(RouterConfig.DEFAULT.server()),
           graph,
           transitService,
           Metrics.globalRegistry,
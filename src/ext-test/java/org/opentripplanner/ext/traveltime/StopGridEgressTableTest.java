@@ -0,0 +1,77 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.ext.traveltime.geometry.SparseMatrixZSampleGrid;
+import org.opentripplanner.ext.traveltime.geometry.ZSampleGrid;
+
+class StopGridEgressTableTest {
+
+  private static final int MAX_TIME = 600;
+
+  /** The points reached directly from the search location */
+  private static final GridCells DIRECT = new GridCells(
+    new int[] { 0, 1 },
+    new int[] { 0, 0 },
+    new int[] { 100, 500 },
+    new int[] { 120, 600 },
+    new int[] { 10, 2 }
+  );
+
+  /** The points reached from a stop */
+  private static final GridCells STOP = new GridCells(
+    new int[] { 1, 2, 3 },
+    new int[] { 0, 1, 1 },
+    new int[] { 30, 60, 400 },
+    new int[] { 40, 80, 500 },
+    new int[] { 5, 30, 40 }
+  );
+
+  private final ZSampleGrid<WTWD> sampleGrid = new SparseMatrixZSampleGrid<>(
+    16,
+    10,
+    0.01,
+    0.01,
+    new Coordinate(10.0, 60.0)
+  );
+
+  @Test
+  void reduce() {
+    StopGridEgressTable.reduce(sampleGrid, List.of(DIRECT, STOP), new int[] { 0, 300 }, MAX_TIME);
+
+    assertEquals(3, sampleGrid.size());
+    assertSample(0, 0, 100, 120, 10);
+    // The stop gives the shortest time, but the direct search gives the shortest off-road distance
+    assertSample(1, 0, 330, 40, 2);
+    assertSample(2, 1, 360, 80, 30);
+    // Not reached within the max time
+    assertNull(getZ(3, 1));
+    assertNull(getZ(1, 1));
+  }
+
+  @Test
+  void reduceNothingReached() {
+    StopGridEgressTable.reduce(sampleGrid, List.of(GridCells.EMPTY), new int[] { 0 }, MAX_TIME);
+    assertEquals(0, sampleGrid.size());
+  }
+
+  private void assertSample(int x, int y, int time, int walkDistance, int offRoadDistance) {
+    WTWD z = getZ(x, y);
+    assertEquals(time, z.wTime / z.w);
+    assertEquals(walkDistance, z.wWalkDist / z.w);
+    assertEquals(offRoadDistance, z.d);
+  }
+
+  private WTWD getZ(int x, int y) {
+    for (var it : sampleGrid) {
+      if (it.getX() == x && it.getY() == y) {
+        return it.getZ();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,103 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.ext.traveltime.matrix.TravelTimeCollector.UNREACHED;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+class TravelTimeCollectorTest {
+
+  private static final int STOP_A = 1;
+  private static final int STOP_B = 4;
+  private static final int STOP_C = 7;
+
+  /**
+   * Destination 0 is 60s from stop A and 120s from stop B, destination 1 is 30s from stop B and
+   * destination 2 is only close to stop C.
+   */
+  private final EgressTable egressTable = EgressTable.create(
+    List.of(
+      List.of(walk(STOP_A, 60), walk(STOP_B, 120)),
+      List.of(walk(STOP_B, 30)),
+      List.of(walk(STOP_C, 10))
+    )
+  );
+
+  @Test
+  void egressTable() {
+    assertEquals(3, egressTable.numberOfStops());
+
+    assertEquals(STOP_A, egressTable.stop(0));
+    assertEquals(0, egressTable.startIndex(0));
+    assertEquals(1, egressTable.endIndex(0));
+    assertEquals(0, egressTable.destination(0));
+    assertEquals(60, egressTable.durationInSeconds(0));
+
+    assertEquals(STOP_B, egressTable.stop(1));
+    assertEquals(1, egressTable.startIndex(1));
+    assertEquals(3, egressTable.endIndex(1));
+    assertEquals(0, egressTable.destination(1));
+    assertEquals(120, egressTable.durationInSeconds(1));
+    assertEquals(1, egressTable.destination(2));
+    assertEquals(30, egressTable.durationInSeconds(2));
+
+    assertEquals(STOP_C, egressTable.stop(2));
+    assertEquals(4, egressTable.endIndex(2));
+  }
+
+  @Test
+  void travelTimePercentiles() {
+    var subject = new TravelTimeCollector(egressTable, 3, 1000);
+
+    // Iterations are done from the latest to the earliest departure time
+    subject.iterationComplete(300, arrivals(Map.of(STOP_A, 700, STOP_B, 500)));
+    subject.iterationComplete(200, arrivals(Map.of(STOP_A, 400, STOP_B, 500)));
+    subject.iterationComplete(100, arrivals(Map.of(STOP_A, 400, STOP_B, 1200)));
+    subject.iterationComplete(0, arrivals(Map.of()));
+
+    // Destination 0: 320, 260, 360 and unreached
+    // Destination 1: 230, 330, unreached (over max travel time) and unreached
+    assertArrayEquals(
+      new int[] { 260, 320, 360, 230, 330, UNREACHED, UNREACHED, UNREACHED, UNREACHED },
+      subject.percentiles(new int[] { 0, 50, 75 })
+    );
+  }
+
+  @Test
+  void rank() {
+    assertEquals(0, TravelTimeCollector.rank(0, 10));
+    assertEquals(0, TravelTimeCollector.rank(10, 10));
+    assertEquals(4, TravelTimeCollector.rank(50, 10));
+    assertEquals(5, TravelTimeCollector.rank(51, 10));
+    assertEquals(9, TravelTimeCollector.rank(100, 10));
+  }
+
+  private static StopArrivals arrivals(Map<Integer, Integer> arrivalTimes) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return arrivalTimes.containsKey(stopIndex);
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return arrivalTimes.get(stopIndex);
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -0,0 +1,47 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.ext.traveltime.matrix.TravelTimeMatrix.validate;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeMatrixTest {
+
+  private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+  @Test
+  void validRequest() {
+    assertNull(validate(1000, 1000, ONE_HOUR, ONE_HOUR));
+    assertNull(
+      validate(1, 1000, TravelTimeMatrix.MAX_DEPARTURE_WINDOW, TravelTimeMatrix.MAX_TRAVEL_TIME)
+    );
+    assertNull(validate(1, 1000, Duration.ZERO, Duration.ZERO));
+  }
+
+  @Test
+  void tooManyOriginDestinationPairs() {
+    assertNotNull(validate(1001, 1000, ONE_HOUR, ONE_HOUR));
+  }
+
+  @Test
+  void departureWindowOutOfRange() {
+    assertNotNull(validate(1, 1, Duration.ofSeconds(-1), ONE_HOUR));
+    assertNotNull(validate(1, 1, TravelTimeMatrix.MAX_DEPARTURE_WINDOW.plusSeconds(1), ONE_HOUR));
+  }
+
+  @Test
+  void maxTravelTimeOutOfRange() {
+    assertNotNull(validate(1, 1, ONE_HOUR, Duration.ofSeconds(-1)));
+    assertNotNull(validate(1, 1, ONE_HOUR, TravelTimeMatrix.MAX_TRAVEL_TIME.plusSeconds(1)));
+  }
+
+  @Test
+  void tooManyTravelTimesPerOrigin() {
+    // 241 departure minutes
+    var window = Duration.ofHours(4);
+    assertNull(validate(1, 41_000, window, ONE_HOUR));
+    assertNotNull(validate(1, 42_000, window, ONE_HOUR));
+  }
+}
@@ -0,0 +1,56 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeMatrixWriterTest {
+
+  private static final MatrixPoint O1 = new MatrixPoint("O1", 60.0, 10.0);
+  private static final MatrixPoint D1 = new MatrixPoint("D1", 60.1, 10.0);
+  private static final MatrixPoint D2 = new MatrixPoint("D2", 60.2, 10.0);
+  private static final int[] PERCENTILES = { 50, 90 };
+  private static final int[] TRAVEL_TIMES = { 600, 900, -1, -1 };
+
+  @Test
+  void csv() throws IOException {
+    var out = new ByteArrayOutputStream();
+    var subject = TravelTimeMatrixWriter.csv(out, List.of(D1, D2), PERCENTILES);
+
+    subject.writeHeader(1);
+    subject.writeOrigin(O1, TRAVEL_TIMES);
+    subject.flush();
+
+    assertEquals(
+      "origin,destination,p50,p90\nO1,D1,600,900\n",
+      out.toString(StandardCharsets.UTF_8)
+    );
+  }
+
+  @Test
+  void binary() throws IOException {
+    var out = new ByteArrayOutputStream();
+    var subject = TravelTimeMatrixWriter.binary(out, List.of(D1, D2), PERCENTILES);
+
+    subject.writeHeader(1);
+    subject.writeOrigin(O1, TRAVEL_TIMES);
+    subject.flush();
+
+    var in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(1, in.readInt());
+    assertEquals(2, in.readInt());
+    assertEquals(2, in.readInt());
+    assertEquals(50, in.readInt());
+    assertEquals(90, in.readInt());
+    for (int travelTime : TRAVEL_TIMES) {
+      assertEquals(travelTime, in.readInt());
+    }
+    assertEquals(-1, in.read());
+  }
+}
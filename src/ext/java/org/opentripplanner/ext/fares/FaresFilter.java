@@ -7,15 +7,17 @@ import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilter;
 import org.opentripplanner.routing.fares.FareService;
 
 /**
- * Computes the fares of an itinerary and adds them.
+ * Computes the fares of an itinerary and adds them. The results for a leg are reused for the other
+ * itineraries with the same leg, see {@link FareService#withLegCache()}.
  */
 public record FaresFilter(FareService fareService) implements ItineraryListFilter {
   @Override
   public List<Itinerary> filter(List<Itinerary> itineraries) {
+    var service = fareService.withLegCache();
     return itineraries
       .stream()
       .peek(i -> {
-        var fare = fareService.calculateFares(i);
+        var fare = service.calculateFares(i);
         if (Objects.nonNull(fare)) {
           i.setFare(fare);
           FaresToItineraryMapper.addFaresToLegs(fare, i);
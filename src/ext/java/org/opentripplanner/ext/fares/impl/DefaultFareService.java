@@ -75,12 +75,33 @@ public class DefaultFareService implements FareService {
   /** For each fare type (regular, student, etc...) the collection of rules that apply. */
   protected Map<FareType, Collection<FareRuleSet>> fareRulesPerType;
 
+  private final Map<FareType, FareRuleSetIndex> fareRuleIndexPerType;
+
+  /**
+   * The best fare for the ride sequences already searched, only used in the copies returned by
+   * {@link #withLegCache()}.
+   */
+  private transient Map<RideSequenceKey, Optional<FareAndId>> bestFareCache = null;
+
   public DefaultFareService() {
     fareRulesPerType = new HashMap<>();
+    fareRuleIndexPerType = new HashMap<>();
+  }
+
+  /**
+   * Create a copy sharing the fare rules of the given service, which keeps the best fare of each
+   * ride sequence it searches. Used by {@link #copyWithLegCache()}.
+   */
+  protected DefaultFareService(DefaultFareService original) {
+    this.fareRulesPerType = original.fareRulesPerType;
+    this.fareRuleIndexPerType = original.fareRuleIndexPerType;
+    this.bestFareCache = new HashMap<>();
   }
 
   public void addFareRules(FareType fareType, Collection<FareRuleSet> fareRules) {
-    fareRulesPerType.put(fareType, new ArrayList<>(fareRules));
+    var rules = new ArrayList<>(fareRules);
+    fareRulesPerType.put(fareType, rules);
+    fareRuleIndexPerType.put(fareType, new FareRuleSetIndex(rules));
   }
 
   public Map<FareType, Collection<FareRuleSet>> getFareRulesPerType() {
@@ -119,6 +140,27 @@ public class DefaultFareService implements FareService {
     return hasFare ? fare : null;
   }
 
+  /**
+   * Return a copy of this service, which keeps the best fare of each ride sequence it searches.
+   * The rides of an itinerary are often part of the other itineraries of the same response. If
+   * the service can not be copied, see {@link #copyWithLegCache()}, this service is returned.
+   */
+  @Override
+  public DefaultFareService withLegCache() {
+    var copy = copyWithLegCache();
+    return copy == null ? this : copy;
+  }
+
+  /**
+   * Create the copy returned by {@link #withLegCache()}, using the copy constructor. Subclasses
+   * have their own state and fare logic, so they are not copied unless they override this and copy
+   * their own fields.
+   */
+  @Nullable
+  protected DefaultFareService copyWithLegCache() {
+    return getClass() == DefaultFareService.class ? new DefaultFareService(this) : null;
+  }
+
   /**
    * Builds the Fare object for the given currency, fareType and fareRules.
    * <p>
@@ -229,7 +271,7 @@ public class DefaultFareService implements FareService {
     Duration journeyTime = Duration.between(startTime, lastRideEndTime);
 
     // find the best fare that matches this set of rides
-    for (FareRuleSet ruleSet : fareRules) {
+    for (FareRuleSet ruleSet : candidateRules(fareType, fareRules, feedId, routes, trips, zones)) {
       FareAttribute attribute = ruleSet.getFareAttribute();
       // fares also don't really have an agency id, they will have the per-feed default id
       // check only if the fare is not mapped to an agency
@@ -261,6 +303,25 @@ public class DefaultFareService implements FareService {
       .map(attribute -> new FareAndId(finalBestFare, attribute.getId()));
   }
 
+  /**
+   * Use the index to find the rule sets which may match the rides, if the rule sets are all the
+   * rule sets of the fare type.
+   */
+  private Collection<FareRuleSet> candidateRules(
+    FareType fareType,
+    Collection<FareRuleSet> fareRules,
+    String feedId,
+    Set<FeedScopedId> routes,
+    Set<FeedScopedId> trips,
+    Set<String> zones
+  ) {
+    var index = fareRuleIndexPerType.get(fareType);
+    if (index == null || !index.isIndexOf(fareRules)) {
+      return fareRules;
+    }
+    return index.candidates(feedId, routes, trips, zones);
+  }
+
   protected Money getFarePrice(FareAttribute fare, FareType type) {
     var currency = Currency.getInstance(fare.getCurrencyType());
     return switch (type) {
@@ -332,7 +393,7 @@ public class DefaultFareService implements FareService {
     for (int i = 0; i < rides.size(); i++) {
       // each diagonal
       for (int j = 0; j < rides.size() - i; j++) {
-        Optional<FareAndId> best = getBestFareAndId(
+        Optional<FareAndId> best = cachedBestFareAndId(
           fareType,
           rides.subList(j, j + i + 1),
           fareRules
@@ -362,4 +423,36 @@ public class DefaultFareService implements FareService {
     }
     return r;
   }
+
+  private Optional<FareAndId> cachedBestFareAndId(
+    FareType fareType,
+    List<Leg> rides,
+    Collection<FareRuleSet> fareRules
+  ) {
+    // Only the results for all the rule sets of the fare type are kept
+    var key = bestFareCache == null || fareRules != fareRulesPerType.get(fareType)
+      ? null
+      : RideSequenceKey.of(fareType, rides);
+    if (key == null) {
+      return getBestFareAndId(fareType, rides, fareRules);
+    }
+    return bestFareCache.computeIfAbsent(key, k -> getBestFareAndId(fareType, rides, fareRules));
+  }
+
+  private record RideSequenceKey(FareType fareType, List<LegKey> rides) {
+    /**
+     * Return the key of the rides, or {@code null} if one of them is not a scheduled transit leg.
+     */
+    static RideSequenceKey of(FareType fareType, List<Leg> rides) {
+      var keys = new ArrayList<LegKey>(rides.size());
+      for (var ride : rides) {
+        var key = LegKey.of(ride);
+        if (key == null) {
+          return null;
+        }
+        keys.add(key);
+      }
+      return new RideSequenceKey(fareType, keys);
+    }
+  }
 }
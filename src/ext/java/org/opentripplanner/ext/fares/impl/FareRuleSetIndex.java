@@ -0,0 +1,124 @@
+package org.opentripplanner.ext.fares.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.ext.fares.model.FareRuleSet;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Index the fare rule sets of a fare type by feed, route, trip and contained zones, to find the
+ * rule sets which may match a sequence of rides without checking all of them. Each rule set is
+ * represented by its position in the list of rule sets, and the candidates are returned in the
+ * same order as in the list.
+ * <p>
+ * The rule sets must not be changed after the index is created.
+ */
+class FareRuleSetIndex implements Serializable {
+
+  private final List<FareRuleSet> fareRules;
+  private final Map<String, BitSet> rulesByFeedId = new HashMap<>();
+  private final BitSet rulesWithoutRoutes = new BitSet();
+  private final Map<FeedScopedId, BitSet> rulesByRoute = new HashMap<>();
+  private final BitSet rulesWithoutTrips = new BitSet();
+  private final Map<FeedScopedId, BitSet> rulesByTrip = new HashMap<>();
+  private final BitSet rulesWithoutContains = new BitSet();
+  private final Map<Set<String>, BitSet> rulesByContains = new HashMap<>();
+
+  FareRuleSetIndex(List<FareRuleSet> fareRules) {
+    this.fareRules = fareRules;
+
+    for (int i = 0; i < fareRules.size(); ++i) {
+      var ruleSet = fareRules.get(i);
+      var feedId = ruleSet.getFareAttribute().getId().getFeedId();
+      rulesByFeedId.computeIfAbsent(feedId, it -> new BitSet()).set(i);
+      add(i, ruleSet.getRoutes(), rulesWithoutRoutes, rulesByRoute);
+      add(i, ruleSet.getTrips(), rulesWithoutTrips, rulesByTrip);
+      if (ruleSet.getContains().isEmpty()) {
+        rulesWithoutContains.set(i);
+      } else {
+        rulesByContains.computeIfAbsent(ruleSet.getContains(), it -> new BitSet()).set(i);
+      }
+    }
+  }
+
+  /**
+   * Is this the index of the given rule sets.
+   */
+  boolean isIndexOf(Collection<FareRuleSet> fareRules) {
+    return this.fareRules == fareRules;
+  }
+
+  /**
+   * Find the rule sets of the feed which may match rides on the given routes and trips, visiting
+   * the given zones. The rule sets must still be matched with {@link FareRuleSet#matches}, the
+   * index does not check the origin and destination, transfers or durations.
+   */
+  List<FareRuleSet> candidates(
+    String feedId,
+    Set<FeedScopedId> routes,
+    Set<FeedScopedId> trips,
+    Set<String> zones
+  ) {
+    var feedRules = rulesByFeedId.get(feedId);
+    if (feedRules == null) {
+      return List.of();
+    }
+    BitSet candidates = (BitSet) feedRules.clone();
+    candidates.and(containingAll(rulesWithoutRoutes, rulesByRoute, routes));
+    candidates.and(containingAll(rulesWithoutTrips, rulesByTrip, trips));
+
+    BitSet containsRules = (BitSet) rulesWithoutContains.clone();
+    var rulesContainingZones = rulesByContains.get(zones);
+    if (rulesContainingZones != null) {
+      containsRules.or(rulesContainingZones);
+    }
+    candidates.and(containsRules);
+
+    List<FareRuleSet> result = new ArrayList<>(candidates.cardinality());
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      result.add(fareRules.get(i));
+    }
+    return result;
+  }
+
+  private static <T> void add(int index, Set<T> values, BitSet withoutValues, Map<T, BitSet> map) {
+    if (values.isEmpty()) {
+      withoutValues.set(index);
+    } else {
+      values.forEach(value -> map.computeIfAbsent(value, it -> new BitSet()).set(index));
+    }
+  }
+
+  /**
+   * The rule sets without any values, and the rule sets which contain all the given values.
+   */
+  private <T> BitSet containingAll(BitSet withoutValues, Map<T, BitSet> map, Set<T> values) {
+    BitSet result = null;
+    for (T value : values) {
+      var rules = map.get(value);
+      if (rules == null) {
+        result = new BitSet();
+        break;
+      }
+      if (result == null) {
+        result = (BitSet) rules.clone();
+      } else {
+        result.and(rules);
+      }
+    }
+    if (result == null) {
+      // All rule sets contain the empty set
+      result = new BitSet();
+      result.set(0, fareRules.size());
+      return result;
+    }
+    result.or(withoutValues);
+    return result;
+  }
+}
@@ -22,6 +22,12 @@ public record GtfsFaresService(DefaultFareService faresV1, GtfsFaresV2Service fa
     }
     return fare;
   }
+
+  @Override
+  public FareService withLegCache() {
+    return new GtfsFaresService(faresV1.withLegCache(), faresV2.withLegCache());
+  }
+
   /**
    * Add a complex set of fare products for a specific leg;
    */
@@ -6,8 +6,11 @@ import static java.util.Objects.nonNull;
 import com.google.common.collect.Multimap;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +39,15 @@ public final class GtfsFaresV2Service implements Serializable {
   private final Set<String> networksWithRules;
   private final Set<String> fromAreasWithRules;
   private final Set<String> toAreasWithRules;
+  private final Map<LegRuleKey, List<FareLegRule>> legRulesByKey;
+  private final Map<String, FareLegRule> legRuleByGroupId;
+  private final Map<String, List<FareTransferRule>> transferRulesByFeedId;
+
+  /**
+   * The products of the legs already seen, only used in the copies returned by
+   * {@link #withLegCache()}.
+   */
+  private final transient Map<LegAndNextLeg, Set<LegProducts.ProductWithTransfer>> productsCache;
 
   public GtfsFaresV2Service(
     List<FareLegRule> legRules,
@@ -48,6 +60,37 @@ public final class GtfsFaresV2Service implements Serializable {
     this.fromAreasWithRules = findAreasWithRules(legRules, FareLegRule::fromAreaId);
     this.toAreasWithRules = findAreasWithRules(legRules, FareLegRule::toAreadId);
     this.stopAreas = stopAreas;
+    this.legRulesByKey = legRules.stream().collect(Collectors.groupingBy(LegRuleKey::of));
+    this.legRuleByGroupId = new HashMap<>();
+    legRules
+      .stream()
+      .filter(r -> nonNull(r.legGroupId()))
+      .forEach(r -> legRuleByGroupId.putIfAbsent(r.legGroupId(), r));
+    this.transferRulesByFeedId =
+      fareTransferRules.stream().collect(Collectors.groupingBy(FareTransferRule::feedId));
+    this.productsCache = null;
+  }
+
+  private GtfsFaresV2Service(GtfsFaresV2Service original) {
+    this.legRules = original.legRules;
+    this.transferRules = original.transferRules;
+    this.networksWithRules = original.networksWithRules;
+    this.fromAreasWithRules = original.fromAreasWithRules;
+    this.toAreasWithRules = original.toAreasWithRules;
+    this.stopAreas = original.stopAreas;
+    this.legRulesByKey = original.legRulesByKey;
+    this.legRuleByGroupId = original.legRuleByGroupId;
+    this.transferRulesByFeedId = original.transferRulesByFeedId;
+    this.productsCache = new HashMap<>();
+  }
+
+  /**
+   * Return a copy of this service, which keeps the products of each leg it has seen. The legs of
+   * an itinerary are often part of the other itineraries of the same response. The copy is not
+   * thread-safe.
+   */
+  public GtfsFaresV2Service withLegCache() {
+    return new GtfsFaresV2Service(this);
   }
 
   public ProductResult getProducts(Itinerary itinerary) {
@@ -161,15 +204,27 @@ public final class GtfsFaresV2Service implements Serializable {
     ScheduledTransitLeg leg,
     Optional<ScheduledTransitLeg> nextLeg
   ) {
-    var legRules =
-      this.legRules.stream().filter(r -> legMatchesRule(leg, r)).collect(Collectors.toSet());
+    var products = productsCache == null
+      ? findProducts(leg, nextLeg)
+      : productsCache.computeIfAbsent(
+        LegAndNextLeg.of(leg, nextLeg),
+        k -> findProducts(leg, nextLeg)
+      );
+    return new LegProducts(leg, nextLeg, products);
+  }
+
+  private Set<LegProducts.ProductWithTransfer> findProducts(
+    ScheduledTransitLeg leg,
+    Optional<ScheduledTransitLeg> nextLeg
+  ) {
+    var legRules = findLegRules(leg);
 
-    var transferRulesForLeg = transferRules
-      .stream()
-      .filter(t -> t.feedId().equals(leg.getAgency().getId().getFeedId()))
-      .toList();
+    var transferRulesForLeg = transferRulesByFeedId.getOrDefault(
+      leg.getAgency().getId().getFeedId(),
+      List.of()
+    );
 
-    var products = legRules
+    return legRules
       .stream()
       .map(rule -> {
         var transferRulesToNextLeg = transferRulesForLeg
@@ -181,8 +236,42 @@ public final class GtfsFaresV2Service implements Serializable {
         return new LegProducts.ProductWithTransfer(rule, transferRulesToNextLeg);
       })
       .collect(Collectors.toSet());
+  }
 
-    return new LegProducts(leg, nextLeg, products);
+  /**
+   * Find the rules matching the leg, see {@link #legMatchesRule(ScheduledTransitLeg, FareLegRule)}.
+   * A rule without a network or area only applies if no other rule covers the networks or areas
+   * of the leg, so only the rules indexed with a network or area of the leg are checked, or the
+   * rules without a network or area if there are none.
+   */
+  private Set<FareLegRule> findLegRules(ScheduledTransitLeg leg) {
+    var feedId = leg.getAgency().getId().getFeedId();
+    var networkIds = keysWithRules(routeNetworkIds(leg), networksWithRules);
+    var fromAreaIds = keysWithRules(stopAreas.get(leg.getFrom().stop.getId()), fromAreasWithRules);
+    var toAreaIds = keysWithRules(stopAreas.get(leg.getTo().stop.getId()), toAreasWithRules);
+
+    var result = new HashSet<FareLegRule>();
+    for (var networkId : networkIds) {
+      for (var fromAreaId : fromAreaIds) {
+        for (var toAreaId : toAreaIds) {
+          var key = new LegRuleKey(feedId, networkId, fromAreaId, toAreaId);
+          for (var rule : legRulesByKey.getOrDefault(key, List.of())) {
+            if (matchesDistance(leg, rule)) {
+              result.add(rule);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The values which have rules, or a single {@code null} value if none of them have rules.
+   */
+  private static List<String> keysWithRules(Collection<String> values, Set<String> withRules) {
+    var keys = values.stream().filter(withRules::contains).distinct().toList();
+    return keys.isEmpty() ? Collections.singletonList(null) : keys;
   }
 
   private static boolean checkForWildcards(FareTransferRule t) {
@@ -208,7 +297,7 @@ public final class GtfsFaresV2Service implements Serializable {
   }
 
   private Optional<FareLegRule> getFareLegRuleByGroupId(@Nonnull String groupId) {
-    return legRules.stream().filter(lr -> groupId.equals(lr.legGroupId())).findAny();
+    return Optional.ofNullable(legRuleByGroupId.get(groupId));
   }
 
   private boolean matchesArea(StopLocation stop, String areaId, Set<String> areasWithRules) {
@@ -224,13 +313,7 @@ public final class GtfsFaresV2Service implements Serializable {
    * depends on the presence/absence of other rules with that network id.
    */
   private boolean matchesNetworkId(ScheduledTransitLeg leg, FareLegRule rule) {
-    var routesNetworkIds = leg
-      .getRoute()
-      .getGroupsOfRoutes()
-      .stream()
-      .map(group -> group.getId().getId())
-      .filter(Objects::nonNull)
-      .toList();
+    var routesNetworkIds = routeNetworkIds(leg);
 
     return (
       (
@@ -240,6 +323,16 @@ public final class GtfsFaresV2Service implements Serializable {
     );
   }
 
+  private static List<String> routeNetworkIds(ScheduledTransitLeg leg) {
+    return leg
+      .getRoute()
+      .getGroupsOfRoutes()
+      .stream()
+      .map(group -> group.getId().getId())
+      .filter(Objects::nonNull)
+      .toList();
+  }
+
   private boolean matchesDistance(ScheduledTransitLeg leg, FareLegRule rule) {
     // If no valid distance type is given, do not consider distances in fare computation
 
@@ -256,6 +349,18 @@ public final class GtfsFaresV2Service implements Serializable {
     } else return true;
   }
 
+  private record LegRuleKey(String feedId, String networkId, String fromAreaId, String toAreaId) {
+    static LegRuleKey of(FareLegRule rule) {
+      return new LegRuleKey(rule.feedId(), rule.networkId(), rule.fromAreaId(), rule.toAreadId());
+    }
+  }
+
+  private record LegAndNextLeg(LegKey leg, LegKey nextLeg) {
+    static LegAndNextLeg of(ScheduledTransitLeg leg, Optional<ScheduledTransitLeg> nextLeg) {
+      return new LegAndNextLeg(LegKey.of(leg), nextLeg.map(LegKey::of).orElse(null));
+    }
+  }
+
   /**
    * @param itineraryProducts The fare products that cover the entire itinerary, like a daily pass.
    * @param legProducts       The fare products that cover only individual legs.
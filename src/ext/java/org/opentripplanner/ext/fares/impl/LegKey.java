@@ -0,0 +1,47 @@
+package org.opentripplanner.ext.fares.impl;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.plan.Leg;
+import org.opentripplanner.model.plan.ScheduledTransitLeg;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Identifies a scheduled transit leg of an itinerary. Legs of different itineraries in the same
+ * response with the same key ride the same part of the same trip, and have the same fares. The
+ * route and stops are part of the key, so legs of different routes or between different stops
+ * never share fares, even if their trip id and stop positions are equal.
+ */
+record LegKey(
+  FeedScopedId tripId,
+  FeedScopedId routeId,
+  LocalDate serviceDate,
+  FeedScopedId fromStopId,
+  FeedScopedId toStopId,
+  int boardStopPosInPattern,
+  int alightStopPosInPattern,
+  ZonedDateTime startTime,
+  ZonedDateTime endTime
+) {
+  /**
+   * Return the key of the leg, or {@code null} if the leg is not a scheduled transit leg.
+   */
+  @Nullable
+  static LegKey of(Leg leg) {
+    if (!(leg instanceof ScheduledTransitLeg)) {
+      return null;
+    }
+    return new LegKey(
+      leg.getTrip().getId(),
+      leg.getRoute().getId(),
+      leg.getServiceDate(),
+      leg.getFrom().stop.getId(),
+      leg.getTo().stop.getId(),
+      leg.getBoardStopPosInPattern(),
+      leg.getAlightStopPosInPattern(),
+      leg.getStartTime(),
+      leg.getEndTime()
+    );
+  }
+}
@@ -6,6 +6,8 @@ import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexTravelTimeMatrix;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -24,6 +26,8 @@ public class FlexIndex {
 
   private final Map<FeedScopedId, FlexTrip<?, ?>> tripById = new HashMap<>();
 
+  private final Map<FeedScopedId, FlexTravelTimeMatrix> travelTimeMatrixByTripId = new HashMap<>();
+
   public FlexIndex(TransitModel transitModel) {
     for (PathTransfer transfer : transitModel.getAllPathTransfers()) {
       transfersToStop.put(transfer.to, transfer);
@@ -31,6 +35,10 @@ public class FlexIndex {
     for (FlexTrip<?, ?> flexTrip : transitModel.getAllFlexTrips()) {
       routeById.put(flexTrip.getTrip().getRoute().getId(), flexTrip.getTrip().getRoute());
       tripById.put(flexTrip.getTrip().getId(), flexTrip);
+      var matrix = transitModel.getFlexTravelTimeMatrix(flexTrip.getId());
+      if (matrix != null) {
+        travelTimeMatrixByTripId.put(flexTrip.getId(), matrix);
+      }
       for (StopLocation stop : flexTrip.getStops()) {
         if (stop instanceof GroupStop groupStop) {
           for (StopLocation stopElement : groupStop.getLocations()) {
@@ -66,4 +74,13 @@ public class FlexIndex {
   public Collection<FlexTrip<?, ?>> getAllFlexTrips() {
     return tripById.values();
   }
+
+  /**
+   * The driving times between the stop locations of the trip computed during the graph build, or
+   * {@code null} if not computed.
+   */
+  @Nullable
+  public FlexTravelTimeMatrix getTravelTimeMatrix(FlexTrip<?, ?> trip) {
+    return travelTimeMatrixByTripId.get(trip.getId());
+  }
 }
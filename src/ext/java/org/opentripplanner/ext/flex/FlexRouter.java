@@ -2,6 +2,7 @@ package org.opentripplanner.ext.flex;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import io.micrometer.core.instrument.Metrics;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -11,15 +12,26 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.flex.flexpathcalculator.DirectFlexPathCalculator;
 import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCalculator;
 import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCalculator;
+import org.opentripplanner.ext.flex.flexpathcalculator.TravelTimeMatrixFlexPathCalculator;
+import org.opentripplanner.ext.flex.template.FlexAccessEgressTemplate;
 import org.opentripplanner.ext.flex.template.FlexAccessTemplate;
 import org.opentripplanner.ext.flex.template.FlexEgressTemplate;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.plan.Itinerary;
@@ -32,11 +44,18 @@ import org.opentripplanner.transit.service.TransitService;
 
 public class FlexRouter {
 
+  /** The number of flex access/egress templates created for each request */
+  private static final String TEMPLATES_METRIC = "routing.flex.templates";
+
   /* Transit data */
 
   private final Graph graph;
   private final TransitService transitService;
   private final FlexConfig config;
+
+  @Nullable
+  private final ExecutorService threadPool;
+
   private final Collection<NearbyStop> streetAccesses;
   private final Collection<NearbyStop> streetEgresses;
   private final FlexIndex flexIndex;
@@ -59,6 +78,7 @@ public class FlexRouter {
     Graph graph,
     TransitService transitService,
     FlexConfig config,
+    @Nullable ExecutorService threadPool,
     Instant searchInstant,
     boolean arriveBy,
     int additionalPastSearchDays,
@@ -69,6 +89,7 @@ public class FlexRouter {
     this.graph = graph;
     this.transitService = transitService;
     this.config = config;
+    this.threadPool = threadPool;
     this.streetAccesses = streetAccesses;
     this.streetEgresses = egressTransfers;
     this.flexIndex = transitService.getFlexIndex();
@@ -121,48 +142,51 @@ public class FlexRouter {
     Multimap<StopLocation, NearbyStop> streetEgressByStop = HashMultimap.create();
     streetEgresses.forEach(it -> streetEgressByStop.put(it.stop, it));
 
-    Collection<Itinerary> itineraries = new ArrayList<>();
-
-    for (FlexAccessTemplate template : this.flexAccessTemplates) {
-      StopLocation transferStop = template.getTransferStop();
-      if (
-        this.flexEgressTemplates.stream()
-          .anyMatch(t -> t.getAccessEgressStop().equals(transferStop))
-      ) {
-        for (NearbyStop egress : streetEgressByStop.get(transferStop)) {
-          Itinerary itinerary = template.createDirectGraphPath(
-            egress,
-            arriveBy,
-            departureTime,
-            startOfTime,
-            graphPathToItineraryMapper
-          );
-          if (itinerary != null) {
-            itineraries.add(itinerary);
-          }
-        }
-      }
-    }
+    Set<StopLocation> flexEgressStops = this.flexEgressTemplates.stream()
+      .map(FlexEgressTemplate::getAccessEgressStop)
+      .collect(Collectors.toSet());
+
+    var templates = this.flexAccessTemplates.stream()
+      .filter(template -> flexEgressStops.contains(template.getTransferStop()))
+      .toList();
 
-    return itineraries;
+    return flatMap(
+      templates,
+      template ->
+        streetEgressByStop
+          .get(template.getTransferStop())
+          .stream()
+          .map(egress ->
+            template.createDirectGraphPath(
+              egress,
+              arriveBy,
+              departureTime,
+              startOfTime,
+              graphPathToItineraryMapper
+            )
+          )
+          .filter(Objects::nonNull)
+    );
   }
 
   public Collection<FlexAccessEgress> createFlexAccesses() {
     OTPRequestTimeoutException.checkForTimeout();
     calculateFlexAccessTemplates();
 
-    return this.flexAccessTemplates.stream()
-      .flatMap(template -> template.createFlexAccessEgressStream(graph, transitService))
-      .collect(Collectors.toList());
+    return flatMap(
+      this.flexAccessTemplates,
+      template -> template.createFlexAccessEgressStream(graph, transitService)
+    );
   }
 
   public Collection<FlexAccessEgress> createFlexEgresses() {
     OTPRequestTimeoutException.checkForTimeout();
     calculateFlexEgressTemplates();
 
-    return this.flexEgressTemplates.stream()
-      .flatMap(template -> template.createFlexAccessEgressStream(graph, transitService))
-      .collect(Collectors.toList());
+    return flatMap(
+      this.flexEgressTemplates,
+      template -> template.createFlexAccessEgressStream(graph, transitService)
+    );
   }
 
   private void calculateFlexAccessTemplates() {
@@ -170,23 +194,22 @@ public class FlexRouter {
       return;
     }
 
-    // Fetch the closest flexTrips reachable from the access stops
+    // Fetch the closest flexTrips reachable from the access stops, and create templates from
+    // each trip, boarding at the nearbyStop
     this.flexAccessTemplates =
-      getClosestFlexTrips(streetAccesses, true)
-        // For each date the router has data for
-        .flatMap(it ->
-          Arrays
-            .stream(dates)
-            // Discard if service is not running on date
-            .filter(date -> date.isFlexTripRunning(it.flexTrip(), this.transitService))
-            // Create templates from trip, boarding at the nearbyStop
-            .flatMap(date ->
-              it
-                .flexTrip()
-                .getFlexAccessTemplates(it.accessEgress(), date, accessFlexPathCalculator, config)
+      createTemplates(
+        getClosestFlexTrips(streetAccesses, true),
+        "access",
+        (it, date) ->
+          it
+            .flexTrip()
+            .getFlexAccessTemplates(
+              it.accessEgress(),
+              date,
+              flexPathCalculator(it.flexTrip(), accessFlexPathCalculator),
+              config
             )
-        )
-        .collect(Collectors.toList());
+      );
   }
 
   private void calculateFlexEgressTemplates() {
@@ -194,26 +217,67 @@ public class FlexRouter {
       return;
     }
 
-    // Fetch the closest flexTrips reachable from the egress stops
+    // Fetch the closest flexTrips reachable from the egress stops, and create templates from
+    // each trip, alighting at the nearbyStop
     this.flexEgressTemplates =
-      getClosestFlexTrips(streetEgresses, false)
-        // For each date the router has data for
-        .flatMap(it ->
-          Arrays
-            .stream(dates)
-            // Discard if service is not running on date
-            .filter(date -> date.isFlexTripRunning(it.flexTrip(), this.transitService))
-            // Create templates from trip, alighting at the nearbyStop
-            .flatMap(date ->
-              it
-                .flexTrip()
-                .getFlexEgressTemplates(it.accessEgress(), date, egressFlexPathCalculator, config)
+      createTemplates(
+        getClosestFlexTrips(streetEgresses, false),
+        "egress",
+        (it, date) ->
+          it
+            .flexTrip()
+            .getFlexEgressTemplates(
+              it.accessEgress(),
+              date,
+              flexPathCalculator(it.flexTrip(), egressFlexPathCalculator),
+              config
             )
-        )
-        .collect(Collectors.toList());
+      );
+  }
+
+  /**
+   * Create the templates for each trip and each date the router has data for. The trips may be
+   * processed in parallel, see {@link #flatMap(Collection, Function)}.
+   */
+  private <T extends FlexAccessEgressTemplate> List<T> createTemplates(
+    Collection<AccessEgressAndNearbyStop> closestFlexTrips,
+    String type,
+    BiFunction<AccessEgressAndNearbyStop, FlexServiceDate, Stream<T>> templatesForDate
+  ) {
+    List<T> templates = flatMap(
+      closestFlexTrips,
+      it ->
+        Arrays
+          .stream(dates)
+          // Discard if service is not running on date
+          .filter(date -> date.isFlexTripRunning(it.flexTrip(), this.transitService))
+          .flatMap(date -> templatesForDate.apply(it, date))
+    );
+
+    Metrics.summary(TEMPLATES_METRIC, "type", type).record(templates.size());
+    return templates;
   }
 
-  private Stream<AccessEgressAndNearbyStop> getClosestFlexTrips(
+  /**
+   * Use the driving times computed during the graph build for the trip if they exist, and if they
+   * cover the max flex trip duration.
+   */
+  private FlexPathCalculator flexPathCalculator(
+    FlexTrip<?, ?> trip,
+    FlexPathCalculator calculator
+  ) {
+    var matrix = flexIndex.getTravelTimeMatrix(trip);
+    if (matrix == null || config.maxFlexTripDuration().compareTo(matrix.maxDuration()) > 0) {
+      return calculator;
+    }
+    return new TravelTimeMatrixFlexPathCalculator(
+      matrix,
+      config.maxFlexTripDuration(),
+      calculator
+    );
+  }
+
+  private List<AccessEgressAndNearbyStop> getClosestFlexTrips(
     Collection<NearbyStop> nearbyStops,
     boolean pickup
   ) {
@@ -245,7 +309,50 @@ public class FlexRouter {
           .stream()
           .min(Comparator.comparingLong(t2 -> t2.accessEgress().state.getElapsedTimeSeconds()))
       )
-      .flatMap(Optional::stream);
+      .flatMap(Optional::stream)
+      .toList();
+  }
+
+  /**
+   * Apply the task to each element and collect the results in the order of the elements. With the
+   * {@link OTPFeature#ParallelRouting} feature and a thread pool the tasks are run in the pool.
+   * The pool threads are created by the {@code OtpRequestThreadFactory}, so the log trace
+   * parameters are propagated, and the tasks are cancelled if the request times out. The calling
+   * thread runs the tasks not yet started by the pool, so a busy pool does not block the request.
+   */
+  private <T, R> List<R> flatMap(Collection<T> elements, Function<T, Stream<R>> task) {
+    if (threadPool == null || !OTPFeature.ParallelRouting.isOn()) {
+      return elements.stream().flatMap(task).collect(Collectors.toList());
+    }
+    List<FutureTask<List<R>>> futures = elements
+      .stream()
+      .map(it ->
+        new FutureTask<>(() -> {
+          OTPRequestTimeoutException.checkForTimeout();
+          return task.apply(it).toList();
+        })
+      )
+      .toList();
+    try {
+      futures.forEach(threadPool::execute);
+      futures.forEach(FutureTask::run);
+
+      List<R> result = new ArrayList<>();
+      for (var it : futures) {
+        result.addAll(it.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      futures.forEach(it -> it.cancel(true));
+    }
   }
 
   private record AccessEgressAndNearbyStop(NearbyStop accessEgress, FlexTrip<?, ?> flexTrip) {}
@@ -0,0 +1,188 @@
+package org.opentripplanner.ext.flex;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexTravelTimeMatrix;
+import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.config.sandbox.FlexConfig;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.transit.model.site.AreaStop;
+import org.opentripplanner.transit.model.site.GroupStop;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the driving times and distances between all the vertices of the stop locations of each
+ * flex trip, so that the flex access and egress search can look them up instead of doing a
+ * street search for each request. Trips serving the same stop locations share the same matrix.
+ * <p>
+ * This must run after the {@link FlexLocationsToStreetEdgesMapper}, which finds the vertices of
+ * each area stop.
+ */
+public class FlexTravelTimeMatrixModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FlexTravelTimeMatrixModule.class);
+
+  /**
+   * The matrix size grows with the square of the number of vertices. Trips with more vertices than
+   * this are left out, the path calculator will search the street network for them instead.
+   */
+  private static final int MAX_VERTICES = 1000;
+
+  /**
+   * The max flex trip duration can be changed in the router config after the graph is built, a
+   * matrix is only used if the configured duration is not longer than this.
+   */
+  private static final Duration MAX_DURATION = FlexConfig.DEFAULT.maxFlexTripDuration();
+
+  private final Graph graph;
+  private final TransitModel transitModel;
+  private final int maxVertices;
+
+  @Inject
+  public FlexTravelTimeMatrixModule(Graph graph, TransitModel transitModel) {
+    this(graph, transitModel, MAX_VERTICES);
+  }
+
+  FlexTravelTimeMatrixModule(Graph graph, TransitModel transitModel, int maxVertices) {
+    this.graph = graph;
+    this.transitModel = transitModel;
+    this.maxVertices = maxVertices;
+  }
+
+  @Override
+  public void buildGraph() {
+    if (!transitModel.hasFlexTrips() || !graph.hasStreets) {
+      return;
+    }
+
+    Multimap<AreaStop, Vertex> verticesByAreaStop = ArrayListMultimap.create();
+    for (StreetVertex vertex : graph.getVerticesOfType(StreetVertex.class)) {
+      if (vertex.areaStops != null) {
+        vertex.areaStops.forEach(areaStop -> verticesByAreaStop.put(areaStop, vertex));
+      }
+    }
+
+    Map<Set<StopLocation>, List<FlexTrip<?, ?>>> tripsByStops = new HashMap<>();
+    for (FlexTrip<?, ?> trip : transitModel.getAllFlexTrips()) {
+      tripsByStops.computeIfAbsent(trip.getStops(), it -> new ArrayList<>()).add(trip);
+    }
+
+    ProgressTracker progress = ProgressTracker.track(
+      "Create flex travel time matrices",
+      10,
+      tripsByStops.size()
+    );
+    LOG.info(progress.startMessage());
+
+    int nMatrices = 0;
+    int nSkipped = 0;
+    for (var it : tripsByStops.entrySet()) {
+      Set<Vertex> vertices = new LinkedHashSet<>();
+      it.getKey().forEach(stop -> addVertices(stop, verticesByAreaStop, vertices));
+
+      if (vertices.size() > maxVertices) {
+        ++nSkipped;
+      } else if (!vertices.isEmpty()) {
+        var matrix = createMatrix(List.copyOf(vertices));
+        it.getValue().forEach(trip -> transitModel.addFlexTravelTimeMatrix(trip.getId(), matrix));
+        ++nMatrices;
+      }
+      // Keep lambda! A method-ref would cause incorrect class and line number to be logged
+      progress.step(m -> LOG.info(m));
+    }
+    LOG.info(progress.completeMessage());
+    LOG.info(
+      "Created {} flex travel time matrices, skipped {} with more than {} vertices.",
+      nMatrices,
+      nSkipped,
+      maxVertices
+    );
+  }
+
+  @Override
+  public void checkInputs() {
+    // No inputs
+  }
+
+  private void addVertices(
+    StopLocation stop,
+    Multimap<AreaStop, Vertex> verticesByAreaStop,
+    Set<Vertex> vertices
+  ) {
+    if (stop instanceof GroupStop groupStop) {
+      groupStop.getLocations().forEach(it -> addVertices(it, verticesByAreaStop, vertices));
+    } else if (stop instanceof AreaStop areaStop) {
+      vertices.addAll(verticesByAreaStop.get(areaStop));
+    } else if (stop instanceof RegularStop regularStop) {
+      var vertex = graph.getStopVertexForStopId(regularStop.getId());
+      if (vertex != null) {
+        vertices.add(vertex);
+      }
+    }
+  }
+
+  private FlexTravelTimeMatrix createMatrix(List<Vertex> vertices) {
+    int n = vertices.size();
+    int[] durations = new int[n * n];
+    int[] distances = new int[n * n];
+    Arrays.fill(durations, FlexTravelTimeMatrix.UNREACHED);
+    Arrays.fill(distances, FlexTravelTimeMatrix.UNREACHED);
+
+    // Each origin writes to its own row, so the rows can be computed in parallel
+    IntStream
+      .range(0, n)
+      .parallel()
+      .forEach(i -> {
+        Set<Vertex> remaining = new HashSet<>(vertices);
+        var spt = StreetSearchBuilder
+          .of()
+          .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(MAX_DURATION))
+          .setTerminationStrategy(state -> {
+            remaining.remove(state.getVertex());
+            return remaining.isEmpty();
+          })
+          .setDominanceFunction(new DominanceFunctions.EarliestArrival())
+          .setRequest(new RouteRequest())
+          .setStreetRequest(new StreetRequest(StreetMode.CAR))
+          .setFrom(vertices.get(i))
+          .getShortestPathTree();
+
+        for (int j = 0; j < n; ++j) {
+          var path = spt.getPath(vertices.get(j));
+          if (path != null) {
+            durations[i * n + j] = path.getDuration();
+            distances[i * n + j] =
+              (int) path.edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+          }
+        }
+      });
+
+    return new FlexTravelTimeMatrix(vertices, durations, distances, MAX_DURATION);
+  }
+}
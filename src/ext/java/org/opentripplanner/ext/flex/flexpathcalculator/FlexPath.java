@@ -11,7 +11,7 @@ public class FlexPath {
   private final Supplier<LineString> geometrySupplier;
   public final int distanceMeters;
   public final int durationSeconds;
-  private LineString geometry;
+  private volatile LineString geometry;
 
   /**
    * @param geometrySupplier Computing a linestring from a GraphPath is a surprisingly expensive
@@ -27,6 +27,7 @@ public class FlexPath {
   }
 
   public LineString getGeometry() {
+    // Two threads may compute the geometry, but the result is the same
     if (geometry == null) {
       geometry = geometrySupplier.get();
     }
@@ -0,0 +1,98 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The driving times and distances between all the vertices of the stop locations served by one or
+ * more flex trips. The vertices of an area stop are all the street vertices inside the area. The
+ * matrix is computed during the graph build, see
+ * {@link org.opentripplanner.ext.flex.FlexTravelTimeMatrixModule}.
+ * <p>
+ * The durations and distances are stored in primitive arrays, by origin and then by destination.
+ */
+public class FlexTravelTimeMatrix implements Serializable {
+
+  /** The duration and distance for a pair of vertices not connected within the max duration. */
+  public static final int UNREACHED = -1;
+
+  private final Map<Vertex, Integer> indexByVertex;
+  private final int size;
+  private final int[] durations;
+  private final int[] distances;
+  private final Duration maxDuration;
+
+  /**
+   * @param durations The durations in seconds from each vertex to all vertices, in the order of
+   *                  the vertices list. {@link #UNREACHED} is used if there is no path.
+   * @param distances The distances in meters, in the same order as the durations.
+   * @param maxDuration The max duration used when searching for paths between the vertices.
+   */
+  public FlexTravelTimeMatrix(
+    List<Vertex> vertices,
+    int[] durations,
+    int[] distances,
+    Duration maxDuration
+  ) {
+    this.size = vertices.size();
+    if (durations.length != size * size || distances.length != size * size) {
+      throw new IllegalArgumentException("Expected " + size * size + " durations and distances");
+    }
+    this.indexByVertex = new HashMap<>();
+    for (int i = 0; i < size; ++i) {
+      indexByVertex.put(vertices.get(i), i);
+    }
+    this.durations = durations;
+    this.distances = distances;
+    this.maxDuration = maxDuration;
+  }
+
+  /**
+   * The index of the vertex in the matrix, or {@code -1} if the vertex is not part of it.
+   */
+  public int index(Vertex vertex) {
+    return indexByVertex.getOrDefault(vertex, -1);
+  }
+
+  /**
+   * The duration in seconds of the path between the vertices with the given indexes, or
+   * {@link #UNREACHED}.
+   */
+  public int durationInSeconds(int fromIndex, int toIndex) {
+    return durations[fromIndex * size + toIndex];
+  }
+
+  /**
+   * The distance in meters of the path between the vertices with the given indexes, or
+   * {@link #UNREACHED}.
+   */
+  public int distanceMeters(int fromIndex, int toIndex) {
+    return distances[fromIndex * size + toIndex];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The max duration of the searches used to create the matrix. Paths longer than this are
+   * {@link #UNREACHED}.
+   */
+  public Duration maxDuration() {
+    return maxDuration;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(FlexTravelTimeMatrix.class)
+      .addNum("size", size)
+      .addDuration("maxDuration", maxDuration)
+      .toString();
+  }
+}
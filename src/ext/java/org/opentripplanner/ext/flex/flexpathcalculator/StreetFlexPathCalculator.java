@@ -1,11 +1,14 @@
 package org.opentripplanner.ext.flex.flexpathcalculator;
 
 import java.time.Duration;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
@@ -29,10 +32,15 @@ import org.opentripplanner.street.search.strategy.DominanceFunctions;
  * configured so that the caching is done with either the origin or destination vertex as the key.
  * The one-to-many search will then either be done in the forward or the reverse direction depending
  * on this configuration.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, the flex router may calculate paths for several trips in parallel.
+ * The cache holds a future for each vertex, the first thread needing a tree does the search outside
+ * the map, and other threads needing the same tree wait for it.
  */
 public class StreetFlexPathCalculator implements FlexPathCalculator {
 
-  private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> cache = new HashMap<>();
+  private final Map<Vertex, FutureTask<ShortestPathTree<State, Edge, Vertex>>> cache =
+    new ConcurrentHashMap<>();
   private final boolean reverseDirection;
   private final Duration maxFlexTripDuration;
 
@@ -48,13 +56,7 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     Vertex originVertex = reverseDirection ? tov : fromv;
     Vertex destinationVertex = reverseDirection ? fromv : tov;
 
-    ShortestPathTree<State, Edge, Vertex> shortestPathTree;
-    if (cache.containsKey(originVertex)) {
-      shortestPathTree = cache.get(originVertex);
-    } else {
-      shortestPathTree = routeToMany(originVertex);
-      cache.put(originVertex, shortestPathTree);
-    }
+    ShortestPathTree<State, Edge, Vertex> shortestPathTree = shortestPathTree(originVertex);
 
     GraphPath<State, Edge, Vertex> path = shortestPathTree.getPath(destinationVertex);
     if (path == null) {
@@ -74,6 +76,29 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     );
   }
 
+  private ShortestPathTree<State, Edge, Vertex> shortestPathTree(Vertex vertex) {
+    var task = new FutureTask<>(() -> routeToMany(vertex));
+    var existing = cache.putIfAbsent(vertex, task);
+    if (existing != null) {
+      task = existing;
+    } else {
+      task.run();
+    }
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      // Let the next caller search again, the search may have been aborted by a timeout
+      cache.remove(vertex, task);
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   private ShortestPathTree<State, Edge, Vertex> routeToMany(Vertex vertex) {
     RouteRequest routingRequest = new RouteRequest();
     routingRequest.setArriveBy(reverseDirection);
@@ -0,0 +1,58 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import java.time.Duration;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Look up the driving times and distances in a {@link FlexTravelTimeMatrix} computed during the
+ * graph build. The geometry of the path is only computed if it is needed, using the delegate
+ * calculator, so it always follows the streets. Vertices not in the matrix are also passed on to
+ * the delegate calculator.
+ */
+public class TravelTimeMatrixFlexPathCalculator implements FlexPathCalculator {
+
+  private final FlexTravelTimeMatrix matrix;
+  private final int maxDurationSeconds;
+  private final FlexPathCalculator delegate;
+
+  public TravelTimeMatrixFlexPathCalculator(
+    FlexTravelTimeMatrix matrix,
+    Duration maxFlexTripDuration,
+    FlexPathCalculator delegate
+  ) {
+    this.matrix = matrix;
+    this.maxDurationSeconds = (int) maxFlexTripDuration.toSeconds();
+    this.delegate = delegate;
+  }
+
+  @Override
+  public FlexPath calculateFlexPath(Vertex fromv, Vertex tov, int fromStopIndex, int toStopIndex) {
+    int from = matrix.index(fromv);
+    int to = matrix.index(tov);
+    if (from < 0 || to < 0) {
+      return delegate.calculateFlexPath(fromv, tov, fromStopIndex, toStopIndex);
+    }
+
+    int duration = matrix.durationInSeconds(from, to);
+    if (duration == FlexTravelTimeMatrix.UNREACHED || duration > maxDurationSeconds) {
+      return null;
+    }
+    return new FlexPath(
+      matrix.distanceMeters(from, to),
+      duration,
+      () -> geometry(fromv, tov, fromStopIndex, toStopIndex)
+    );
+  }
+
+  private LineString geometry(Vertex fromv, Vertex tov, int fromStopIndex, int toStopIndex) {
+    var path = delegate.calculateFlexPath(fromv, tov, fromStopIndex, toStopIndex);
+    if (path == null) {
+      // The matrix is built from the same street network, so this should not happen
+      throw new IllegalStateException(
+        "No street path for flex travel time matrix entry: " + fromv + " -> " + tov
+      );
+    }
+    return path.getGeometry();
+  }
+}
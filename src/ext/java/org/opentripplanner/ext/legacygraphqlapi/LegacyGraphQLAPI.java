@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,7 +58,15 @@ public class LegacyGraphQLAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Map<String, Object> extensions = extensions(queryParameters);
+
+    if (
+      queryParameters == null ||
+      (
+        !queryParameters.containsKey("query") &&
+        !PreparsedDocumentCache.hasPersistedQueryId(extensions)
+      )
+    ) {
       LOG.debug("No query found in body");
       return Response
         .status(Response.Status.BAD_REQUEST)
@@ -70,7 +79,10 @@ public class LegacyGraphQLAPI {
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
 
-    String query = (String) queryParameters.get("query");
+    String query = (String) queryParameters.getOrDefault(
+      "query",
+      PreparsedDocumentCache.PERSISTED_QUERY_MARKER
+    );
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -94,6 +106,7 @@ public class LegacyGraphQLAPI {
       query,
       variables,
       operationName,
+      extensions,
       maxResolves,
       timeout,
       locale,
@@ -116,6 +129,7 @@ public class LegacyGraphQLAPI {
       query,
       null,
       null,
+      null,
       maxResolves,
       timeout,
       locale,
@@ -157,12 +171,14 @@ public class LegacyGraphQLAPI {
         variables = null;
       }
       String operationName = (String) query.getOrDefault("operationName", null);
+      Map<String, Object> extensions = extensions(query);
 
       futures.add(() ->
         LegacyGraphQLIndex.getGraphQLExecutionResult(
-          (String) query.get("query"),
+          (String) query.getOrDefault("query", PreparsedDocumentCache.PERSISTED_QUERY_MARKER),
           variables,
           operationName,
+          extensions,
           maxResolves,
           timeout,
           locale,
@@ -175,11 +191,18 @@ public class LegacyGraphQLAPI {
       List<Future<ExecutionResult>> results = LegacyGraphQLIndex.threadPool.invokeAll(futures);
       return Response
         .status(Response.Status.OK)
-        .entity(GraphQLResponseSerializer.serializeBatch(queries, results))
+        .entity(GraphQLResponseSerializer.streamBatch(queries, results))
         .build();
     } catch (InterruptedException e) {
       LOG.error("Batch query interrupted", e);
       throw new RuntimeException(e);
     }
   }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> extensions(Map<String, Object> queryParameters) {
+    return queryParameters != null && queryParameters.get("extensions") instanceof Map map
+      ? map
+      : null;
+  }
 }
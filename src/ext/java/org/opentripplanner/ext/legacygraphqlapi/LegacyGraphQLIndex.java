@@ -40,6 +40,7 @@ import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLCarPar
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLContactInfoImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLCoordinatesImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLCurrencyImpl;
+import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLDebugPhaseImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLDepartureRowImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLFareProductImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLFareProductUseImpl;
@@ -87,6 +88,7 @@ import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLstopAt
 import org.opentripplanner.ext.legacygraphqlapi.model.StopPosition;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -96,6 +98,14 @@ class LegacyGraphQLIndex {
 
   private static final GraphQLSchema indexSchema = buildSchema();
 
+  private static final int MAX_CACHED_DOCUMENTS = 1000;
+
+  /** Parsed and validated queries, shared by all requests. */
+  private static final PreparsedDocumentCache documentCache = new PreparsedDocumentCache(
+    "gtfs",
+    MAX_CACHED_DOCUMENTS
+  );
+
   static final ExecutorService threadPool = Executors.newCachedThreadPool(
     OtpRequestThreadFactory.of("gtfs-api-%d")
   );
@@ -127,6 +137,7 @@ class LegacyGraphQLIndex {
         .type(typeWiring.build(LegacyGraphQLCarParkImpl.class))
         .type(typeWiring.build(LegacyGraphQLCoordinatesImpl.class))
         .type(typeWiring.build(LegacyGraphQLdebugOutputImpl.class))
+        .type(typeWiring.build(LegacyGraphQLDebugPhaseImpl.class))
         .type(typeWiring.build(LegacyGraphQLDepartureRowImpl.class))
         .type(typeWiring.build(LegacyGraphQLelevationProfileComponentImpl.class))
         .type(typeWiring.build(LegacyGraphQLfareComponentImpl.class))
@@ -186,6 +197,7 @@ class LegacyGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -201,7 +213,11 @@ class LegacyGraphQLIndex {
         );
     }
 
-    GraphQL graphQL = GraphQL.newGraphQL(indexSchema).instrumentation(instrumentation).build();
+    GraphQL graphQL = GraphQL
+      .newGraphQL(indexSchema)
+      .instrumentation(instrumentation)
+      .preparsedDocumentProvider(documentCache)
+      .build();
 
     if (variables == null) {
       variables = new HashMap<>();
@@ -213,6 +229,13 @@ class LegacyGraphQLIndex {
       .operationName(operationName)
       .context(requestContext)
       .variables(variables)
+      .extensions(extensions == null ? Map.of() : extensions)
+      .graphQLContext(
+        Map.of(
+          LegacyGraphQLRequestCache.class,
+          new LegacyGraphQLRequestCache(requestContext.transitService())
+        )
+      )
       .locale(locale)
       .build();
     try {
@@ -226,6 +249,7 @@ class LegacyGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -235,6 +259,7 @@ class LegacyGraphQLIndex {
       query,
       variables,
       operationName,
+      extensions,
       maxResolves,
       timeoutMs,
       locale,
@@ -243,7 +268,7 @@ class LegacyGraphQLIndex {
 
     return Response
       .status(Response.Status.OK)
-      .entity(GraphQLResponseSerializer.serialize(executionResult))
+      .entity(GraphQLResponseSerializer.stream(executionResult))
       .build();
   }
 }
@@ -0,0 +1,249 @@
+package org.opentripplanner.ext.legacygraphqlapi;
+
+import com.google.common.base.Suppliers;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Lookups shared by all data fetchers of one GraphQL query execution. A query for many stops with
+ * nested routes, patterns, stop times and alerts would otherwise repeat the same lookups and full
+ * alert scans for each field. Here each lookup is done once per distinct entity and arguments,
+ * and the alerts are indexed once per query, so the cost scales with the number of distinct
+ * entities in the response.
+ * <p>
+ * The lookups are not batched, the transit service has no methods to look up the stop times or
+ * timetables of many stops or patterns at once.
+ * <p>
+ * A new instance is created for each query execution, and is never shared between queries.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, data fetchers may be called concurrently.
+ */
+public class LegacyGraphQLRequestCache {
+
+  private final TransitService transitService;
+  private final Map<StopLocation, Collection<TripPattern>> patternsByStop =
+    new ConcurrentHashMap<>();
+  private final Map<StopLocation, Collection<Route>> routesByStop = new ConcurrentHashMap<>();
+  private final Map<StopTimesKey, List<StopTimesInPattern>> stopTimes = new ConcurrentHashMap<>();
+  private final Map<StopTimesOnDateKey, List<StopTimesInPattern>> stopTimesOnDate =
+    new ConcurrentHashMap<>();
+  private final Map<TimetableKey, Timetable> timetables = new ConcurrentHashMap<>();
+  private final Supplier<AlertIndex> alertIndex;
+
+  public LegacyGraphQLRequestCache(TransitService transitService) {
+    this.transitService = transitService;
+    this.alertIndex =
+      Suppliers.memoize(() ->
+        new AlertIndex(transitService.getTransitAlertService().getAllAlerts())
+      );
+  }
+
+  /**
+   * Get the cache for the query the given environment belongs to. If the query is not executed
+   * with a cache, a new instance is returned, so nothing is shared with other fields.
+   */
+  public static LegacyGraphQLRequestCache of(DataFetchingEnvironment environment) {
+    LegacyGraphQLRequestCache cache = environment
+      .getGraphQlContext()
+      .get(LegacyGraphQLRequestCache.class);
+    if (cache != null) {
+      return cache;
+    }
+    return new LegacyGraphQLRequestCache(
+      environment.<LegacyGraphQLRequestContext>getContext().transitService()
+    );
+  }
+
+  /**
+   * The patterns visiting the stop, including realtime added patterns.
+   */
+  public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
+    return patternsByStop.computeIfAbsent(
+      stop,
+      it -> transitService.getPatternsForStop(it, true)
+    );
+  }
+
+  public Collection<Route> getRoutesForStop(StopLocation stop) {
+    return routesByStop.computeIfAbsent(stop, transitService::getRoutesForStop);
+  }
+
+  /**
+   * The stop times departing from or arriving at the stop, see
+   * {@link TransitService#stopTimesForStop}. If the start time is {@code 0} the time when the
+   * stop times are first looked up is used.
+   */
+  public List<StopTimesInPattern> stopTimesForStop(
+    StopLocation stop,
+    long startTime,
+    int timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    return stopTimes.computeIfAbsent(
+      new StopTimesKey(
+        stop,
+        startTime,
+        timeRange,
+        numberOfDepartures,
+        arrivalDeparture,
+        includeCancelledTrips
+      ),
+      key ->
+        Collections.unmodifiableList(
+          transitService.stopTimesForStop(
+            stop,
+            LegacyGraphQLUtils.getTimeOrNow(startTime),
+            Duration.ofSeconds(timeRange),
+            numberOfDepartures,
+            arrivalDeparture,
+            includeCancelledTrips
+          )
+        )
+    );
+  }
+
+  /**
+   * The stop times of the stop on the service date, see {@link TransitService#getStopTimesForStop}.
+   */
+  public List<StopTimesInPattern> stopTimesForStop(
+    StopLocation stop,
+    LocalDate serviceDate,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancellations
+  ) {
+    return stopTimesOnDate.computeIfAbsent(
+      new StopTimesOnDateKey(stop, serviceDate, arrivalDeparture, includeCancellations),
+      key ->
+        Collections.unmodifiableList(
+          transitService.getStopTimesForStop(
+            stop,
+            serviceDate,
+            arrivalDeparture,
+            includeCancellations
+          )
+        )
+    );
+  }
+
+  /**
+   * The timetable of the pattern on the service date, including realtime updates.
+   */
+  public Timetable getTimetableForTripPattern(TripPattern tripPattern, LocalDate serviceDate) {
+    return timetables.computeIfAbsent(
+      new TimetableKey(tripPattern, serviceDate),
+      key -> transitService.getTimetableForTripPattern(tripPattern, serviceDate)
+    );
+  }
+
+  /** Alerts with a stop-and-route entity selector for the given stop. */
+  public List<TransitAlert> getStopAndRouteAlertsByStop(FeedScopedId stopId) {
+    return alertIndex.get().stopAndRouteByStop.getOrDefault(stopId, List.of());
+  }
+
+  /** Alerts with a stop-and-route entity selector for the given route. */
+  public List<TransitAlert> getStopAndRouteAlertsByRoute(FeedScopedId routeId) {
+    return alertIndex.get().stopAndRouteByRoute.getOrDefault(routeId, List.of());
+  }
+
+  /** Alerts with a stop-and-trip entity selector for the given stop. */
+  public List<TransitAlert> getStopAndTripAlertsByStop(FeedScopedId stopId) {
+    return alertIndex.get().stopAndTripByStop.getOrDefault(stopId, List.of());
+  }
+
+  /** Alerts with a stop-and-trip entity selector for the given trip. */
+  public List<TransitAlert> getStopAndTripAlertsByTrip(FeedScopedId tripId) {
+    return alertIndex.get().stopAndTripByTrip.getOrDefault(tripId, List.of());
+  }
+
+  private record StopTimesKey(
+    StopLocation stop,
+    long startTime,
+    int timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {}
+
+  private record StopTimesOnDateKey(
+    StopLocation stop,
+    LocalDate serviceDate,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancellations
+  ) {}
+
+  private record TimetableKey(TripPattern tripPattern, LocalDate serviceDate) {}
+
+  /**
+   * Alerts indexed by the stop, route and trip ids of their stop-and-route and stop-and-trip
+   * entity selectors. Each list keeps the order of the alert service, and contains an alert only
+   * once even if more than one of its entity selectors match the id.
+   */
+  private static class AlertIndex {
+
+    private final Map<FeedScopedId, List<TransitAlert>> stopAndRouteByStop;
+    private final Map<FeedScopedId, List<TransitAlert>> stopAndRouteByRoute;
+    private final Map<FeedScopedId, List<TransitAlert>> stopAndTripByStop;
+    private final Map<FeedScopedId, List<TransitAlert>> stopAndTripByTrip;
+
+    private AlertIndex(Collection<TransitAlert> alerts) {
+      var stopAndRouteByStop = new HashMap<FeedScopedId, Set<TransitAlert>>();
+      var stopAndRouteByRoute = new HashMap<FeedScopedId, Set<TransitAlert>>();
+      var stopAndTripByStop = new HashMap<FeedScopedId, Set<TransitAlert>>();
+      var stopAndTripByTrip = new HashMap<FeedScopedId, Set<TransitAlert>>();
+
+      for (TransitAlert alert : alerts) {
+        for (EntitySelector entity : alert.entities()) {
+          if (entity instanceof EntitySelector.StopAndRoute it) {
+            add(stopAndRouteByStop, it.stopId(), alert);
+            add(stopAndRouteByRoute, it.routeId(), alert);
+          } else if (entity instanceof EntitySelector.StopAndTrip it) {
+            add(stopAndTripByStop, it.stopId(), alert);
+            add(stopAndTripByTrip, it.tripId(), alert);
+          }
+        }
+      }
+      this.stopAndRouteByStop = toLists(stopAndRouteByStop);
+      this.stopAndRouteByRoute = toLists(stopAndRouteByRoute);
+      this.stopAndTripByStop = toLists(stopAndTripByStop);
+      this.stopAndTripByTrip = toLists(stopAndTripByTrip);
+    }
+
+    private static void add(
+      Map<FeedScopedId, Set<TransitAlert>> index,
+      FeedScopedId id,
+      TransitAlert alert
+    ) {
+      index.computeIfAbsent(id, it -> new LinkedHashSet<>()).add(alert);
+    }
+
+    private static Map<FeedScopedId, List<TransitAlert>> toLists(
+      Map<FeedScopedId, Set<TransitAlert>> index
+    ) {
+      var result = new HashMap<FeedScopedId, List<TransitAlert>>();
+      index.forEach((id, alerts) -> result.put(id, List.copyOf(alerts)));
+      return result;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package org.opentripplanner.ext.legacygraphqlapi.datafetchers;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.opentripplanner.api.resource.PhaseTimingOutput;
+import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
+
+public class LegacyGraphQLDebugPhaseImpl
+  implements LegacyGraphQLDataFetchers.LegacyGraphQLDebugPhase {
+
+  private static final long nanosToMillis = 1000000;
+
+  @Override
+  public DataFetcher<Long> duration() {
+    return environment -> getSource(environment).time / nanosToMillis;
+  }
+
+  @Override
+  public DataFetcher<String> name() {
+    return environment -> getSource(environment).phase;
+  }
+
+  private PhaseTimingOutput getSource(DataFetchingEnvironment environment) {
+    return environment.getSource();
+  }
+}
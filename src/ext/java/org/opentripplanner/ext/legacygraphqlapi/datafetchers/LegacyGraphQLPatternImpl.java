@@ -14,12 +14,12 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.api.support.SemanticHash;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestCache;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes;
 import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
@@ -76,21 +76,9 @@ public class LegacyGraphQLPatternImpl implements LegacyGraphQLDataFetchers.Legac
               break;
             case STOPS_ON_PATTERN:
               alerts.addAll(
-                alertService
-                  .getAllAlerts()
-                  .stream()
-                  .filter(alert ->
-                    alert
-                      .entities()
-                      .stream()
-                      .anyMatch(entity ->
-                        (
-                          entity instanceof EntitySelector.StopAndRoute stopAndRoute &&
-                          stopAndRoute.routeId().equals(getRoute(environment).getId())
-                        )
-                      )
-                  )
-                  .toList()
+                LegacyGraphQLRequestCache
+                  .of(environment)
+                  .getStopAndRouteAlertsByRoute(getRoute(environment).getId())
               );
               getSource(environment)
                 .getStops()
@@ -103,21 +91,9 @@ public class LegacyGraphQLPatternImpl implements LegacyGraphQLDataFetchers.Legac
               Iterable<Trip> trips = getTrips(environment);
               trips.forEach(trip ->
                 alerts.addAll(
-                  alertService
-                    .getAllAlerts()
-                    .stream()
-                    .filter(alert ->
-                      alert
-                        .entities()
-                        .stream()
-                        .anyMatch(entity ->
-                          (
-                            entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                            stopAndTrip.tripId().equals(getSource(environment).getId())
-                          )
-                        )
-                    )
-                    .toList()
+                  LegacyGraphQLRequestCache
+                    .of(environment)
+                    .getStopAndTripAlertsByTrip(getSource(environment).getId())
                 )
               );
               break;
@@ -7,13 +7,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestCache;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLUtils;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLTransitMode;
 import org.opentripplanner.framework.graphql.GraphQLUtils;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.model.network.Route;
@@ -69,19 +69,9 @@ public class LegacyGraphQLRouteImpl implements LegacyGraphQLDataFetchers.LegacyG
               break;
             case STOPS_ON_ROUTE:
               alerts.addAll(
-                alertService
-                  .getAllAlerts()
-                  .stream()
-                  .filter(alert ->
-                    alert
-                      .entities()
-                      .stream()
-                      .anyMatch(entity ->
-                        entity instanceof EntitySelector.StopAndRoute stopAndRoute &&
-                        stopAndRoute.routeId().equals(getSource(environment).getId())
-                      )
-                  )
-                  .toList()
+                LegacyGraphQLRequestCache
+                  .of(environment)
+                  .getStopAndRouteAlertsByRoute(getSource(environment).getId())
               );
               getStops(environment)
                 .forEach(stop ->
@@ -92,19 +82,9 @@ public class LegacyGraphQLRouteImpl implements LegacyGraphQLDataFetchers.LegacyG
               Iterable<Trip> trips = getTrips(environment);
               trips.forEach(trip ->
                 alerts.addAll(
-                  alertService
-                    .getAllAlerts()
-                    .stream()
-                    .filter(alert ->
-                      alert
-                        .entities()
-                        .stream()
-                        .anyMatch(entity ->
-                          entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                          stopAndTrip.tripId().equals(trip.getId())
-                        )
-                    )
-                    .toList()
+                  LegacyGraphQLRequestCache
+                    .of(environment)
+                    .getStopAndTripAlertsByTrip(trip.getId())
                 )
               );
               break;
@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestCache;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLUtils;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
@@ -24,8 +25,6 @@ import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.TripTimeOnDate;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
-import org.opentripplanner.routing.alertpatch.EntitySelector.StopAndRoute;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.routing.services.TransitAlertService;
@@ -53,33 +52,11 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
         if (types.contains(LegacyGraphQLStopAlertType.STOP)) {
           alerts.addAll(alertService.getStopAlerts(id));
         }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) ||
-          types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)
-        ) {
-          alerts.addAll(
-            alertService
-              .getAllAlerts()
-              .stream()
-              .filter(alert ->
-                alert
-                  .entities()
-                  .stream()
-                  .anyMatch(entity ->
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) &&
-                      entity instanceof StopAndRoute stopAndRoute &&
-                      stopAndRoute.stopId().equals(id)
-                    ) ||
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS) &&
-                      entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                      stopAndTrip.stopId().equals(id)
-                    )
-                  )
-              )
-              .toList()
-          );
+        if (types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES)) {
+          alerts.addAll(LegacyGraphQLRequestCache.of(environment).getStopAndRouteAlertsByStop(id));
+        }
+        if (types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)) {
+          alerts.addAll(LegacyGraphQLRequestCache.of(environment).getStopAndTripAlertsByStop(id));
         }
         if (
           types.contains(LegacyGraphQLStopAlertType.PATTERNS) ||
@@ -281,16 +258,16 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForPatterns() {
     return environment -> {
-      TransitService transitService = getTransitService(environment);
+      var cache = LegacyGraphQLRequestCache.of(environment);
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs(
         environment.getArguments()
       );
 
       Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.stopTimesForStop(
+        cache.stopTimesForStop(
           stop,
-          LegacyGraphQLUtils.getTimeOrNow(args.getLegacyGraphQLStartTime()),
-          Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
+          args.getLegacyGraphQLStartTime(),
+          args.getLegacyGraphQLTimeRange(),
           args.getLegacyGraphQLNumberOfDepartures(),
           args.getLegacyGraphQLOmitNonPickups()
             ? ArrivalDeparture.DEPARTURES
@@ -315,7 +292,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForServiceDate() {
     return environment -> {
-      TransitService transitService = getTransitService(environment);
+      var cache = LegacyGraphQLRequestCache.of(environment);
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForServiceDateArgs(
         environment.getArguments()
       );
@@ -327,7 +304,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
       }
 
       Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.getStopTimesForStop(
+        cache.stopTimesForStop(
           stop,
           date,
           args.getLegacyGraphQLOmitNonPickups()
@@ -353,17 +330,17 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   @Override
   public DataFetcher<Iterable<TripTimeOnDate>> stoptimesWithoutPatterns() {
     return environment -> {
-      TransitService transitService = getTransitService(environment);
+      var cache = LegacyGraphQLRequestCache.of(environment);
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs(
         environment.getArguments()
       );
 
       Function<StopLocation, Stream<StopTimesInPattern>> stopTFunction = stop ->
-        transitService
+        cache
           .stopTimesForStop(
             stop,
-            LegacyGraphQLUtils.getTimeOrNow(args.getLegacyGraphQLStartTime()),
-            Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
+            args.getLegacyGraphQLStartTime(),
+            args.getLegacyGraphQLTimeRange(),
             args.getLegacyGraphQLNumberOfDepartures(),
             args.getLegacyGraphQLOmitNonPickups()
               ? ArrivalDeparture.DEPARTURES
@@ -472,7 +449,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   private Collection<TripPattern> getPatterns(DataFetchingEnvironment environment) {
     return getValue(
       environment,
-      stop -> getTransitService(environment).getPatternsForStop(stop, true),
+      stop -> LegacyGraphQLRequestCache.of(environment).getPatternsForStop(stop),
       station -> null
     );
   }
@@ -480,7 +457,7 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
   private Collection<Route> getRoutes(DataFetchingEnvironment environment) {
     return getValue(
       environment,
-      stop -> getTransitService(environment).getRoutesForStop(stop),
+      stop -> LegacyGraphQLRequestCache.of(environment).getRoutesForStop(stop),
       station -> null
     );
   }
@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.api.support.SemanticHash;
+import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestCache;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLUtils;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
@@ -25,7 +26,6 @@ import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TripTimeOnDate;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -91,27 +91,9 @@ public class LegacyGraphQLTripImpl implements LegacyGraphQLDataFetchers.LegacyGr
               );
               break;
             case STOPS_ON_TRIP:
-              alerts.addAll(
-                alertService
-                  .getAllAlerts()
-                  .stream()
-                  .filter(alert ->
-                    alert
-                      .entities()
-                      .stream()
-                      .anyMatch(entity ->
-                        (
-                          entity instanceof EntitySelector.StopAndRoute stopAndRoute &&
-                          stopAndRoute.routeId().equals(getRoute(environment).getId())
-                        ) ||
-                        (
-                          entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                          stopAndTrip.tripId().equals(getSource(environment).getId())
-                        )
-                      )
-                  )
-                  .toList()
-              );
+              var cache = LegacyGraphQLRequestCache.of(environment);
+              alerts.addAll(cache.getStopAndRouteAlertsByRoute(getRoute(environment).getId()));
+              alerts.addAll(cache.getStopAndTripAlertsByTrip(getSource(environment).getId()));
               getStops(environment)
                 .forEach(stop -> {
                   FeedScopedId stopId = ((StopLocation) stop).getId();
@@ -341,7 +323,9 @@ public class LegacyGraphQLTripImpl implements LegacyGraphQLDataFetchers.LegacyGr
         }
 
         Instant midnight = ServiceDateUtils.asStartOfService(serviceDate, timeZone).toInstant();
-        Timetable timetable = transitService.getTimetableForTripPattern(tripPattern, serviceDate);
+        Timetable timetable = LegacyGraphQLRequestCache
+          .of(environment)
+          .getTimetableForTripPattern(tripPattern, serviceDate);
         return TripTimeOnDate.fromTripTimes(timetable, trip, serviceDate, midnight);
       } catch (ParseException e) {
         return null; // Invalid date format
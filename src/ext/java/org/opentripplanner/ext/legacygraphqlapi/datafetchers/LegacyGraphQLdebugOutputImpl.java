@@ -3,6 +3,7 @@ package org.opentripplanner.ext.legacygraphqlapi.datafetchers;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.PhaseTimingOutput;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
 
 public class LegacyGraphQLdebugOutputImpl
@@ -15,6 +16,11 @@ public class LegacyGraphQLdebugOutputImpl
     return environment -> getSource(environment).transitRouterTime / nanosToMillis;
   }
 
+  @Override
+  public DataFetcher<Iterable<PhaseTimingOutput>> phases() {
+    return environment -> getSource(environment).phaseTimes;
+  }
+
   @Override
   public DataFetcher<Long> precalculationTime() {
     return environment -> getSource(environment).precalculationTime / nanosToMillis;
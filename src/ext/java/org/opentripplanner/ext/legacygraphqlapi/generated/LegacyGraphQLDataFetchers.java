@@ -10,6 +10,7 @@ import java.util.Map;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.PhaseTimingOutput;
 import org.opentripplanner.ext.fares.model.FareRuleSet;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLAbsoluteDirection;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLAlertCauseType;
@@ -292,6 +293,13 @@ public class LegacyGraphQLDataFetchers {
     public DataFetcher<Integer> digits();
   }
 
+  /** Time spent in one phase of a trip plan request */
+  public interface LegacyGraphQLDebugPhase {
+    public DataFetcher<Long> duration();
+
+    public DataFetcher<String> name();
+  }
+
   /**
    * Departure row is a location, which lists departures of a certain pattern from a
    * stop. Departure rows are identified with the pattern, so querying departure rows
@@ -1154,6 +1162,8 @@ public class LegacyGraphQLDataFetchers {
   public interface LegacyGraphQLDebugOutput {
     public DataFetcher<Long> pathCalculationTime();
 
+    public DataFetcher<Iterable<PhaseTimingOutput>> phases();
+
     public DataFetcher<Long> precalculationTime();
 
     public DataFetcher<Long> renderingTime();
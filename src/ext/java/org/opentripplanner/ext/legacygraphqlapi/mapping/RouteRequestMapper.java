@@ -264,6 +264,18 @@ public class RouteRequestMapper {
       "locale",
       (String v) -> request.setLocale(GraphQLUtils.getLocale(environment, v))
     );
+
+    // The walk steps, elevation and street notes are expensive, only create them if they are used
+    var selectionSet = environment.getSelectionSet();
+    if (selectionSet != null) {
+      request.setStreetLegDetails(
+        selectionSet.containsAnyOf(
+          "itineraries/legs/steps",
+          "itineraries/elevationGained",
+          "itineraries/elevationLost"
+        )
+      );
+    }
     return request;
   }
 
@@ -39,6 +39,8 @@ import uk.org.siri.siri20.VehicleModesEnumeration;
  * <p>
  * The same instance of this SiriFuzzyTripMatcher may appear in different SIRI updaters. Be sure
  * to fetch the instance at during the setup of the updaters, the initialization is not thread-safe.
+ * The caches are built when the instance is created and only read after that, so the matching
+ * methods may be called from several threads at the same time.
  */
 public class SiriFuzzyTripMatcher {
 
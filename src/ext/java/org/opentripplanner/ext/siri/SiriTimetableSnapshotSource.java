@@ -8,19 +8,25 @@ import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.NO_TRI
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_NOT_FOUND_IN_PATTERN;
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.UNKNOWN;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
@@ -43,6 +49,13 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(SiriTimetableSnapshotSource.class);
 
+  /**
+   * Messages with at least this number of journeys are matched to trips in parallel.
+   */
+  static final int PARALLEL_MATCHING_THRESHOLD = 100;
+
+  private static final String FEED_ID_TAG = "feedId";
+
   /**
    * The working copy of the timetable snapshot. Should not be visible to routing threads. Should
    * only be modified by a thread that holds a lock on {@link #bufferLock}. All public methods that
@@ -133,6 +146,14 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
 
   /**
    * Method to apply a trip update list to the most recent version of the timetable snapshot.
+   * <p>
+   * The journeys are applied in two stages. First each journey is matched to a trip and the new
+   * trip times are created, using a copy of the trip patterns added to the buffer instead of
+   * holding the buffer lock. This is done in parallel if there are many journeys. Then the results
+   * are applied to the buffer in the order of the journeys, while holding the lock. Journeys
+   * adding new trips change the transit model, so these are matched and applied in the second
+   * stage. Journeys after an added trip which could not be matched in the first stage are matched
+   * again, in case they refer to the added trip.
    *
    * @param fullDataset  true iff the list with updates represent all updates that are active right
    *                     now, i.e. all previous updates should be disregarded
@@ -150,10 +171,50 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateResult.empty();
     }
 
+    List<EstimatedVehicleJourney> journeys = new ArrayList<>();
+    for (var etDelivery : updates) {
+      for (var estimatedJourneyVersion : etDelivery.getEstimatedJourneyVersionFrames()) {
+        journeys.addAll(estimatedJourneyVersion.getEstimatedVehicleJourneies());
+      }
+    }
+    LOG.debug("Handling {} EstimatedVehicleJourneys.", journeys.size());
+
+    // Match the journeys against a copy of the patterns added to the buffer, the buffer is not
+    // used. The messages are applied by the single graph writer thread, so the buffer does not
+    // change before the commit stage, even if the buffer is not committed to a new snapshot. The
+    // patterns added by earlier messages for the feed are removed if this is a full dataset.
+    var matchTimer = Timer.start();
+    Map<TripIdAndServiceDate, TripPattern> addedPatterns;
+    bufferLock.lock();
+    try {
+      addedPatterns = buffer.getRealtimeAddedTripPatterns();
+    } finally {
+      bufferLock.unlock();
+    }
+    BiFunction<FeedScopedId, LocalDate, TripPattern> getRealtimeAddedTripPattern = (id, date) ->
+      fullDataset && id.getFeedId().equals(feedId)
+        ? null
+        : addedPatterns.get(new TripIdAndServiceDate(id, date));
+    List<MatchedJourney> matchedJourneys = (
+      journeys.size() >= PARALLEL_MATCHING_THRESHOLD ? journeys.parallelStream() : journeys.stream()
+    )
+      .map(journey ->
+        match(
+          journey,
+          fuzzyTripMatcher,
+          entityResolver,
+          getRealtimeAddedTripPattern,
+          false
+        )
+      )
+      .toList();
+    matchTimer.stop(timer("siri.et.match", feedId));
+
     // Acquire lock on buffer
     bufferLock.lock();
 
-    List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>();
+    var commitTimer = Timer.start();
+    List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>(journeys.size());
 
     try {
       if (fullDataset) {
@@ -161,14 +222,20 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         buffer.clear(feedId);
       }
 
-      for (var etDelivery : updates) {
-        for (var estimatedJourneyVersion : etDelivery.getEstimatedJourneyVersionFrames()) {
-          var journeys = estimatedJourneyVersion.getEstimatedVehicleJourneies();
-          LOG.debug("Handling {} EstimatedVehicleJourneys.", journeys.size());
-          for (EstimatedVehicleJourney journey : journeys) {
-            results.add(apply(journey, transitModel, fuzzyTripMatcher, entityResolver));
-          }
+      boolean tripAdded = false;
+      for (var matchedJourney : matchedJourneys) {
+        if (matchedJourney.isAddedTrip() || (tripAdded && matchedJourney.result().isFailure())) {
+          tripAdded |= matchedJourney.isAddedTrip();
+          matchedJourney =
+            match(
+              matchedJourney.journey(),
+              fuzzyTripMatcher,
+              entityResolver,
+              buffer::getRealtimeAddedTripPattern,
+              true
+            );
         }
+        results.add(apply(matchedJourney));
       }
 
       LOG.debug("message contains {} trip updates", updates.size());
@@ -184,52 +251,101 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         getTimetableSnapshot(false);
       }
     } finally {
+      commitTimer.stop(timer("siri.et.commit", feedId));
       // Always release lock
       bufferLock.unlock();
     }
+    Metrics.counter("siri.et.journeys", FEED_ID_TAG, feedId).increment(journeys.size());
     return UpdateResult.ofResults(results);
   }
 
-  private Result<UpdateSuccess, UpdateError> apply(
+  /**
+   * Match the journey to a trip and create the new trip times, without changing the buffer.
+   *
+   * @param addTrip If false, journeys adding a new trip are not matched, see
+   *                {@link MatchedJourney#isAddedTrip()}.
+   */
+  private MatchedJourney match(
     EstimatedVehicleJourney journey,
-    TransitModel transitModel,
     @Nullable SiriFuzzyTripMatcher fuzzyTripMatcher,
-    EntityResolver entityResolver
+    EntityResolver entityResolver,
+    BiFunction<FeedScopedId, LocalDate, TripPattern> getRealtimeAddedTripPattern,
+    boolean addTrip
   ) {
     boolean shouldAddNewTrip = false;
     try {
       shouldAddNewTrip = shouldAddNewTrip(journey, entityResolver);
-      Result<TripUpdate, UpdateError> result;
       if (shouldAddNewTrip) {
-        result =
-          new AddedTripBuilder(
-            journey,
-            transitModel,
-            entityResolver,
-            tripPatternIdGenerator::generateUniqueTripPatternId
-          )
-            .build();
-      } else {
-        result = handleModifiedTrip(fuzzyTripMatcher, entityResolver, journey);
+        if (!addTrip) {
+          return new MatchedJourney(journey, true, null, false);
+        }
+        var result = new AddedTripBuilder(
+          journey,
+          transitModel,
+          entityResolver,
+          tripPatternIdGenerator::generateUniqueTripPatternId
+        )
+          .build();
+        return new MatchedJourney(journey, true, result, false);
       }
+      return handleModifiedTrip(
+        fuzzyTripMatcher,
+        entityResolver,
+        journey,
+        getRealtimeAddedTripPattern
+      );
+    } catch (Exception e) {
+      logFailure(journey, shouldAddNewTrip, e);
+      return new MatchedJourney(journey, shouldAddNewTrip, failure(), false);
+    }
+  }
 
-      if (result.isFailure()) {
-        return result.toFailureResult();
+  /**
+   * Apply the result of {@link #match} to the buffer. The caller must hold the buffer lock.
+   */
+  private Result<UpdateSuccess, UpdateError> apply(MatchedJourney matchedJourney) {
+    var result = matchedJourney.result();
+    if (result.isFailure()) {
+      return result.toFailureResult();
+    }
+    var tripUpdate = result.successValue();
+    try {
+      if (!matchedJourney.isAddedTrip()) {
+        Trip trip = tripUpdate.tripTimes().getTrip();
+        if (matchedJourney.replacesScheduledPattern()) {
+          // Replace scheduled trip pattern, if pattern has changed
+          markScheduledTripAsDeleted(trip, tripUpdate.serviceDate());
+        }
+        // Also check whether trip id has been used for previously ADDED/MODIFIED trip message and
+        // remove the previously created trip
+        removePreviousRealtimeUpdate(trip, tripUpdate.serviceDate());
       }
 
       /* commit */
-      return addTripToGraphAndBuffer(result.successValue(), journey, entityResolver);
+      return addTripToGraphAndBuffer(tripUpdate);
     } catch (Exception e) {
-      LOG.warn(
-        "{} EstimatedJourney {} failed.",
-        shouldAddNewTrip ? "Adding" : "Updating",
-        DebugString.of(journey),
-        e
-      );
-      return Result.failure(UpdateError.noTripId(UNKNOWN));
+      logFailure(matchedJourney.journey(), matchedJourney.isAddedTrip(), e);
+      return failure();
     }
   }
 
+  private static void logFailure(EstimatedVehicleJourney journey, boolean addTrip, Exception e) {
+    LOG.warn(
+      "{} EstimatedJourney {} failed.",
+      addTrip ? "Adding" : "Updating",
+      DebugString.of(journey),
+      e
+    );
+  }
+
+  private static <T> Result<T, UpdateError> failure() {
+    return Result.failure(UpdateError.noTripId(UNKNOWN));
+  }
+
+  private static Timer timer(String name, String feedId) {
+    return Timer.builder(name).tag(FEED_ID_TAG, feedId).register(Metrics.globalRegistry);
+  }
+
   /**
    * Check if VehicleJourney is a replacement departure according to SIRI-ET requirements.
    */
@@ -275,10 +391,11 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     return tripPattern.getScheduledTimetable();
   }
 
-  private Result<TripUpdate, UpdateError> handleModifiedTrip(
+  private MatchedJourney handleModifiedTrip(
     @Nullable SiriFuzzyTripMatcher fuzzyTripMatcher,
     EntityResolver entityResolver,
-    EstimatedVehicleJourney estimatedVehicleJourney
+    EstimatedVehicleJourney estimatedVehicleJourney,
+    BiFunction<FeedScopedId, LocalDate, TripPattern> getRealtimeAddedTripPattern
   ) {
     Trip trip = entityResolver.resolveTrip(estimatedVehicleJourney);
 
@@ -288,13 +405,21 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       !TRUE.equals(estimatedVehicleJourney.isMonitored()) &&
       !TRUE.equals(estimatedVehicleJourney.isCancellation())
     ) {
-      return UpdateError.result(trip != null ? trip.getId() : null, NOT_MONITORED);
+      return modifiedTripError(
+        estimatedVehicleJourney,
+        trip != null ? trip.getId() : null,
+        NOT_MONITORED
+      );
     }
 
     LocalDate serviceDate = entityResolver.resolveServiceDate(estimatedVehicleJourney);
 
     if (serviceDate == null) {
-      return UpdateError.result(trip != null ? trip.getId() : null, NO_START_DATE);
+      return modifiedTripError(
+        estimatedVehicleJourney,
+        trip != null ? trip.getId() : null,
+        NO_START_DATE
+      );
     }
 
     TripPattern pattern;
@@ -308,7 +433,7 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
         estimatedVehicleJourney,
         entityResolver,
         this::getCurrentTimetable,
-        buffer::getRealtimeAddedTripPattern
+        getRealtimeAddedTripPattern
       );
 
       if (tripAndPattern == null) {
@@ -316,20 +441,20 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
           "No trips found for EstimatedVehicleJourney. {}",
           DebugString.of(estimatedVehicleJourney)
         );
-        return UpdateError.result(null, NO_FUZZY_TRIP_MATCH);
+        return modifiedTripError(estimatedVehicleJourney, null, NO_FUZZY_TRIP_MATCH);
       }
 
       trip = tripAndPattern.trip();
       pattern = tripAndPattern.tripPattern();
     } else {
-      return UpdateError.result(null, NO_TRIP_ID);
+      return modifiedTripError(estimatedVehicleJourney, null, NO_TRIP_ID);
     }
 
     Timetable currentTimetable = getCurrentTimetable(pattern, serviceDate);
     TripTimes existingTripTimes = currentTimetable.getTripTimes(trip);
     if (existingTripTimes == null) {
       LOG.debug("tripId {} not found in pattern.", trip.getId());
-      return UpdateError.result(trip.getId(), TRIP_NOT_FOUND_IN_PATTERN);
+      return modifiedTripError(estimatedVehicleJourney, trip.getId(), TRIP_NOT_FOUND_IN_PATTERN);
     }
     var updateResult = new ModifiedTripBuilder(
       existingTripTimes,
@@ -341,29 +466,36 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     )
       .build();
     if (updateResult.isFailure()) {
-      return updateResult.toFailureResult();
+      return modified(estimatedVehicleJourney, updateResult.toFailureResult(), false);
     }
 
-    if (!updateResult.successValue().stopPattern().equals(pattern.getStopPattern())) {
-      // Replace scheduled trip pattern, if pattern has changed
-      markScheduledTripAsDeleted(trip, serviceDate);
-    }
+    boolean patternChanged = !updateResult
+      .successValue()
+      .stopPattern()
+      .equals(pattern.getStopPattern());
+    return modified(estimatedVehicleJourney, updateResult, patternChanged);
+  }
 
-    // Also check whether trip id has been used for previously ADDED/MODIFIED trip message and
-    // remove the previously created trip
-    removePreviousRealtimeUpdate(trip, serviceDate);
+  private static MatchedJourney modifiedTripError(
+    EstimatedVehicleJourney journey,
+    @Nullable FeedScopedId tripId,
+    UpdateError.UpdateErrorType errorType
+  ) {
+    return modified(journey, UpdateError.result(tripId, errorType), false);
+  }
 
-    return updateResult;
+  private static MatchedJourney modified(
+    EstimatedVehicleJourney journey,
+    Result<TripUpdate, UpdateError> result,
+    boolean replacesScheduledPattern
+  ) {
+    return new MatchedJourney(journey, false, result, replacesScheduledPattern);
   }
 
   /**
    * Add a (new) trip to the transitModel and the buffer
    */
-  private Result<UpdateSuccess, UpdateError> addTripToGraphAndBuffer(
-    TripUpdate tripUpdate,
-    EstimatedVehicleJourney estimatedVehicleJourney,
-    EntityResolver entityResolver
-  ) {
+  private Result<UpdateSuccess, UpdateError> addTripToGraphAndBuffer(TripUpdate tripUpdate) {
     Trip trip = tripUpdate.tripTimes().getTrip();
     LocalDate serviceDate = tripUpdate.serviceDate();
 
@@ -448,4 +580,20 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
 
     return buffer.purgeExpiredData(previously);
   }
+
+  /**
+   * The result of matching a journey to a trip, to be applied to the buffer.
+   *
+   * @param isAddedTrip              The journey adds a new trip
+   * @param result                   The new trip times, or {@code null} if the journey adds a new
+   *                                 trip which is not matched yet
+   * @param replacesScheduledPattern The stop pattern of the modified trip has changed, and the
+   *                                 scheduled trip must be marked as deleted
+   */
+  private record MatchedJourney(
+    EstimatedVehicleJourney journey,
+    boolean isAddedTrip,
+    @Nullable Result<TripUpdate, UpdateError> result,
+    boolean replacesScheduledPattern
+  ) {}
 }
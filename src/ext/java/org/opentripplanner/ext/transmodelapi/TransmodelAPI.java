@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 import org.opentripplanner.ext.transmodelapi.mapping.TransitIdMapper;
 import org.opentripplanner.ext.transmodelapi.support.GqlUtil;
 import org.opentripplanner.ext.transmodelapi.support.GraphQLToWebResponseMapper;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.transit.service.TransitModel;
@@ -40,7 +41,10 @@ public class TransmodelAPI {
   @SuppressWarnings("unused")
   private static final Logger LOG = LoggerFactory.getLogger(TransmodelAPI.class);
 
+  private static final int MAX_CACHED_DOCUMENTS = 1000;
+
   private static GraphQLSchema schema;
+  private static PreparsedDocumentCache documentCache;
   private static Collection<String> tracingHeaderTags;
 
   private final OtpServerRequestContext serverContext;
@@ -56,7 +60,7 @@ public class TransmodelAPI {
     @Deprecated @PathParam("ignoreRouterId") String ignoreRouterId
   ) {
     this.serverContext = serverContext;
-    this.index = new TransmodelGraph(schema);
+    this.index = new TransmodelGraph(schema, documentCache);
   }
 
   /**
@@ -75,6 +79,7 @@ public class TransmodelAPI {
     tracingHeaderTags = config.tracingHeaderTags();
     GqlUtil gqlUtil = new GqlUtil(transitModel.getTimeZone());
     schema = TransmodelGraphQLSchema.create(defaultRouteRequest, gqlUtil);
+    documentCache = new PreparsedDocumentCache("transmodel", MAX_CACHED_DOCUMENTS);
   }
 
   /**
@@ -94,12 +99,26 @@ public class TransmodelAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Map<String, Object> extensions = queryParameters != null &&
+      queryParameters.get("extensions") instanceof Map map
+      ? map
+      : null;
+
+    if (
+      queryParameters == null ||
+      (
+        !queryParameters.containsKey("query") &&
+        !PreparsedDocumentCache.hasPersistedQueryId(extensions)
+      )
+    ) {
       LOG.debug("No query found in body");
       throw new BadRequestException("No query found in body");
     }
 
-    String query = (String) queryParameters.get("query");
+    String query = (String) queryParameters.getOrDefault(
+      "query",
+      PreparsedDocumentCache.PERSISTED_QUERY_MARKER
+    );
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -119,6 +138,7 @@ public class TransmodelAPI {
       serverContext,
       variables,
       operationName,
+      extensions,
       maxResolves,
       getTagsFromHeaders(headers)
     );
@@ -138,6 +158,7 @@ public class TransmodelAPI {
       serverContext,
       null,
       null,
+      null,
       maxResolves,
       getTagsFromHeaders(headers)
     );
@@ -19,19 +19,22 @@ import org.opentripplanner.ext.transmodelapi.support.OtpExecutionResult;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 
 class TransmodelGraph {
 
   private static final int MAX_ERROR_TO_RETURN = 25;
   private final GraphQLSchema indexSchema;
+  private final PreparsedDocumentCache documentCache;
 
   final ExecutorService threadPool;
 
-  TransmodelGraph(GraphQLSchema schema) {
+  TransmodelGraph(GraphQLSchema schema, PreparsedDocumentCache documentCache) {
     this.threadPool =
       Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
     this.indexSchema = schema;
+    this.documentCache = documentCache;
   }
 
   OtpExecutionResult executeGraphQL(
@@ -39,6 +42,7 @@ class TransmodelGraph {
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     Iterable<Tag> tracingTags
   ) {
@@ -57,6 +61,7 @@ class TransmodelGraph {
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
       .queryExecutionStrategy(executionStrategy)
+      .preparsedDocumentProvider(documentCache)
       .build();
 
     if (variables == null) {
@@ -76,6 +81,7 @@ class TransmodelGraph {
       .context(transmodelRequestContext)
       .root(serverContext)
       .variables(variables)
+      .extensions(extensions == null ? Map.of() : extensions)
       .build();
 
     // EXECUTE GRAPHQL QUERY
@@ -114,6 +114,14 @@ public class TripRequestMapper {
       PreferencesMapper.mapPreferences(environment, callWith, preferences)
     );
 
+    // The walk steps, elevation and street notes are expensive, only create them if they are used
+    var selectionSet = environment.getSelectionSet();
+    if (selectionSet != null) {
+      request.setStreetLegDetails(
+        selectionSet.containsAnyOf("tripPatterns/legs/steps", "tripPatterns/legs/elevationProfile")
+      );
+    }
+
     return request;
   }
 }
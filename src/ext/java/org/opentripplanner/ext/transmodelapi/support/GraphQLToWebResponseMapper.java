@@ -13,10 +13,10 @@ public class GraphQLToWebResponseMapper {
     if (result.timeout()) {
       return Response
         .status(OtpHttpStatus.STATUS_UNPROCESSABLE_ENTITY.statusCode())
-        .entity(GraphQLResponseSerializer.serialize(result.result()))
+        .entity(GraphQLResponseSerializer.stream(result.result()))
         .build();
     }
     // Default - OK
-    return Response.ok(GraphQLResponseSerializer.serialize(result.result())).build();
+    return Response.ok(GraphQLResponseSerializer.stream(result.result())).build();
   }
 }
@@ -0,0 +1,110 @@
+package org.opentripplanner.ext.traveltime;
+
+import org.opentripplanner.ext.traveltime.geometry.ZSampleGrid;
+
+/**
+ * The grid points reached by a street search from one place, stored in primitive arrays. For each
+ * point we keep the travel time in seconds, the walk distance and the off-road distance in meters.
+ * The times and distances are relative to the start of the street search.
+ */
+final class GridCells {
+
+  static final GridCells EMPTY = new GridCells(
+    new int[0],
+    new int[0],
+    new int[0],
+    new int[0],
+    new int[0]
+  );
+
+  private final int[] xs;
+  private final int[] ys;
+  private final int[] times;
+  private final int[] walkDistances;
+  private final int[] offRoadDistances;
+  private final int xMin, xMax, yMin, yMax;
+
+  GridCells(int[] xs, int[] ys, int[] times, int[] walkDistances, int[] offRoadDistances) {
+    this.xs = xs;
+    this.ys = ys;
+    this.times = times;
+    this.walkDistances = walkDistances;
+    this.offRoadDistances = offRoadDistances;
+
+    int xMin = Integer.MAX_VALUE, xMax = Integer.MIN_VALUE;
+    int yMin = Integer.MAX_VALUE, yMax = Integer.MIN_VALUE;
+    for (int i = 0; i < xs.length; ++i) {
+      xMin = Math.min(xMin, xs[i]);
+      xMax = Math.max(xMax, xs[i]);
+      yMin = Math.min(yMin, ys[i]);
+      yMax = Math.max(yMax, ys[i]);
+    }
+    this.xMin = xMin;
+    this.xMax = xMax;
+    this.yMin = yMin;
+    this.yMax = yMax;
+  }
+
+  /**
+   * Copy the samples of a sample grid into primitive arrays.
+   */
+  static GridCells of(ZSampleGrid<WTWD> sampleGrid) {
+    int n = sampleGrid.size();
+    int[] xs = new int[n];
+    int[] ys = new int[n];
+    int[] times = new int[n];
+    int[] walkDistances = new int[n];
+    int[] offRoadDistances = new int[n];
+    int i = 0;
+    for (var p : sampleGrid) {
+      var z = p.getZ();
+      xs[i] = p.getX();
+      ys[i] = p.getY();
+      times[i] = (int) Math.round(z.wTime / z.w);
+      walkDistances[i] = (int) Math.round(z.wWalkDist / z.w);
+      offRoadDistances[i] = (int) Math.round(z.d);
+      ++i;
+    }
+    return new GridCells(xs, ys, times, walkDistances, offRoadDistances);
+  }
+
+  int size() {
+    return xs.length;
+  }
+
+  int x(int i) {
+    return xs[i];
+  }
+
+  int y(int i) {
+    return ys[i];
+  }
+
+  int time(int i) {
+    return times[i];
+  }
+
+  int walkDistance(int i) {
+    return walkDistances[i];
+  }
+
+  int offRoadDistance(int i) {
+    return offRoadDistances[i];
+  }
+
+  int xMin() {
+    return xMin;
+  }
+
+  int xMax() {
+    return xMax;
+  }
+
+  int yMin() {
+    return yMin;
+  }
+
+  int yMax() {
+    return yMax;
+  }
+}
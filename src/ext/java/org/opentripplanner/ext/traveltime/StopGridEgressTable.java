@@ -0,0 +1,332 @@
+package org.opentripplanner.ext.traveltime;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.ext.traveltime.geometry.AccumulativeGridSampler;
+import org.opentripplanner.ext.traveltime.geometry.SparseMatrixZSampleGrid;
+import org.opentripplanner.ext.traveltime.geometry.ZSampleGrid;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+/**
+ * The egress from each stop to the points of a fixed grid covering the graph, stored in primitive
+ * arrays. This is used to create travel time surfaces without a street search from all the stops
+ * reached by transit. The travel time to a grid point is the minimum over the reached stops of the
+ * time to the stop plus the egress time from the stop to the point.
+ * <p>
+ * The grid is anchored at the center of the graph, so the grid points are the same for all
+ * requests. The egress from a stop is found the first time the stop is reached, and then kept for
+ * as long as the table is in use. The number of grid points kept by each table is limited by
+ * {@link #MAX_GRID_POINTS_PER_TABLE}, the egress of the least recently used stops is dropped and
+ * found again when needed. There is one table for each combination of the request
+ * parameters used by the egress search, see {@link Key}. Only the most recently used tables of
+ * each graph are kept, and the tables do not refer to the graph, so they are dropped together with
+ * the graph.
+ * <p>
+ * The egress with a rental or parking mode depends on the realtime availability of vehicles and
+ * parking spaces, so these tables are created for each request and not cached.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+final class StopGridEgressTable {
+
+  /** The max number of tables kept for each graph, the least recently used are dropped. */
+  private static final int MAX_TABLES_PER_GRAPH = 8;
+
+  /**
+   * The max number of grid points of the egress kept by each table. Each point takes about 20
+   * bytes, so a table uses at most about 50 MB.
+   */
+  private static final long MAX_GRID_POINTS_PER_TABLE = 2_500_000;
+
+  private static final Cache<Graph, Map<Key, StopGridEgressTable>> TABLES = CacheBuilder
+    .newBuilder()
+    .weakKeys()
+    .build();
+
+  private final RouteRequest request;
+  private final StreetRequest egressRequest;
+  private final Duration maxEgressDuration;
+  private final int gridSizeMeters;
+  private final int offRoadDistanceMeters;
+  private final Coordinate center;
+  private final double cosLat;
+  private final double dX;
+  private final double dY;
+  private final Cache<RegularStop, GridCells> egressByStop = CacheBuilder
+    .newBuilder()
+    .maximumWeight(MAX_GRID_POINTS_PER_TABLE)
+    .weigher((RegularStop stop, GridCells cells) -> cells.size())
+    .build();
+
+  private StopGridEgressTable(
+    Coordinate center,
+    RouteRequest request,
+    StreetRequest egressRequest,
+    Duration maxEgressDuration,
+    int gridSizeMeters,
+    int offRoadDistanceMeters
+  ) {
+    this.request = request;
+    this.egressRequest = egressRequest;
+    this.maxEgressDuration = maxEgressDuration;
+    this.gridSizeMeters = gridSizeMeters;
+    this.offRoadDistanceMeters = offRoadDistanceMeters;
+    this.center = center;
+    this.cosLat = Math.cos(Math.toRadians(center.y));
+    this.dY = Math.toDegrees(gridSizeMeters / SphericalDistanceLibrary.RADIUS_OF_EARTH_IN_M);
+    this.dX = dY / cosLat;
+  }
+
+  /**
+   * Get the table for the egress parameters of the request, create it if it does not exist.
+   *
+   * @param maxEgressDuration The max duration of the egress from each stop, this must be the same
+   *                          limit as used for the direct street search.
+   */
+  static StopGridEgressTable of(
+    Graph graph,
+    RouteRequest request,
+    StreetRequest egressRequest,
+    Duration maxEgressDuration,
+    TravelTimeRequest traveltimeRequest
+  ) {
+    var center = graph.getExtent().centre();
+    var key = new Key(
+      egressRequest.mode(),
+      request.arriveBy(),
+      request.wheelchair(),
+      request.preferences(),
+      maxEgressDuration,
+      traveltimeRequest.precisionMeters,
+      traveltimeRequest.offRoadDistanceMeters,
+      center
+    );
+    if (key.mode().includesRenting() || key.mode().includesParking()) {
+      return key.createTable(request, egressRequest);
+    }
+    var tables = TABLES
+      .asMap()
+      .computeIfAbsent(
+        graph,
+        g ->
+          CacheBuilder
+            .newBuilder()
+            .maximumSize(MAX_TABLES_PER_GRAPH)
+            .<Key, StopGridEgressTable>build()
+            .asMap()
+      );
+    return tables.computeIfAbsent(key, k -> k.createTable(request, egressRequest));
+  }
+
+  /**
+   * Sample the result of a street search on the grid of this table.
+   */
+  GridCells sample(ShortestPathTree<State, Edge, Vertex> spt, int maxTimeSec) {
+    var sampleGrid = new SparseMatrixZSampleGrid<WTWD>(16, spt.getVertexCount(), dX, dY, center);
+    SampleGridRenderer.sampleSPT(
+      spt,
+      sampleGrid,
+      gridSizeMeters,
+      offRoadDistanceMeters,
+      SampleGridRenderer.OFF_ROAD_WALK_SPEED_MPS,
+      maxTimeSec,
+      cosLat
+    );
+    return GridCells.of(sampleGrid);
+  }
+
+  /**
+   * Create the travel time surface for a search.
+   *
+   * @param graph The graph used to create this table.
+   * @param direct The grid points reached by the street search from the search location, without
+   *               using transit.
+   * @param timeToStops The time in seconds from the search location to each stop reached by
+   *                    transit.
+   * @param maxTimeSec The max travel time.
+   */
+  ZSampleGrid<WTWD> sampleGrid(
+    Graph graph,
+    GridCells direct,
+    Map<RegularStop, Integer> timeToStops,
+    int maxTimeSec
+  ) {
+    // Find the egress from the stops not reached by earlier searches
+    Map<RegularStop, GridCells> egress = timeToStops
+      .entrySet()
+      .parallelStream()
+      .filter(it -> it.getValue() < maxTimeSec)
+      .collect(Collectors.toConcurrentMap(Map.Entry::getKey, it -> egress(graph, it.getKey())));
+
+    List<GridCells> cells = new ArrayList<>(egress.size() + 1);
+    int[] startTimes = new int[egress.size() + 1];
+    cells.add(direct);
+    for (var it : egress.entrySet()) {
+      startTimes[cells.size()] = timeToStops.get(it.getKey());
+      cells.add(it.getValue());
+    }
+
+    var sampleGrid = new SparseMatrixZSampleGrid<WTWD>(16, direct.size() * 4, dX, dY, center);
+    reduce(sampleGrid, cells, startTimes, maxTimeSec + maxOffRoadTime());
+    new AccumulativeGridSampler<>(
+      sampleGrid,
+      new WTWDAccumulativeMetric(
+        cosLat,
+        offRoadDistanceMeters,
+        SampleGridRenderer.OFF_ROAD_WALK_SPEED_MPS,
+        gridSizeMeters
+      )
+    )
+      .close();
+    return sampleGrid;
+  }
+
+  /**
+   * Add the minimum travel time to each grid point to the sample grid. The time to a point from
+   * the cells with index {@code i} is {@code startTimes[i]} plus the time of the point in the
+   * cells. Points with a time of {@code maxTimeSec} or more are left out.
+   */
+  static void reduce(
+    ZSampleGrid<WTWD> sampleGrid,
+    List<GridCells> cells,
+    int[] startTimes,
+    int maxTimeSec
+  ) {
+    int xMin = Integer.MAX_VALUE, xMax = Integer.MIN_VALUE;
+    int yMin = Integer.MAX_VALUE, yMax = Integer.MIN_VALUE;
+    for (var it : cells) {
+      if (it.size() > 0) {
+        xMin = Math.min(xMin, it.xMin());
+        xMax = Math.max(xMax, it.xMax());
+        yMin = Math.min(yMin, it.yMin());
+        yMax = Math.max(yMax, it.yMax());
+      }
+    }
+    if (xMin > xMax) {
+      return;
+    }
+
+    int width = xMax - xMin + 1;
+    int size = width * (yMax - yMin + 1);
+    int[] times = new int[size];
+    int[] walkDistances = new int[size];
+    int[] offRoadDistances = new int[size];
+    Arrays.fill(times, Integer.MAX_VALUE);
+    Arrays.fill(offRoadDistances, Integer.MAX_VALUE);
+
+    for (int k = 0; k < cells.size(); ++k) {
+      GridCells c = cells.get(k);
+      int startTime = startTimes[k];
+      for (int i = 0; i < c.size(); ++i) {
+        int time = startTime + c.time(i);
+        if (time >= maxTimeSec) {
+          continue;
+        }
+        int index = (c.y(i) - yMin) * width + c.x(i) - xMin;
+        if (time < times[index]) {
+          times[index] = time;
+          walkDistances[index] = c.walkDistance(i);
+        }
+        offRoadDistances[index] = Math.min(offRoadDistances[index], c.offRoadDistance(i));
+      }
+    }
+
+    for (int index = 0; index < size; ++index) {
+      if (times[index] == Integer.MAX_VALUE) {
+        continue;
+      }
+      var z = new WTWD();
+      z.w = 1.0;
+      z.wTime = times[index];
+      z.wWalkDist = walkDistances[index];
+      z.d = offRoadDistances[index];
+      sampleGrid.getOrCreate(xMin + index % width, yMin + index / width).setZ(z);
+    }
+  }
+
+  private GridCells egress(Graph graph, RegularStop stop) {
+    var egress = egressByStop.getIfPresent(stop);
+    if (egress == null) {
+      // Two threads may find the egress for the same stop, but the result is the same
+      egress = findEgress(graph, stop);
+      egressByStop.put(stop, egress);
+    }
+    return egress;
+  }
+
+  private GridCells findEgress(Graph graph, RegularStop stop) {
+    Vertex vertex = graph.getStopVertexForStopId(stop.getId());
+    if (vertex == null) {
+      return GridCells.EMPTY;
+    }
+    var searchBuilder = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxEgressDuration))
+      .setRequest(request)
+      .setStreetRequest(egressRequest)
+      .setDominanceFunction(new DominanceFunctions.EarliestArrival());
+    if (request.arriveBy()) {
+      searchBuilder.setTo(vertex);
+    } else {
+      searchBuilder.setFrom(vertex);
+    }
+    return sample(searchBuilder.getShortestPathTree(), (int) maxEgressDuration.toSeconds());
+  }
+
+  /**
+   * A grid point is at most one grid cell diagonal away from a sample, and the time to walk this
+   * distance off-road is added to the time of the sample.
+   */
+  private int maxOffRoadTime() {
+    return (int) Math.ceil(
+      Math.sqrt(2) * gridSizeMeters / SampleGridRenderer.OFF_ROAD_WALK_SPEED_MPS
+    );
+  }
+
+  /**
+   * The request parameters used by the egress search and the grid. The search time and locations
+   * of the request are not used, the egress search starts at the stops and the times are relative
+   * to the arrival at the stop.
+   */
+  private record Key(
+    StreetMode mode,
+    boolean arriveBy,
+    boolean wheelchair,
+    RoutingPreferences preferences,
+    Duration maxEgressDuration,
+    int gridSizeMeters,
+    int offRoadDistanceMeters,
+    Coordinate center
+  ) {
+    private StopGridEgressTable createTable(RouteRequest request, StreetRequest egressRequest) {
+      return new StopGridEgressTable(
+        center,
+        request.clone(),
+        egressRequest.clone(),
+        maxEgressDuration,
+        gridSizeMeters,
+        offRoadDistanceMeters
+      );
+    }
+  }
+}
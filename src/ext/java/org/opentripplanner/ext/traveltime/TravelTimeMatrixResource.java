@@ -0,0 +1,131 @@
+package org.opentripplanner.ext.traveltime;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.opentripplanner.api.parameter.QualifiedModeSet;
+import org.opentripplanner.ext.traveltime.matrix.MatrixPoint;
+import org.opentripplanner.ext.traveltime.matrix.TravelTimeMatrix;
+import org.opentripplanner.ext.traveltime.matrix.TravelTimeMatrixWriter;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+
+/**
+ * Travel time matrix between a set of origins and a set of destinations, for all departure times
+ * in a departure window. See {@link TravelTimeMatrix}.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  private static final String CSV = "text/csv";
+
+  private final OtpServerRequestContext serverContext;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces({ CSV, MediaType.APPLICATION_OCTET_STREAM })
+  public Response getMatrix(
+    @QueryParam("time") String time,
+    @QueryParam("window") @DefaultValue("60m") String window,
+    @QueryParam("maxTravelTime") @DefaultValue("60m") String maxTravelTime,
+    @QueryParam("percentile") @DefaultValue("50") List<Integer> percentiles,
+    @QueryParam("modes") String modes,
+    @QueryParam("format") @DefaultValue("csv") String format,
+    Points points
+  ) {
+    if (points == null || points.origins() == null || points.destinations() == null) {
+      throw new BadRequestException("Both origins and destinations are required.");
+    }
+    var departureWindow = duration("window", window);
+    var maxTravelDuration = duration("maxTravelTime", maxTravelTime);
+    var error = TravelTimeMatrix.validate(
+      points.origins().size(),
+      points.destinations().size(),
+      departureWindow,
+      maxTravelDuration
+    );
+    if (error != null) {
+      throw new BadRequestException(error);
+    }
+    if (percentiles.stream().anyMatch(p -> p < 0 || p > 100)) {
+      throw new BadRequestException("Percentiles must be in the range [0, 100].");
+    }
+    boolean binary = switch (format) {
+      case "csv" -> false;
+      case "binary" -> true;
+      default -> throw new BadRequestException("Unknown format: " + format);
+    };
+
+    int[] p = percentiles.stream().mapToInt(Integer::intValue).toArray();
+    var matrix = new TravelTimeMatrix(
+      serverContext,
+      routeRequest(time, modes),
+      points.origins(),
+      points.destinations(),
+      departureWindow,
+      maxTravelDuration,
+      p
+    );
+
+    StreamingOutput out = outputStream ->
+      matrix.write(
+        binary
+          ? TravelTimeMatrixWriter.binary(outputStream, points.destinations(), p)
+          : TravelTimeMatrixWriter.csv(outputStream, points.destinations(), p)
+      );
+    return Response.ok(out, binary ? MediaType.APPLICATION_OCTET_STREAM : CSV).build();
+  }
+
+  private RouteRequest routeRequest(String time, String modes) {
+    var request = serverContext.defaultRouteRequest();
+    try {
+      request.setDateTime(time != null ? Instant.parse(time) : Instant.now());
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid time: " + time);
+    }
+    request.setArriveBy(false);
+
+    if (modes != null) {
+      var modeSet = new QualifiedModeSet(modes);
+      request.journey().setModes(modeSet.getRequestModes());
+      var transitModes = modeSet.getTransitModes().stream().map(MainAndSubMode::new).toList();
+      var select = SelectRequest.of().withTransportModes(transitModes).build();
+      var filter = TransitFilterRequest.of().addSelect(select).build();
+      request.journey().transit().setFilters(List.of(filter));
+    }
+    return request;
+  }
+
+  private static Duration duration(String name, String value) {
+    try {
+      return DurationUtils.duration(value);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid " + name + ": " + value);
+    }
+  }
+
+  /**
+   * The request body.
+   */
+  public record Points(List<MatrixPoint> origins, List<MatrixPoint> destinations) {}
+}
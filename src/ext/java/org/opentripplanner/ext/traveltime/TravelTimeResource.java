@@ -15,14 +15,15 @@ import java.time.Period;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import org.geotools.data.geojson.GeoJSONWriter;
 import org.opentripplanner.api.common.LocationStringParser;
 import org.opentripplanner.api.parameter.QualifiedModeSet;
 import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.ext.traveltime.geometry.ZSampleGrid;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
@@ -51,10 +52,7 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
-import org.opentripplanner.street.search.request.StreetSearchRequest;
-import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
-import org.opentripplanner.street.search.state.StateData;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.transit.model.basic.MainAndSubMode;
 import org.opentripplanner.transit.model.site.RegularStop;
@@ -173,8 +171,16 @@ public class TravelTimeResource {
     ) {
       var accessList = getAccess(temporaryVertices);
       var arrivals = route(accessList).getArrivals();
-      var spt = getShortestPathTree(temporaryVertices, arrivals);
-      return SampleGridRenderer.getSampleGrid(spt, traveltimeRequest);
+      var egressTable = StopGridEgressTable.of(
+        graph,
+        routingRequest,
+        getEgressRequest(routingRequest),
+        traveltimeRequest.maxEgressDuration,
+        traveltimeRequest
+      );
+      int maxTimeSec = (int) traveltimeRequest.maxCutoff.toSeconds();
+      var direct = egressTable.sample(getDirectShortestPathTree(temporaryVertices), maxTimeSec);
+      return egressTable.sampleGrid(graph, direct, getTimeToStops(arrivals), maxTimeSec);
     }
   }
 
@@ -191,55 +197,26 @@ public class TravelTimeResource {
     return AccessEgressMapper.mapNearbyStops(accessStops, routingRequest.arriveBy());
   }
 
-  private ShortestPathTree<State, Edge, Vertex> getShortestPathTree(
-    TemporaryVerticesContainer temporaryVertices,
-    StopArrivals arrivals
+  private ShortestPathTree<State, Edge, Vertex> getDirectShortestPathTree(
+    TemporaryVerticesContainer temporaryVertices
   ) {
     return StreetSearchBuilder
       .of()
-      .setSkipEdgeStrategy(
-        new PostTransitSkipEdgeStrategy(
-          traveltimeRequest.maxEgressDuration,
-          routingRequest.dateTime(),
-          routingRequest.arriveBy()
-        )
-      )
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(traveltimeRequest.maxEgressDuration))
       .setRequest(routingRequest)
-      .setStreetRequest(getEgressRequest(routingRequest))
+      .setStreetRequest(routingRequest.journey().direct())
       .setVerticesContainer(temporaryVertices)
       .setDominanceFunction(new DominanceFunctions.EarliestArrival())
-      .setInitialStates(getInitialStates(arrivals, temporaryVertices))
       .getShortestPathTree();
   }
 
-  private List<State> getInitialStates(
-    StopArrivals arrivals,
-    TemporaryVerticesContainer temporaryVertices
-  ) {
-    List<State> initialStates = new ArrayList<>();
-
-    StreetSearchRequest directStreetSearchRequest = StreetSearchRequestMapper
-      .map(routingRequest)
-      .withMode(routingRequest.journey().direct().mode())
-      .withArriveBy(routingRequest.arriveBy())
-      .build();
-
-    List<StateData> directStateDatas = StateData.getInitialStateDatas(directStreetSearchRequest);
-
-    Set<Vertex> vertices = routingRequest.arriveBy()
-      ? temporaryVertices.getToVertices()
-      : temporaryVertices.getFromVertices();
-    for (var vertex : vertices) {
-      for (var stateData : directStateDatas) {
-        initialStates.add(new State(vertex, startTime, stateData, directStreetSearchRequest));
-      }
-    }
-
-    StreetSearchRequest egressStreetSearchRequest = StreetSearchRequestMapper
-      .map(routingRequest)
-      .withMode(getEgressRequest(routingRequest).mode())
-      .withArriveBy(routingRequest.arriveBy())
-      .build();
+  /**
+   * The time in seconds from the search location to each stop reached by transit.
+   */
+  private Map<RegularStop, Integer> getTimeToStops(StopArrivals arrivals) {
+    int startTimeSec = ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime);
+    int endTimeSec = ServiceDateUtils.secondsSinceStartOfTime(startOfTime, endTime);
+    Map<RegularStop, Integer> timeToStops = new HashMap<>();
 
     for (RegularStop stop : transitService.listRegularStops()) {
       int index = stop.getIndex();
@@ -247,25 +224,12 @@ public class TravelTimeResource {
         continue;
       }
       final int arrivalTime = arrivals.bestTransitArrivalTime(index);
-      Vertex v = graph.getStopVertexForStopId(stop.getId());
-      if (v == null) {
-        continue;
-      }
-      Instant time = startOfTime.plusSeconds(arrivalTime).toInstant();
-      List<StateData> egressStateDatas = StateData.getInitialStateDatas(
-        egressStreetSearchRequest,
-        mode -> new TravelTimeStateData(mode, time.getEpochSecond())
+      timeToStops.put(
+        stop,
+        routingRequest.arriveBy() ? endTimeSec - arrivalTime : arrivalTime - startTimeSec
       );
-      for (var stopStateData : egressStateDatas) {
-        State s = new State(v, time, stopStateData, directStreetSearchRequest);
-        s.weight =
-          routingRequest.arriveBy()
-            ? time.until(endTime, ChronoUnit.SECONDS)
-            : startTime.until(time, ChronoUnit.SECONDS);
-        initialStates.add(s);
-      }
     }
-    return initialStates;
+    return timeToStops;
   }
 
   private RaptorResponse<TripSchedule> route(Collection<? extends RaptorAccessEgress> accessList) {
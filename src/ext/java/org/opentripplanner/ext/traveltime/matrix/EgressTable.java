@@ -0,0 +1,109 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+
+/**
+ * The egress from stops to all destinations in a travel time matrix. The egress is found once for
+ * each destination, and then indexed by stop. This allows us to find the travel times to all
+ * destinations by going through the stops with egress once for each Raptor iteration.
+ * <p>
+ * The egress paths for the stop with index {@code i} are in the range
+ * {@code [startIndex(i), endIndex(i))} of the destination and duration arrays.
+ */
+final class EgressTable {
+
+  private final int[] stops;
+  private final int[] offsets;
+  private final int[] destinations;
+  private final int[] durations;
+
+  private EgressTable(int[] stops, int[] offsets, int[] destinations, int[] durations) {
+    this.stops = stops;
+    this.offsets = offsets;
+    this.destinations = destinations;
+    this.durations = durations;
+  }
+
+  /**
+   * @param egressByDestination The egress paths from stops to each destination, in the same order
+   *                            as the destinations.
+   */
+  static EgressTable create(
+    List<? extends Collection<? extends RaptorAccessEgress>> egressByDestination
+  ) {
+    int maxStop = -1;
+    int size = 0;
+    for (var egressPaths : egressByDestination) {
+      for (var it : egressPaths) {
+        maxStop = Math.max(maxStop, it.stop());
+        ++size;
+      }
+    }
+
+    // Count the egress paths for each stop, and then find the first index of each stop
+    int[] firstIndexByStop = new int[maxStop + 2];
+    for (var egressPaths : egressByDestination) {
+      for (var it : egressPaths) {
+        ++firstIndexByStop[it.stop() + 1];
+      }
+    }
+    int nStops = 0;
+    for (int stop = 0; stop <= maxStop; ++stop) {
+      if (firstIndexByStop[stop + 1] > 0) {
+        ++nStops;
+      }
+      firstIndexByStop[stop + 1] += firstIndexByStop[stop];
+    }
+
+    int[] next = firstIndexByStop.clone();
+    int[] destinations = new int[size];
+    int[] durations = new int[size];
+    for (int destination = 0; destination < egressByDestination.size(); ++destination) {
+      for (var it : egressByDestination.get(destination)) {
+        int index = next[it.stop()]++;
+        destinations[index] = destination;
+        durations[index] = it.durationInSeconds();
+      }
+    }
+
+    int[] stops = new int[nStops];
+    int[] offsets = new int[nStops + 1];
+    int i = 0;
+    for (int stop = 0; stop <= maxStop; ++stop) {
+      if (firstIndexByStop[stop + 1] > firstIndexByStop[stop]) {
+        stops[i] = stop;
+        offsets[i] = firstIndexByStop[stop];
+        ++i;
+      }
+    }
+    offsets[nStops] = size;
+    return new EgressTable(stops, offsets, destinations, durations);
+  }
+
+  /** The number of stops with egress to at least one destination. */
+  int numberOfStops() {
+    return stops.length;
+  }
+
+  int stop(int i) {
+    return stops[i];
+  }
+
+  int startIndex(int i) {
+    return offsets[i];
+  }
+
+  int endIndex(int i) {
+    return offsets[i + 1];
+  }
+
+  int destination(int index) {
+    return destinations[index];
+  }
+
+  int durationInSeconds(int index) {
+    return durations[index];
+  }
+}
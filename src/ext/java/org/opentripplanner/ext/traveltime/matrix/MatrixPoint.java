@@ -0,0 +1,14 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import org.opentripplanner.model.GenericLocation;
+
+/**
+ * An origin or destination in a travel time matrix request.
+ *
+ * @param id The id of the point, used to identify the point in the result.
+ */
+public record MatrixPoint(String id, double lat, double lon) {
+  GenericLocation toGenericLocation() {
+    return new GenericLocation(lat, lon);
+  }
+}
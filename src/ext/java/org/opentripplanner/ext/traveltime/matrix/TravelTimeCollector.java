@@ -0,0 +1,96 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.api.response.StopArrivalsIterationListener;
+
+/**
+ * Collect the travel times from one origin to all destinations for each departure time (Range
+ * Raptor iteration) in the departure window, and compute the travel time percentiles over the
+ * window.
+ */
+final class TravelTimeCollector implements StopArrivalsIterationListener {
+
+  /** The travel time used when a destination is not reached within the max travel time. */
+  static final int UNREACHED = -1;
+
+  private static final int NOT_REACHED = Integer.MAX_VALUE;
+
+  private final EgressTable egressTable;
+  private final int nDestinations;
+  private final int maxTravelTime;
+  private final List<int[]> travelTimesByIteration = new ArrayList<>();
+
+  TravelTimeCollector(EgressTable egressTable, int nDestinations, int maxTravelTime) {
+    this.egressTable = egressTable;
+    this.nDestinations = nDestinations;
+    this.maxTravelTime = maxTravelTime;
+  }
+
+  @Override
+  public void iterationComplete(int departureTime, StopArrivals arrivals) {
+    int[] arrivalTimes = new int[nDestinations];
+    Arrays.fill(arrivalTimes, NOT_REACHED);
+
+    for (int i = 0; i < egressTable.numberOfStops(); ++i) {
+      int stop = egressTable.stop(i);
+      if (!arrivals.reached(stop)) {
+        continue;
+      }
+      int stopArrivalTime = arrivals.bestArrivalTime(stop);
+      int end = egressTable.endIndex(i);
+      for (int j = egressTable.startIndex(i); j < end; ++j) {
+        int destination = egressTable.destination(j);
+        int arrivalTime = stopArrivalTime + egressTable.durationInSeconds(j);
+        if (arrivalTime < arrivalTimes[destination]) {
+          arrivalTimes[destination] = arrivalTime;
+        }
+      }
+    }
+
+    // Reuse the array for the travel times
+    for (int i = 0; i < nDestinations; ++i) {
+      if (arrivalTimes[i] != NOT_REACHED) {
+        int travelTime = arrivalTimes[i] - departureTime;
+        arrivalTimes[i] = travelTime <= maxTravelTime ? travelTime : NOT_REACHED;
+      }
+    }
+    travelTimesByIteration.add(arrivalTimes);
+  }
+
+  /**
+   * Compute the given percentiles of the travel times to each destination. A departure time from
+   * where the destination is not reached counts as an infinite travel time.
+   *
+   * @return The travel times in seconds, first by destination and then by percentile. The travel
+   *         time is {@link #UNREACHED} if the destination is not reached.
+   */
+  int[] percentiles(int[] percentiles) {
+    int n = travelTimesByIteration.size();
+    int[] result = new int[nDestinations * percentiles.length];
+    int[] travelTimes = new int[n];
+
+    for (int destination = 0; destination < nDestinations; ++destination) {
+      for (int i = 0; i < n; ++i) {
+        travelTimes[i] = travelTimesByIteration.get(i)[destination];
+      }
+      Arrays.sort(travelTimes);
+
+      for (int p = 0; p < percentiles.length; ++p) {
+        int travelTime = n == 0 ? NOT_REACHED : travelTimes[rank(percentiles[p], n)];
+        result[destination * percentiles.length + p] =
+          travelTime == NOT_REACHED ? UNREACHED : travelTime;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The index of the given percentile in a sorted array of size n, using the nearest-rank method.
+   */
+  static int rank(int percentile, int n) {
+    return Math.max(0, (int) Math.ceil(percentile * n / 100.0) - 1);
+  }
+}
@@ -0,0 +1,379 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Compute the travel times from a set of origins to a set of destinations, for all departure
+ * times in a departure window. The result is given as percentiles of the travel times over the
+ * window.
+ * <p>
+ * The transit data and the egress from stops to all destinations are created once for the
+ * request. Then one Range Raptor search is done for each origin, using the
+ * {@link RaptorProfile#BEST_TIME} profile. The travel times to all destinations are found after
+ * each Range Raptor iteration (departure minute) using the egress table. The egress of batches of
+ * destinations and the origins are routed in parallel using the Raptor thread pool of the server,
+ * see {@code transit.searchThreadPoolSize} in the router config. If the pool is not configured,
+ * the work is done in the request thread. The results are written in the order of the origins as
+ * soon as they are ready.
+ * <p>
+ * The Raptor thread pool is shared with the plan requests. The matrix tasks of all requests
+ * together never take more than {@link #MAX_TASKS_IN_POOL} places in the pool, running or queued,
+ * so a large matrix does not hold back the searches of other requests.
+ * <p>
+ * The number of origin and destination pairs is limited by {@link #MAX_ORIGIN_DESTINATION_PAIRS},
+ * the departure window by {@link #MAX_DEPARTURE_WINDOW} and the max travel time by
+ * {@link #MAX_TRAVEL_TIME}. The travel times of each departure minute to all destinations are kept
+ * while an origin is routed, their number is limited by {@link #MAX_TRAVEL_TIMES_PER_ORIGIN}.
+ * <p>
+ * Only trips using transit are searched. A destination close to an origin may also be reached by
+ * walking to a nearby stop and from there to the destination, but the direct street path is not
+ * searched.
+ */
+public class TravelTimeMatrix {
+
+  /**
+   * The maximum number of origins times destinations of a request.
+   */
+  public static final long MAX_ORIGIN_DESTINATION_PAIRS = 1_000_000;
+
+  /**
+   * The maximum length of the departure window.
+   */
+  public static final Duration MAX_DEPARTURE_WINDOW = Duration.ofHours(4);
+
+  /**
+   * The maximum travel time.
+   */
+  public static final Duration MAX_TRAVEL_TIME = Duration.ofHours(4);
+
+  /**
+   * The maximum number of destinations times departure minutes of a request. The travel times of
+   * one origin take 4 bytes each, so at most 40 MB are used for each origin routed at the same
+   * time.
+   */
+  public static final long MAX_TRAVEL_TIMES_PER_ORIGIN = 10_000_000;
+
+  /**
+   * The maximum number of tasks of all matrix requests in the Raptor thread pool, running or
+   * waiting to run. Half of the processors are left for the other requests.
+   */
+  private static final int MAX_TASKS_IN_POOL = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() / 2
+  );
+
+  private static final Semaphore TASKS_IN_POOL = new Semaphore(MAX_TASKS_IN_POOL);
+
+  /**
+   * The number of origins routed ahead of the origin waiting to be written. This limits the
+   * memory used by the results not yet written.
+   */
+  private static final int MAX_ORIGINS_IN_PROGRESS = 4 * Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The number of destinations in each egress search task.
+   */
+  private static final int DESTINATIONS_PER_TASK = 100;
+
+  @Nullable
+  private final ExecutorService threadPool;
+
+  private final RouteRequest routeRequest;
+  private final Graph graph;
+  private final TransitService transitService;
+  private final RaptorService<TripSchedule> raptorService;
+  private final List<MatrixPoint> origins;
+  private final List<MatrixPoint> destinations;
+  private final int[] percentiles;
+  private final ZonedDateTime startOfTime;
+  private final int earliestDepartureTime;
+  private final int departureWindow;
+  private final int maxTravelTime;
+  private final RaptorRoutingRequestTransitData transitData;
+
+  public TravelTimeMatrix(
+    OtpServerRequestContext serverContext,
+    RouteRequest routeRequest,
+    List<MatrixPoint> origins,
+    List<MatrixPoint> destinations,
+    Duration departureWindow,
+    Duration maxTravelTime,
+    int[] percentiles
+  ) {
+    this.routeRequest = routeRequest;
+    this.graph = serverContext.graph();
+    this.transitService = serverContext.transitService();
+    this.raptorService = new RaptorService<>(serverContext.raptorConfig());
+    this.threadPool = serverContext.raptorConfig().threadPool();
+    this.origins = origins;
+    this.destinations = destinations;
+    this.percentiles = percentiles;
+    this.departureWindow = (int) departureWindow.toSeconds();
+    this.maxTravelTime = (int) maxTravelTime.toSeconds();
+
+    var error = validate(origins.size(), destinations.size(), departureWindow, maxTravelTime);
+    if (error != null) {
+      throw new IllegalArgumentException(error);
+    }
+
+    Instant startTime = routeRequest.dateTime();
+    Instant endTime = startTime.plus(departureWindow).plus(maxTravelTime);
+    ZoneId zoneId = transitService.getTimeZone();
+    LocalDate startDate = LocalDate.ofInstant(startTime, zoneId);
+    LocalDate endDate = LocalDate.ofInstant(endTime, zoneId);
+    this.startOfTime = ServiceDateUtils.asStartOfService(startDate, zoneId);
+    this.earliestDepartureTime = ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime);
+
+    this.transitData =
+      new RaptorRoutingRequestTransitData(
+        transitService.getRealtimeTransitLayer(),
+        startOfTime,
+        0,
+        (int) Period.between(startDate, endDate).get(ChronoUnit.DAYS),
+        new RouteRequestTransitDataProviderFilter(routeRequest),
+        routeRequest
+      );
+  }
+
+  /**
+   * Check the size of a request.
+   *
+   * @return The error message if the request is too large, or {@code null} if it is valid.
+   */
+  @Nullable
+  public static String validate(
+    int nOrigins,
+    int nDestinations,
+    Duration departureWindow,
+    Duration maxTravelTime
+  ) {
+    if ((long) nOrigins * nDestinations > MAX_ORIGIN_DESTINATION_PAIRS) {
+      return (
+        "The number of origins times destinations must not exceed " +
+        MAX_ORIGIN_DESTINATION_PAIRS +
+        "."
+      );
+    }
+    if (departureWindow.isNegative() || departureWindow.compareTo(MAX_DEPARTURE_WINDOW) > 0) {
+      return "The departure window must be in the range [0, " + MAX_DEPARTURE_WINDOW + "].";
+    }
+    if (maxTravelTime.isNegative() || maxTravelTime.compareTo(MAX_TRAVEL_TIME) > 0) {
+      return "The max travel time must be in the range [0, " + MAX_TRAVEL_TIME + "].";
+    }
+    if (nDestinations * (departureWindow.toMinutes() + 1) > MAX_TRAVEL_TIMES_PER_ORIGIN) {
+      return (
+        "The number of destinations times departure minutes must not exceed " +
+        MAX_TRAVEL_TIMES_PER_ORIGIN +
+        "."
+      );
+    }
+    return null;
+  }
+
+  /**
+   * Route all origins and write the travel times using the given writer.
+   */
+  public void write(TravelTimeMatrixWriter writer) throws IOException {
+    var egressTable = createEgressTable();
+
+    writer.writeHeader(origins.size());
+
+    Deque<Future<int[]>> inProgress = new ArrayDeque<>();
+    int next = 0;
+    try {
+      for (MatrixPoint origin : origins) {
+        while (next < origins.size() && inProgress.size() < MAX_ORIGINS_IN_PROGRESS) {
+          var it = origins.get(next++);
+          inProgress.add(submit(() -> travelTimes(it, egressTable)));
+        }
+        writer.writeOrigin(origin, inProgress.removeFirst().get());
+      }
+      writer.flush();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      inProgress.forEach(it -> it.cancel(true));
+    }
+  }
+
+  private EgressTable createEgressTable() {
+    var futures = new ArrayList<Future<List<Collection<DefaultAccessEgress>>>>();
+    try {
+      for (int i = 0; i < destinations.size(); i += DESTINATIONS_PER_TASK) {
+        var batch = destinations.subList(
+          i,
+          Math.min(i + DESTINATIONS_PER_TASK, destinations.size())
+        );
+        futures.add(submit(() -> batch.stream().map(this::findEgress).toList()));
+      }
+      var egress = futures.stream().map(TravelTimeMatrix::get).flatMap(List::stream).toList();
+      return EgressTable.create(egress);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      futures.forEach(it -> it.cancel(true));
+    }
+  }
+
+  private int[] travelTimes(MatrixPoint origin, EgressTable egressTable) {
+    var collector = new TravelTimeCollector(egressTable, destinations.size(), maxTravelTime);
+    var accessPaths = findAccess(origin);
+    if (!accessPaths.isEmpty()) {
+      raptorService.routeEachIteration(raptorRequest(accessPaths), transitData, collector);
+    }
+    return collector.percentiles(percentiles);
+  }
+
+  private RaptorRequest<TripSchedule> raptorRequest(Collection<DefaultAccessEgress> accessPaths) {
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+    builder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchDirection(SearchDirection.FORWARD)
+      .searchParams()
+      .earliestDepartureTime(earliestDepartureTime)
+      .latestArrivalTime(earliestDepartureTime + departureWindow + maxTravelTime)
+      .searchWindowInSeconds(departureWindow)
+      .timetable(false)
+      .allowEmptyAccessEgressPaths(true)
+      .constrainedTransfers(false)
+      .addAccessPaths(accessPaths);
+    return builder.build();
+  }
+
+  private Collection<DefaultAccessEgress> findAccess(MatrixPoint origin) {
+    var request = routeRequest.clone();
+    request.setFrom(origin.toGenericLocation());
+    var accessRequest = request.journey().access();
+
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        graph,
+        request,
+        accessRequest.mode(),
+        StreetMode.NOT_SET
+      )
+    ) {
+      var accessStops = AccessEgressRouter.streetSearch(
+        request,
+        temporaryVertices,
+        transitService,
+        accessRequest,
+        null,
+        false,
+        request.preferences().street().maxAccessEgressDuration().valueOf(accessRequest.mode())
+      );
+      return AccessEgressMapper.mapNearbyStops(accessStops, false);
+    } catch (RoutingValidationException e) {
+      // The origin is not connected to the street network
+      return List.of();
+    }
+  }
+
+  private Collection<DefaultAccessEgress> findEgress(MatrixPoint destination) {
+    var request = routeRequest.clone();
+    request.setTo(destination.toGenericLocation());
+    var egressRequest = request.journey().egress();
+
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        graph,
+        request,
+        StreetMode.NOT_SET,
+        egressRequest.mode()
+      )
+    ) {
+      var egressStops = AccessEgressRouter.streetSearch(
+        request,
+        temporaryVertices,
+        transitService,
+        egressRequest,
+        null,
+        true,
+        request.preferences().street().maxAccessEgressDuration().valueOf(egressRequest.mode())
+      );
+      return AccessEgressMapper.mapNearbyStops(egressStops, true);
+    } catch (RoutingValidationException e) {
+      // The destination is not connected to the street network
+      return List.of();
+    }
+  }
+
+  /**
+   * Run the task in the thread pool, or in the calling thread if there is no pool. Wait until the
+   * number of matrix tasks in the pool is below {@link #MAX_TASKS_IN_POOL}.
+   */
+  private <T> Future<T> submit(Callable<T> task) throws InterruptedException {
+    if (threadPool == null) {
+      var future = new FutureTask<>(task);
+      future.run();
+      return future;
+    }
+    TASKS_IN_POOL.acquire();
+    var future = new FutureTask<>(task) {
+      @Override
+      protected void done() {
+        TASKS_IN_POOL.release();
+      }
+    };
+    try {
+      threadPool.execute(future);
+    } catch (RuntimeException e) {
+      TASKS_IN_POOL.release();
+      throw e;
+    }
+    return future;
+  }
+
+  private static <T> T get(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
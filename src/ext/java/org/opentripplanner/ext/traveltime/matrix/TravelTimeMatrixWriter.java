@@ -0,0 +1,150 @@
+package org.opentripplanner.ext.traveltime.matrix;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Write a travel time matrix to a stream, one origin at the time. The origins are written in the
+ * order of the request.
+ */
+public abstract class TravelTimeMatrixWriter {
+
+  protected final List<MatrixPoint> destinations;
+  protected final int[] percentiles;
+
+  private TravelTimeMatrixWriter(List<MatrixPoint> destinations, int[] percentiles) {
+    this.destinations = destinations;
+    this.percentiles = percentiles;
+  }
+
+  /**
+   * Write the matrix as CSV, with one line for each origin and destination pair:
+   * {@code origin,destination,p<percentile>...}. The travel times are in seconds. Pairs where
+   * the destination is not reached are left out.
+   */
+  public static TravelTimeMatrixWriter csv(
+    OutputStream out,
+    List<MatrixPoint> destinations,
+    int[] percentiles
+  ) {
+    return new CsvWriter(out, destinations, percentiles);
+  }
+
+  /**
+   * Write the matrix as big-endian 32-bit integers. The header is the number of origins, the
+   * number of destinations, the number of percentiles and the percentiles. The header is followed
+   * by the travel times in seconds for each origin, destination and percentile in that order.
+   * The travel time is {@code -1} if the destination is not reached.
+   */
+  public static TravelTimeMatrixWriter binary(
+    OutputStream out,
+    List<MatrixPoint> destinations,
+    int[] percentiles
+  ) {
+    return new BinaryWriter(out, destinations, percentiles);
+  }
+
+  public abstract void writeHeader(int nOrigins) throws IOException;
+
+  /**
+   * @param travelTimes The travel times from the origin, first by destination and then by
+   *                    percentile.
+   */
+  public abstract void writeOrigin(MatrixPoint origin, int[] travelTimes) throws IOException;
+
+  public abstract void flush() throws IOException;
+
+  private static class CsvWriter extends TravelTimeMatrixWriter {
+
+    private final Writer out;
+
+    private CsvWriter(OutputStream out, List<MatrixPoint> destinations, int[] percentiles) {
+      super(destinations, percentiles);
+      this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeHeader(int nOrigins) throws IOException {
+      out.write("origin,destination");
+      for (int percentile : percentiles) {
+        out.write(",p");
+        out.write(Integer.toString(percentile));
+      }
+      out.write('\n');
+    }
+
+    @Override
+    public void writeOrigin(MatrixPoint origin, int[] travelTimes) throws IOException {
+      for (int i = 0; i < destinations.size(); ++i) {
+        int offset = i * percentiles.length;
+        if (!isReached(travelTimes, offset)) {
+          continue;
+        }
+        out.write(origin.id());
+        out.write(',');
+        out.write(destinations.get(i).id());
+        for (int p = 0; p < percentiles.length; ++p) {
+          out.write(',');
+          int travelTime = travelTimes[offset + p];
+          if (travelTime != TravelTimeCollector.UNREACHED) {
+            out.write(Integer.toString(travelTime));
+          }
+        }
+        out.write('\n');
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    private boolean isReached(int[] travelTimes, int offset) {
+      for (int p = 0; p < percentiles.length; ++p) {
+        if (travelTimes[offset + p] != TravelTimeCollector.UNREACHED) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class BinaryWriter extends TravelTimeMatrixWriter {
+
+    private final DataOutputStream out;
+
+    private BinaryWriter(OutputStream out, List<MatrixPoint> destinations, int[] percentiles) {
+      super(destinations, percentiles);
+      this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void writeHeader(int nOrigins) throws IOException {
+      out.writeInt(nOrigins);
+      out.writeInt(destinations.size());
+      out.writeInt(percentiles.length);
+      for (int percentile : percentiles) {
+        out.writeInt(percentile);
+      }
+    }
+
+    @Override
+    public void writeOrigin(MatrixPoint origin, int[] travelTimes) throws IOException {
+      for (int travelTime : travelTimes) {
+        out.writeInt(travelTime);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+  }
+}
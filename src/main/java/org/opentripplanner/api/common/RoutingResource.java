@@ -337,6 +337,14 @@ public abstract class RoutingResource {
   @DefaultValue("false")
   protected Boolean showIntermediateStops;
 
+  /**
+   * Whether the walk steps, elevation profiles and street alerts of the street legs should be
+   * returned in the response. They are expensive to create, clients not showing the details of
+   * the street legs should turn them off. Default: true
+   */
+  @QueryParam("showStreetLegDetails")
+  protected Boolean showStreetLegDetails;
+
   @QueryParam("walkBoardCost")
   protected Integer walkBoardCost;
 
@@ -732,6 +740,7 @@ public abstract class RoutingResource {
     setIfNotNull(timetableView, request::setTimetableView);
     setIfNotNull(wheelchair, request::setWheelchair);
     setIfNotNull(numItineraries, request::setNumItineraries);
+    setIfNotNull(showStreetLegDetails, request::setStreetLegDetails);
 
     {
       var journey = request.journey();
@@ -1,43 +1,65 @@
 package org.opentripplanner.api.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import graphql.ExecutionResult;
 import graphql.execution.AbortExecutionException;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
- * This class is responsible for serializing a GraphQL {@link ExecutionResult} into a String, which
- * can be returned as the body of the HTTP response. This differs from the mapper provided by {@link
- * JSONObjectMapperProvider}, by serializing all fields in the objects, including null fields.
+ * This class is responsible for serializing a GraphQL {@link ExecutionResult} into the body of the
+ * HTTP response. This differs from the mapper provided by {@link JSONObjectMapperProvider}, by
+ * serializing all fields in the objects, including null fields.
+ * <p>
+ * The JSON is written directly to the response output stream, instead of building a String of the
+ * whole response first. Large responses, like plans with many itineraries and leg geometries, are
+ * then never held in memory as text.
+ * <p>
+ * Response compression is done by the HTTP server. A streamed response which does not fit in the
+ * Jersey output buffer has no Content-Length, and Grizzly compresses JSON responses of unknown
+ * length regardless of the configured min size.
  */
 public class GraphQLResponseSerializer {
 
-  static final Logger LOG = LoggerFactory.getLogger(GraphQLResponseSerializer.class);
-
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
-  public static String serialize(ExecutionResult executionResult) {
-    try {
-      return objectMapper.writeValueAsString(executionResult.toSpecification());
-    } catch (JsonProcessingException e) {
-      LOG.error("Unable to serialize response", e);
-      throw new RuntimeException(e);
-    }
+  /** The response output stream is owned by the container, so do not close it. */
+  private static final ObjectWriter streamWriter = objectMapper
+    .writer()
+    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  /**
+   * Write the result directly to the HTTP response output stream.
+   */
+  public static StreamingOutput stream(ExecutionResult executionResult) {
+    var specification = executionResult.toSpecification();
+    return output -> streamWriter.writeValue(output, specification);
+  }
+
+  /**
+   * Write the results of a batch of queries directly to the HTTP response output stream. Each
+   * query is waited for, and a failed query is returned as an aborted execution result.
+   */
+  public static StreamingOutput streamBatch(
+    List<HashMap<String, Object>> queries,
+    List<Future<ExecutionResult>> futures
+  ) {
+    var responses = batchResponses(queries, futures);
+    return output -> streamWriter.writeValue(output, responses);
   }
 
-  public static String serializeBatch(
+  private static List<Map<String, Object>> batchResponses(
     List<HashMap<String, Object>> queries,
     List<Future<ExecutionResult>> futures
   ) {
-    List<Map<String, Object>> responses = new LinkedList<>();
+    var responses = new ArrayList<Map<String, Object>>(queries.size());
     for (int i = 0; i < queries.size(); i++) {
       ExecutionResult executionResult;
       // Try each request separately, returning both completed and failed responses is ok
@@ -50,12 +72,6 @@ public class GraphQLResponseSerializer {
         Map.of("id", queries.get(i).get("id"), "payload", executionResult.toSpecification())
       );
     }
-
-    try {
-      return objectMapper.writeValueAsString(responses);
-    } catch (JsonProcessingException e) {
-      LOG.error("Unable to serialize response", e);
-      throw new RuntimeException(e);
-    }
+    return responses;
   }
 }
@@ -1,5 +1,7 @@
 package org.opentripplanner.api.resource;
 
+import java.util.List;
+
 /**
  * Holds information to be included in the REST Response for debugging and profiling purposes.
  */
@@ -44,6 +46,12 @@ public class DebugOutput {
    */
   public final TransitTimingOutput transitRouterTimes;
 
+  /**
+   * Time taken in each phase of the request, in the order the phases finished. Phases running in
+   * parallel overlap, so the sum is not the total time.
+   */
+  public final List<PhaseTimingOutput> phaseTimes;
+
   public DebugOutput(
     long precalculationTime,
     long directStreetRouterTime,
@@ -51,7 +59,8 @@ public class DebugOutput {
     long filteringTime,
     long renderingTime,
     long totalTime,
-    TransitTimingOutput transitRouterTimes
+    TransitTimingOutput transitRouterTimes,
+    List<PhaseTimingOutput> phaseTimes
   ) {
     this.precalculationTime = precalculationTime;
     this.directStreetRouterTime = directStreetRouterTime;
@@ -60,5 +69,6 @@ public class DebugOutput {
     this.renderingTime = renderingTime;
     this.totalTime = totalTime;
     this.transitRouterTimes = transitRouterTimes;
+    this.phaseTimes = phaseTimes;
   }
 }
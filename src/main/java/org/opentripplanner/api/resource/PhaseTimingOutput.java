@@ -0,0 +1,24 @@
+package org.opentripplanner.api.resource;
+
+/**
+ * Holds the time spent in one phase of a routing request, to be included in the response for
+ * debugging and profiling purposes.
+ */
+public class PhaseTimingOutput {
+
+  /**
+   * The name of the phase, for example {@code "linking"}, {@code "access.WALK"} or
+   * {@code "raptor.StdRev"}.
+   */
+  public final String phase;
+
+  /**
+   * Time taken in the phase in nanoseconds.
+   */
+  public final long time;
+
+  public PhaseTimingOutput(String phase, long time) {
+    this.phase = phase;
+    this.time = time;
+  }
+}
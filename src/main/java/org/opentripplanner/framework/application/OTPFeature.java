@@ -30,6 +30,11 @@ public enum OTPFeature {
   DebugClient(true, false, "Enable the debug web client located at the root of the web server."),
   FloatingBike(true, false, "Enable floating bike routing."),
   GtfsGraphQlApi(true, true, "Enable GTFS GraphQL API."),
+  GtfsReadAhead(
+    false,
+    false,
+    "Read the next GTFS feed while the previous feed is added to the graph, when building a graph with several feeds. This makes the graph build faster, but uses more memory."
+  ),
   /**
    * If this feature flag is switched on, then the minimum transfer time is not the minimum transfer
    * time, but the definitive transfer time. Use this to override what we think the transfer will
@@ -53,6 +58,16 @@ public enum OTPFeature {
   ),
 
   ParallelRouting(false, false, "Enable performing parts of the trip planning in parallel."),
+  PlanResultCache(
+    false,
+    false,
+    "Keep the responses of trip plan requests for 15 seconds and return them for identical requests with exactly the same search time. A response is not reused after a realtime update."
+  ),
+  RequestCoalescing(
+    false,
+    false,
+    "Route identical trip plan requests arriving at the same time only once, and return the same response to all of them. Requests using vehicle rental are not coalesced."
+  ),
   TransferConstraints(
     true,
     false,
@@ -4,9 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.geojson.GeoJsonObject;
 import org.geojson.LngLatAlt;
@@ -23,6 +21,7 @@ import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 import org.locationtech.jts.linearref.LengthLocationMap;
 import org.locationtech.jts.linearref.LinearLocation;
@@ -36,6 +35,8 @@ public class GeometryUtils {
   private static final Logger LOG = LoggerFactory.getLogger(GeometryUtils.class);
 
   private static final CoordinateSequenceFactory csf = new PackedCoordinateSequenceFactory();
+  /** The dimension of geometries created from coordinates by the geometry factory (x, y, z). */
+  private static final int PACKED_DIMENSION = 3;
   private static final GeometryFactory gf = new GeometryFactory(csf);
 
   /** A shared copy of the WGS84 CRS with longitude-first axis order. */
@@ -93,26 +94,51 @@ public class GeometryUtils {
     return concatenateLineStrings(inputObjects.stream().map(mapper).toList());
   }
 
+  /**
+   * Join the line strings into one. If the last point of a line string is equal to the first
+   * point of the next, the point is included once. {@code null} elements are skipped.
+   * <p>
+   * This is used to create the geometry of each street leg, so the ordinates are copied directly
+   * into the packed sequence of the result, without creating intermediate coordinate arrays.
+   */
   public static LineString concatenateLineStrings(List<LineString> lineStrings) {
-    GeometryFactory factory = getGeometryFactory();
-    Predicate<Coordinate[]> nonZeroLength = coordinates -> coordinates.length != 0;
-    return factory.createLineString(
-      lineStrings
-        .stream()
-        .filter(Objects::nonNull)
-        .map(LineString::getCoordinates)
-        .filter(nonZeroLength)
-        .<CoordinateArrayListSequence>collect(
-          CoordinateArrayListSequence::new,
-          (acc, segment) -> {
-            if ((acc.size() == 0 || !acc.getCoordinate(acc.size() - 1).equals(segment[0]))) {
-              acc.extend(segment);
-            } else {
-              acc.extend(segment, 1);
-            }
-          },
-          (head, tail) -> head.extend(tail.toCoordinateArray())
-        )
+    int capacity = 0;
+    for (LineString lineString : lineStrings) {
+      if (lineString != null) {
+        capacity += lineString.getNumPoints();
+      }
+    }
+
+    double[] ordinates = new double[capacity * PACKED_DIMENSION];
+    int n = 0;
+
+    for (LineString lineString : lineStrings) {
+      if (lineString == null) {
+        continue;
+      }
+      CoordinateSequence points = lineString.getCoordinateSequence();
+      for (int i = 0; i < points.size(); i++) {
+        double x = points.getX(i);
+        double y = points.getY(i);
+        int last = (n - 1) * PACKED_DIMENSION;
+
+        if (i == 0 && n > 0 && ordinates[last] == x && ordinates[last + 1] == y) {
+          continue;
+        }
+        int pos = n * PACKED_DIMENSION;
+        ordinates[pos] = x;
+        ordinates[pos + 1] = y;
+        ordinates[pos + 2] = points.getZ(i);
+        ++n;
+      }
+    }
+
+    if (n < capacity) {
+      ordinates = Arrays.copyOf(ordinates, n * PACKED_DIMENSION);
+    }
+    return new LineString(
+      new PackedCoordinateSequence.Double(ordinates, PACKED_DIMENSION, 0),
+      getGeometryFactory()
     );
   }
 
@@ -1,78 +1,104 @@
 package org.opentripplanner.framework.geometry;
 
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
 
 /**
  * This encodes geometries to the Google Polyline encoding
+ * <p>
+ * The coordinates are read directly from the {@link CoordinateSequence}s of the geometry, and the
+ * characters are written into one buffer sized up front. This avoids copying the coordinates into
+ * new arrays, and creating a string for each encoded number. Leg geometries are encoded for every
+ * itinerary returned, so this is worth the effort.
  *
  * {@see EncodedPolyline}
  */
 class PolylineEncoder {
 
+  /**
+   * Each point is encoded as two numbers. Small deltas, which is the common case for street and
+   * transit geometries, need 1-4 characters each.
+   */
+  private static final int EXPECTED_CHARS_PER_POINT = 8;
+
+  private final StringBuilder buffer;
+  private int plat = 0;
+  private int plng = 0;
+  private int count = 0;
+
+  private PolylineEncoder(int numPoints) {
+    this.buffer = new StringBuilder(numPoints * EXPECTED_CHARS_PER_POINT);
+  }
+
   static EncodedPolyline encodeGeometry(Geometry geometry) {
+    var encoder = new PolylineEncoder(geometry.getNumPoints());
+
     if (geometry instanceof LineString string) {
-      return encodeCoordinates(string.getCoordinates());
+      encoder.add(string.getCoordinateSequence());
     } else if (geometry instanceof MultiLineString mls) {
-      return encodeCoordinates(mls.getCoordinates());
+      for (int i = 0; i < mls.getNumGeometries(); i++) {
+        encoder.add(((LineString) mls.getGeometryN(i)).getCoordinateSequence());
+      }
     } else if (geometry instanceof Polygon polygon) {
-      return encodeCoordinates(polygon.getCoordinates());
+      encoder.add(polygon.getExteriorRing().getCoordinateSequence());
+      for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+        encoder.add(polygon.getInteriorRingN(i).getCoordinateSequence());
+      }
     } else if (geometry instanceof Point point) {
-      return encodeCoordinates(point.getCoordinates());
+      encoder.add(point.getCoordinateSequence());
     } else {
       throw new IllegalArgumentException(geometry.toString());
     }
+    return encoder.build();
   }
 
   static EncodedPolyline encodeCoordinates(Coordinate[] points) {
-    StringBuilder encodedPoints = new StringBuilder();
-
-    int plat = 0;
-    int plng = 0;
-    int count = 0;
+    var encoder = new PolylineEncoder(points.length);
+    encoder.add(new CoordinateArraySequence(points));
+    return encoder.build();
+  }
 
-    for (Coordinate point : points) {
-      int late5 = floor1e5(point.y);
-      int lnge5 = floor1e5(point.x);
+  private void add(CoordinateSequence points) {
+    for (int i = 0; i < points.size(); i++) {
+      int late5 = floor1e5(points.getY(i));
+      int lnge5 = floor1e5(points.getX(i));
 
-      int dlat = late5 - plat;
-      int dlng = lnge5 - plng;
+      encodeSignedNumber(late5 - plat);
+      encodeSignedNumber(lnge5 - plng);
 
       plat = late5;
       plng = lnge5;
-
-      encodedPoints.append(encodeSignedNumber(dlat)).append(encodeSignedNumber(dlng));
       count++;
     }
+  }
 
-    return new EncodedPolyline(encodedPoints.toString(), count);
+  private EncodedPolyline build() {
+    return new EncodedPolyline(buffer.toString(), count);
   }
 
-  private static String encodeSignedNumber(int num) {
+  private void encodeSignedNumber(int num) {
     int sgn_num = num << 1;
     if (num < 0) {
       sgn_num = ~(sgn_num);
     }
-    return (encodeNumber(sgn_num));
+    encodeNumber(sgn_num);
   }
 
-  private static String encodeNumber(int num) {
-    StringBuilder encodeString = new StringBuilder();
-
+  private void encodeNumber(int num) {
     while (num >= 0x20) {
       int nextValue = (0x20 | (num & 0x1f)) + 63;
-      encodeString.append((char) (nextValue));
+      buffer.append((char) (nextValue));
       num >>= 5;
     }
 
     num += 63;
-    encodeString.append((char) (num));
-
-    return encodeString.toString();
+    buffer.append((char) (num));
   }
 
   private static int floor1e5(double coordinate) {
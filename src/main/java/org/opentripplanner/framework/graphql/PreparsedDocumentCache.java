@@ -0,0 +1,113 @@
+package org.opentripplanner.framework.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+
+/**
+ * A bounded cache of parsed and validated GraphQL documents. Clients tend to send the same (large)
+ * queries over and over again with different variables, so parsing and validating each of them
+ * only once saves a lot of CPU.
+ * <p>
+ * The documents are keyed by the SHA-256 hash of the query text. This makes it possible to support
+ * <a href="https://www.apollographql.com/docs/apollo-server/performance/apq/">automatic
+ * persisted queries</a>: A client may send only the hash of the query in the
+ * {@code extensions.persistedQuery.sha256Hash} request field. If the query is in the cache it is
+ * used, if not a {@code PersistedQueryNotFound} error is returned and the client must resend the
+ * request with the query text.
+ * <p>
+ * The cache hit and miss counts are reported to Micrometer if the actuator API is enabled.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE, one instance is shared by all requests to an API.
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+  /** The query text to pass into the execution input if the client only sends the hash. */
+  public static final String PERSISTED_QUERY_MARKER = PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+
+  private static final String PERSISTED_QUERY = "persistedQuery";
+  private static final String SHA_256_HASH = "sha256Hash";
+
+  private final Cache<String, PreparsedDocumentEntry> cache;
+
+  public PreparsedDocumentCache(String apiName, int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+
+    if (OTPFeature.ActuatorAPI.isOn()) {
+      new GuavaCacheMetrics(cache, "graphQLDocumentCache", List.of(Tag.of("api", apiName)))
+        .bindTo(Metrics.globalRegistry);
+    }
+  }
+
+  /**
+   * Return {@code true} if the given request extensions contain a persisted query id. If so, the
+   * request is valid without a query.
+   */
+  public static boolean hasPersistedQueryId(@Nullable Map<String, Object> extensions) {
+    return persistedQueryId(extensions) != null;
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    String query = executionInput.getQuery();
+    String persistedQueryId = persistedQueryId(executionInput.getExtensions());
+
+    if (PERSISTED_QUERY_MARKER.equals(query)) {
+      if (persistedQueryId == null) {
+        return parseAndValidateFunction.apply(executionInput);
+      }
+      var entry = cache.getIfPresent(persistedQueryId.toLowerCase());
+      return entry == null ? errorEntry(new PersistedQueryNotFound(persistedQueryId)) : entry;
+    }
+
+    String key = Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+
+    if (persistedQueryId != null && !persistedQueryId.equalsIgnoreCase(key)) {
+      return errorEntry(new PersistedQueryIdInvalid(persistedQueryId));
+    }
+    try {
+      return cache.get(key, () -> parseAndValidateFunction.apply(executionInput));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  @Nullable
+  private static String persistedQueryId(@Nullable Map<String, Object> extensions) {
+    if (
+      extensions != null &&
+      extensions.get(PERSISTED_QUERY) instanceof Map<?, ?> persistedQuery &&
+      persistedQuery.get(SHA_256_HASH) instanceof String hash
+    ) {
+      return hash;
+    }
+    return null;
+  }
+
+  private static PreparsedDocumentEntry errorEntry(PersistedQueryError error) {
+    return new PreparsedDocumentEntry(
+      GraphqlErrorBuilder.newError().errorType(error).message(error.getMessage()).build()
+    );
+  }
+}
@@ -0,0 +1,97 @@
+package org.opentripplanner.graph_builder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+
+/**
+ * A fingerprint of each input data source used to build a graph. The fingerprints are stored in
+ * the serialized graph, so when the graph is loaded we can tell if the input it was built from has
+ * changed since. This is used to detect a stale street graph when building transit on top of it
+ * with {@code --loadStreet}. This is only a check, a stale street graph is not rebuilt, the
+ * changed files are logged so the user can rebuild it with {@code --buildStreet}.
+ * <p>
+ * The fingerprint is based on the data source metadata (type, size and last modified timestamp),
+ * not the content. Computing a content hash of large OSM and DEM files would cost as much as
+ * reading them, which is what we are trying to avoid.
+ */
+public class BuildInputFingerprints implements Serializable {
+
+  /** Fingerprints indexed by data source URI, sorted to get a stable log output. */
+  private final Map<String, Fingerprint> fingerprints;
+
+  private BuildInputFingerprints(Map<String, Fingerprint> fingerprints) {
+    this.fingerprints = new TreeMap<>(fingerprints);
+  }
+
+  public static BuildInputFingerprints of(Collection<DataSource> dataSources) {
+    var map = new HashMap<String, Fingerprint>();
+    for (DataSource it : dataSources) {
+      map.put(
+        it.uri().toString(),
+        new Fingerprint(it.type(), it.name(), it.size(), it.lastModified())
+      );
+    }
+    return new BuildInputFingerprints(map);
+  }
+
+  /**
+   * Create a new set of fingerprints with the given file types taken from {@code other}, and the
+   * rest from this instance. This is used to carry the street inputs over from a street graph.
+   */
+  public BuildInputFingerprints replaceTypes(Set<FileType> types, BuildInputFingerprints other) {
+    var map = new HashMap<String, Fingerprint>();
+    fingerprints.forEach((uri, it) -> {
+      if (!types.contains(it.type())) {
+        map.put(uri, it);
+      }
+    });
+    other.fingerprints.forEach((uri, it) -> {
+      if (types.contains(it.type())) {
+        map.put(uri, it);
+      }
+    });
+    return new BuildInputFingerprints(map);
+  }
+
+  /**
+   * List the data sources of the given types which are added, removed or changed in this compared
+   * with the {@code original}. An empty list is returned if the inputs are the same.
+   */
+  public List<String> listChanges(BuildInputFingerprints original, Set<FileType> types) {
+    var changes = new ArrayList<String>();
+    for (var e : fingerprints.entrySet()) {
+      var current = e.getValue();
+      if (!types.contains(current.type())) {
+        continue;
+      }
+      var before = original.fingerprints.get(e.getKey());
+      if (before == null) {
+        changes.add("Added: " + e.getKey());
+      } else if (!before.equals(current)) {
+        changes.add("Changed: " + e.getKey());
+      }
+    }
+    for (var e : original.fingerprints.entrySet()) {
+      if (types.contains(e.getValue().type()) && !fingerprints.containsKey(e.getKey())) {
+        changes.add("Removed: " + e.getKey());
+      }
+    }
+    return changes;
+  }
+
+  @Override
+  public String toString() {
+    return fingerprints.toString();
+  }
+
+  private record Fingerprint(FileType type, String name, long size, long lastModified)
+    implements Serializable {}
+}
@@ -11,8 +11,10 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.datastore.OtpDataStore;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
@@ -47,6 +49,7 @@ public class GraphBuilderDataSources {
 
   private static final Logger LOG = LoggerFactory.getLogger(GraphBuilderDataSources.class);
   private static final String BULLET_POINT = "- ";
+  private static final Set<FileType> STREET_INPUT_TYPES = EnumSet.of(OSM, DEM);
 
   private final OtpDataStore store;
   private final Multimap<FileType, DataSource> inputData = ArrayListMultimap.create();
@@ -106,6 +109,48 @@ public class GraphBuilderDataSources {
     return inputData.get(type);
   }
 
+  /**
+   * Fingerprints of the inputs the new graph is built from. If transit is added to a loaded street
+   * graph, the street inputs are taken from the street graph - not from the data store, the files
+   * in the data store might have changed after the street graph was built.
+   */
+  public BuildInputFingerprints buildInputFingerprints(
+    @Nullable BuildInputFingerprints streetGraphInputs
+  ) {
+    var inputs = BuildInputFingerprints.of(inputData.values());
+    return streetGraphInputs == null
+      ? inputs
+      : inputs.replaceTypes(STREET_INPUT_TYPES, streetGraphInputs);
+  }
+
+  /**
+   * Compare the street inputs (OSM and DEM) in the data store with the inputs the loaded street
+   * graph was built from. A warning is logged for each added, removed or changed file, so it is
+   * visible that the street graph should be rebuilt. If nothing has changed, the street graph is
+   * reused as is - only transit is built.
+   */
+  public void logStreetGraphInputChanges(BuildInputFingerprints streetGraphInputs) {
+    var current = new ArrayList<DataSource>();
+    for (FileType type : STREET_INPUT_TYPES) {
+      current.addAll(store.listExistingSourcesFor(type));
+    }
+    var changes = BuildInputFingerprints
+      .of(current)
+      .listChanges(streetGraphInputs, STREET_INPUT_TYPES);
+
+    if (changes.isEmpty()) {
+      LOG.info("The street graph is up to date with the OSM and DEM input files.");
+      return;
+    }
+    LOG.warn(
+      "The street graph is out of date, the OSM and/or DEM input files have changed since it " +
+      "was built. Consider rebuilding it with --buildStreet."
+    );
+    for (String change : changes) {
+      LOG.warn(BULLET_POINT + "{}", change);
+    }
+  }
+
   public Iterable<ConfiguredDataSource<OsmExtractParameters>> getOsmConfiguredDatasource() {
     return inputData
       .get(OSM)
@@ -1,12 +1,14 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -38,6 +40,7 @@ import org.slf4j.LoggerFactory;
 public class DirectTransferGenerator implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(DirectTransferGenerator.class);
+  private static final int N_SLOWEST_STOPS_TO_LOG = 5;
 
   private final Duration radiusByDuration;
 
@@ -90,93 +93,35 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       stops.size()
     );
 
-    AtomicInteger nTransfersTotal = new AtomicInteger();
-    AtomicInteger nLinkedStops = new AtomicInteger();
-
-    // This is a synchronizedMultimap so that a parallel stream may be used to insert elements.
-    var transfersByStop = Multimaps.<StopLocation, PathTransfer>synchronizedMultimap(
-      HashMultimap.create()
-    );
-
-    stops
+    // Each stop is processed independently and returns its own transfers. The results are merged
+    // into the multimap by a single thread when all stops are done, this avoids contention on a
+    // shared synchronized collection in the parallel stream.
+    List<StopTransfers> results = stops
       .stream()
       .parallel()
-      .forEach(ts0 -> {
-        /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
-         * Use map based on the list of edges, so that only distinct transfers are stored. */
-        Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
-        RegularStop stop = ts0.getStop();
-
-        if (stop.transfersNotAllowed()) {
-          return;
-        }
-
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
-
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : findNearbyStops(
-            nearbyStopFinder,
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : findNearbyStops(
-              nearbyStopFinder,
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
-              );
-            }
-          }
-        }
-
-        LOG.debug(
-          "Linked stop {} with {} transfers to stops with different patterns.",
-          stop,
-          distinctTransfers.size()
-        );
-        if (distinctTransfers.isEmpty()) {
-          issueStore.add(new StopNotLinkedForTransfers(ts0));
-        } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
-          nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
-        }
-
+      .map(ts0 -> {
+        var result = findTransfers(nearbyStopFinder, ts0);
         //Keep lambda! A method-ref would causes incorrect class and line number to be logged
         //noinspection Convert2MethodRef
         progress.step(m -> LOG.info(m));
-      });
+        return result;
+      })
+      .filter(Objects::nonNull)
+      .toList();
+
+    int nTransfersTotal = 0;
+    int nLinkedStops = 0;
+    var transfersByStop = HashMultimap.<StopLocation, PathTransfer>create();
+
+    for (StopTransfers result : results) {
+      if (result.transfers().isEmpty()) {
+        issueStore.add(new StopNotLinkedForTransfers(result.vertex()));
+      } else {
+        result.transfers().forEach(transfer -> transfersByStop.put(transfer.from, transfer));
+        ++nLinkedStops;
+        nTransfersTotal += result.transfers().size();
+      }
+    }
 
     transitModel.addAllTransfersByStops(transfersByStop);
 
@@ -186,6 +131,7 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       nTransfersTotal,
       nLinkedStops
     );
+    logSlowestStops(results);
   }
 
   @Override
@@ -193,6 +139,109 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     // No inputs
   }
 
+  /**
+   * Find the transfers from the given stop for all transfer profiles. If flex routing is enabled,
+   * the transfers from area stops to the given stop are included as well. Returns {@code null} if
+   * transfers are not allowed from the stop.
+   */
+  @Nullable
+  private StopTransfers findTransfers(NearbyStopFinder nearbyStopFinder, TransitStopVertex ts0) {
+    RegularStop stop = ts0.getStop();
+
+    if (stop.transfersNotAllowed()) {
+      return null;
+    }
+
+    long startTime = System.nanoTime();
+
+    /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
+     * Use map based on the list of edges, so that only distinct transfers are stored. */
+    Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
+
+    LOG.debug("Linking stop '{}' {}", stop, ts0);
+
+    for (RouteRequest transferProfile : transferRequests) {
+      for (NearbyStop sd : findNearbyStops(
+        nearbyStopFinder,
+        ts0,
+        transferProfile,
+        transferProfile.journey().transfer(),
+        false
+      )) {
+        // Skip the origin stop, loop transfers are not needed.
+        if (sd.stop == stop) {
+          continue;
+        }
+        if (sd.stop.transfersNotAllowed()) {
+          continue;
+        }
+        distinctTransfers.put(
+          new TransferKey(stop, sd.stop, sd.edges),
+          new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
+        );
+      }
+      if (OTPFeature.FlexRouting.isOn()) {
+        // This code is for finding transfers from AreaStops to Stops, transfers
+        // from Stops to AreaStops and between Stops are already covered above.
+        for (NearbyStop sd : findNearbyStops(
+          nearbyStopFinder,
+          ts0,
+          transferProfile,
+          transferProfile.journey().transfer(),
+          true
+        )) {
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop instanceof RegularStop) {
+            continue;
+          }
+          distinctTransfers.put(
+            new TransferKey(sd.stop, stop, sd.edges),
+            new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+          );
+        }
+      }
+    }
+
+    LOG.debug(
+      "Linked stop {} with {} transfers to stops with different patterns.",
+      stop,
+      distinctTransfers.size()
+    );
+    return new StopTransfers(
+      ts0,
+      List.copyOf(distinctTransfers.values()),
+      System.nanoTime() - startTime
+    );
+  }
+
+  /**
+   * Log the stops which took the longest time to process. A few stops with a lot of nearby stops,
+   * or a large street network around them, can dominate the total time spent in this module.
+   */
+  private static void logSlowestStops(List<StopTransfers> results) {
+    if (results.isEmpty()) {
+      return;
+    }
+    var slowest = results
+      .stream()
+      .sorted(Comparator.comparingLong(StopTransfers::elapsedNanos).reversed())
+      .limit(N_SLOWEST_STOPS_TO_LOG)
+      .toList();
+
+    LOG.info("The slowest stops to create transfers for:");
+    for (StopTransfers it : slowest) {
+      LOG.info(
+        "- {}: {} ms, {} transfers",
+        it.vertex().getStop(),
+        TimeUnit.NANOSECONDS.toMillis(it.elapsedNanos()),
+        it.transfers().size()
+      );
+    }
+  }
+
   private static Iterable<NearbyStop> findNearbyStops(
     NearbyStopFinder nearbyStopFinder,
     Vertex vertex,
@@ -211,4 +260,11 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   }
 
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
+
+  /** The transfers found for a stop and the time it took to find them. */
+  private record StopTransfers(
+    TransitStopVertex vertex,
+    List<PathTransfer> transfers,
+    long elapsedNanos
+  ) {}
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.dataoverlay.EdgeUpdaterModule;
 import org.opentripplanner.ext.flex.FlexLocationsToStreetEdgesMapper;
+import org.opentripplanner.ext.flex.FlexTravelTimeMatrixModule;
 import org.opentripplanner.ext.transferanalyzer.DirectTransferAnalyzer;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
@@ -46,6 +47,7 @@ public interface GraphBuilderFactory {
   PruneIslands pruneIslands();
   List<ElevationModule> elevationModules();
   FlexLocationsToStreetEdgesMapper flexLocationsToStreetEdgesMapper();
+  FlexTravelTimeMatrixModule flexTravelTimeMatrixModule();
   DirectTransferGenerator directTransferGenerator();
   DirectTransferAnalyzer directTransferAnalyzer();
   GraphCoherencyCheckerModule graphCoherencyCheckerModule();
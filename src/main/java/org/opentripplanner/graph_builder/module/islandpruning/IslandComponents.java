@@ -0,0 +1,422 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.ElevatorEdge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetTransitEntityLink;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * The islands of the street graph for one traverse mode, computed over primitive vertex indices.
+ * <p>
+ * The vertex neighbourhood is collected by traversing the edges of every street vertex in
+ * parallel and stored as compressed adjacency arrays, one for edges allowing through traffic and
+ * one for the noThruTraffic edges. The plain connected components are then found with a
+ * union-find, while the order dependent steps - expansion of the original islands across
+ * noThruTraffic edges and collection of the remaining noThruTraffic islands - are done with a
+ * breadth first search over the same arrays. See {@link PruneIslands} for the pruning strategy.
+ * <p>
+ * Transit stop vertices are never assigned exclusively to an island, a stop may be part of more
+ * than one expanded island. This is the same as the original map based implementation.
+ * <p>
+ * THREAD SAFETY - The computation only reads the graph, so islands for different traverse modes
+ * can be computed concurrently. The graph must not be modified while the computation runs.
+ */
+class IslandComponents {
+
+  private static final int UNASSIGNED = -1;
+
+  private final TraverseMode traverseMode;
+  private final Vertex[] vertices;
+  private final boolean[] isStop;
+  private final boolean[] isStart;
+  private final Adjacency thru;
+  private final Adjacency all;
+
+  private int thruIslandCount;
+  private final List<Subgraph> extendedIslands = new ArrayList<>();
+  private final List<Subgraph> islands = new ArrayList<>();
+  private int noThruIslandCount;
+
+  private IslandComponents(VertexIndex index, TraverseMode traverseMode) {
+    this.traverseMode = traverseMode;
+    this.vertices = index.vertices;
+    this.isStop = index.isStop;
+    this.isStart = index.isStreet;
+
+    StreetSearchRequest request = StreetSearchRequest
+      .of()
+      .withMode(toStreetMode(traverseMode))
+      .build();
+
+    int[][] thruNeighbours = new int[vertices.length][];
+    int[][] noThruNeighbours = new int[vertices.length][];
+
+    IntStream
+      .range(0, vertices.length)
+      .parallel()
+      .forEach(i -> {
+        if (index.isStreet[i]) {
+          thruNeighbours[i] = traverse(index, i, request, false);
+          noThruNeighbours[i] = traverse(index, i, request, true);
+        }
+      });
+
+    this.thru = new Adjacency(vertices.length, thruNeighbours, null);
+    this.all = new Adjacency(vertices.length, thruNeighbours, noThruNeighbours);
+  }
+
+  /**
+   * Compute the islands for the given traverse mode.
+   */
+  static IslandComponents compute(VertexIndex index, TraverseMode traverseMode) {
+    var components = new IslandComponents(index, traverseMode);
+    components.computeIslands();
+    return components;
+  }
+
+  TraverseMode traverseMode() {
+    return traverseMode;
+  }
+
+  /** Number of islands when the noThruTraffic edges are not traversed. */
+  int thruIslandCount() {
+    return thruIslandCount;
+  }
+
+  /** Islands when noThruTraffic edges are traversed like any other edge. */
+  List<Subgraph> extendedIslands() {
+    return extendedIslands;
+  }
+
+  /**
+   * The original islands expanded across noThruTraffic edges, followed by the islands which are
+   * reachable only through noThruTraffic edges.
+   */
+  List<Subgraph> islands() {
+    return islands;
+  }
+
+  /** Number of islands which are reachable only through noThruTraffic edges. */
+  int noThruIslandCount() {
+    return noThruIslandCount;
+  }
+
+  private void computeIslands() {
+    /* associate each connected vertex with an island, not using the noThruTraffic edges */
+    int[] thruLabels = unionFind(thru);
+    thruIslandCount = collectComponents(thruLabels, thru, null);
+    // stops are never assigned exclusively to an island, so they can not act as anchors
+    for (int i = 0; i < vertices.length; i++) {
+      if (isStop[i]) {
+        thruLabels[i] = UNASSIGNED;
+      }
+    }
+
+    /* generate islands without considering access limitations */
+    int[] allLabels = unionFind(all);
+    collectComponents(allLabels, all, extendedIslands);
+
+    /* Expand the original islands by accepting noThruTraffic edges. However, expansion is not
+       allowed to jump from an original island to another one. */
+    int[] mapped = new int[vertices.length];
+    Arrays.fill(mapped, UNASSIGNED);
+    int[] visited = new int[vertices.length];
+    Arrays.fill(visited, UNASSIGNED);
+    // the start vertex may be queued twice, once as start and once when reached from a neighbour
+    int[] queue = new int[vertices.length + 1];
+
+    int islandIndex = 0;
+    for (int i = 0; i < vertices.length; i++) {
+      if (!isStart[i] || thruLabels[i] == UNASSIGNED || mapped[i] != UNASSIGNED) {
+        continue;
+      }
+      if (all.degree(i) == 0) {
+        continue;
+      }
+      islands.add(expand(i, islandIndex++, thruLabels, mapped, visited, queue));
+    }
+
+    /* Next round: generate purely noThruTraffic islands if such ones exist */
+    for (int i = 0; i < vertices.length; i++) {
+      if (!isStart[i] || mapped[i] != UNASSIGNED || all.degree(i) == 0) {
+        continue;
+      }
+      islands.add(expand(i, islandIndex++, null, mapped, visited, queue));
+      noThruIslandCount++;
+    }
+  }
+
+  /**
+   * Breadth first search from the given start vertex across all edges. Vertices already mapped to
+   * another island are not entered, and if anchor labels are given, the search does not enter a
+   * vertex belonging to another anchor island.
+   */
+  private Subgraph expand(
+    int start,
+    int islandIndex,
+    int[] anchors,
+    int[] mapped,
+    int[] visited,
+    int[] queue
+  ) {
+    Subgraph subgraph = new Subgraph();
+    int anchor = anchors == null ? UNASSIGNED : anchors[start];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+
+    while (head < tail) {
+      int v = queue[head++];
+      for (int k = all.offsets[v]; k < all.offsets[v + 1]; k++) {
+        int n = all.targets[k];
+        if (visited[n] == islandIndex || mapped[n] != UNASSIGNED) {
+          continue;
+        }
+        if (anchor != UNASSIGNED && anchors[n] != UNASSIGNED && anchors[n] != anchor) {
+          // do not enter a new island
+          continue;
+        }
+        visited[n] = islandIndex;
+        queue[tail++] = n;
+      }
+    }
+    for (int i = 0; i < tail; i++) {
+      int v = queue[i];
+      // the start vertex is part of the island only if it is reachable from its neighbours
+      if (visited[v] != islandIndex) {
+        continue;
+      }
+      subgraph.addVertex(vertices[v]);
+      if (!isStop[v]) {
+        mapped[v] = islandIndex;
+      }
+    }
+    return subgraph;
+  }
+
+  /**
+   * Union-find over the given adjacency. Returns the root of each vertex, or {@link #UNASSIGNED}
+   * for vertices without neighbours.
+   */
+  private static int[] unionFind(Adjacency adjacency) {
+    int n = adjacency.degrees.length;
+    int[] parent = new int[n];
+    for (int i = 0; i < n; i++) {
+      parent[i] = i;
+    }
+    for (int v = 0; v < n; v++) {
+      for (int k = adjacency.offsets[v]; k < adjacency.offsets[v + 1]; k++) {
+        int a = find(parent, v);
+        int b = find(parent, adjacency.targets[k]);
+        if (a != b) {
+          // keep the lowest index as root, so the roots follow the vertex iteration order
+          if (a < b) {
+            parent[b] = a;
+          } else {
+            parent[a] = b;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      parent[i] = adjacency.degree(i) == 0 ? UNASSIGNED : find(parent, i);
+    }
+    return parent;
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /**
+   * Count the components containing a street vertex, and if a list is given, add them as
+   * {@link Subgraph}s in the order of their first street vertex.
+   */
+  private int collectComponents(int[] labels, Adjacency adjacency, List<Subgraph> result) {
+    int[] order = new int[vertices.length];
+    Arrays.fill(order, UNASSIGNED);
+    int count = 0;
+
+    for (int i = 0; i < vertices.length; i++) {
+      if (isStart[i] && labels[i] != UNASSIGNED && order[labels[i]] == UNASSIGNED) {
+        order[labels[i]] = count++;
+      }
+    }
+    if (result == null) {
+      return count;
+    }
+    Subgraph[] ordered = new Subgraph[count];
+    for (int i = 0; i < vertices.length; i++) {
+      if (labels[i] == UNASSIGNED || adjacency.degree(i) == 0 || order[labels[i]] == UNASSIGNED) {
+        continue;
+      }
+      int o = order[labels[i]];
+      if (ordered[o] == null) {
+        ordered[o] = new Subgraph();
+      }
+      ordered[o].addVertex(vertices[i]);
+    }
+    result.addAll(Arrays.asList(ordered));
+    return count;
+  }
+
+  private int[] traverse(
+    VertexIndex index,
+    int i,
+    StreetSearchRequest request,
+    boolean shouldMatchNoThruType
+  ) {
+    Vertex gv = vertices[i];
+    State s0 = new State(gv, request);
+    int[] result = new int[4];
+    int size = 0;
+
+    for (Edge e : gv.getOutgoing()) {
+      if (
+        !(
+          e instanceof StreetEdge ||
+          e instanceof ElevatorEdge ||
+          e instanceof FreeEdge ||
+          e instanceof StreetTransitEntityLink
+        )
+      ) {
+        continue;
+      }
+      if (
+        e instanceof StreetEdge &&
+        shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
+      ) {
+        continue;
+      }
+      State[] states = e.traverse(s0);
+      if (State.isEmpty(states)) {
+        continue;
+      }
+      for (State state : states) {
+        Integer out = index.indexOf.get(state.getVertex());
+        if (out == null) {
+          continue;
+        }
+        if (size == result.length) {
+          result = Arrays.copyOf(result, size * 2);
+        }
+        result[size++] = out;
+      }
+    }
+    return size == 0 ? null : Arrays.copyOf(result, size);
+  }
+
+  private static StreetMode toStreetMode(TraverseMode traverseMode) {
+    return switch (traverseMode) {
+      case WALK -> StreetMode.WALK;
+      case BICYCLE -> StreetMode.BIKE;
+      case CAR -> StreetMode.CAR;
+      default -> throw new IllegalArgumentException();
+    };
+  }
+
+  /**
+   * A snapshot of the graph vertices, mapping each vertex to a primitive index. The index is
+   * shared by the computations of all traverse modes.
+   */
+  static class VertexIndex {
+
+    private final Vertex[] vertices;
+    private final Map<Vertex, Integer> indexOf;
+    private final boolean[] isStreet;
+    private final boolean[] isStop;
+
+    VertexIndex(Iterable<Vertex> graphVertices) {
+      List<Vertex> list = new ArrayList<>();
+      graphVertices.forEach(list::add);
+      this.vertices = list.toArray(new Vertex[0]);
+      this.indexOf = new HashMap<>(vertices.length * 2);
+      this.isStreet = new boolean[vertices.length];
+      this.isStop = new boolean[vertices.length];
+      for (int i = 0; i < vertices.length; i++) {
+        indexOf.put(vertices[i], i);
+        isStreet[i] = vertices[i] instanceof StreetVertex;
+        isStop[i] = vertices[i] instanceof TransitStopVertex;
+      }
+    }
+  }
+
+  /**
+   * Symmetric adjacency in compressed sparse row form. Each traversable edge is added in both
+   * directions.
+   */
+  private static class Adjacency {
+
+    private final int[] degrees;
+    private final int[] offsets;
+    private final int[] targets;
+
+    Adjacency(int size, int[][] first, int[][] second) {
+      this.degrees = new int[size];
+      countDegrees(first);
+      countDegrees(second);
+
+      this.offsets = new int[size + 1];
+      for (int i = 0; i < size; i++) {
+        offsets[i + 1] = offsets[i] + degrees[i];
+      }
+      this.targets = new int[offsets[size]];
+
+      int[] pos = Arrays.copyOf(offsets, size);
+      addTargets(first, pos);
+      addTargets(second, pos);
+    }
+
+    int degree(int v) {
+      return degrees[v];
+    }
+
+    private void countDegrees(int[][] neighbours) {
+      if (neighbours == null) {
+        return;
+      }
+      for (int v = 0; v < neighbours.length; v++) {
+        if (neighbours[v] == null) {
+          continue;
+        }
+        for (int n : neighbours[v]) {
+          degrees[v]++;
+          degrees[n]++;
+        }
+      }
+    }
+
+    private void addTargets(int[][] neighbours, int[] pos) {
+      if (neighbours == null) {
+        return;
+      }
+      for (int v = 0; v < neighbours.length; v++) {
+        if (neighbours[v] == null) {
+          continue;
+        }
+        for (int n : neighbours[v]) {
+          targets[pos[v]++] = n;
+          targets[pos[n]++] = v;
+        }
+      }
+    }
+  }
+}
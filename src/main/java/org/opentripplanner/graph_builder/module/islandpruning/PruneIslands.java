@@ -1,7 +1,6 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,14 +8,12 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
-import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
@@ -24,16 +21,11 @@ import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model.edge.AreaEdge;
 import org.opentripplanner.street.model.edge.AreaEdgeList;
 import org.opentripplanner.street.model.edge.Edge;
-import org.opentripplanner.street.model.edge.ElevatorEdge;
-import org.opentripplanner.street.model.edge.FreeEdge;
 import org.opentripplanner.street.model.edge.StreetEdge;
-import org.opentripplanner.street.model.edge.StreetTransitEntityLink;
 import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.TraverseMode;
-import org.opentripplanner.street.search.request.StreetSearchRequest;
-import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.service.TransitModel;
 import org.slf4j.Logger;
@@ -60,6 +52,7 @@ public class PruneIslands implements GraphBuilderModule {
   private double adaptivePruningFactor;
   private VertexLinker vertexLinker;
   private StreetIndex streetIndex;
+  private boolean stopsUnlinked;
 
   public PruneIslands(
     Graph graph,
@@ -87,9 +80,7 @@ public class PruneIslands implements GraphBuilderModule {
     this.vertexLinker = graph.getLinkerSafe(transitModel.getStopModel());
     this.streetIndex = graph.getStreetIndexSafe(transitModel.getStopModel());
 
-    pruneIslands(TraverseMode.BICYCLE);
-    pruneIslands(TraverseMode.WALK);
-    pruneIslands(TraverseMode.CAR);
+    pruneIslands(List.of(TraverseMode.BICYCLE, TraverseMode.WALK, TraverseMode.CAR));
 
     // reconnect stops that got disconnected
     if (streetLinkerModule != null) {
@@ -169,6 +160,30 @@ public class PruneIslands implements GraphBuilderModule {
     this.adaptivePruningFactor = adaptivePruningFactor;
   }
 
+  /**
+   * The islands of all traverse modes are computed concurrently, since the computation only reads
+   * the graph. Pruning is then applied one mode at a time in the given order. The pruning of one
+   * mode only changes the permissions and noThruTraffic flags of that mode, except when stops are
+   * unlinked. In that case the islands of the remaining modes are computed again before they are
+   * pruned.
+   */
+  private void pruneIslands(List<TraverseMode> traverseModes) {
+    var vertexIndex = new IslandComponents.VertexIndex(graph.getVertices());
+    List<IslandComponents> components = traverseModes
+      .parallelStream()
+      .map(mode -> IslandComponents.compute(vertexIndex, mode))
+      .toList();
+
+    stopsUnlinked = false;
+    for (IslandComponents it : components) {
+      if (stopsUnlinked) {
+        LOG.info("Stops were unlinked, recomputing {} islands", it.traverseMode());
+        it = IslandComponents.compute(vertexIndex, it.traverseMode());
+      }
+      pruneIslands(it);
+    }
+  }
+
   /* Island pruning strategy:
        1. Extract islands without using noThruTraffic edges at all
        2. Then create expanded islands by accepting noThruTraffic edges, but do not jump across original islands!
@@ -178,55 +193,36 @@ public class PruneIslands implements GraphBuilderModule {
           to noThruTraffic state. Remove traversal mode specific access from unreachable edges. Remove unconnected edges.
      */
 
-  private void pruneIslands(TraverseMode traverseMode) {
+  private void pruneIslands(IslandComponents components) {
+    TraverseMode traverseMode = components.traverseMode();
     LOG.debug("nothru pruning");
-    Map<Vertex, Subgraph> subgraphs = new HashMap<>();
-    Map<Vertex, Subgraph> extgraphs = new HashMap<>();
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex = new HashMap<>();
     Map<Edge, Boolean> isolated = new HashMap<>();
-    ArrayList<Subgraph> islands = new ArrayList<>();
     int count;
 
-    /* establish vertex neighbourhood without currently relevant noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, false);
-
-    /* associate each connected vertex with a subgraph */
-    count = collectSubGraphs(neighborsForVertex, subgraphs, null, null);
-    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
-
-    /* Expand vertex neighbourhood with relevant noThruTrafficEdges
-       Note that we can reuse the original neighbour map here
-       and simply process a smaller set of noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, true);
-
-    /* Next: generate subgraphs without considering access limitations */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, count);
+    LOG.info(
+      "Islands when {} noThruTraffic is considered: {}",
+      traverseMode,
+      components.thruIslandCount()
+    );
+    LOG.info(
+      "Islands when {} noThruTraffic is ignored: {}",
+      traverseMode,
+      components.extendedIslands().size()
+    );
 
     /* collect unreachable edges to a map */
-    processIslands(islands, isolated, true, traverseMode);
+    processIslands(components.extendedIslands(), isolated, true, traverseMode);
 
-    extgraphs = new HashMap<>(); // let old map go
-    islands = new ArrayList<>(); // reset this too
+    LOG.info("{} noThruTraffic island count: {}", traverseMode, components.noThruIslandCount());
 
-    /* Recompute expanded subgraphs by accepting noThruTraffic edges in graph expansion.
-       However, expansion is not allowed to jump from an original island to another one
-     */
-    collectSubGraphs(neighborsForVertex, extgraphs, subgraphs, islands);
+    LOG.info("Total {} sub graphs found", components.islands().size());
 
-    /* Next round: generate purely noThruTraffic islands if such ones exist */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-
-    LOG.info("{} noThruTraffic island count: {}", traverseMode, count);
-
-    LOG.info("Total {} sub graphs found", islands.size());
-
-    count = processIslands(islands, isolated, false, traverseMode);
+    count = processIslands(components.islands(), isolated, false, traverseMode);
     LOG.info("Modified {} islands", count);
   }
 
   private int processIslands(
-    ArrayList<Subgraph> islands,
+    List<Subgraph> islands,
     Map<Edge, Boolean> isolated,
     boolean markIsolated,
     TraverseMode traverseMode
@@ -322,97 +318,6 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
-  private void collectNeighbourVertices(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    TraverseMode traverseMode,
-    boolean shouldMatchNoThruType
-  ) {
-    StreetMode streetMode =
-      switch (traverseMode) {
-        case WALK -> StreetMode.WALK;
-        case BICYCLE -> StreetMode.BIKE;
-        case CAR -> StreetMode.CAR;
-        default -> throw new IllegalArgumentException();
-      };
-
-    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
-
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          !(
-            e instanceof StreetEdge ||
-            e instanceof ElevatorEdge ||
-            e instanceof FreeEdge ||
-            e instanceof StreetTransitEntityLink
-          )
-        ) {
-          continue;
-        }
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
-        }
-        State[] states = e.traverse(s0);
-        if (State.isEmpty(states)) {
-          continue;
-        }
-        Arrays
-          .stream(states)
-          .map(State::getVertex)
-          .forEach(out -> {
-            var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
-            vertexList.add(out);
-
-            // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
-            vertexList = neighborsForVertex.computeIfAbsent(out, k -> new ArrayList<>());
-            vertexList.add(gv);
-          });
-      }
-    }
-  }
-
-  private int collectSubGraphs(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
-    Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
-    ArrayList<Subgraph> islands
-  ) { // final list of islands or null
-    int count = 0;
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-
-      if (subgraphs != null && !subgraphs.containsKey(gv)) {
-        // do not start new graph generation from non-classified vertex
-        continue;
-      }
-      if (newgraphs.containsKey(gv)) { // already processed
-        continue;
-      }
-      if (!neighborsForVertex.containsKey(gv)) {
-        continue;
-      }
-      Subgraph subgraph = computeConnectedSubgraph(neighborsForVertex, gv, subgraphs, newgraphs);
-      for (Iterator<Vertex> vIter = subgraph.streetIterator(); vIter.hasNext();) {
-        Vertex subnode = vIter.next();
-        newgraphs.put(subnode, subgraph);
-      }
-      if (islands != null) {
-        islands.add(subgraph);
-      }
-      count++;
-    }
-    return count;
-  }
-
   private boolean restrictOrRemove(
     Subgraph island,
     Map<Edge, Boolean> isolated,
@@ -512,6 +417,7 @@ public class PruneIslands implements GraphBuilderModule {
         edges.addAll(v.getIncoming());
         for (Edge e : edges) {
           graph.removeEdge(e);
+          stopsUnlinked = true;
         }
       }
       if (island.stopSize() > 0) {
@@ -524,37 +430,4 @@ public class PruneIslands implements GraphBuilderModule {
     issueStore.add(new GraphIsland(island, nothru, restricted, removed, traverseMode.name()));
     return true;
   }
-
-  private Subgraph computeConnectedSubgraph(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Vertex startVertex,
-    Map<Vertex, Subgraph> anchors,
-    Map<Vertex, Subgraph> alreadyMapped
-  ) {
-    Subgraph subgraph = new Subgraph();
-    Queue<Vertex> q = new LinkedList<>();
-    Subgraph anchor = null;
-
-    if (anchors != null) {
-      // anchor subgraph expansion to this subgraph
-      anchor = anchors.get(startVertex);
-    }
-    q.add(startVertex);
-    while (!q.isEmpty()) {
-      Vertex vertex = q.poll();
-      for (Vertex neighbor : neighborsForVertex.get(vertex)) {
-        if (!subgraph.contains(neighbor) && !alreadyMapped.containsKey(neighbor)) {
-          if (anchor != null) {
-            Subgraph compare = anchors.get(neighbor);
-            if (compare != null && compare != anchor) { // do not enter a new island
-              continue;
-            }
-          }
-          subgraph.addVertex(neighbor);
-          q.add(neighbor);
-        }
-      }
-    }
-    return subgraph;
-  }
 }
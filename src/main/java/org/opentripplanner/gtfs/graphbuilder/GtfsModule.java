@@ -3,12 +3,15 @@ package org.opentripplanner.gtfs.graphbuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
@@ -26,6 +29,7 @@ import org.onebusaway.gtfs.model.ServiceCalendarDate;
 import org.onebusaway.gtfs.model.ShapePoint;
 import org.onebusaway.gtfs.model.Stop;
 import org.onebusaway.gtfs.model.StopArea;
+import org.onebusaway.gtfs.model.StopTime;
 import org.onebusaway.gtfs.model.Trip;
 import org.onebusaway.gtfs.serialization.GtfsReader;
 import org.onebusaway.gtfs.services.GenericMutableDao;
@@ -120,9 +124,20 @@ public class GtfsModule implements GraphBuilderModule {
 
     boolean hasTransit = false;
 
+    // The next bundle, if it is read in the background
+    CompletableFuture<GtfsMutableRelationalDao> nextDao = null;
+
     try {
-      for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
+      for (int i = 0; i < gtfsBundles.size(); ++i) {
+        GtfsBundle gtfsBundle = gtfsBundles.get(i);
+        GtfsMutableRelationalDao gtfsDao = nextDao == null ? loadBundle(gtfsBundle) : join(nextDao);
+        nextDao = null;
+
+        // Read the next bundle while this one is mapped and added to the graph
+        if (OTPFeature.GtfsReadAhead.isOn() && i + 1 < gtfsBundles.size()) {
+          nextDao = loadBundleAsync(gtfsBundles.get(i + 1));
+        }
+
         GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
           gtfsBundle.getFeedId().getId(),
           issueStore,
@@ -132,6 +147,10 @@ public class GtfsModule implements GraphBuilderModule {
         );
         mapper.mapStopTripAndRouteDataIntoBuilder();
 
+        // The GTFS stop times are not used after the mapping, release them before the trip
+        // patterns are created. This is usually the largest part of the feed.
+        gtfsDao.clearAllEntitiesForType(StopTime.class);
+
         OtpTransitServiceBuilder builder = mapper.getBuilder();
         var fareRulesService = mapper.getFareRulesService();
 
@@ -192,6 +211,10 @@ public class GtfsModule implements GraphBuilderModule {
     } catch (IOException e) {
       throw new RuntimeException(e);
     } finally {
+      // Wait for the bundle read in the background, before the bundles are closed
+      if (nextDao != null) {
+        nextDao.handle((dao, e) -> null).join();
+      }
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -269,6 +292,40 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
+  /**
+   * Read the bundle in the background, this is only done if {@link OTPFeature#GtfsReadAhead} is
+   * on, since two bundles are kept in memory at the same time. The bundles are read one at a time,
+   * in order, so the agency id mapping is the same as when the bundles are read sequentially. The
+   * state used to read a bundle is not accessed by the mapping of the previous bundle.
+   */
+  private CompletableFuture<GtfsMutableRelationalDao> loadBundleAsync(GtfsBundle gtfsBundle) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return loadBundle(gtfsBundle);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Wait for the bundle to be read. Exceptions thrown while reading the bundle are rethrown.
+   */
+  private static GtfsMutableRelationalDao join(CompletableFuture<GtfsMutableRelationalDao> task)
+    throws IOException {
+    try {
+      return task.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
   private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
@@ -44,8 +44,12 @@ class StopTimeMapper {
     this.translationHelper = translationHelper;
   }
 
+  /**
+   * Map all stop times of a feed. The stop times are mapped once, so the mapped stop times are not
+   * cached. This allows the GTFS stop times to be garbage collected after the mapping.
+   */
   Collection<StopTime> map(Collection<org.onebusaway.gtfs.model.StopTime> times) {
-    return MapUtils.mapToList(times, this::map);
+    return MapUtils.mapToList(times, this::doMap);
   }
 
   /** Map from GTFS to OTP model, {@code null} safe. */
@@ -1,5 +1,6 @@
 package org.opentripplanner.model;
 
+import java.util.Objects;
 import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -66,6 +67,24 @@ public class GenericLocation {
     return stopId != null || (lat != null && lng != null);
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    GenericLocation that = (GenericLocation) o;
+    return (
+      Objects.equals(label, that.label) &&
+      Objects.equals(stopId, that.stopId) &&
+      Objects.equals(lat, that.lat) &&
+      Objects.equals(lng, that.lng)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(label, stopId, lat, lng);
+  }
+
   @Override
   public String toString() {
     ValueObjectToStringBuilder buf = ValueObjectToStringBuilder.of().skipNull();
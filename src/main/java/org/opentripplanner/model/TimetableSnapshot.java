@@ -9,6 +9,7 @@ import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
@@ -164,6 +165,14 @@ public class TimetableSnapshot {
     return realtimeAddedTripPattern.get(tripIdAndServiceDate);
   }
 
+  /**
+   * @return a copy of the trip patterns created by the updater, by trip id and service date. The
+   * copy does not change when this snapshot is updated.
+   */
+  public Map<TripIdAndServiceDate, TripPattern> getRealtimeAddedTripPatterns() {
+    return Map.copyOf(realtimeAddedTripPattern);
+  }
+
   /**
    * @return if any trip patterns were added.
    */
@@ -24,18 +24,38 @@ public class PageCursor {
   public final Instant latestArrivalTime;
   public final Duration searchWindow;
 
+  /**
+   * An opaque token referring to server side state kept from the previous search, like the access
+   * and egress. The server may have dropped the state, so it must be possible to do the search
+   * without it.
+   */
+  @Nullable
+  public final String searchContinuationToken;
+
   PageCursor(
     PageType type,
     SortOrder originalSortOrder,
     Instant earliestDepartureTime,
     Instant latestArrivalTime,
     Duration searchWindow
+  ) {
+    this(type, originalSortOrder, earliestDepartureTime, latestArrivalTime, searchWindow, null);
+  }
+
+  PageCursor(
+    PageType type,
+    SortOrder originalSortOrder,
+    Instant earliestDepartureTime,
+    Instant latestArrivalTime,
+    Duration searchWindow,
+    @Nullable String searchContinuationToken
   ) {
     this.type = type;
     this.searchWindow = searchWindow;
     this.earliestDepartureTime = earliestDepartureTime;
     this.latestArrivalTime = latestArrivalTime;
     this.originalSortOrder = originalSortOrder;
+    this.searchContinuationToken = searchContinuationToken;
   }
 
   @Nullable
@@ -52,6 +72,7 @@ public class PageCursor {
       .addDateTime("edt", earliestDepartureTime)
       .addDateTime("lat", latestArrivalTime)
       .addDuration("searchWindow", searchWindow)
+      .addStr("searchContinuationToken", searchContinuationToken)
       .toString();
   }
 
@@ -6,6 +6,7 @@ import static org.opentripplanner.model.plan.pagecursor.PageType.PREVIOUS_PAGE;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.model.plan.SortOrder;
@@ -20,6 +21,7 @@ public class PageCursorFactory {
   private boolean wholeSwUsed = true;
   private Instant removedItineraryStartTime = null;
   private Instant removedItineraryEndTime = null;
+  private Supplier<String> searchContinuationToken = null;
 
   private PageCursor nextCursor = null;
   private PageCursor prevCursor = null;
@@ -72,6 +74,18 @@ public class PageCursorFactory {
     return this;
   }
 
+  /**
+   * Set the supplier of the token referring to the server side state of the current search, if
+   * any. The supplier is only called if the page cursors are created, and the token is passed on
+   * to both the next and the previous page cursor.
+   */
+  public PageCursorFactory withSearchContinuationToken(
+    @Nullable Supplier<String> searchContinuationToken
+  ) {
+    this.searchContinuationToken = searchContinuationToken;
+    return this;
+  }
+
   @Nullable
   public PageCursor previousPageCursor() {
     createPageCursors();
@@ -118,6 +132,7 @@ public class PageCursorFactory {
 
     SearchTime prev = new SearchTime(null, null);
     SearchTime next = new SearchTime(null, null);
+    String token = searchContinuationToken == null ? null : searchContinuationToken.get();
 
     // Depart after, sort on arrival time with the earliest first
     if (sortOrder.isSortedByArrivalTimeAcceding()) {
@@ -159,8 +174,24 @@ public class PageCursorFactory {
         next.edt = wholeSwUsed ? calcNextSwStartRelativeToUsedSw() : removedItineraryStartTime;
       }
     }
-    prevCursor = new PageCursor(PREVIOUS_PAGE, sortOrder, prev.edt, prev.lat, newSearchWindow);
-    nextCursor = new PageCursor(NEXT_PAGE, sortOrder, next.edt, next.lat, newSearchWindow);
+    prevCursor =
+      new PageCursor(
+        PREVIOUS_PAGE,
+        sortOrder,
+        prev.edt,
+        prev.lat,
+        newSearchWindow,
+        token
+      );
+    nextCursor =
+      new PageCursor(
+        NEXT_PAGE,
+        sortOrder,
+        next.edt,
+        next.lat,
+        newSearchWindow,
+        token
+      );
   }
 
   /**
@@ -19,7 +19,13 @@ import org.slf4j.LoggerFactory;
 final class PageCursorSerializer {
 
   private static final int NOT_SET = Integer.MIN_VALUE;
-  private static final byte VERSION = 1;
+  private static final byte VERSION = 2;
+  /**
+   * The search continuation token was added in version 2. It is written after all version 1
+   * fields, so version 1 cursors are decoded without a token, and a server reading version 1
+   * cursors ignores the token. Clients do not need to change anything, the cursor is opaque.
+   */
+  private static final byte VERSION_WITH_CONTINUATION_TOKEN = 2;
   private static final long TIME_ZERO = ZonedDateTime
     .of(2020, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"))
     .toEpochSecond();
@@ -41,6 +47,7 @@ final class PageCursorSerializer {
       writeTime(cursor.latestArrivalTime, out);
       writeDuration(cursor.searchWindow, out);
       writeEnum(cursor.originalSortOrder, out);
+      writeString(cursor.searchContinuationToken, out);
       out.flush();
       return Base64.getUrlEncoder().encodeToString(buf.toByteArray());
     } catch (IOException e) {
@@ -69,8 +76,9 @@ final class PageCursorSerializer {
       var lat = readTime(in);
       var searchWindow = readDuration(in);
       var originalSortOrder = readEnum(in, SortOrder.class);
+      var token = version >= VERSION_WITH_CONTINUATION_TOKEN ? readString(in) : null;
 
-      return new PageCursor(type, originalSortOrder, edt, lat, searchWindow);
+      return new PageCursor(type, originalSortOrder, edt, lat, searchWindow, token);
     } catch (Exception e) {
       String details = e.getMessage();
       if (details != null && !details.isBlank()) {
@@ -108,6 +116,17 @@ final class PageCursorSerializer {
     return Duration.ofSeconds(in.readInt());
   }
 
+  private static void writeString(@Nullable String value, ObjectOutputStream out)
+    throws IOException {
+    out.writeUTF(value == null ? "" : value);
+  }
+
+  @Nullable
+  private static String readString(ObjectInputStream in) throws IOException {
+    var value = in.readUTF();
+    return value.isEmpty() ? null : value;
+  }
+
   private static void writeBoolean(boolean value, ObjectOutputStream out) throws IOException {
     out.writeBoolean(value);
   }
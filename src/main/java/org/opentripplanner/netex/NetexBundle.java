@@ -3,8 +3,15 @@ package org.opentripplanner.netex;
 import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -30,6 +37,9 @@ import org.slf4j.LoggerFactory;
  * keeping an index of entities to enable linking. The convention is documented here {@link
  * NetexFeedParameters#sharedFilePattern()} and here {@link NetexDataSourceHierarchy}.
  * <p>
+ * The independent group files are parsed concurrently, while the validation and mapping of the
+ * parsed entities is done in a single thread in a deterministic order.
+ * <p>
  * This class is also responsible for logging progress and exception handling.
  */
 public class NetexBundle implements Closeable {
@@ -127,12 +137,8 @@ public class NetexBundle implements Closeable {
         // Load shared group files
         loadFilesThenMapToOtpTransitModel("shared group file", group.sharedEntries());
 
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToOtpTransitModel("group file", List.of(entry));
-          });
-        }
+        // Load each independent file in group
+        loadIndependentFilesThenMapToOtpTransitModel(group.independentEntries());
       });
     }
     mapper.finishUp();
@@ -165,7 +171,10 @@ public class NetexBundle implements Closeable {
       // Load entry and store it in the index
       loadSingeFileEntry(fileDescription, entry);
     }
+    validateThenMapToOtpTransitModel();
+  }
 
+  private void validateThenMapToOtpTransitModel() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -173,17 +182,112 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
+  /**
+   * The independent files in a group only reference entities in the shared files, so they are
+   * parsed concurrently. Each file is parsed into its own index on top of the group index. The
+   * validation and mapping is done on the calling thread, one file at a time in the same order as
+   * the files are listed. This keeps the mapping deterministic. To limit the memory used, no more
+   * than {@link #maxFilesParsedAhead()} files are parsed ahead of the mapping.
+   * <p>
+   * The parsing does not report any issues, the issues found when validating and mapping a file
+   * are attributed to it. If a file fails, the files not yet parsed are skipped, and the method
+   * waits for the files being parsed before it returns, so the source is not read after this.
+   */
+  private void loadIndependentFilesThenMapToOtpTransitModel(Collection<DataSource> entries) {
+    final NetexEntityIndex groupIndex = index;
+    final int maxFilesParsedAhead = maxFilesParsedAhead();
+    final AtomicBoolean cancelled = new AtomicBoolean(false);
+    Iterator<DataSource> it = entries.iterator();
+    Deque<ParseTask> parsing = new ArrayDeque<>();
+
+    try {
+      while (it.hasNext() || !parsing.isEmpty()) {
+        while (it.hasNext() && parsing.size() < maxFilesParsedAhead) {
+          DataSource entry = it.next();
+          parsing.add(
+            new ParseTask(
+              entry,
+              CompletableFuture.supplyAsync(() ->
+                cancelled.get() ? null : parseSingleFileEntry("group file", entry, groupIndex)
+              )
+            )
+          );
+        }
+        ParseTask task = parsing.poll();
+
+        index = join(task.result());
+        mapper = mapper.push();
+        try {
+          issueStore.startProcessingSource(task.entry().name());
+          validateThenMapToOtpTransitModel();
+        } finally {
+          issueStore.stopProcessingSource();
+        }
+        mapper = mapper.pop();
+        index = groupIndex;
+      }
+    } catch (RuntimeException e) {
+      cancelled.set(true);
+      parsing.forEach(task -> task.result().handle((result, ex) -> null).join());
+      throw e;
+    }
+  }
+
   /** Load a single entry and store it in the index for later */
   private void loadSingeFileEntry(String fileDescription, DataSource entry) {
     try {
-      LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
+      parseAndPopulateIndex(fileDescription, entry, index);
+    } finally {
+      issueStore.stopProcessingSource();
+    }
+  }
+
+  /**
+   * Parse a single entry into a new index on top of the given parent index. The parent index is
+   * only read, so this is safe to run concurrently with other parse tasks.
+   */
+  private NetexEntityIndex parseSingleFileEntry(
+    String fileDescription,
+    DataSource entry,
+    NetexEntityIndex parent
+  ) {
+    NetexEntityIndex entryIndex = parent.push();
+    parseAndPopulateIndex(fileDescription, entry, entryIndex);
+    return entryIndex;
+  }
+
+  private void parseAndPopulateIndex(
+    String fileDescription,
+    DataSource entry,
+    NetexEntityIndex target
+  ) {
+    try {
+      LOG.info("reading entity {}: {}", fileDescription, entry.name());
       PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
-      NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoreFareFrame);
+      NetexDocumentParser.parseAndPopulateIndex(target, doc, ignoreFareFrame);
     } catch (JAXBException e) {
       throw new RuntimeException(e.getMessage(), e);
-    } finally {
-      issueStore.stopProcessingSource();
     }
   }
+
+  /**
+   * Wait for the parse task to complete. If the parsing failed, the original exception is thrown.
+   */
+  private static NetexEntityIndex join(CompletableFuture<NetexEntityIndex> task) {
+    try {
+      return task.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
+  private static int maxFilesParsedAhead() {
+    return Math.max(2, ForkJoinPool.getCommonPoolParallelism());
+  }
+
+  private record ParseTask(DataSource entry, CompletableFuture<NetexEntityIndex> result) {}
 }
@@ -3,19 +3,19 @@ package org.opentripplanner.netex.loader;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
 import java.io.InputStream;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * THREAD SAFETY - The JAXB context is shared and thread safe, while a new unmarshaller is created
+ * for each document. Hence, documents can be parsed concurrently using the same parser.
+ */
 public class NetexXmlParser {
 
-  /** used to parse the XML. */
-  private final Unmarshaller unmarshaller;
-
-  public NetexXmlParser() {
-    this.unmarshaller = createUnmarshaller();
-  }
+  /** The context is expensive to create, so it is created once and shared. */
+  private static final JAXBContext CONTEXT = createContext();
 
   /**
    * Parse an input stream and return the root document type for the given xml file (stream).
@@ -24,18 +24,19 @@ public class NetexXmlParser {
     JAXBElement<PublicationDeliveryStructure> root;
 
     //noinspection unchecked
-    root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.unmarshal(stream);
+    root =
+      (JAXBElement<PublicationDeliveryStructure>) CONTEXT.createUnmarshaller().unmarshal(stream);
 
     return root.getValue();
   }
 
-  /** factory method for unmarshaller */
-  private static Unmarshaller createUnmarshaller() {
+  /** factory method for the JAXB context */
+  private static JAXBContext createContext() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return JAXBContext.newInstance(PublicationDeliveryStructure.class);
     } catch (JAXBException e) {
       // This is a programming error - not expected!
-      // We abort early and also allow for this to happen in the constructor;
+      // We abort early and also allow for this to happen in the class initialization;
       // Which in other cases would be considered bad practice.
       throw new RuntimeException(e);
     }
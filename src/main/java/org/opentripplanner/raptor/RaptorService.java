@@ -4,6 +4,7 @@ import java.util.stream.Collectors;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.api.response.StopArrivalsIterationListener;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.service.HeuristicSearchTask;
@@ -50,6 +51,21 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Run a standard Range Raptor search, and notify the given listener with the stop arrivals after
+   * each iteration. The search is not dynamic, the search window, earliest departure time and the
+   * latest arrival time must be set in the request. Paths are not created, so this is intended for
+   * analysis using the {@link org.opentripplanner.raptor.api.request.RaptorProfile#BEST_TIME}
+   * profile.
+   */
+  public void routeEachIteration(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData,
+    StopArrivalsIterationListener iterationListener
+  ) {
+    config.createStdWorker(transitData, request, iterationListener).route();
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
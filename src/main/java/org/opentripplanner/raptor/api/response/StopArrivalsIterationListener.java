@@ -0,0 +1,19 @@
+package org.opentripplanner.raptor.api.response;
+
+/**
+ * Listen to the stop arrivals after each Range Raptor iteration. Range Raptor searches the
+ * departure times in the search window from the latest to the earliest, and the stop arrivals
+ * after an iteration are the best arrivals when leaving the origin at the iteration departure time
+ * or later. This can be used to compute the distribution of travel times over the search window,
+ * not just the best travel time.
+ */
+@FunctionalInterface
+public interface StopArrivalsIterationListener {
+  /**
+   * @param departureTime the departure time of the iteration, in seconds since the search start of
+   *                      time.
+   * @param arrivals      the stop arrivals after the iteration. This is a view of the search state,
+   *                      it can only be used until this method returns.
+   */
+  void iterationComplete(int departureTime, StopArrivals arrivals);
+}
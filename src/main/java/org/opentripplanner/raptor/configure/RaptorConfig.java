@@ -7,6 +7,7 @@ import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.response.StopArrivalsIterationListener;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
@@ -17,6 +18,9 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
+import org.opentripplanner.raptor.service.DefaultStopArrivals;
+import org.opentripplanner.raptor.service.HeuristicsCache;
+import org.opentripplanner.raptor.service.IterationStopArrivalsNotifier;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 
 /**
@@ -32,9 +36,13 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   private final ExecutorService threadPool;
   private final RaptorTuningParameters tuningParameters;
 
+  @Nullable
+  private final HeuristicsCache heuristicsCache;
+
   public RaptorConfig(RaptorTuningParameters tuningParameters) {
     this.tuningParameters = tuningParameters;
     this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
+    this.heuristicsCache = createHeuristicsCache(tuningParameters);
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -54,6 +62,25 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createWorker(context, stdConfig.state(), stdConfig.strategy());
   }
 
+  /**
+   * Create a standard worker, which notifies the given listener after each iteration.
+   */
+  public RaptorWorker<T> createStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    StopArrivalsIterationListener iterationListener
+  ) {
+    var context = context(transitData, request);
+    var stdConfig = new StdRangeRaptorConfig<>(context);
+    var state = stdConfig.state();
+    new IterationStopArrivalsNotifier(
+      new DefaultStopArrivals(state.results()),
+      iterationListener,
+      context.lifeCycle()
+    );
+    return createWorker(context, state, stdConfig.strategy());
+  }
+
   public RaptorWorker<T> createMcWorker(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
@@ -93,6 +120,15 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return threadPool;
   }
 
+  /**
+   * Return the cache for heuristics shared by all searches, or {@code null} if the heuristics
+   * should not be cached.
+   */
+  @Nullable
+  public HeuristicsCache heuristicsCache() {
+    return heuristicsCache;
+  }
+
   public void shutdown() {
     if (threadPool != null) {
       threadPool.shutdown();
@@ -130,4 +166,10 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       ? Executors.newFixedThreadPool(size, OtpRequestThreadFactory.of("raptor-%d"))
       : null;
   }
+
+  @Nullable
+  private HeuristicsCache createHeuristicsCache(RaptorTuningParameters tuningParameters) {
+    int size = tuningParameters.heuristicsCacheSize();
+    return size > 0 ? new HeuristicsCache(size, tuningParameters.heuristicsCacheExpiry()) : null;
+  }
 }
@@ -17,6 +17,7 @@ import org.opentripplanner.raptor.rangeraptor.transit.AccessPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.rangeraptor.transit.RoundTracker;
 import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 
 /**
@@ -246,12 +247,17 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
   private void findTransfersForRound() {
     timers.findTransfersForRound(() -> {
       IntIterator it = state.stopsTouchedByTransitCurrentRound();
+      RaptorTransfersByStop transfersByStop = calculator.getTransfersByStop(transitData);
 
       while (it.hasNext()) {
         final int fromStop = it.next();
         // no need to consider loop transfers, since we don't mark patterns here any more
         // loop transfers are already included by virtue of those stops having been reached
-        state.transferToStops(fromStop, calculator.getTransfers(transitData, fromStop));
+        if (transfersByStop != null) {
+          state.transferToStops(fromStop, transfersByStop);
+        } else {
+          state.transferToStops(fromStop, calculator.getTransfers(transitData, fromStop));
+        }
       }
 
       lifeCycle.transfersForRoundComplete();
@@ -5,6 +5,7 @@ import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 
 /**
  * The contract the state must implement for the {@link DefaultRangeRaptorWorker} to do its job. This
@@ -45,5 +46,12 @@ public interface RaptorWorkerState<T extends RaptorTripSchedule> {
    */
   void transferToStops(int fromStop, Iterator<? extends RaptorTransfer> transfers);
 
+  /**
+   * Update state with a new transfer, the transfers for the given stop are looked up in the given
+   * index. This does the same as {@link #transferToStops(int, Iterator)}, but without iterating
+   * over transfer objects.
+   */
+  void transferToStops(int fromStop, RaptorTransfersByStop transfers);
+
   RaptorWorkerResult<T> results();
 }
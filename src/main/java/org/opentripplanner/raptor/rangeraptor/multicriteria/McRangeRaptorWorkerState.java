@@ -17,6 +17,7 @@ import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 
 /**
  * Tracks the state of a RAPTOR search, specifically the best arrival times at each transit stop at
@@ -109,6 +110,18 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     }
   }
 
+  @Override
+  public void transferToStops(int fromStop, RaptorTransfersByStop transfers) {
+    var fromArrivals = arrivals.listArrivalsAfterMarker(fromStop);
+    int end = transfers.endIndex(fromStop);
+
+    // The stop arrivals keep a reference to the transfer, so it is looked up once for each
+    // transfer, and shared by all arrivals at the from stop.
+    for (int i = transfers.startIndex(fromStop); i < end; ++i) {
+      transferToStop(fromArrivals, transfers.transfer(i));
+    }
+  }
+
   @Override
   public RaptorWorkerResult<T> results() {
     arrivals.debugStateInfo();
@@ -12,6 +12,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfT
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.StopArrivalsState;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 
 /**
  * Tracks the state of a standard Range Raptor search, specifically the best arrival times at each
@@ -126,7 +127,24 @@ public final class StdRangeRaptorWorkerState<T extends RaptorTripSchedule>
   public void transferToStops(int fromStop, Iterator<? extends RaptorTransfer> transfers) {
     int arrivalTimeTransit = bestTimes.transitArrivalTime(fromStop);
     while (transfers.hasNext()) {
-      transferToStop(arrivalTimeTransit, fromStop, transfers.next());
+      var it = transfers.next();
+      transferToStop(arrivalTimeTransit, fromStop, it.stop(), it.durationInSeconds(), it);
+    }
+  }
+
+  @Override
+  public void transferToStops(int fromStop, RaptorTransfersByStop transfers) {
+    int arrivalTimeTransit = bestTimes.transitArrivalTime(fromStop);
+    int end = transfers.endIndex(fromStop);
+
+    for (int i = transfers.startIndex(fromStop); i < end; ++i) {
+      transferToStop(
+        arrivalTimeTransit,
+        fromStop,
+        transfers.stop(i),
+        transfers.durationInSeconds(i),
+        transfers.transfer(i)
+      );
     }
   }
 
@@ -187,20 +205,25 @@ public final class StdRangeRaptorWorkerState<T extends RaptorTripSchedule>
     return stopArrivalsState.previousTransit(boardStopIndex);
   }
 
-  private void transferToStop(int arrivalTimeTransit, int fromStop, RaptorTransfer transfer) {
+  /**
+   * The stop and duration are passed in, so they can be read from the transfer or from a
+   * {@link RaptorTransfersByStop} index.
+   */
+  private void transferToStop(
+    int arrivalTimeTransit,
+    int fromStop,
+    int toStop,
+    int durationInSeconds,
+    RaptorTransfer transfer
+  ) {
     // Use the calculator to make sure the calculation is done correct for a normal
     // forward search and a reverse search.
-    final int arrivalTime = calculator.plusDuration(
-      arrivalTimeTransit,
-      transfer.durationInSeconds()
-    );
+    final int arrivalTime = calculator.plusDuration(arrivalTimeTransit, durationInSeconds);
 
     if (exceedsTimeLimit(arrivalTime)) {
       return;
     }
 
-    final int toStop = transfer.stop();
-
     if (newOverallBestTime(toStop, arrivalTime)) {
       stopArrivalsState.setNewBestTransferTime(fromStop, arrivalTime, transfer);
     } else {
@@ -11,6 +11,7 @@ import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 import org.opentripplanner.raptor.util.IntIterators;
@@ -104,6 +105,13 @@ public final class ForwardRaptorTransitCalculator<T extends RaptorTripSchedule>
     return transitDataProvider.getTransfersFromStop(fromStop);
   }
 
+  @Override
+  public RaptorTransfersByStop getTransfersByStop(
+    RaptorTransitDataProvider<T> transitDataProvider
+  ) {
+    return transitDataProvider.transfersFromStops();
+  }
+
   @Override
   public RaptorTripScheduleSearch<T> createTripSearch(RaptorTimeTable<T> timeTable) {
     return timeTable.tripSearch(SearchDirection.FORWARD);
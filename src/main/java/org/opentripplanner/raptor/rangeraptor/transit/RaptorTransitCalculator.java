@@ -4,6 +4,7 @@ import static org.opentripplanner.framework.time.TimeUtils.hm2time;
 import static org.opentripplanner.raptor.api.model.RaptorConstants.TIME_NOT_SET;
 
 import java.util.Iterator;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
@@ -11,6 +12,7 @@ import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 
@@ -147,4 +149,14 @@ public interface RaptorTransitCalculator<T extends RaptorTripSchedule>
     RaptorTransitDataProvider<T> transitDataProvider,
     int fromStop
   );
+
+  /**
+   * Returns the primitive index of transfers "from" (or "to" for reverse searches) each stop, or
+   * {@code null} if not supported by the transit data.
+   *
+   * @see RaptorTransitDataProvider#transfersFromStops()
+   * @see RaptorTransitDataProvider#transfersToStops()
+   */
+  @Nullable
+  RaptorTransfersByStop getTransfersByStop(RaptorTransitDataProvider<T> transitDataProvider);
 }
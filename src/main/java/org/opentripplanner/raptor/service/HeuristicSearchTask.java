@@ -37,6 +37,7 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   private RaptorRequest<T> originalRequest;
   private RaptorRequest<T> heuristicRequest;
   private RaptorWorkerResult<T> result = null;
+  private Heuristics heuristics = null;
 
   public HeuristicSearchTask(
     RaptorRequest<T> request,
@@ -77,10 +78,10 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
   @Nullable
   public Heuristics result() {
-    if (result == null) {
-      return null;
+    if (heuristics == null && result != null) {
+      heuristics = config.createHeuristic(transitData, heuristicRequest, result);
     }
-    return config.createHeuristic(transitData, heuristicRequest, result);
+    return heuristics;
   }
 
   public HeuristicSearchTask<T> withRequest(RaptorRequest<T> request) {
@@ -110,7 +111,20 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
     long start = System.currentTimeMillis();
 
-    createHeuristicSearchIfNotExist(originalRequest);
+    createHeuristicRequestIfNotExist(originalRequest);
+
+    var cache = config.heuristicsCache();
+    var cacheKey = cache == null ? null : HeuristicsCache.keyOf(transitData, heuristicRequest);
+
+    if (cache != null) {
+      this.heuristics = cache.get(cacheKey);
+      if (heuristics != null) {
+        LOG.debug("RangeRaptor - {} heuristic search result found in cache.", name);
+        return;
+      }
+    }
+
+    createHeuristicSearchIfNotExist();
 
     LOG.debug("Heuristic search: {}", heuristicRequest);
     this.result = search.route();
@@ -119,14 +133,17 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     if (!result.isDestinationReached()) {
       throw new DestinationNotReachedException();
     }
+    if (cache != null) {
+      cache.put(cacheKey, result());
+    }
     if (LOG.isDebugEnabled()) {
       String time = DurationUtils.msToSecondsStr(System.currentTimeMillis() - start);
       LOG.debug("RangeRaptor - {} heuristic search performed in {}.", name, time);
     }
   }
 
-  private void createHeuristicSearchIfNotExist(RaptorRequest<T> request) {
-    if (search == null) {
+  private void createHeuristicRequestIfNotExist(RaptorRequest<T> request) {
+    if (heuristicRequest == null) {
       var profile = MIN_TRAVEL_DURATION;
 
       var builder = request
@@ -144,6 +161,11 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       );
 
       heuristicRequest = builder.build();
+    }
+  }
+
+  private void createHeuristicSearchIfNotExist() {
+    if (search == null) {
       search = config.createHeuristicSearch(transitData, heuristicRequest);
     }
   }
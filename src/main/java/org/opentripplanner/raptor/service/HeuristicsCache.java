@@ -0,0 +1,156 @@
+package org.opentripplanner.raptor.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Keep the result of heuristic searches, so identical heuristic searches are only performed once.
+ * This is useful when many clients search for the same trip at the same time - for example when a
+ * popular connection is disrupted - and when a client repeat a search.
+ * <p>
+ * A heuristic search is identical to another if the transit data and the search parameters are
+ * equal. The transit data is identified by the
+ * {@link RaptorTransitDataProvider#heuristicsCacheKey()}, and the access and egress paths by their
+ * stop, duration, cost and number of rides. Searches with access or egress with opening hours are
+ * never cached, neither are searches with debugging enabled or with transit data without a key.
+ * <p>
+ * Note! The heuristics are NOT shifted in time to be reused for a search with another departure
+ * or arrival time. Heuristics must be optimistic, if they are not, Raptor will prune optimal paths,
+ * and a time-shifted heuristic is not optimistic if the timetable is different at the new time.
+ * For the same reason the departure and arrival times are part of the key to the second, they are
+ * not rounded. The cache only pays off for searches repeated with exactly the same time, like
+ * clients refreshing a search, or many clients searching for the same departure.
+ * <p>
+ * The transit data key refers to the transit data of the search, a new instance is created for
+ * each realtime update. The entries expire a short time after they are created, so the transit
+ * data replaced by a realtime update is not kept alive by the cache.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE
+ */
+public class HeuristicsCache {
+
+  private final Cache<Key, Heuristics> cache;
+
+  public HeuristicsCache(int maximumSize, Duration expireAfterWrite) {
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+
+    if (OTPFeature.ActuatorAPI.isOn()) {
+      new GuavaCacheMetrics(cache, "raptorHeuristicsCache", List.of())
+        .bindTo(Metrics.globalRegistry);
+    }
+  }
+
+  /**
+   * Create a key for the given heuristic search, return {@code null} if the search can not be
+   * cached.
+   */
+  @Nullable
+  static Key keyOf(RaptorTransitDataProvider<?> transitData, RaptorRequest<?> request) {
+    var transitDataKey = transitData.heuristicsCacheKey();
+    var s = request.searchParams();
+
+    if (
+      transitDataKey == null ||
+      isDebugging(request) ||
+      hasOpeningHours(s.accessPaths()) ||
+      hasOpeningHours(s.egressPaths())
+    ) {
+      return null;
+    }
+    return new Key(
+      transitDataKey,
+      request.searchDirection(),
+      s.earliestDepartureTime(),
+      s.latestArrivalTime(),
+      s.searchWindowInSeconds(),
+      s.searchWindowAccessSlackInSeconds(),
+      s.preferLateArrival(),
+      s.numberOfAdditionalTransfers(),
+      s.maxNumberOfTransfers(),
+      s.timetable(),
+      s.constrainedTransfers(),
+      s.allowEmptyAccessEgressPaths(),
+      toKeys(s.accessPaths()),
+      toKeys(s.egressPaths())
+    );
+  }
+
+  @Nullable
+  Heuristics get(@Nullable Key key) {
+    return key == null ? null : cache.getIfPresent(key);
+  }
+
+  void put(@Nullable Key key, Heuristics heuristics) {
+    if (key != null) {
+      cache.put(key, heuristics);
+    }
+  }
+
+  private static boolean isDebugging(RaptorRequest<?> request) {
+    return !request.debug().stops().isEmpty() || !request.debug().path().isEmpty();
+  }
+
+  private static boolean hasOpeningHours(Collection<RaptorAccessEgress> paths) {
+    return paths.stream().anyMatch(RaptorAccessEgress::hasOpeningHours);
+  }
+
+  private static List<AccessEgressKey> toKeys(Collection<RaptorAccessEgress> paths) {
+    return paths.stream().map(AccessEgressKey::of).toList();
+  }
+
+  record Key(
+    Object transitData,
+    SearchDirection direction,
+    int earliestDepartureTime,
+    int latestArrivalTime,
+    int searchWindowInSeconds,
+    int searchWindowAccessSlackInSeconds,
+    boolean preferLateArrival,
+    int numberOfAdditionalTransfers,
+    int maxNumberOfTransfers,
+    boolean timetable,
+    boolean constrainedTransfers,
+    boolean allowEmptyAccessEgressPaths,
+    List<AccessEgressKey> accessPaths,
+    List<AccessEgressKey> egressPaths
+  ) {}
+
+  /**
+   * The part of an access or egress used by the heuristic search.
+   */
+  private record AccessEgressKey(
+    int stop,
+    int durationInSeconds,
+    int generalizedCost,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    static AccessEgressKey of(RaptorAccessEgress path) {
+      return new AccessEgressKey(
+        path.stop(),
+        path.durationInSeconds(),
+        path.generalizedCost(),
+        path.numberOfRides(),
+        path.stopReachedOnBoard()
+      );
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package org.opentripplanner.raptor.service;
+
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.api.response.StopArrivalsIterationListener;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+
+/**
+ * Notify a {@link StopArrivalsIterationListener} when a Range Raptor iteration is complete.
+ */
+public final class IterationStopArrivalsNotifier {
+
+  private final StopArrivals arrivals;
+  private final StopArrivalsIterationListener listener;
+  private int iterationDepartureTime;
+
+  public IterationStopArrivalsNotifier(
+    StopArrivals arrivals,
+    StopArrivalsIterationListener listener,
+    WorkerLifeCycle lifeCycle
+  ) {
+    this.arrivals = arrivals;
+    this.listener = listener;
+    lifeCycle.onSetupIteration(this::setupIteration);
+    lifeCycle.onIterationComplete(this::iterationComplete);
+  }
+
+  private void setupIteration(int iterationDepartureTime) {
+    this.iterationDepartureTime = iterationDepartureTime;
+  }
+
+  private void iterationComplete() {
+    listener.iterationComplete(iterationDepartureTime, arrivals);
+  }
+}
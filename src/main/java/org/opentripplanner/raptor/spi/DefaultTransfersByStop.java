@@ -0,0 +1,81 @@
+package org.opentripplanner.raptor.spi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+
+/**
+ * A simple default implementation which stores the given transfers of all stops in CSR order. The
+ * transfers of stop {@code s} have the indexes from {@code offsets[s]} to {@code offsets[s+1]}.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE
+ */
+public final class DefaultTransfersByStop implements RaptorTransfersByStop {
+
+  private final int[] offsets;
+  private final int[] stops;
+  private final int[] durations;
+  private final RaptorTransfer[] transfers;
+
+  /**
+   * @param transfersByStop the transfers of each stop, the list index is the stop index.
+   */
+  public DefaultTransfersByStop(List<? extends List<? extends RaptorTransfer>> transfersByStop) {
+    int nStops = transfersByStop.size();
+    this.offsets = new int[nStops + 1];
+
+    for (int stop = 0; stop < nStops; ++stop) {
+      offsets[stop + 1] = offsets[stop] + transfersByStop.get(stop).size();
+    }
+
+    int size = offsets[nStops];
+    this.stops = new int[size];
+    this.durations = new int[size];
+    this.transfers = new RaptorTransfer[size];
+
+    int i = 0;
+    for (List<? extends RaptorTransfer> list : transfersByStop) {
+      for (RaptorTransfer it : list) {
+        stops[i] = it.stop();
+        durations[i] = it.durationInSeconds();
+        transfers[i] = it;
+        ++i;
+      }
+    }
+  }
+
+  @Override
+  public int startIndex(int stop) {
+    return offsets[stop];
+  }
+
+  @Override
+  public int endIndex(int stop) {
+    return offsets[stop + 1];
+  }
+
+  @Override
+  public int stop(int index) {
+    return stops[index];
+  }
+
+  @Override
+  public int durationInSeconds(int index) {
+    return durations[index];
+  }
+
+  @Override
+  public RaptorTransfer transfer(int index) {
+    return transfers[index];
+  }
+
+  /**
+   * The transfers of the given stop, as a read-only view of the index.
+   */
+  public List<RaptorTransfer> list(int stop) {
+    return Collections.unmodifiableList(
+      Arrays.asList(transfers).subList(offsets[stop], offsets[stop + 1])
+    );
+  }
+}
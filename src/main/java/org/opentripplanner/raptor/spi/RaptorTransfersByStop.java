@@ -0,0 +1,47 @@
+package org.opentripplanner.raptor.spi;
+
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+
+/**
+ * A primitive index of all transfers from (or to) each stop. Raptor uses it to find transfers
+ * without iterating over {@link RaptorTransfer} objects, which is one of the hottest parts of the
+ * search in dense networks.
+ * <p>
+ * The transfers are stored in compressed sparse row (CSR) order: the transfers for a stop have
+ * the indexes from {@link #startIndex(int)} (inclusive) to {@link #endIndex(int)} (exclusive),
+ * and the stop and duration of each transfer are looked up by the index. The
+ * {@link RaptorTransfer} is retrieved, using {@link #transfer(int)}, when a stop arrival is
+ * created or rejected, because the arrival keeps a reference to it.
+ * <p>
+ * The index must return the same transfers as the iterators in {@link RaptorTransitDataProvider},
+ * see {@link RaptorTransitDataProvider#getTransfersFromStop(int)}.
+ */
+public interface RaptorTransfersByStop {
+  /**
+   * The index of the first transfer for the given stop.
+   */
+  int startIndex(int stop);
+
+  /**
+   * The index after the last transfer for the given stop. If the stop has no transfers, the end
+   * index is equal to the {@link #startIndex(int)}.
+   */
+  int endIndex(int stop);
+
+  /**
+   * The stop at the other end of the transfer with the given index. This is the same as
+   * {@link RaptorTransfer#stop()}.
+   */
+  int stop(int index);
+
+  /**
+   * The same as {@link RaptorTransfer#durationInSeconds()} for the transfer with the given index.
+   */
+  int durationInSeconds(int index);
+
+  /**
+   * The transfer with the given index. The returned instance is not a flyweight, it can be kept
+   * by the caller.
+   */
+  RaptorTransfer transfer(int index);
+}
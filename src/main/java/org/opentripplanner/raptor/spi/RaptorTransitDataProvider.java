@@ -2,6 +2,7 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -74,6 +75,27 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
   @Flyweight
   Iterator<? extends RaptorTransfer> getTransfersToStop(int toStop);
 
+  /**
+   * Return all transfers from each stop as a primitive index. Raptor uses this, if available,
+   * instead of {@link #getTransfersFromStop(int)} to find the transfers in the search. The index
+   * must contain the same transfers as {@link #getTransfersFromStop(int)}.
+   * <p>
+   * The default is {@code null}, in this case the iterators are used.
+   */
+  @Nullable
+  default RaptorTransfersByStop transfersFromStops() {
+    return null;
+  }
+
+  /**
+   * Return all transfers to each stop as a primitive index, this is used in a reverse search. See
+   * {@link #transfersFromStops()}.
+   */
+  @Nullable
+  default RaptorTransfersByStop transfersToStops() {
+    return null;
+  }
+
   /**
    * Return an iterator of route indices for all routes visiting the given set of stops.
    *
@@ -150,4 +172,17 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * REVERSE search.
    */
   RaptorConstrainedBoardingSearch<T> transferConstraintsReverseSearch(int routeIndex);
+
+  /**
+   * Return a key identifying the transit data, or {@code null} if not supported. Two instances
+   * with equal keys must return the same routes, trips, transfers, slack and costs. Raptor use the
+   * key to reuse heuristics calculated in an earlier search, see
+   * {@link org.opentripplanner.raptor.service.HeuristicsCache}.
+   * <p>
+   * The default is {@code null}, the heuristics are not reused.
+   */
+  @Nullable
+  default Object heuristicsCacheKey() {
+    return null;
+  }
 }
@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
@@ -65,6 +66,7 @@ public class RoutingWorker {
   private final ZonedDateTime transitSearchTimeZero;
   private final AdditionalSearchDays additionalSearchDays;
   private SearchParams raptorSearchParamsUsed = null;
+  private Supplier<String> searchContinuationToken = null;
   private Itinerary firstRemovedItinerary = null;
 
   public RoutingWorker(OtpServerRequestContext serverContext, RouteRequest request, ZoneId zoneId) {
@@ -139,10 +141,14 @@ public class RoutingWorker {
       filterOnLatestDepartureTime(),
       emptyDirectModeHandler.removeWalkAllTheWayResults() ||
       removeWalkAllTheWayResultsFromDirectFlex,
-      it -> firstRemovedItinerary = it
+      it -> firstRemovedItinerary = it,
+      debugTimingAggregator
     );
 
-    List<Itinerary> filteredItineraries = filterChain.filter(itineraries);
+    List<Itinerary> filteredItineraries = debugTimingAggregator.recordPhase(
+      "filterChain",
+      () -> filterChain.filter(itineraries)
+    );
     routingErrors.addAll(filterChain.getRoutingErrors());
 
     if (LOG.isDebugEnabled()) {
@@ -166,6 +172,7 @@ public class RoutingWorker {
       request,
       transitSearchTimeZero,
       raptorSearchParamsUsed,
+      searchContinuationToken,
       searchWindowNextSearch,
       firstRemovedItinerary,
       filteredItineraries,
@@ -266,6 +273,7 @@ public class RoutingWorker {
         debugTimingAggregator
       );
       raptorSearchParamsUsed = transitResults.getSearchParams();
+      searchContinuationToken = transitResults.getSearchContinuationToken();
       itineraries.addAll(transitResults.getItineraries());
     } catch (RoutingValidationException e) {
       routingErrors.addAll(e.getRoutingErrors());
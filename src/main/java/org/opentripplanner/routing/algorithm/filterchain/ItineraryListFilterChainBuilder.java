@@ -37,6 +37,7 @@ import org.opentripplanner.routing.algorithm.filterchain.groupids.GroupBySameRou
 import org.opentripplanner.routing.api.request.framework.DoubleAlgorithmFunction;
 import org.opentripplanner.routing.api.request.preference.ItineraryFilterDebugProfile;
 import org.opentripplanner.routing.fares.FareService;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.transit.model.site.MultiModalStation;
@@ -72,6 +73,7 @@ public class ItineraryListFilterChainBuilder {
   private Function<Station, MultiModalStation> getMultiModalStation;
   private boolean removeItinerariesWithSameRoutesAndStops;
   private double minBikeParkingDistance;
+  private DebugTimingAggregator debugTimingAggregator;
 
   @Sandbox
   private ItineraryListFilter rideHailingFilter;
@@ -269,6 +271,17 @@ public class ItineraryListFilterChainBuilder {
     return this;
   }
 
+  /**
+   * Record the time spent decorating the itineraries with fares and alerts as phases of the
+   * request. Optional.
+   */
+  public ItineraryListFilterChainBuilder withDebugTimingAggregator(
+    DebugTimingAggregator debugTimingAggregator
+  ) {
+    this.debugTimingAggregator = debugTimingAggregator;
+    return this;
+  }
+
   public ItineraryListFilterChainBuilder withMinBikeParkingDistance(double distance) {
     this.minBikeParkingDistance = distance;
     return this;
@@ -312,11 +325,13 @@ public class ItineraryListFilterChainBuilder {
     }
 
     if (faresService != null) {
-      filters.add(new FaresFilter(faresService));
+      filters.add(timedFilter("fares", new FaresFilter(faresService)));
     }
 
     if (transitAlertService != null) {
-      filters.add(new TransitAlertFilter(transitAlertService, getMultiModalStation));
+      filters.add(
+        timedFilter("alerts", new TransitAlertFilter(transitAlertService, getMultiModalStation))
+      );
     }
 
     // Filter transit itineraries on generalized-cost
@@ -415,6 +430,14 @@ public class ItineraryListFilterChainBuilder {
     return this;
   }
 
+  private ItineraryListFilter timedFilter(String phase, ItineraryListFilter filter) {
+    if (debugTimingAggregator == null) {
+      return filter;
+    }
+    return itineraries ->
+      debugTimingAggregator.recordPhase(phase, () -> filter.filter(itineraries));
+  }
+
   /**
    * If enabled, this adds the filter to remove itineraries which have the same stops and routes.
    * These are sometimes called "time-shifted duplicates" but since those terms have so many
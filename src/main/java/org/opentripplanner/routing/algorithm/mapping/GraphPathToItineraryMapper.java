@@ -25,6 +25,7 @@ import org.opentripplanner.model.plan.Place;
 import org.opentripplanner.model.plan.StreetLeg;
 import org.opentripplanner.model.plan.StreetLegBuilder;
 import org.opentripplanner.model.plan.WalkStep;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalEdge;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
@@ -53,15 +54,31 @@ public class GraphPathToItineraryMapper {
   private final ZoneId timeZone;
   private final StreetNotesService streetNotesService;
   private final double ellipsoidToGeoidDifference;
+  private final boolean streetLegDetails;
 
   public GraphPathToItineraryMapper(
     ZoneId timeZone,
     StreetNotesService streetNotesService,
     double ellipsoidToGeoidDifference
+  ) {
+    this(timeZone, streetNotesService, ellipsoidToGeoidDifference, true);
+  }
+
+  /**
+   * @param streetLegDetails if {@code false} the walk steps, elevation profiles and street notes of
+   *                         the street legs are not created, see
+   *                         {@link RouteRequest#streetLegDetails()}
+   */
+  public GraphPathToItineraryMapper(
+    ZoneId timeZone,
+    StreetNotesService streetNotesService,
+    double ellipsoidToGeoidDifference,
+    boolean streetLegDetails
   ) {
     this.timeZone = timeZone;
     this.streetNotesService = streetNotesService;
     this.ellipsoidToGeoidDifference = ellipsoidToGeoidDifference;
+    this.streetLegDetails = streetLegDetails;
   }
 
   public static boolean isRentalPickUp(State state) {
@@ -377,13 +394,19 @@ public class GraphPathToItineraryMapper {
 
     LineString geometry = GeometryUtils.concatenateLineStrings(edges, Edge::getGeometry);
 
-    var statesToWalkStepsMapper = new StatesToWalkStepsMapper(
-      states,
-      previousStep,
-      streetNotesService,
-      ellipsoidToGeoidDifference
-    );
-    List<WalkStep> walkSteps = statesToWalkStepsMapper.generateWalkSteps();
+    List<WalkStep> walkSteps = List.of();
+    ElevationProfile elevationProfile = null;
+    if (streetLegDetails) {
+      var statesToWalkStepsMapper = new StatesToWalkStepsMapper(
+        states,
+        previousStep,
+        streetNotesService,
+        ellipsoidToGeoidDifference
+      );
+      walkSteps = statesToWalkStepsMapper.generateWalkSteps();
+      elevationProfile =
+        makeElevation(edges, firstState.getPreferences().system().geoidElevation());
+    }
 
     /* For the from/to vertices to be in the correct place for vehicle parking
      * the state for actually parking (traversing the VehicleParkEdge) is excluded
@@ -405,9 +428,7 @@ public class GraphPathToItineraryMapper {
       .withDistanceMeters(distanceMeters)
       .withGeneralizedCost((int) (lastState.getWeight() - firstState.getWeight()))
       .withGeometry(geometry)
-      .withElevationProfile(
-        makeElevation(edges, firstState.getPreferences().system().geoidElevation())
-      )
+      .withElevationProfile(elevationProfile)
       .withWalkSteps(walkSteps)
       .withRentedVehicle(firstState.isRentingVehicle())
       .withWalkingBike(false);
@@ -419,7 +440,9 @@ public class GraphPathToItineraryMapper {
       }
     }
 
-    addStreetNotes(leg, states);
+    if (streetLegDetails) {
+      addStreetNotes(leg, states);
+    }
 
     setPathwayInfo(leg, states);
 
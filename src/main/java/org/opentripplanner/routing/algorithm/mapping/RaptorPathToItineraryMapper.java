@@ -81,7 +81,8 @@ public class RaptorPathToItineraryMapper<T extends TripSchedule> {
       new GraphPathToItineraryMapper(
         transitService.getTimeZone(),
         graph.streetNotesService,
-        graph.ellipsoidToGeoidDifference
+        graph.ellipsoidToGeoidDifference,
+        request.streetLegDetails()
       );
   }
 
@@ -12,6 +12,7 @@ import org.opentripplanner.routing.algorithm.filterchain.ListSection;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.ItineraryFilterPreferences;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 
 public class RouteRequestToFilterChainMapper {
@@ -27,7 +28,8 @@ public class RouteRequestToFilterChainMapper {
     OtpServerRequestContext context,
     Instant filterOnLatestDepartureTime,
     boolean removeWalkAllTheWayResults,
-    Consumer<Itinerary> maxLimitReachedSubscriber
+    Consumer<Itinerary> maxLimitReachedSubscriber,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     var builder = new ItineraryListFilterChainBuilder(request.itinerariesSortOrder());
 
@@ -78,7 +80,8 @@ public class RouteRequestToFilterChainMapper {
       .withLatestDepartureTimeLimit(filterOnLatestDepartureTime)
       .withMaxLimitReachedSubscriber(maxLimitReachedSubscriber)
       .withRemoveWalkAllTheWayResults(removeWalkAllTheWayResults)
-      .withDebugEnabled(params.debug());
+      .withDebugEnabled(params.debug())
+      .withDebugTimingAggregator(debugTimingAggregator);
 
     if (!context.rideHailingServices().isEmpty()) {
       builder.withRideHailingFilter(
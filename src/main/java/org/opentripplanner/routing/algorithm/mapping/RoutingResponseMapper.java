@@ -7,6 +7,7 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.plan.Itinerary;
@@ -32,6 +33,7 @@ public class RoutingResponseMapper {
     RouteRequest request,
     ZonedDateTime transitSearchTimeZero,
     SearchParams searchParams,
+    @Nullable Supplier<String> searchContinuationToken,
     Duration searchWindowForNextSearch,
     Itinerary firstRemovedItinerary,
     List<Itinerary> itineraries,
@@ -58,6 +60,7 @@ public class RoutingResponseMapper {
       firstRemovedItinerary,
       request.pageCursor() == null ? null : request.pageCursor().type
     );
+    factory.withSearchContinuationToken(searchContinuationToken);
 
     PageCursor nextPageCursor = factory.nextPageCursor();
     PageCursor prevPageCursor = factory.previousPageCursor();
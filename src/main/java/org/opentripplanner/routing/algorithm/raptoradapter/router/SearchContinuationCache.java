@@ -0,0 +1,101 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+
+/**
+ * A short-lived cache of the Raptor transit data of recent transit searches. When a client pages
+ * to the next or previous page, the search time moves, but the trips are usually filtered for the
+ * same service days, so the transit data created for the first search can be used again. The
+ * transit data is stored here under a random token when a page cursor is created, the token is
+ * passed on to the client in the page cursors, and the following page requests use the cached
+ * transit data instead of filtering the trip patterns again.
+ * <p>
+ * The token is opaque to the client, and an entry is only used if the key of the transit data
+ * - created by {@link RaptorRoutingRequestTransitData#keyOf} - is equal to the key of the new
+ * request. The key includes the transit layer, so the cached transit data is not used after a
+ * realtime update. This makes the cache safe even if the client changes the request and keeps the
+ * page cursor.
+ * <p>
+ * Only Raptor level data is cached. The access and egress are searched again for each page,
+ * because they refer to temporary vertices which are removed from the graph after each request,
+ * and the street notes and alerts of the itineraries must be found for the new search time.
+ * <p>
+ * The entries are dropped after the configured time and the values are soft referenced, so the
+ * cache never holds on to a lot of memory. The cache is disabled if the maximum size is zero.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE
+ */
+public class SearchContinuationCache {
+
+  @Nullable
+  private final Cache<String, Entry> cache;
+
+  public SearchContinuationCache(int maximumSize, Duration expireAfterAccess) {
+    if (maximumSize <= 0) {
+      this.cache = null;
+      return;
+    }
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterAccess(expireAfterAccess)
+        .softValues()
+        .recordStats()
+        .build();
+
+    if (OTPFeature.ActuatorAPI.isOn()) {
+      new GuavaCacheMetrics(cache, "searchContinuationCache", List.of())
+        .bindTo(Metrics.globalRegistry);
+    }
+  }
+
+  /**
+   * Create a cache with the size and expiry of the given tuning parameters.
+   */
+  public static SearchContinuationCache of(TransitTuningParameters tuningParameters) {
+    return new SearchContinuationCache(
+      tuningParameters.searchContinuationCacheSize(),
+      tuningParameters.searchContinuationCacheExpiry()
+    );
+  }
+
+  /**
+   * Return the transit data stored under the given token, or {@code null} if the token is unknown,
+   * the entry is expired or the entry was created for another transit data key.
+   */
+  @Nullable
+  public RaptorRoutingRequestTransitData get(@Nullable String token, Object key) {
+    if (cache == null || token == null) {
+      return null;
+    }
+    var entry = cache.getIfPresent(token);
+    return entry != null && entry.key().equals(key) ? entry.transitData() : null;
+  }
+
+  /**
+   * Store the transit data with the given key, and return the token to pass on to the client.
+   * Returns {@code null} if the cache is disabled.
+   */
+  @Nullable
+  public String put(Object key, RaptorRoutingRequestTransitData transitData) {
+    if (cache == null) {
+      return null;
+    }
+    var token = UUID.randomUUID().toString();
+    cache.put(token, new Entry(key, transitData));
+    return token;
+  }
+
+  private record Entry(Object key, RaptorRoutingRequestTransitData transitData) {}
+}
@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.plan.Itinerary;
@@ -50,7 +51,8 @@ public class TransitRouter {
   private final DebugTimingAggregator debugTimingAggregator;
   private final ZonedDateTime transitSearchTimeZero;
   private final AdditionalSearchDays additionalSearchDays;
-  private final TemporaryVerticesContainer temporaryVerticesContainer;
+  /** Created when the access and egress are searched, not if transit is disabled. */
+  private TemporaryVerticesContainer temporaryVerticesContainer = null;
 
   private TransitRouter(
     RouteRequest request,
@@ -64,7 +66,6 @@ public class TransitRouter {
     this.transitSearchTimeZero = transitSearchTimeZero;
     this.additionalSearchDays = additionalSearchDays;
     this.debugTimingAggregator = debugTimingAggregator;
-    this.temporaryVerticesContainer = createTemporaryVerticesContainer(request, serverContext);
   }
 
   public static TransitRouterResult route(
@@ -86,10 +87,13 @@ public class TransitRouter {
   }
 
   private TransitRouterResult routeAndCleanupAfter() {
-    // try(auto-close):
-    //   Make sure we clean up graph by removing temp-edges from the graph before we exit.
-    try (temporaryVerticesContainer) {
+    // Make sure we clean up graph by removing temp-edges from the graph before we exit.
+    try {
       return route();
+    } finally {
+      if (temporaryVerticesContainer != null) {
+        temporaryVerticesContainer.close();
+      }
     }
   }
 
@@ -108,7 +112,30 @@ public class TransitRouter {
       ? serverContext.transitService().getTransitLayer()
       : serverContext.transitService().getRealtimeTransitLayer();
 
-    var requestTransitDataProvider = createRequestTransitDataProvider(transitLayer);
+    var continuationCache = serverContext.searchContinuationCache();
+    var continuationKey = RaptorRoutingRequestTransitData.keyOf(
+      transitLayer,
+      transitSearchTimeZero,
+      additionalSearchDays.additionalSearchDaysInPast(),
+      additionalSearchDays.additionalSearchDaysInFuture(),
+      request
+    );
+    var cachedToken = request.pageCursor() == null
+      ? null
+      : request.pageCursor().searchContinuationToken;
+    var cachedTransitData = continuationCache.get(cachedToken, continuationKey);
+
+    var requestTransitDataProvider = cachedTransitData != null
+      ? cachedTransitData
+      : debugTimingAggregator.recordPhase(
+        "transitData",
+        () -> createRequestTransitDataProvider(transitLayer)
+      );
+
+    // The transit data is only stored in the cache if a page cursor is created
+    Supplier<String> continuationToken = cachedTransitData != null
+      ? () -> cachedToken
+      : () -> continuationCache.put(continuationKey, requestTransitDataProvider);
 
     debugTimingAggregator.finishedPatternFiltering();
 
@@ -126,7 +153,8 @@ public class TransitRouter {
       serverContext.raptorConfig().isMultiThreaded(),
       accessEgresses.getAccesses(),
       accessEgresses.getEgresses(),
-      serverContext.meterRegistry()
+      serverContext.meterRegistry(),
+      debugTimingAggregator
     );
 
     // Route transit
@@ -137,21 +165,7 @@ public class TransitRouter {
 
     debugTimingAggregator.finishedRaptorSearch();
 
-    Collection<RaptorPath<TripSchedule>> paths = transitResponse.paths();
-
-    if (OTPFeature.OptimizeTransfers.isOn() && !transitResponse.containsUnknownPaths()) {
-      paths =
-        TransferOptimizationServiceConfigurator
-          .createOptimizeTransferService(
-            transitLayer::getStopByIndex,
-            requestTransitDataProvider.stopNameResolver(),
-            serverContext.transitService().getTransferService(),
-            requestTransitDataProvider,
-            transitLayer.getStopBoardAlightCosts(),
-            request.preferences().transfer().optimization()
-          )
-          .optimize(transitResponse.paths());
-    }
+    var paths = optimizeTransfers(transitLayer, requestTransitDataProvider, transitResponse);
 
     // Create itineraries
 
@@ -163,17 +177,52 @@ public class TransitRouter {
       request
     );
 
-    List<Itinerary> itineraries = paths.stream().map(itineraryMapper::createItinerary).toList();
+    List<Itinerary> itineraries = debugTimingAggregator.recordPhase(
+      "itineraryMapping",
+      () -> paths.stream().map(itineraryMapper::createItinerary).toList()
+    );
 
     debugTimingAggregator.finishedItineraryCreation();
 
-    return new TransitRouterResult(itineraries, transitResponse.requestUsed().searchParams());
+    return new TransitRouterResult(
+      itineraries,
+      transitResponse.requestUsed().searchParams(),
+      continuationToken
+    );
+  }
+
+  private Collection<RaptorPath<TripSchedule>> optimizeTransfers(
+    TransitLayer transitLayer,
+    RaptorRoutingRequestTransitData requestTransitDataProvider,
+    RaptorResponse<TripSchedule> transitResponse
+  ) {
+    if (!OTPFeature.OptimizeTransfers.isOn() || transitResponse.containsUnknownPaths()) {
+      return transitResponse.paths();
+    }
+    var service = TransferOptimizationServiceConfigurator.createOptimizeTransferService(
+      transitLayer::getStopByIndex,
+      requestTransitDataProvider.stopNameResolver(),
+      serverContext.transitService().getTransferService(),
+      requestTransitDataProvider,
+      transitLayer.getStopBoardAlightCosts(),
+      request.preferences().transfer().optimization()
+    );
+    return debugTimingAggregator.recordPhase(
+      "transferOptimization",
+      () -> service.optimize(transitResponse.paths())
+    );
   }
 
   private AccessEgresses fetchAccessEgresses() {
     final var asyncAccessList = new ArrayList<DefaultAccessEgress>();
     final var asyncEgressList = new ArrayList<DefaultAccessEgress>();
 
+    temporaryVerticesContainer =
+      debugTimingAggregator.recordPhase(
+        "linking",
+        () -> createTemporaryVerticesContainer(request, serverContext)
+      );
+
     if (OTPFeature.ParallelRouting.isOn()) {
       try {
         // TODO: This is not using {@link OtpRequestThreadFactory} witch mean we do not get
@@ -199,14 +248,20 @@ public class TransitRouter {
 
   private Collection<DefaultAccessEgress> fetchAccess() {
     debugTimingAggregator.startedAccessCalculating();
-    var list = fetchAccessEgresses(ACCESS);
+    var list = debugTimingAggregator.recordPhase(
+      "access." + request.journey().access().mode(),
+      () -> fetchAccessEgresses(ACCESS)
+    );
     debugTimingAggregator.finishedAccessCalculating();
     return list;
   }
 
   private Collection<DefaultAccessEgress> fetchEgress() {
     debugTimingAggregator.startedEgressCalculating();
-    var list = fetchAccessEgresses(EGRESS);
+    var list = debugTimingAggregator.recordPhase(
+      "egress." + request.journey().egress().mode(),
+      () -> fetchAccessEgresses(EGRESS)
+    );
     debugTimingAggregator.finishedEgressCalculating();
     return list;
   }
@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.router;
 
 import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.api.request.SearchParams;
 
@@ -8,10 +10,20 @@ public class TransitRouterResult {
 
   private final List<Itinerary> itineraries;
   private final SearchParams searchParams;
+  private final Supplier<String> searchContinuationToken;
 
   public TransitRouterResult(List<Itinerary> itineraries, SearchParams searchParams) {
+    this(itineraries, searchParams, null);
+  }
+
+  public TransitRouterResult(
+    List<Itinerary> itineraries,
+    SearchParams searchParams,
+    @Nullable Supplier<String> searchContinuationToken
+  ) {
     this.itineraries = itineraries;
     this.searchParams = searchParams;
+    this.searchContinuationToken = searchContinuationToken;
   }
 
   public List<Itinerary> getItineraries() {
@@ -21,4 +33,15 @@ public class TransitRouterResult {
   public SearchParams getSearchParams() {
     return searchParams;
   }
+
+  /**
+   * Supplies the token to put in the page cursors to reuse the transit data of this search. The
+   * transit data is stored in the {@link SearchContinuationCache} when the token is requested, so
+   * only call this when a page cursor is created. The supplied token is {@code null} if the cache
+   * is disabled.
+   */
+  @Nullable
+  public Supplier<String> getSearchContinuationToken() {
+    return searchContinuationToken;
+  }
 }
@@ -3,8 +3,10 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.performance;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import java.util.Collection;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.routing.api.request.RoutingTag;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.framework.MicrometerUtils;
 
 public class PerformanceTimersForRaptor implements RaptorTimers {
@@ -15,14 +17,25 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
   private final Timer findTransfersPerRound;
   private final MeterRegistry registry;
   private final Collection<RoutingTag> routingTags;
+  private final String namePrefix;
 
+  @Nullable
+  private final DebugTimingAggregator debugTimingAggregator;
+
+  /**
+   * @param debugTimingAggregator If set, each Raptor search is also recorded as a phase of the
+   *                              routing request.
+   */
   public PerformanceTimersForRaptor(
     String namePrefix,
     Collection<RoutingTag> routingTags,
-    MeterRegistry registry
+    MeterRegistry registry,
+    @Nullable DebugTimingAggregator debugTimingAggregator
   ) {
     this.registry = registry;
     this.routingTags = routingTags;
+    this.namePrefix = namePrefix;
+    this.debugTimingAggregator = debugTimingAggregator;
     var tags = MicrometerUtils.mapTimingTags(routingTags);
     timerRoute = Timer.builder("raptor." + namePrefix + ".route").tags(tags).register(registry);
     findTransitPerRound =
@@ -45,7 +58,11 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
 
   @Override
   public void route(Runnable body) {
-    timerRoute.record(body);
+    if (debugTimingAggregator == null) {
+      timerRoute.record(body);
+    } else {
+      timerRoute.record(() -> debugTimingAggregator.recordPhase("raptor." + namePrefix, body));
+    }
   }
 
   @Override
@@ -60,6 +77,6 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
 
   @Override
   public RaptorTimers withNamePrefix(String namePrefix) {
-    return new PerformanceTimersForRaptor(namePrefix, routingTags, registry);
+    return new PerformanceTimersForRaptor(namePrefix, routingTags, registry, debugTimingAggregator);
   }
 }
@@ -57,6 +57,7 @@ public class DirectFlexRouter {
         serverContext.graph(),
         serverContext.transitService(),
         serverContext.flexConfig(),
+        serverContext.raptorConfig().threadPool(),
         request.dateTime(),
         request.arriveBy(),
         additionalSearchDays.additionalSearchDaysInPast(),
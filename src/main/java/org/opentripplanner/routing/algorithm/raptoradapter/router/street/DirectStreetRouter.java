@@ -53,7 +53,8 @@ public class DirectStreetRouter {
       final GraphPathToItineraryMapper graphPathToItineraryMapper = new GraphPathToItineraryMapper(
         serverContext.transitService().getTimeZone(),
         serverContext.graph().streetNotesService,
-        serverContext.graph().ellipsoidToGeoidDifference
+        serverContext.graph().ellipsoidToGeoidDifference,
+        directRequest.streetLegDetails()
       );
       List<Itinerary> response = graphPathToItineraryMapper.mapItineraries(paths);
       ItinerariesHelper.decorateItinerariesWithRequestData(
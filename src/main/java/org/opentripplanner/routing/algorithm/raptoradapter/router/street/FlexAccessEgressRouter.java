@@ -61,6 +61,7 @@ public class FlexAccessEgressRouter {
       serverContext.graph(),
       transitService,
       config,
+      serverContext.raptorConfig().threadPool(),
       request.dateTime(),
       request.arriveBy(),
       searchDays.additionalSearchDaysInPast(),
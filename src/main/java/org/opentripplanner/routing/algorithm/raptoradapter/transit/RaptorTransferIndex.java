@@ -5,55 +5,59 @@ import static java.util.stream.Collectors.toMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.spi.DefaultTransfersByStop;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
+/**
+ * The transfers for a request, indexed by stop. The transfers are stored in compressed sparse row
+ * (CSR) order in primitive arrays, so Raptor can find the transfers of a stop without iterating
+ * over transfer objects, see {@link DefaultTransfersByStop}. The lists of {@link RaptorTransfer}s
+ * per stop are kept as a view of the same data.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE
+ */
 public class RaptorTransferIndex {
 
-  private final List<RaptorTransfer>[] forwardTransfers;
+  private final DefaultTransfersByStop forwardTransfers;
 
-  private final List<RaptorTransfer>[] reversedTransfers;
+  private final DefaultTransfersByStop reversedTransfers;
 
   public RaptorTransferIndex(
     List<List<RaptorTransfer>> forwardTransfers,
     List<List<RaptorTransfer>> reversedTransfers
   ) {
-    // Create immutable copies of the lists for each stop to make them immutable and faster to iterate
-    this.forwardTransfers = forwardTransfers.stream().map(List::copyOf).toArray(List[]::new);
-    this.reversedTransfers = reversedTransfers.stream().map(List::copyOf).toArray(List[]::new);
+    this.forwardTransfers = new DefaultTransfersByStop(forwardTransfers);
+    this.reversedTransfers = new DefaultTransfersByStop(reversedTransfers);
   }
 
+  /**
+   * Create the transfer index for the given request. Finding the cost and duration of the
+   * transfers with street edges requires a street traversal of each transfer, this is the
+   * expensive part. The stops are independent of each other, so this is done in parallel.
+   */
   public static RaptorTransferIndex create(
     List<List<Transfer>> transfersByStopIndex,
     StreetSearchRequest request
   ) {
-    var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
+    int nStops = transfersByStopIndex.size();
 
-    for (int i = 0; i < transfersByStopIndex.size(); i++) {
-      forwardTransfers.add(new ArrayList<>());
-      reversedTransfers.add(new ArrayList<>());
-    }
+    List<List<RaptorTransfer>> forwardTransfers = IntStream
+      .range(0, nStops)
+      .parallel()
+      .mapToObj(fromStop -> findTransfers(transfersByStopIndex.get(fromStop), request))
+      .toList();
 
-    for (int fromStop = 0; fromStop < transfersByStopIndex.size(); fromStop++) {
-      // The transfers are filtered so that there is only one possible directional transfer
-      // for a stop pair.
-      var transfers = transfersByStopIndex
-        .get(fromStop)
-        .stream()
-        .flatMap(s -> s.asRaptorTransfer(request).stream())
-        .collect(
-          toMap(
-            RaptorTransfer::stop,
-            Function.identity(),
-            (a, b) -> a.generalizedCost() < b.generalizedCost() ? a : b
-          )
-        )
-        .values();
+    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(nStops);
 
-      forwardTransfers.get(fromStop).addAll(transfers);
+    for (int i = 0; i < nStops; i++) {
+      reversedTransfers.add(new ArrayList<>());
+    }
 
-      for (RaptorTransfer forwardTransfer : transfers) {
+    for (int fromStop = 0; fromStop < nStops; fromStop++) {
+      for (RaptorTransfer forwardTransfer : forwardTransfers.get(fromStop)) {
         reversedTransfers
           .get(forwardTransfer.stop())
           .add(DefaultRaptorTransfer.reverseOf(fromStop, forwardTransfer));
@@ -64,10 +68,41 @@ public class RaptorTransferIndex {
   }
 
   public List<RaptorTransfer> getForwardTransfers(int stopIndex) {
-    return forwardTransfers[stopIndex];
+    return forwardTransfers.list(stopIndex);
   }
 
   public List<RaptorTransfer> getReversedTransfers(int stopIndex) {
-    return reversedTransfers[stopIndex];
+    return reversedTransfers.list(stopIndex);
+  }
+
+  public RaptorTransfersByStop forwardTransfers() {
+    return forwardTransfers;
+  }
+
+  public RaptorTransfersByStop reversedTransfers() {
+    return reversedTransfers;
+  }
+
+  /**
+   * The transfers are filtered so that there is only one possible directional transfer for a stop
+   * pair.
+   */
+  private static List<RaptorTransfer> findTransfers(
+    List<Transfer> transfers,
+    StreetSearchRequest request
+  ) {
+    return List.copyOf(
+      transfers
+        .stream()
+        .flatMap(s -> s.asRaptorTransfer(request).stream())
+        .collect(
+          toMap(
+            RaptorTransfer::stop,
+            Function.identity(),
+            (a, b) -> a.generalizedCost() < b.generalizedCost() ? a : b
+          )
+        )
+        .values()
+    );
   }
 }
@@ -8,6 +8,7 @@ import org.opentripplanner.transit.model.site.StopTransferPriority;
 
 public interface TransitTuningParameters {
   List<Duration> PAGING_SEARCH_WINDOW_ADJUSTMENTS = DurationUtils.durations("4h 2h 1h 30m 20m 10m");
+  Duration SEARCH_CONTINUATION_CACHE_EXPIRY = Duration.ofMinutes(5);
 
   /**
    * These tuning parameters are typically used in unit tests. The values are:
@@ -56,6 +57,16 @@ public interface TransitTuningParameters {
     public List<RouteRequest> transferCacheRequests() {
       return List.of();
     }
+
+    @Override
+    public int searchContinuationCacheSize() {
+      return 0;
+    }
+
+    @Override
+    public Duration searchContinuationCacheExpiry() {
+      return SEARCH_CONTINUATION_CACHE_EXPIRY;
+    }
   };
 
   /**
@@ -108,4 +119,16 @@ public interface TransitTuningParameters {
    * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache}
    */
   List<RouteRequest> transferCacheRequests();
+
+  /**
+   * The maximum number of transit searches to keep the Raptor transit data for, to reuse it when
+   * the client pages to the next or previous page. If 0, the transit data is not kept.
+   * See {@link org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache}.
+   */
+  int searchContinuationCacheSize();
+
+  /**
+   * How long the transit data of a search is kept after it was last used.
+   */
+  Duration searchContinuationCacheExpiry();
 }
@@ -16,6 +16,7 @@ import org.opentripplanner.raptor.rangeraptor.SystemErrDebugLogger;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.performance.PerformanceTimersForRaptor;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 
 public class RaptorRequestMapper {
 
@@ -25,6 +26,7 @@ public class RaptorRequestMapper {
   private final long transitSearchTimeZeroEpocSecond;
   private final boolean isMultiThreadedEnbled;
   private final MeterRegistry meterRegistry;
+  private final DebugTimingAggregator debugTimingAggregator;
 
   private RaptorRequestMapper(
     RouteRequest request,
@@ -32,7 +34,8 @@ public class RaptorRequestMapper {
     Collection<? extends RaptorAccessEgress> accessPaths,
     Collection<? extends RaptorAccessEgress> egressPaths,
     long transitSearchTimeZeroEpocSecond,
-    MeterRegistry meterRegistry
+    MeterRegistry meterRegistry,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     this.request = request;
     this.isMultiThreadedEnbled = isMultiThreaded;
@@ -40,6 +43,7 @@ public class RaptorRequestMapper {
     this.egressPaths = egressPaths;
     this.transitSearchTimeZeroEpocSecond = transitSearchTimeZeroEpocSecond;
     this.meterRegistry = meterRegistry;
+    this.debugTimingAggregator = debugTimingAggregator;
   }
 
   public static RaptorRequest<TripSchedule> mapRequest(
@@ -48,7 +52,8 @@ public class RaptorRequestMapper {
     boolean isMultiThreaded,
     Collection<? extends RaptorAccessEgress> accessPaths,
     Collection<? extends RaptorAccessEgress> egressPaths,
-    MeterRegistry meterRegistry
+    MeterRegistry meterRegistry,
+    DebugTimingAggregator debugTimingAggregator
   ) {
     return new RaptorRequestMapper(
       request,
@@ -56,7 +61,8 @@ public class RaptorRequestMapper {
       accessPaths,
       egressPaths,
       transitSearchTimeZero.toEpochSecond(),
-      meterRegistry
+      meterRegistry,
+      debugTimingAggregator
     )
       .doMap();
   }
@@ -152,7 +158,8 @@ public class RaptorRequestMapper {
       new PerformanceTimersForRaptor(
         builder.generateAlias(),
         preferences.system().tags(),
-        meterRegistry
+        meterRegistry,
+        debugTimingAggregator
       )
     );
 
@@ -13,9 +13,12 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.ElevatorPreferences;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.preference.WalkPreferences;
 import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.street.search.intersection_model.DrivingDirection;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalModel;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.slf4j.Logger;
@@ -98,6 +101,10 @@ public class RaptorRequestTransferCache {
   /**
    * This contains an extract of the parameters which may influence transfers.
    * <p>
+   * Parameters which are not used when traversing the street edges of a transfer are replaced by
+   * the default value or left out, so requests which only differ in these share the same cached
+   * transfers. This is the walk board cost and the street search limits: the max access/egress
+   * duration, the max direct duration and the routing timeout.
    */
   private static class StreetRelevantOptions {
 
@@ -105,7 +112,10 @@ public class RaptorRequestTransferCache {
     private final boolean wheelchair;
     private final WalkPreferences walk;
     private final BikePreferences bike;
-    private final StreetPreferences street;
+    private final double turnReluctance;
+    private final DrivingDirection drivingDirection;
+    private final ElevatorPreferences elevator;
+    private final IntersectionTraversalModel intersectionTraversalModel;
     private final WheelchairPreferences wheelchairPreferences;
 
     public StreetRelevantOptions(StreetSearchRequest request) {
@@ -113,9 +123,13 @@ public class RaptorRequestTransferCache {
       this.wheelchair = request.wheelchair();
 
       var preferences = request.preferences();
-      this.walk = preferences.walk();
+      this.walk =
+        preferences.walk().copyOf().withBoardCost(WalkPreferences.DEFAULT.boardCost()).build();
       this.bike = transferMode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT;
-      this.street = preferences.street();
+      this.turnReluctance = preferences.street().turnReluctance();
+      this.drivingDirection = preferences.street().drivingDirection();
+      this.elevator = preferences.street().elevator();
+      this.intersectionTraversalModel = preferences.street().intersectionTraversalModel();
       this.wheelchairPreferences =
         this.wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT;
     }
@@ -128,14 +142,31 @@ public class RaptorRequestTransferCache {
         .addBoolIfTrue("wheelchair", wheelchair)
         .addObj("walk", walk, WalkPreferences.DEFAULT)
         .addObj("bike", bike, BikePreferences.DEFAULT)
-        .addObj("street", street, StreetPreferences.DEFAULT)
+        .addNum("turnReluctance", turnReluctance, StreetPreferences.DEFAULT.turnReluctance())
+        .addEnum("drivingDirection", drivingDirection, StreetPreferences.DEFAULT.drivingDirection())
+        .addObj("elevator", elevator, ElevatorPreferences.DEFAULT)
+        .addEnum(
+          "intersectionTraversalModel",
+          intersectionTraversalModel,
+          StreetPreferences.DEFAULT.intersectionTraversalModel()
+        )
         .addObj("wheelchairPreferences", wheelchairPreferences, WheelchairPreferences.DEFAULT)
         .toString();
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(transferMode, wheelchair, walk, bike, street, wheelchairPreferences);
+      return Objects.hash(
+        transferMode,
+        wheelchair,
+        walk,
+        bike,
+        turnReluctance,
+        drivingDirection,
+        elevator,
+        intersectionTraversalModel,
+        wheelchairPreferences
+      );
     }
 
     @Override
@@ -151,7 +182,10 @@ public class RaptorRequestTransferCache {
         wheelchair == that.wheelchair &&
         Objects.equals(that.walk, walk) &&
         Objects.equals(that.bike, bike) &&
-        Objects.equals(that.street, street) &&
+        Double.compare(that.turnReluctance, turnReluctance) == 0 &&
+        drivingDirection == that.drivingDirection &&
+        Objects.equals(that.elevator, elevator) &&
+        intersectionTraversalModel == that.intersectionTraversalModel &&
         Objects.equals(that.wheelchairPreferences, wheelchairPreferences)
       );
     }
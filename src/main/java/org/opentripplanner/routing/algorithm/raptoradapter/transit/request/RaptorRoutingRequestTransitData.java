@@ -18,6 +18,7 @@ import org.opentripplanner.raptor.spi.RaptorCostCalculator;
 import org.opentripplanner.raptor.spi.RaptorPathConstrainedTransferSearch;
 import org.opentripplanner.raptor.spi.RaptorRoute;
 import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
@@ -29,6 +30,10 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 
 /**
@@ -69,6 +74,9 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final int validTransitDataEndTime;
 
+  @Nullable
+  private final Object transitDataKey;
+
   public RaptorRoutingRequestTransitData(
     TransitLayer transitLayer,
     ZonedDateTime transitSearchTimeZero,
@@ -124,6 +132,46 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
         this.transitSearchTimeZero,
         this.transitSearchTimeZero.plusDays(additionalFutureSearchDays + 1).toInstant()
       );
+
+    this.transitDataKey =
+      filter instanceof RouteRequestTransitDataProviderFilter
+        ? keyOf(
+          transitLayer,
+          transitSearchTimeZero,
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          request
+        )
+        : null;
+  }
+
+  /**
+   * Create a key for the transit data created with the given parameters and a
+   * {@link RouteRequestTransitDataProviderFilter}. The key is created from the request parameters
+   * used to filter the trips and to calculate transfers, slack and cost, so two instances created
+   * with equal keys contain the same data. The transit layer is part of the key; a new instance is
+   * created for each realtime update, so the key changes when the timetables change.
+   */
+  public static Object keyOf(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    RouteRequest request
+  ) {
+    return new TransitDataKey(
+      transitLayer,
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      request.journey().transfer().mode(),
+      request.wheelchair(),
+      request.preferences(),
+      request.journey().transit().filters(),
+      request.journey().transit().bannedTrips(),
+      request.journey().transit().unpreferredRoutes(),
+      request.journey().transit().unpreferredAgencies()
+    );
   }
 
   @Override
@@ -136,6 +184,16 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     return transferIndex.getReversedTransfers(stopIndex).iterator();
   }
 
+  @Override
+  public RaptorTransfersByStop transfersFromStops() {
+    return transferIndex.forwardTransfers();
+  }
+
+  @Override
+  public RaptorTransfersByStop transfersToStops() {
+    return transferIndex.reversedTransfers();
+  }
+
   @Override
   public IntIterator routeIndexIterator(IntIterator stops) {
     BitSet activeTripPatternsForGivenStops = new BitSet(RoutingTripPattern.indexCounter());
@@ -241,4 +299,28 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  /**
+   * The heuristics only depend on the transit data, so the key of the transit data is used. See
+   * {@link #keyOf(TransitLayer, ZonedDateTime, int, int, RouteRequest)}.
+   */
+  @Nullable
+  @Override
+  public Object heuristicsCacheKey() {
+    return transitDataKey;
+  }
+
+  private record TransitDataKey(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    StreetMode transferMode,
+    boolean wheelchair,
+    RoutingPreferences preferences,
+    List<TransitFilter> filters,
+    List<FeedScopedId> bannedTrips,
+    List<FeedScopedId> unpreferredRoutes,
+    List<FeedScopedId> unpreferredAgencies
+  ) {}
 }
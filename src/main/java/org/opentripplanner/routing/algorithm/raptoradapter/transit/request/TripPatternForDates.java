@@ -48,8 +48,8 @@ public class TripPatternForDates
   private final int[] arrivalTimes;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The order is the same as in
-   * arrivalTimes.
+   * The departure times in a nStops * numberOfTripSchedules sized array. The order is the same as
+   * in arrivalTimes.
    */
   private final int[] departureTimes;
 
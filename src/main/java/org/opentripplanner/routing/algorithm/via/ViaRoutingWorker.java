@@ -75,9 +75,14 @@ public class ViaRoutingWorker {
 
     var firstArrival = firstArrival(response).orElseThrow(this::createRoutingException);
     var lastArrival = lastArrival(response).orElseThrow(this::createRoutingException);
-    var maxSlack = v.viaLocation().maxSlack();
+    // The next search starts at first arrival plus minSlack, and it is not possible to connect to
+    // departures after the last arrival plus maxSlack - so there is no need to search beyond that.
+    var slackWindow = v.viaLocation().maxSlack().minus(v.viaLocation().minSlack());
+    if (slackWindow.isNegative()) {
+      slackWindow = Duration.ZERO;
+    }
     // Prepare next search
-    var searchWindow = Duration.between(firstArrival, lastArrival).plus(maxSlack);
+    var searchWindow = Duration.between(firstArrival, lastArrival).plus(slackWindow);
 
     this.request.setNumItineraries(MAX_NUMBER_OF_ITINERARIES);
     this.request.setSearchWindow(searchWindow);
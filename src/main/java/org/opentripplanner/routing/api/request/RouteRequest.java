@@ -73,6 +73,8 @@ public class RouteRequest implements Cloneable, Serializable {
 
   private boolean wheelchair = false;
 
+  private boolean streetLegDetails = true;
+
   /* CONSTRUCTORS */
 
   /** Constructor for options; modes defaults to walk and transit */
@@ -119,6 +121,23 @@ public class RouteRequest implements Cloneable, Serializable {
     this.wheelchair = wheelchair;
   }
 
+  /**
+   * Whether to create the walk steps, elevation profiles and street notes of the street legs.
+   * These are expensive to create, an API request not returning them should turn them off. They
+   * are still created if the accessibility score filter is used, since it reads the walk steps.
+   * <p>
+   * Default: true
+   */
+  public boolean streetLegDetails() {
+    return (
+      streetLegDetails || (wheelchair && preferences.itineraryFilter().useAccessibilityScore())
+    );
+  }
+
+  public void setStreetLegDetails(boolean streetLegDetails) {
+    this.streetLegDetails = streetLegDetails;
+  }
+
   /**
    * The epoch date/time in seconds that the trip should depart (or arrive, for requests where
    * arriveBy is true)
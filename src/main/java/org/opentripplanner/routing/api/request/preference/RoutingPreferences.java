@@ -4,6 +4,7 @@ import static java.util.Objects.requireNonNull;
 import static org.opentripplanner.framework.lang.ObjectUtils.ifNotNull;
 
 import java.io.Serializable;
+import java.util.Objects;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import org.opentripplanner.street.search.TraverseMode;
@@ -104,6 +105,41 @@ public final class RoutingPreferences implements Serializable {
     return system;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RoutingPreferences that = (RoutingPreferences) o;
+    return (
+      transit.equals(that.transit) &&
+      transfer.equals(that.transfer) &&
+      walk.equals(that.walk) &&
+      street.equals(that.street) &&
+      wheelchair.equals(that.wheelchair) &&
+      bike.equals(that.bike) &&
+      car.equals(that.car) &&
+      rental.equals(that.rental) &&
+      system.equals(that.system) &&
+      itineraryFilter.equals(that.itineraryFilter)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      transit,
+      transfer,
+      walk,
+      street,
+      wheelchair,
+      bike,
+      car,
+      rental,
+      system,
+      itineraryFilter
+    );
+  }
+
   /**
    * The road speed for a specific traverse mode.
    */
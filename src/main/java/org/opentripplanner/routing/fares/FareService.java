@@ -13,4 +13,14 @@ public interface FareService extends Serializable {
    * @param itinerary the OTP2 Itinerary for which we want to compute a fare
    */
   ItineraryFares calculateFares(Itinerary itinerary);
+
+  /**
+   * Return a service for calculating the fares of the itineraries of a single response. The
+   * itineraries often share transit legs, and the returned service may reuse the results for a leg
+   * instead of calculating them again. The returned service is not thread-safe, and should not be
+   * kept after the response is created.
+   */
+  default FareService withLegCache() {
+    return this;
+  }
 }
@@ -4,11 +4,15 @@ import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.PhaseTimingOutput;
 import org.opentripplanner.api.resource.TransitTimingOutput;
 import org.opentripplanner.routing.api.request.RoutingTag;
 import org.slf4j.Logger;
@@ -25,7 +29,11 @@ public class DebugTimingAggregator {
   private static final long nanosToMillis = 1000000;
   public static final String ROUTING_TOTAL = "routing.total";
   public static final String ROUTING_RAPTOR = "routing.raptor";
+  public static final String ROUTING_PHASE = "routing.phase";
+  public static final String PHASE_TAG = "phase";
 
+  private final MeterRegistry registry;
+  private final List<Tag> tags;
   private final Clock clock;
 
   private final Timer directStreetRouterTimer;
@@ -49,6 +57,7 @@ public class DebugTimingAggregator {
 
   private final Timer.Sample startedCalculating;
   private final List<String> messages = new ArrayList<>();
+  private final List<PhaseTimingOutput> phaseTimes = new CopyOnWriteArrayList<>();
   private Timer.Sample startedDirectStreetRouter;
   private long directStreetRouterTime;
   private Timer.Sample startedDirectFlexRouter;
@@ -80,7 +89,8 @@ public class DebugTimingAggregator {
    * not include network and server request queue overhead, which is what we want.
    */
   public DebugTimingAggregator(MeterRegistry registry, Collection<RoutingTag> routingRequestTags) {
-    var tags = MicrometerUtils.mapTimingTags(routingRequestTags);
+    this.registry = registry;
+    this.tags = MicrometerUtils.mapTimingTags(routingRequestTags);
     clock = registry.config().clock();
     startedCalculating = Timer.start(this.clock);
 
@@ -112,6 +122,37 @@ public class DebugTimingAggregator {
     this(Metrics.globalRegistry, List.of());
   }
 
+  /**
+   * Run the given task and record the time spent as a phase of the request. The time is recorded
+   * with the {@link #ROUTING_PHASE} timer tagged with the phase name, and returned in the
+   * {@link DebugOutput#phaseTimes}. Keep the number of distinct phase names low, each name
+   * creates a new timer.
+   * <p>
+   * Phases may be nested and may run in parallel.
+   */
+  public <T> T recordPhase(String phase, Supplier<T> task) {
+    var sample = Timer.start(clock);
+    try {
+      return task.get();
+    } finally {
+      var timer = Timer.builder(ROUTING_PHASE).tags(tags).tag(PHASE_TAG, phase).register(registry);
+      phaseTimes.add(new PhaseTimingOutput(phase, sample.stop(timer)));
+    }
+  }
+
+  /**
+   * Same as {@link #recordPhase(String, Supplier)}, but for a task without a result.
+   */
+  public void recordPhase(String phase, Runnable task) {
+    recordPhase(
+      phase,
+      () -> {
+        task.run();
+        return null;
+      }
+    );
+  }
+
   /**
    * Record the time when the worker initialization is done, and the direct street router starts.
    */
@@ -278,6 +319,7 @@ public class DebugTimingAggregator {
     requestTotalTime = startedCalculating.stop(requestTotalTimer);
     log("├  Converting model objects", renderingTime);
     log("┴  Request total", requestTotalTime);
+    phaseTimes.forEach(it -> log("   Phase " + it.phase, it.time));
     messages.forEach(m -> LOG.debug(m));
     return getDebugOutput();
   }
@@ -296,7 +338,8 @@ public class DebugTimingAggregator {
         accessEgressTime,
         raptorSearchTime,
         itineraryCreationTime
-      )
+      ),
+      List.copyOf(phaseTimes)
     );
   }
 
@@ -21,6 +21,7 @@ import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.graph_builder.BuildInputFingerprints;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
@@ -72,6 +73,12 @@ public class SerializedGraphObject implements Serializable {
    */
   private final List<SubMode> allTransitSubModes;
 
+  /**
+   * Fingerprints of the input files used to build this graph. Allows checking whether the input
+   * files have changed, e.g. if the street graph is stale when building transit on top of it.
+   */
+  public final BuildInputFingerprints buildInputs;
+
   public final DataImportIssueSummary issueSummary;
   private final int stopLocationCounter;
   private final int routingTripPatternCounter;
@@ -82,6 +89,7 @@ public class SerializedGraphObject implements Serializable {
     WorldEnvelopeRepository worldEnvelopeRepository,
     BuildConfig buildConfig,
     RouterConfig routerConfig,
+    BuildInputFingerprints buildInputs,
     DataImportIssueSummary issueSummary
   ) {
     this.graph = graph;
@@ -90,6 +98,7 @@ public class SerializedGraphObject implements Serializable {
     this.worldEnvelopeRepository = worldEnvelopeRepository;
     this.buildConfig = buildConfig;
     this.routerConfig = routerConfig;
+    this.buildInputs = buildInputs;
     this.issueSummary = issueSummary;
     this.allTransitSubModes = SubMode.listAllCachedSubModes();
     this.stopLocationCounter = StopLocation.indexCounter();
@@ -31,8 +31,13 @@ public class DefaultRoutingService implements RoutingService {
   public RoutingResponse route(RouteRequest request) {
     OTPRequestTimeoutException.checkForTimeout();
     request.validateOriginAndDestination();
-    RoutingWorker worker = new RoutingWorker(serverContext, request, timeZone);
-    return worker.route();
+
+    var coalescer = serverContext.routingRequestCoalescer();
+    if (!coalescer.isEnabled()) {
+      return new RoutingWorker(serverContext, request, timeZone).route();
+    }
+    var key = RouteRequestKey.of(request, transitData(request));
+    return coalescer.route(key, () -> new RoutingWorker(serverContext, request, timeZone).route());
   }
 
   @Override
@@ -45,4 +50,15 @@ public class DefaultRoutingService implements RoutingService {
     );
     return viaRoutingWorker.route();
   }
+
+  /**
+   * The transit data used to route the request. A new instance is created each time a realtime
+   * update is committed.
+   */
+  private Object transitData(RouteRequest request) {
+    var transitService = serverContext.transitService();
+    return request.preferences().transit().ignoreRealtimeUpdates()
+      ? transitService.getTransitLayer()
+      : transitService.getRealtimeTransitLayer();
+  }
 }
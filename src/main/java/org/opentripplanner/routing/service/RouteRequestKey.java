@@ -0,0 +1,112 @@
+package org.opentripplanner.routing.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RequestModes;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilter;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * A normalized copy of all {@link RouteRequest} parameters which affect the routing result. Two
+ * requests with equal keys get the same response. The search time is used as is, requests are
+ * only equal if they are made for exactly the same time.
+ * <p>
+ * The transit data is part of the key, it is replaced with a new instance each time a realtime
+ * update is committed. Hence, requests made before and after a realtime update are never equal.
+ * The vehicle rental and parking availability is updated without a new version, so requests using
+ * it get no key.
+ */
+record RouteRequestKey(
+  Object transitData,
+  GenericLocation from,
+  GenericLocation to,
+  Instant dateTime,
+  boolean arriveBy,
+  Duration searchWindow,
+  String pageCursor,
+  boolean timetableView,
+  int numItineraries,
+  Locale locale,
+  boolean wheelchair,
+  RoutingPreferences preferences,
+  RequestModes modes,
+  List<TransitFilter> transitFilters,
+  List<FeedScopedId> bannedTrips,
+  List<FeedScopedId> preferredAgencies,
+  List<FeedScopedId> unpreferredAgencies,
+  List<FeedScopedId> preferredRoutes,
+  List<FeedScopedId> unpreferredRoutes,
+  Set<String> allowedRentalNetworks,
+  Set<String> bannedRentalNetworks,
+  boolean allowArrivingInRentedVehicleAtDestination,
+  int unpreferredParkingCost,
+  boolean useParkingAvailabilityInformation
+) {
+  /**
+   * Create a key for the given request. Return {@code null} if the request has parameters which
+   * can not be compared, these requests are always routed on their own.
+   */
+  @Nullable
+  static RouteRequestKey of(RouteRequest request, Object transitData) {
+    var journey = request.journey();
+    var transit = journey.transit();
+    var parking = journey.parking();
+
+    var modes = journey.modes();
+
+    if (
+      transit.raptorDebugging().isEnabled() ||
+      !parking.filter().isEmpty() ||
+      !parking.preferred().isEmpty() ||
+      usesRealtimeStreetData(modes, parking.useAvailabilityInformation())
+    ) {
+      return null;
+    }
+
+    return new RouteRequestKey(
+      transitData,
+      request.from(),
+      request.to(),
+      request.dateTime(),
+      request.arriveBy(),
+      request.searchWindow(),
+      request.pageCursor() == null ? null : request.pageCursor().encode(),
+      request.timetableView(),
+      request.numItineraries(),
+      request.locale(),
+      request.wheelchair(),
+      request.preferences(),
+      modes,
+      transit.filters(),
+      transit.bannedTrips(),
+      transit.preferredAgencies(),
+      transit.unpreferredAgencies(),
+      transit.preferredRoutes(),
+      transit.unpreferredRoutes(),
+      journey.rental().allowedNetworks(),
+      journey.rental().bannedNetworks(),
+      journey.rental().allowArrivingInRentedVehicleAtDestination(),
+      parking.unpreferredCost(),
+      parking.useAvailabilityInformation()
+    );
+  }
+
+  /**
+   * Rental vehicles and parking spaces become available and unavailable all the time.
+   */
+  private static boolean usesRealtimeStreetData(RequestModes modes, boolean parkingAvailability) {
+    for (var mode : List.of(modes.accessMode, modes.egressMode, modes.directMode)) {
+      if (mode.includesRenting() || (parkingAvailability && mode.includesParking())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,206 @@
+package org.opentripplanner.routing.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.standalone.config.routerconfig.ServerConfig;
+
+/**
+ * Share the routing of identical requests. During incidents a lot of clients tend to send the same
+ * request at the same time, like a plan from a closed station to the city center for "now".
+ * <p>
+ * If {@link OTPFeature#RequestCoalescing} is on, a request arriving while an identical request is
+ * routed waits for the response of the first request, instead of doing the same computation
+ * again. If {@link OTPFeature#PlanResultCache} is on, the responses are also kept for a few
+ * seconds, so identical requests arriving shortly after get the same response.
+ * <p>
+ * Requests are identical if their {@link RouteRequestKey}s are equal. A realtime update makes all
+ * existing keys obsolete, so a response is never returned after the realtime data it was computed
+ * with has been replaced.
+ * <p>
+ * A waiting request waits at most for the api processing timeout, or for
+ * {@link #DEFAULT_MAX_WAIT} if no timeout is configured, before it is routed on its own. Each
+ * request gets its own copy of a shared response with its own {@link DebugTimingAggregator}, the
+ * trip plan is shared and must not be changed by the APIs.
+ * <p>
+ * One instance is created for the server, the features are read when the server is started.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE
+ */
+public class RoutingRequestCoalescer {
+
+  static final int MAXIMUM_CACHE_SIZE = 1000;
+  static final Duration TIME_TO_LIVE = Duration.ofSeconds(15);
+  static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+  private final boolean coalesceRequests;
+  private final Duration maxWait;
+  private final Map<RouteRequestKey, CompletableFuture<RoutingResponse>> inFlight =
+    new ConcurrentHashMap<>();
+  private final AtomicInteger waitingRequests = new AtomicInteger();
+
+  @Nullable
+  private final Cache<RouteRequestKey, RoutingResponse> resultCache;
+
+  RoutingRequestCoalescer(
+    boolean coalesceRequests,
+    boolean cacheResults,
+    int maximumCacheSize,
+    Duration timeToLive,
+    Duration maxWait
+  ) {
+    this.coalesceRequests = coalesceRequests;
+    this.maxWait = maxWait;
+    this.resultCache =
+      cacheResults
+        ? CacheBuilder
+          .newBuilder()
+          .maximumSize(maximumCacheSize)
+          .expireAfterWrite(timeToLive)
+          .recordStats()
+          .<RouteRequestKey, RoutingResponse>build()
+        : null;
+
+    if (resultCache != null && OTPFeature.ActuatorAPI.isOn()) {
+      new GuavaCacheMetrics(resultCache, "planResultCache", List.of())
+        .bindTo(Metrics.globalRegistry);
+    }
+  }
+
+  /**
+   * Create the coalescer of the server with the enabled features and the api processing timeout
+   * of the server config.
+   */
+  public static RoutingRequestCoalescer of(ServerConfig serverConfig) {
+    var timeout = serverConfig.apiProcessingTimeout();
+    return new RoutingRequestCoalescer(
+      OTPFeature.RequestCoalescing.isOn(),
+      OTPFeature.PlanResultCache.isOn(),
+      MAXIMUM_CACHE_SIZE,
+      TIME_TO_LIVE,
+      timeout.isNegative() || timeout.isZero() ? DEFAULT_MAX_WAIT : timeout
+    );
+  }
+
+  /**
+   * Return {@code true} if any of the features are enabled. If not, there is no need to create
+   * the request keys.
+   */
+  boolean isEnabled() {
+    return coalesceRequests || resultCache != null;
+  }
+
+  /**
+   * Return the response for the given key. The {@code routing} is only called if the response is
+   * not cached and no identical request is in flight. If the key is {@code null}, the request is
+   * always routed.
+   */
+  RoutingResponse route(@Nullable RouteRequestKey key, Supplier<RoutingResponse> routing) {
+    if (key == null) {
+      return routing.get();
+    }
+    if (resultCache != null) {
+      var cached = resultCache.getIfPresent(key);
+      if (cached != null) {
+        return copyOf(cached);
+      }
+    }
+    if (!coalesceRequests) {
+      return routeAndCache(key, routing);
+    }
+
+    var future = new CompletableFuture<RoutingResponse>();
+    var existing = inFlight.putIfAbsent(key, future);
+
+    if (existing != null) {
+      RoutingResponse response;
+      waitingRequests.incrementAndGet();
+      try {
+        response = await(existing);
+      } finally {
+        waitingRequests.decrementAndGet();
+      }
+      return response != null ? copyOf(response) : routing.get();
+    }
+    try {
+      var response = routeAndCache(key, routing);
+      future.complete(response);
+      return response;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  /**
+   * The number of requests waiting for the response of an identical request, used in tests.
+   */
+  int waitingRequests() {
+    return waitingRequests.get();
+  }
+
+  private RoutingResponse routeAndCache(RouteRequestKey key, Supplier<RoutingResponse> routing) {
+    var response = routing.get();
+    if (resultCache != null) {
+      resultCache.put(key, response);
+    }
+    return response;
+  }
+
+  /**
+   * Wait for the response of another request. If the other request failed, the same exception is
+   * thrown here. Returns {@code null} if the other request is not done within the max wait time.
+   */
+  @Nullable
+  private RoutingResponse await(CompletableFuture<RoutingResponse> future) {
+    try {
+      return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      // The request is interrupted by the http server when the api processing timeout is reached
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (TimeoutException e) {
+      return null;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * The trip plan is shared, but the debug timing is collected for each http request.
+   */
+  private static RoutingResponse copyOf(RoutingResponse response) {
+    return new RoutingResponse(
+      response.getTripPlan(),
+      response.getPreviousPageCursor(),
+      response.getNextPageCursor(),
+      response.getMetadata(),
+      response.getRoutingErrors(),
+      new DebugTimingAggregator()
+    );
+  }
+}
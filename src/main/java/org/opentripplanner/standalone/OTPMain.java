@@ -8,6 +8,7 @@ import org.geotools.referencing.factory.DeferredAuthorityFactory;
 import org.geotools.util.WeakCollectionCleaner;
 import org.opentripplanner.framework.application.ApplicationShutdownSupport;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.graph_builder.BuildInputFingerprints;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
@@ -118,12 +119,17 @@ public class OTPMain {
     loadApp.validateConfigAndDataSources();
 
     ConstructApplication app;
+    BuildInputFingerprints streetGraphInputs = null;
 
     /* Load graph from disk if one is not present from build. */
     if (cli.doLoadGraph() || cli.doLoadStreetGraph()) {
       SerializedGraphObject obj = SerializedGraphObject.load(loadApp.getInputGraphDataStore());
       app = loadApp.appConstruction(obj);
       config.updateConfigFromSerializedGraph(obj.buildConfig, obj.routerConfig);
+      if (cli.doLoadStreetGraph()) {
+        streetGraphInputs = obj.buildInputs;
+        loadApp.graphBuilderDataSources().logStreetGraphInputChanges(streetGraphInputs);
+      }
       graphAvailable = true;
     } else {
       app = loadApp.appConstruction();
@@ -151,6 +157,7 @@ public class OTPMain {
         app.worldEnvelopeRepository(),
         config.buildConfig(),
         config.routerConfig(),
+        loadApp.graphBuilderDataSources().buildInputFingerprints(streetGraphInputs),
         DataImportIssueSummary.combine(graphBuilder.issueSummary(), app.dataImportIssueSummary())
       )
         .save(app.graphOutputDataSource());
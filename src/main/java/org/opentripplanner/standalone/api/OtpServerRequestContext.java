@@ -11,12 +11,14 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.GraphFinder;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -63,6 +65,18 @@ public interface OtpServerRequestContext {
 
   RaptorConfig<TripSchedule> raptorConfig();
 
+  /**
+   * The transit data of recent searches, reused when the client pages to the next or previous
+   * page. The cache is shared by all requests.
+   */
+  SearchContinuationCache searchContinuationCache();
+
+  /**
+   * Shares the responses of identical trip plan requests, see {@link RoutingRequestCoalescer}.
+   * The coalescer is shared by all requests.
+   */
+  RoutingRequestCoalescer routingRequestCoalescer();
+
   Graph graph();
 
   @HttpRequestScoped
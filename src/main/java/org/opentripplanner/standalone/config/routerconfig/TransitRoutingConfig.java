@@ -5,6 +5,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
 
 import java.time.Duration;
 import java.util.List;
@@ -26,9 +27,13 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int heuristicsCacheSize;
+  private final Duration heuristicsCacheExpiry;
   private final int transferCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
+  private final int searchContinuationCacheSize;
+  private final Duration searchContinuationCacheExpiry;
 
   private final Map<StopTransferPriority, Integer> stopTransferCost;
   private final DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients;
@@ -108,9 +113,33 @@ but you might get a slack of 60 seconds somewhere in the result.
 Use this parameter to set the total number of executable threads available across all searches.
 Multiple searches can run in parallel - this parameter have no effect with regard to that. If 0, 
 no extra threads are started and the search is done in one thread.
+The pool is also used to route the origins of the travel time matrix sandbox API.
 """
         )
         .asInt(dft.searchThreadPoolSize());
+    this.heuristicsCacheSize =
+      c
+        .of("heuristicsCacheSize")
+        .since(V2_4)
+        .summary("The maximum number of Raptor heuristic search results to keep and reuse.")
+        .description(
+          """
+Before the main search, Raptor performs one or two fast searches to calculate heuristics for the
+destination pruning and the search-window. If identical requests are repeated - which is common
+when many clients search for the same trip at the same time - the heuristics of an earlier search
+are reused if the transit data, the departure/arrival time and the access/egress are the same.
+The time must be exactly the same, it is not rounded. The cached heuristics are not used after a
+realtime update is applied, and are dropped after the `heuristicsCacheExpiry`. If 0, the
+heuristics are not cached.
+"""
+        )
+        .asInt(dft.heuristicsCacheSize());
+    this.heuristicsCacheExpiry =
+      c
+        .of("heuristicsCacheExpiry")
+        .since(V2_4)
+        .summary("How long the Raptor heuristic search results are kept after they are created.")
+        .asDuration(dft.heuristicsCacheExpiry());
     // Dynamic Search Window
     this.stopTransferCost =
       c
@@ -161,6 +190,9 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
 If not set, the default behavior is to cache stop-to-stop transfers using the default route request 
 (`routingDefaults`). Use this to change the default or specify more than one `RouteRequest`.
 
+The transfers for the first request are created before the server starts, the rest are created
+in the background after the server has started.
+
 **Example**
 
 ```JSON
@@ -199,6 +231,29 @@ for more info."
 """
         )
         .asDurations(PAGING_SEARCH_WINDOW_ADJUSTMENTS);
+    this.searchContinuationCacheSize =
+      c
+        .of("searchContinuationCacheSize")
+        .since(V2_4)
+        .summary("The maximum number of transit searches to keep the transit data for.")
+        .description(
+          """
+When a client pages to the next or previous page, the trips are usually filtered for the same
+service days as in the previous search. The transit data of a search is kept when the page cursors
+are created, and reused by the following page requests if the request and the timetables are
+unchanged. The access and egress are always searched again. If 0, the transit data is not kept.
+
+The page cursors contain a token referring to the kept transit data. Page cursors created by
+earlier versions of OTP are still accepted, and earlier versions ignore the token.
+"""
+        )
+        .asInt(0);
+    this.searchContinuationCacheExpiry =
+      c
+        .of("searchContinuationCacheExpiry")
+        .since(V2_4)
+        .summary("How long the transit data of a search is kept after it was last used.")
+        .asDuration(SEARCH_CONTINUATION_CACHE_EXPIRY);
 
     this.dynamicSearchWindowCoefficients = new DynamicSearchWindowConfig("dynamicSearchWindow", c);
   }
@@ -223,6 +278,16 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int heuristicsCacheSize() {
+    return heuristicsCacheSize;
+  }
+
+  @Override
+  public Duration heuristicsCacheExpiry() {
+    return heuristicsCacheExpiry;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -253,6 +318,16 @@ for more info."
     return pagingSearchWindowAdjustments;
   }
 
+  @Override
+  public int searchContinuationCacheSize() {
+    return searchContinuationCacheSize;
+  }
+
+  @Override
+  public Duration searchContinuationCacheExpiry() {
+    return searchContinuationCacheExpiry;
+  }
+
   private static class DynamicSearchWindowConfig implements DynamicSearchWindowCoefficients {
 
     private final double minTransitTimeCoefficient;
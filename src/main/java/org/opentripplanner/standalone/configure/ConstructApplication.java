@@ -1,6 +1,7 @@
 package org.opentripplanner.standalone.configure;
 
 import jakarta.ws.rs.core.Application;
+import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
@@ -17,6 +18,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuning
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
+import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionRepository;
 import org.opentripplanner.service.vehiclerental.VehicleRentalRepository;
@@ -157,7 +159,7 @@ public class ConstructApplication {
 
     initEllipsoidToGeoidDifference();
 
-    initializeTransferCache(routerConfig().transitTuningConfig(), transitModel());
+    initializeTransferCache(routerConfig().transitTuningConfig(), transitModel(), true);
 
     if (OTPFeature.SandboxAPITransmodelApi.isOn()) {
       TransmodelAPI.setUp(
@@ -206,29 +208,66 @@ public class ConstructApplication {
     );
   }
 
+  /**
+   * Pre-fill the Raptor transfer cache with the configured transfer cache requests. The transfers
+   * for the first request are created before this method returns. If {@code background} is set,
+   * the transfers for the rest of the requests are created in a background thread, so the server
+   * can start accepting requests without waiting for all of them.
+   */
   public static void initializeTransferCache(
     TransitTuningParameters transitTuningConfig,
-    TransitModel transitModel
+    TransitModel transitModel,
+    boolean background
   ) {
     var transferCacheRequests = transitTuningConfig.transferCacheRequests();
-    if (!transferCacheRequests.isEmpty()) {
-      var progress = ProgressTracker.track(
-        "Creating initial raptor transfer cache",
-        1,
-        transferCacheRequests.size()
-      );
+    if (transferCacheRequests.isEmpty()) {
+      return;
+    }
+    if (!background || transferCacheRequests.size() == 1) {
+      initializeTransferCache(transferCacheRequests, transitModel);
+      return;
+    }
+    initializeTransferCache(transferCacheRequests.subList(0, 1), transitModel);
+
+    var warmUp = new Thread(
+      () ->
+        initializeTransferCache(
+          transferCacheRequests.subList(1, transferCacheRequests.size()),
+          transitModel
+        ),
+      "transfer-cache-warm-up"
+    );
+    warmUp.setDaemon(true);
+    warmUp.start();
+  }
+
+  public static void initializeTransferCache(
+    TransitTuningParameters transitTuningConfig,
+    TransitModel transitModel
+  ) {
+    initializeTransferCache(transitTuningConfig, transitModel, false);
+  }
 
-      LOG.info(progress.startMessage());
+  private static void initializeTransferCache(
+    List<RouteRequest> transferCacheRequests,
+    TransitModel transitModel
+  ) {
+    var progress = ProgressTracker.track(
+      "Creating initial raptor transfer cache",
+      1,
+      transferCacheRequests.size()
+    );
 
-      transferCacheRequests.forEach(request -> {
-        transitModel.getTransitLayer().getRaptorTransfersForRequest(request);
+    LOG.info(progress.startMessage());
 
-        //noinspection Convert2MethodRef
-        progress.step(s -> LOG.info(s));
-      });
+    transferCacheRequests.forEach(request -> {
+      transitModel.getTransitLayer().getRaptorTransfersForRequest(request);
 
-      LOG.info(progress.completeMessage());
-    }
+      //noinspection Convert2MethodRef
+      progress.step(s -> LOG.info(s));
+    });
+
+    LOG.info(progress.completeMessage());
   }
 
   public TransitModel transitModel() {
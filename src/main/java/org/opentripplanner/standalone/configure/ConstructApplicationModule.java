@@ -3,13 +3,16 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -26,6 +29,8 @@ public class ConstructApplicationModule {
   OtpServerRequestContext providesServerContext(
     RouterConfig routerConfig,
     RaptorConfig<TripSchedule> raptorConfig,
+    SearchContinuationCache searchContinuationCache,
+    RoutingRequestCoalescer routingRequestCoalescer,
     Graph graph,
     TransitService transitService,
     WorldEnvelopeService worldEnvelopeService,
@@ -38,6 +43,8 @@ public class ConstructApplicationModule {
       routerConfig.transitTuningConfig(),
       routerConfig.routingRequestDefaults(),
       raptorConfig,
+      searchContinuationCache,
+      routingRequestCoalescer,
       graph,
       transitService,
       Metrics.globalRegistry,
@@ -51,6 +58,18 @@ public class ConstructApplicationModule {
     );
   }
 
+  @Provides
+  @Singleton
+  static SearchContinuationCache providesSearchContinuationCache(RouterConfig routerConfig) {
+    return SearchContinuationCache.of(routerConfig.transitTuningConfig());
+  }
+
+  @Provides
+  @Singleton
+  static RoutingRequestCoalescer providesRoutingRequestCoalescer(RouterConfig routerConfig) {
+    return RoutingRequestCoalescer.of(routerConfig.server());
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
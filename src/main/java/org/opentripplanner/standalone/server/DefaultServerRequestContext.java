@@ -10,12 +10,14 @@ import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.service.DefaultRoutingService;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -36,6 +38,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final RouteRequest routeRequestDefaults;
   private final MeterRegistry meterRegistry;
   private final RaptorConfig<TripSchedule> raptorConfig;
+  private final SearchContinuationCache searchContinuationCache;
+  private final RoutingRequestCoalescer routingRequestCoalescer;
   private final TileRendererManager tileRendererManager;
   private final VectorTilesResource.LayersParameters<VectorTilesResource.LayerType> vectorTileLayers;
   private final FlexConfig flexConfig;
@@ -54,6 +58,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     RouteRequest routeRequestDefaults,
     MeterRegistry meterRegistry,
     RaptorConfig<TripSchedule> raptorConfig,
+    SearchContinuationCache searchContinuationCache,
+    RoutingRequestCoalescer routingRequestCoalescer,
     TileRendererManager tileRendererManager,
     VectorTilesResource.LayersParameters<VectorTilesResource.LayerType> vectorTileLayers,
     WorldEnvelopeService worldEnvelopeService,
@@ -68,6 +74,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.transitRoutingConfig = transitRoutingConfig;
     this.meterRegistry = meterRegistry;
     this.raptorConfig = raptorConfig;
+    this.searchContinuationCache = searchContinuationCache;
+    this.routingRequestCoalescer = routingRequestCoalescer;
     this.tileRendererManager = tileRendererManager;
     this.vectorTileLayers = vectorTileLayers;
     this.vehicleRentalService = vehicleRentalService;
@@ -86,6 +94,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     TransitRoutingConfig transitRoutingConfig,
     RouteRequest routeRequestDefaults,
     RaptorConfig<TripSchedule> raptorConfig,
+    SearchContinuationCache searchContinuationCache,
+    RoutingRequestCoalescer routingRequestCoalescer,
     Graph graph,
     TransitService transitService,
     MeterRegistry meterRegistry,
@@ -104,6 +114,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       routeRequestDefaults,
       meterRegistry,
       raptorConfig,
+      searchContinuationCache,
+      routingRequestCoalescer,
       new TileRendererManager(graph, routeRequestDefaults.preferences()),
       vectorTileLayers,
       worldEnvelopeService,
@@ -137,6 +149,16 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return raptorConfig;
   }
 
+  @Override
+  public SearchContinuationCache searchContinuationCache() {
+    return searchContinuationCache;
+  }
+
+  @Override
+  public RoutingRequestCoalescer routingRequestCoalescer() {
+    return routingRequestCoalescer;
+  }
+
   @Override
   public Graph graph() {
     return graph;
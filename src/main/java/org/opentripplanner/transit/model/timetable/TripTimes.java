@@ -30,6 +30,12 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
 
   private static final Logger LOG = LoggerFactory.getLogger(TripTimes.class);
   private static final String[] EMPTY_STRING_ARRAY = new String[0];
+  /**
+   * The delays of a TripTimes without realtime arrival or departure times, an empty array means
+   * that the delay is 0 at every stop. This is shared, so that a TripTimes only allocates delays
+   * for the times that are updated.
+   */
+  private static final int[] NO_DELAYS = new int[0];
   /** The trips whose arrivals and departures are represented by this TripTimes */
   private final Trip trip;
   /**
@@ -82,25 +88,34 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
   // not final because these are set later, after TripTimes construction.
   private int serviceCode = -1;
   /**
-   * The time in seconds after midnight at which the vehicle arrives at each stop, accounting for
-   * any real-time updates. Non-final to allow updates.
+   * The real-time arrival delay in seconds at each stop, the difference from the scheduled times.
+   * This is {@link #NO_DELAYS} until an arrival time is updated. Non-final to allow updates.
+   */
+  private int[] arrivalDelays;
+  /**
+   * The real-time departure delay in seconds at each stop, the difference from the scheduled times.
+   * This is {@link #NO_DELAYS} until a departure time is updated. Non-final to allow updates.
    */
-  private int[] arrivalTimes;
+  private int[] departureDelays;
   /**
-   * The time in seconds after midnight at which the vehicle leaves each stop, accounting for any
-   * real-time updates. Non-final to allow updates.
+   * True when this TripTimes has been prepared for real-time updates, and no longer shares its
+   * stop states, occupancy and headsigns with the TripTimes it was copied from.
    */
-  private int[] departureTimes;
+  private boolean realTimeUpdated;
 
   /**
    * States of the stops in the trip. If the state is DEFAULT for a stop, {@link #realTimeState}
-   * should determine the realtime state of the stop.
+   * should determine the realtime state of the stop. The array is only created when the state of
+   * a stop is set, null means that all stops are in the DEFAULT state.
    * <p>
    * This is only for API-purposes (does not affect routing). Non-final to allow updates.
    */
   private StopRealTimeState[] stopRealTimeStates;
 
   /**
+   * The array is only created when the occupancy of a stop is set, null means NO_DATA for all
+   * stops.
+   * <p>
    * This is only for API-purposes (does not affect routing). Non-final to allow updates.
    */
   private OccupancyStatus[] occupancyStatus;
@@ -154,10 +169,10 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
       deduplicator.deduplicateImmutableList(BookingInfo.class, dropOffBookingInfos);
     this.pickupBookingInfos =
       deduplicator.deduplicateImmutableList(BookingInfo.class, pickupBookingInfos);
-    // We set these to null to indicate that this is a non-updated/scheduled TripTimes.
-    // We cannot point to the scheduled times because they are shifted, and updated times are not.
-    this.arrivalTimes = null;
-    this.departureTimes = null;
+    // The delays are relative to the scheduled times, a scheduled TripTimes has no delays
+    this.arrivalDelays = NO_DELAYS;
+    this.departureDelays = NO_DELAYS;
+    this.realTimeUpdated = false;
     this.stopRealTimeStates = null;
     this.timepoints = deduplicator.deduplicateBitSet(timepoints);
     this.wheelchairAccessibility = trip.getWheelchairBoarding();
@@ -173,8 +188,9 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
     this.headsignVias = object.headsignVias;
     this.scheduledArrivalTimes = object.scheduledArrivalTimes;
     this.scheduledDepartureTimes = object.scheduledDepartureTimes;
-    this.arrivalTimes = null;
-    this.departureTimes = null;
+    this.arrivalDelays = NO_DELAYS;
+    this.departureDelays = NO_DELAYS;
+    this.realTimeUpdated = false;
     this.stopRealTimeStates = object.stopRealTimeStates;
     this.pickupBookingInfos = object.pickupBookingInfos;
     this.dropOffBookingInfos = object.dropOffBookingInfos;
@@ -242,46 +258,47 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
 
   /** @return the time in seconds after midnight that the vehicle arrives at the stop. */
   public int getArrivalTime(final int stop) {
-    if (arrivalTimes == null) {
-      return getScheduledArrivalTime(stop);
-    } else return arrivalTimes[stop]; // updated times are not time shifted.
+    return getScheduledArrivalTime(stop) + getArrivalDelay(stop);
   }
 
   /** @return the amount of time in seconds that the vehicle waits at the stop. */
   public int getDepartureTime(final int stop) {
-    if (departureTimes == null) {
-      return getScheduledDepartureTime(stop);
-    } else return departureTimes[stop]; // updated times are not time shifted.
+    return getScheduledDepartureTime(stop) + getDepartureDelay(stop);
   }
 
   /** @return the difference between the scheduled and actual arrival times at this stop. */
   public int getArrivalDelay(final int stop) {
-    return getArrivalTime(stop) - (scheduledArrivalTimes[stop] + timeShift);
+    return arrivalDelays.length == 0 ? 0 : arrivalDelays[stop];
   }
 
   /** @return the difference between the scheduled and actual departure times at this stop. */
   public int getDepartureDelay(final int stop) {
-    return getDepartureTime(stop) - (scheduledDepartureTimes[stop] + timeShift);
+    return departureDelays.length == 0 ? 0 : departureDelays[stop];
   }
 
   public void setRecorded(int stop) {
-    prepareForRealTimeUpdates();
-    stopRealTimeStates[stop] = StopRealTimeState.RECORDED;
+    setStopRealTimeState(stop, StopRealTimeState.RECORDED);
   }
 
   public void setCancelled(int stop) {
-    prepareForRealTimeUpdates();
-    stopRealTimeStates[stop] = StopRealTimeState.CANCELLED;
+    setStopRealTimeState(stop, StopRealTimeState.CANCELLED);
   }
 
   public void setNoData(int stop) {
-    prepareForRealTimeUpdates();
-    stopRealTimeStates[stop] = StopRealTimeState.NO_DATA;
+    setStopRealTimeState(stop, StopRealTimeState.NO_DATA);
   }
 
   public void setPredictionInaccurate(int stop) {
+    setStopRealTimeState(stop, StopRealTimeState.INACCURATE_PREDICTIONS);
+  }
+
+  private void setStopRealTimeState(int stop, StopRealTimeState state) {
     prepareForRealTimeUpdates();
-    stopRealTimeStates[stop] = StopRealTimeState.INACCURATE_PREDICTIONS;
+    if (stopRealTimeStates == null) {
+      stopRealTimeStates = new StopRealTimeState[getNumStops()];
+      Arrays.fill(stopRealTimeStates, StopRealTimeState.DEFAULT);
+    }
+    stopRealTimeStates[stop] = state;
   }
 
   public boolean isCancelledStop(int stop) {
@@ -315,6 +332,10 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
 
   public void setOccupancyStatus(int stop, OccupancyStatus occupancyStatus) {
     prepareForRealTimeUpdates();
+    if (this.occupancyStatus == null) {
+      this.occupancyStatus = new OccupancyStatus[getNumStops()];
+      Arrays.fill(this.occupancyStatus, OccupancyStatus.NO_DATA);
+    }
     this.occupancyStatus[stop] = occupancyStatus;
   }
 
@@ -411,23 +432,33 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
   }
 
   public void updateDepartureTime(final int stop, final int time) {
-    prepareForRealTimeUpdates();
-    departureTimes[stop] = time;
+    updateDepartureDelay(stop, time - getScheduledDepartureTime(stop));
   }
 
   public void updateDepartureDelay(final int stop, final int delay) {
     prepareForRealTimeUpdates();
-    departureTimes[stop] = scheduledDepartureTimes[stop] + timeShift + delay;
+    if (departureDelays.length == 0) {
+      if (delay == 0) {
+        return;
+      }
+      departureDelays = new int[getNumStops()];
+    }
+    departureDelays[stop] = delay;
   }
 
   public void updateArrivalTime(final int stop, final int time) {
-    prepareForRealTimeUpdates();
-    arrivalTimes[stop] = time;
+    updateArrivalDelay(stop, time - getScheduledArrivalTime(stop));
   }
 
   public void updateArrivalDelay(final int stop, final int delay) {
     prepareForRealTimeUpdates();
-    arrivalTimes[stop] = scheduledArrivalTimes[stop] + timeShift + delay;
+    if (arrivalDelays.length == 0) {
+      if (delay == 0) {
+        return;
+      }
+      arrivalDelays = new int[getNumStops()];
+    }
+    arrivalDelays[stop] = delay;
   }
 
   public Accessibility getWheelchairAccessibility() {
@@ -455,7 +486,7 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
    * now (frequency trips don't have updates).
    */
   public TripTimes timeShift(final int stop, final int time, final boolean depart) {
-    if (arrivalTimes != null || departureTimes != null) {
+    if (realTimeUpdated) {
       return null;
     }
     final TripTimes shifted = new TripTimes(this);
@@ -657,28 +688,26 @@ public class TripTimes implements Serializable, Comparable<TripTimes> {
   }
 
   /**
-   * If they don't already exist, create arrays for updated arrival and departure times that are
-   * just time-shifted copies of the zero-based scheduled departure times.
+   * The first time this is called, stop sharing the stop states, occupancy and headsigns with the
+   * TripTimes this was copied from. The stop states and occupancy are reset to their defaults, and
+   * are only created again when a stop is updated.
+   * <p>
+   * The times are not copied, the realtime times are stored as delays relative to the shared
+   * scheduled times. The delay array of the arrivals or departures is only created when one of
+   * them is set to a time different from the schedule, so a realtime update which only changes
+   * some times allocates at most two arrays of delays.
    * <p>
    * Also sets the realtime state to UPDATED.
    */
   private void prepareForRealTimeUpdates() {
-    if (arrivalTimes == null) {
-      this.arrivalTimes = Arrays.copyOf(scheduledArrivalTimes, scheduledArrivalTimes.length);
-      this.departureTimes = Arrays.copyOf(scheduledDepartureTimes, scheduledDepartureTimes.length);
-      this.stopRealTimeStates = new StopRealTimeState[arrivalTimes.length];
-      this.occupancyStatus = new OccupancyStatus[arrivalTimes.length];
+    if (!realTimeUpdated) {
+      this.realTimeUpdated = true;
+      this.stopRealTimeStates = null;
+      this.occupancyStatus = null;
       if (headsigns != null) {
         headsigns = Arrays.copyOf(headsigns, headsigns.length);
       }
 
-      for (int i = 0; i < arrivalTimes.length; i++) {
-        arrivalTimes[i] += timeShift;
-        departureTimes[i] += timeShift;
-        stopRealTimeStates[i] = StopRealTimeState.DEFAULT;
-        occupancyStatus[i] = OccupancyStatus.NO_DATA;
-      }
-
       // Update the real-time state
       realTimeState = RealTimeState.UPDATED;
     }
@@ -21,6 +21,7 @@ import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexTravelTimeMatrix;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
@@ -101,6 +102,8 @@ public class TransitModel implements Serializable {
   private final Map<FeedScopedId, TripOnServiceDate> tripOnServiceDates = new HashMap<>();
 
   private final Map<FeedScopedId, FlexTrip<?, ?>> flexTripsById = new HashMap<>();
+  private final Map<FeedScopedId, FlexTravelTimeMatrix> flexTravelTimeMatrixByTripId =
+    new HashMap<>();
 
   private transient TransitLayer transitLayer;
   private transient TransitLayerUpdater transitLayerUpdater;
@@ -473,6 +476,14 @@ public class TransitModel implements Serializable {
     flexTripsById.put(id, flexTrip);
   }
 
+  /**
+   * Add the driving times between the stop locations of a flex trip. The same matrix may be used
+   * by many trips.
+   */
+  public void addFlexTravelTimeMatrix(FeedScopedId tripId, FlexTravelTimeMatrix matrix) {
+    flexTravelTimeMatrixByTripId.put(tripId, matrix);
+  }
+
   public void setUpdaterManager(GraphUpdaterManager updaterManager) {
     this.updaterManager = updaterManager;
   }
@@ -521,6 +532,11 @@ public class TransitModel implements Serializable {
     return flexTripsById.get(tripId);
   }
 
+  @Nullable
+  public FlexTravelTimeMatrix getFlexTravelTimeMatrix(FeedScopedId tripId) {
+    return flexTravelTimeMatrixByTripId.get(tripId);
+  }
+
   private void invalidateIndex() {
     this.index = null;
   }
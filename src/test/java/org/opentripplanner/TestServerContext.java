@@ -5,7 +5,9 @@ import static org.opentripplanner.standalone.configure.ConstructApplication.crea
 import io.micrometer.core.instrument.Metrics;
 import java.util.List;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.SearchContinuationCache;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingRequestCoalescer;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclepositions.internal.DefaultVehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
@@ -34,6 +36,8 @@ public class TestServerContext {
       routerConfig.transitTuningConfig(),
       routerConfig.routingRequestDefaults(),
       new RaptorConfig<>(routerConfig.transitTuningConfig()),
+      SearchContinuationCache.of(routerConfig.transitTuningConfig()),
+      RoutingRequestCoalescer.of(routerConfig.server()),
       graph,
       new DefaultTransitService(transitModel),
       Metrics.globalRegistry,
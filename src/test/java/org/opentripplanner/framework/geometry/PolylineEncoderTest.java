@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
 
 public class PolylineEncoderTest {
 
@@ -45,4 +46,27 @@ public class PolylineEncoderTest {
 
     assertEquals("_gjaR_gjaR", polyline.points());
   }
+
+  @Test
+  public void testMultiLineString() {
+    var factory = GeometryUtils.getGeometryFactory();
+    var first = factory.createLineString(
+      new Coordinate[] {
+        new Coordinate(-73.85062, 40.903125),
+        new Coordinate(-73.85136, 40.902261),
+      }
+    );
+    var second = factory.createLineString(
+      new Coordinate[] { new Coordinate(-73.85151, 40.902066), new Coordinate(10.5, -59.6) }
+    );
+    var multiLineString = factory.createMultiLineString(new LineString[] { first, second });
+
+    var polyline = PolylineEncoder.encodeGeometry(multiLineString);
+
+    assertEquals(
+      PolylineEncoder.encodeCoordinates(multiLineString.getCoordinates()).points(),
+      polyline.points()
+    );
+    assertEquals(4, polyline.length());
+  }
 }
@@ -0,0 +1,83 @@
+package org.opentripplanner.framework.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class PreparsedDocumentCacheTest {
+
+  private static final String MARKER = PreparsedDocumentCache.PERSISTED_QUERY_MARKER;
+  private static final String QUERY = "{ stops { name } }";
+  private static final String QUERY_HASH = Hashing
+    .sha256()
+    .hashString(QUERY, StandardCharsets.UTF_8)
+    .toString();
+
+  private final PreparsedDocumentCache subject = new PreparsedDocumentCache("test", 10);
+  private final AtomicInteger parseCount = new AtomicInteger();
+  private final Function<ExecutionInput, PreparsedDocumentEntry> parse = input -> {
+    parseCount.incrementAndGet();
+    return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+  };
+
+  @Test
+  void parseSameQueryOnlyOnce() {
+    var first = subject.getDocument(input(QUERY, null), parse);
+    var second = subject.getDocument(input(QUERY, null), parse);
+
+    assertSame(first, second);
+    assertEquals(1, parseCount.get());
+  }
+
+  @Test
+  void persistedQuery() {
+    var notFound = subject.getDocument(input(MARKER, QUERY_HASH), parse);
+    assertTrue(notFound.hasErrors());
+    assertEquals("PersistedQueryNotFound", notFound.getErrors().get(0).getMessage());
+
+    var registered = subject.getDocument(input(QUERY, QUERY_HASH), parse);
+    assertFalse(registered.hasErrors());
+
+    var found = subject.getDocument(input(MARKER, QUERY_HASH), parse);
+    assertSame(registered, found);
+    assertEquals(1, parseCount.get());
+  }
+
+  @Test
+  void persistedQueryIdNotMatchingQuery() {
+    var result = subject.getDocument(input(QUERY, "abc"), parse);
+
+    assertTrue(result.hasErrors());
+    assertEquals(0, parseCount.get());
+  }
+
+  @Test
+  void hasPersistedQueryId() {
+    assertTrue(PreparsedDocumentCache.hasPersistedQueryId(extensions(QUERY_HASH)));
+    assertFalse(PreparsedDocumentCache.hasPersistedQueryId(Map.of()));
+    assertFalse(PreparsedDocumentCache.hasPersistedQueryId(null));
+  }
+
+  private static ExecutionInput input(String query, String persistedQueryId) {
+    return ExecutionInput
+      .newExecutionInput()
+      .query(query)
+      .extensions(persistedQueryId == null ? Map.of() : extensions(persistedQueryId))
+      .build();
+  }
+
+  private static Map<String, Object> extensions(String persistedQueryId) {
+    return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", persistedQueryId));
+  }
+}
@@ -0,0 +1,62 @@
+package org.opentripplanner.graph_builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.datastore.api.FileType.DEM;
+import static org.opentripplanner.datastore.api.FileType.GTFS;
+import static org.opentripplanner.datastore.api.FileType.OSM;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.base.ByteArrayDataSource;
+
+class BuildInputFingerprintsTest {
+
+  private static final Set<FileType> STREET = Set.of(OSM, DEM);
+
+  private static final DataSource OSM_A = source("a.pbf", OSM, 100, 1000);
+  private static final DataSource OSM_B = source("b.pbf", OSM, 200, 1000);
+  private static final DataSource DEM_A = source("a.tif", DEM, 300, 1000);
+  private static final DataSource GTFS_A = source("a.gtfs.zip", GTFS, 400, 1000);
+
+  @Test
+  void noChanges() {
+    var original = BuildInputFingerprints.of(List.of(OSM_A, DEM_A, GTFS_A));
+    var current = BuildInputFingerprints.of(List.of(OSM_A, DEM_A, GTFS_A));
+
+    assertEquals(List.of(), current.listChanges(original, STREET));
+  }
+
+  @Test
+  void listChanges() {
+    var original = BuildInputFingerprints.of(List.of(OSM_A, DEM_A, GTFS_A));
+    var current = BuildInputFingerprints.of(
+      List.of(source("a.pbf", OSM, 100, 2000), OSM_B, source("a.gtfs.zip", GTFS, 1, 1))
+    );
+
+    assertEquals(
+      List.of("Added: file:b.pbf", "Changed: file:a.pbf", "Removed: file:a.tif"),
+      current.listChanges(original, STREET).stream().sorted().toList()
+    );
+    assertEquals(List.of("Changed: file:a.gtfs.zip"), current.listChanges(original, Set.of(GTFS)));
+  }
+
+  @Test
+  void replaceTypes() {
+    var streetGraph = BuildInputFingerprints.of(List.of(OSM_A, DEM_A));
+    var current = BuildInputFingerprints.of(List.of(OSM_B, GTFS_A));
+
+    var subject = current.replaceTypes(STREET, streetGraph);
+
+    var expected = BuildInputFingerprints.of(List.of(OSM_A, DEM_A, GTFS_A));
+    assertTrue(subject.listChanges(expected, Set.of(FileType.values())).isEmpty());
+    assertTrue(expected.listChanges(subject, Set.of(FileType.values())).isEmpty());
+  }
+
+  private static DataSource source(String name, FileType type, long size, long lastModified) {
+    return new ByteArrayDataSource("file:" + name, name, type, size, lastModified, false);
+  }
+}
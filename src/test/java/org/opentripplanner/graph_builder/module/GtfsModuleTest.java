@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.File;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.gtfs.graphbuilder.GtfsBundle;
 import org.opentripplanner.gtfs.graphbuilder.GtfsModule;
 import org.opentripplanner.model.calendar.ServiceDateInterval;
@@ -54,6 +56,25 @@ class GtfsModuleTest {
     assertNotNull(pattern.getHopGeometry(0));
   }
 
+  @Test
+  public void readNextBundleAhead() {
+    OTPFeature.GtfsReadAhead.testOn(() -> {
+      var model = buildTestModel();
+      var module = new GtfsModule(
+        List.of(Interlining.bundle("A"), Interlining.bundle("B"), Interlining.bundle("C")),
+        model.transitModel,
+        model.graph,
+        ServiceDateInterval.unbounded()
+      );
+
+      module.buildGraph();
+
+      assertEquals(Set.of("A", "B", "C"), Set.copyOf(model.transitModel.getFeedIds()));
+      // The same result as when the bundles are read one at a time, see Interlining
+      assertEquals(6, model.transitModel.getTransferService().listAll().size());
+    });
+  }
+
   private static TestModels buildTestModel() {
     var deduplicator = new Deduplicator();
     var stopModel = new StopModel();
@@ -0,0 +1,84 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.search.TraverseMode;
+
+class IslandComponentsTest extends GraphRoutingTest {
+
+  @Test
+  void walkIslands() {
+    var subject = compute(buildGraph(false), TraverseMode.WALK);
+
+    assertEquals(2, subject.thruIslandCount());
+    assertEquals(List.of(2, 2, 4), streetSizes(subject.extendedIslands()));
+    assertEquals(List.of(2, 2, 4), streetSizes(subject.islands()));
+    assertEquals(1, subject.noThruIslandCount());
+  }
+
+  @Test
+  void noThruTrafficIsModeSpecific() {
+    var subject = compute(buildGraph(false), TraverseMode.BICYCLE);
+
+    assertEquals(3, subject.thruIslandCount());
+    assertEquals(List.of(2, 2, 4), streetSizes(subject.extendedIslands()));
+    assertEquals(List.of(2, 2, 4), streetSizes(subject.islands()));
+    assertEquals(0, subject.noThruIslandCount());
+  }
+
+  @Test
+  void expansionDoesNotJumpBetweenOriginalIslands() {
+    var subject = compute(buildGraph(true), TraverseMode.WALK);
+
+    assertEquals(2, subject.thruIslandCount());
+    assertEquals(List.of(2, 6), streetSizes(subject.extendedIslands()));
+    assertEquals(List.of(2, 2, 4), streetSizes(subject.islands()));
+  }
+
+  /**
+   * Two islands A-B-C and D-E, F is reachable from C only across a noThruTraffic edge and G-H is
+   * connected by a noThruTraffic edge only. NoThruTraffic is set for WALK only.
+   */
+  private Graph buildGraph(boolean connectIslandsWithNoThruTraffic) {
+    return modelOf(
+      new Builder() {
+        @Override
+        public void build() {
+          var A = intersection("A", 47.500, 19.000);
+          var B = intersection("B", 47.501, 19.000);
+          var C = intersection("C", 47.502, 19.000);
+          var D = intersection("D", 47.510, 19.000);
+          var E = intersection("E", 47.511, 19.000);
+          var F = intersection("F", 47.503, 19.000);
+          var G = intersection("G", 47.520, 19.000);
+          var H = intersection("H", 47.521, 19.000);
+
+          var all = StreetTraversalPermission.ALL;
+          street(A, B, 100, all, all);
+          street(B, C, 100, all, all);
+          street(D, E, 100, all, all);
+          street(C, F, 100, all, all).forEach(it -> it.setWalkNoThruTraffic(true));
+          street(G, H, 100, all, all).forEach(it -> it.setWalkNoThruTraffic(true));
+
+          if (connectIslandsWithNoThruTraffic) {
+            street(C, D, 100, all, all).forEach(it -> it.setWalkNoThruTraffic(true));
+          }
+        }
+      }
+    )
+      .graph();
+  }
+
+  private static IslandComponents compute(Graph graph, TraverseMode mode) {
+    return IslandComponents.compute(new IslandComponents.VertexIndex(graph.getVertices()), mode);
+  }
+
+  private static List<Integer> streetSizes(List<Subgraph> islands) {
+    return islands.stream().map(Subgraph::streetSize).sorted().toList();
+  }
+}
@@ -0,0 +1,49 @@
+package org.opentripplanner.model.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.search.TraverseMode;
+
+class StreetLegTest implements PlanTestConstants {
+
+  private static final List<WalkStep> WALK_STEPS = List.of();
+  private static final ElevationProfile ELEVATION = ElevationProfile.of().step(0, 10).build();
+
+  private final StreetLeg subject = StreetLeg
+    .create()
+    .withMode(TraverseMode.WALK)
+    .withStartTime(TestItineraryBuilder.newTime(T11_00))
+    .withEndTime(TestItineraryBuilder.newTime(T11_05))
+    .withFrom(A)
+    .withTo(B)
+    .withWalkSteps(WALK_STEPS)
+    .withElevationProfile(ELEVATION)
+    .build();
+
+  @Test
+  void copiesKeepTheWalkStepsAndElevation() {
+    var shifted = subject.withTimeShift(Duration.ofMinutes(5));
+
+    assertSame(WALK_STEPS, shifted.getWalkSteps());
+    assertSame(ELEVATION, shifted.getElevationProfile());
+  }
+
+  @Test
+  void itineraryElevationIsCalculatedFromLegs() {
+    var itinerary = new Itinerary(List.of(subject));
+
+    assertEquals(ELEVATION.elevationGained(), itinerary.getElevationGained());
+    assertEquals(ELEVATION.elevationLost(), itinerary.getElevationLost());
+  }
+
+  @Test
+  void defaultValues() {
+    assertEquals(0, subject.getStreetNotes().size());
+    assertNull(StreetLeg.create().withMode(TraverseMode.WALK).build().getWalkSteps());
+  }
+}
@@ -1,6 +1,7 @@
 package org.opentripplanner.model.plan.pagecursor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.opentripplanner.model.plan.SortOrder.STREET_AND_ARRIVAL_TIME;
 import static org.opentripplanner.model.plan.SortOrder.STREET_AND_DEPARTURE_TIME;
 import static org.opentripplanner.model.plan.pagecursor.PageType.NEXT_PAGE;
@@ -8,6 +9,8 @@ import static org.opentripplanner.model.plan.pagecursor.PageType.PREVIOUS_PAGE;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.model.plan.PlanTestConstants;
@@ -127,6 +130,25 @@ class PageCursorFactoryTest implements PlanTestConstants {
     assetPageCursor(prevPage, T10_30, T13_30, D90M, PREVIOUS_PAGE);
   }
 
+  @Test
+  public void searchContinuationTokenIsOnlyCreatedWithPageCursors() {
+    var tokensCreated = new AtomicInteger();
+    Supplier<String> token = () -> "token-" + tokensCreated.incrementAndGet();
+
+    var noCursors = new PageCursorFactory(STREET_AND_ARRIVAL_TIME, D90M)
+      .withSearchContinuationToken(token);
+    assertNull(noCursors.nextPageCursor());
+    assertNull(noCursors.previousPageCursor());
+    assertEquals(0, tokensCreated.get());
+
+    var factory = new PageCursorFactory(STREET_AND_ARRIVAL_TIME, D90M)
+      .withOriginalSearch(null, T12_00, null, D1H)
+      .withSearchContinuationToken(token);
+    assertEquals("token-1", factory.nextPageCursor().searchContinuationToken);
+    assertEquals("token-1", factory.previousPageCursor().searchContinuationToken);
+    assertEquals(1, tokensCreated.get());
+  }
+
   private static Instant time(String input) {
     return TIME_ZERO.plusSeconds(TimeUtils.time(input));
   }
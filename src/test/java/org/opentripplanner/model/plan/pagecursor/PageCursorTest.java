@@ -79,6 +79,37 @@ public class PageCursorTest {
     assertEquals(subjectArriveBy.toString(), before.toString());
   }
 
+  @Test
+  @SuppressWarnings("ConstantConditions")
+  public void encodeAndDecodeSearchContinuationToken() {
+    var subject = new PageCursor(
+      NEXT_PAGE,
+      STREET_AND_ARRIVAL_TIME,
+      EDT,
+      null,
+      SEARCH_WINDOW,
+      "3f2c8a1e"
+    );
+
+    var before = PageCursor.decode(subject.encode());
+
+    assertEquals("3f2c8a1e", before.searchContinuationToken);
+    assertEquals(subject.toString(), before.toString());
+    assertNull(PageCursor.decode(subjectDepartAfter.encode()).searchContinuationToken);
+  }
+
+  @Test
+  @SuppressWarnings("ConstantConditions")
+  public void decodeVersion1CursorWithoutSearchContinuationToken() {
+    // Encoded with version 1, before the search continuation token was added
+    var version1 = "rO0ABXcxAQAJTkVYVF9QQUdFAgq_cIAAAAAAABwgABdTVFJFRVRfQU5EX0FSUklWQUxfVElNRQ==";
+
+    var cursor = PageCursor.decode(version1);
+
+    assertEquals(subjectDepartAfter.toString(), cursor.toString());
+    assertNull(cursor.searchContinuationToken);
+  }
+
   @Test
   public void testDecodeEmptyCursor() {
     assertNull(PageCursor.decode(null));
@@ -0,0 +1,101 @@
+package org.opentripplanner.netex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.DirectoryDataSource;
+import org.opentripplanner.graph_builder.ConfiguredDataSource;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
+import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.netex.configure.NetexConfigure;
+import org.opentripplanner.standalone.config.BuildConfig;
+import org.opentripplanner.standalone.config.OtpConfigLoader;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+
+/**
+ * Load the minimal Nordic data set from a directory, with changes to the independent group files
+ * to test the issue reporting and error handling when the files are parsed concurrently.
+ */
+class NetexBundleTest {
+
+  private static final File NETEX_NORDIC_DIR = new File("src/test/resources/netex/nordic");
+  private static final String LINE_12 = "RUT_RUT-Line-12_12_Majorstuen---Kjelsas.xml";
+  private static final String LINE_4 = "RUT_RUT-Line-4_4_Vestli---Bergkrystallen.xml";
+
+  private File tempDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    tempDir = Files.createTempDirectory("NetexBundleTest-").toFile();
+    try (var zip = new ZipFile(new File(NETEX_NORDIC_DIR, "netex_minimal.zip"))) {
+      for (var entry : zip.stream().toList()) {
+        Files.copy(zip.getInputStream(entry), new File(tempDir, entry.getName()).toPath());
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (var files = Files.walk(tempDir.toPath())) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  void issuesAreAttributedToTheIndependentFile() throws IOException {
+    // Reference a journey pattern which does not exist from a service journey in line 12
+    replaceInFile(LINE_12, "ref=\"RUT:JourneyPattern:12-2\"", "ref=\"RUT:JourneyPattern:12-X\"");
+    var issueStore = new DefaultDataImportIssueStore();
+
+    createBundle().loadBundle(new Deduplicator(), issueStore);
+
+    List<DataImportIssue> issues = issueStore
+      .listIssues()
+      .stream()
+      .filter(it -> it.getMessage().contains("RUT:JourneyPattern:12-X"))
+      .toList();
+    assertFalse(issues.isEmpty());
+    for (DataImportIssue issue : issues) {
+      assertTrue(issue.getMessage().endsWith(" - " + LINE_12), issue.getMessage());
+    }
+  }
+
+  @Test
+  void failingIndependentFileFailsTheBundle() throws IOException {
+    replaceInFile(LINE_4, "</PublicationDelivery>", "");
+    var bundle = createBundle();
+
+    assertThrows(
+      RuntimeException.class,
+      () -> bundle.loadBundle(new Deduplicator(), new DefaultDataImportIssueStore())
+    );
+  }
+
+  private NetexBundle createBundle() {
+    BuildConfig buildConfig = new OtpConfigLoader(NETEX_NORDIC_DIR).loadBuildConfig();
+    var dataSource = new DirectoryDataSource(tempDir, FileType.NETEX);
+    return new NetexConfigure(buildConfig)
+      .netexBundle(new ConfiguredDataSource<>(dataSource, buildConfig.netexDefaults));
+  }
+
+  private void replaceInFile(String fileName, String text, String replacement)
+    throws IOException {
+    var path = new File(tempDir, fileName).toPath();
+    var content = Files.readString(path, StandardCharsets.UTF_8);
+    assertTrue(content.contains(text), text);
+    Files.writeString(path, content.replace(text, replacement), StandardCharsets.UTF_8);
+  }
+}
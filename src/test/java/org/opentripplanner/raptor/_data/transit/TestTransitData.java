@@ -22,6 +22,7 @@ import org.opentripplanner.raptor.api.path.RaptorStopNameResolver;
 import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
 import org.opentripplanner.raptor.rangeraptor.SystemErrDebugLogger;
 import org.opentripplanner.raptor.spi.DefaultSlackProvider;
+import org.opentripplanner.raptor.spi.DefaultTransfersByStop;
 import org.opentripplanner.raptor.spi.IntIterator;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
 import org.opentripplanner.raptor.spi.RaptorCostCalculator;
@@ -29,6 +30,7 @@ import org.opentripplanner.raptor.spi.RaptorPathConstrainedTransferSearch;
 import org.opentripplanner.raptor.spi.RaptorRoute;
 import org.opentripplanner.raptor.spi.RaptorSlackProvider;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransfersByStop;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.api.DefaultTripPattern;
@@ -77,6 +79,20 @@ public class TestTransitData
     return transfersToStop.get(toStop).iterator();
   }
 
+  /**
+   * The transfers can be added after the transit data is created, so a new index is created each
+   * time. This is fine for the small test data sets.
+   */
+  @Override
+  public RaptorTransfersByStop transfersFromStops() {
+    return new DefaultTransfersByStop(transfersFromStop);
+  }
+
+  @Override
+  public RaptorTransfersByStop transfersToStops() {
+    return new DefaultTransfersByStop(transfersToStop);
+  }
+
   @Override
   public IntIterator routeIndexIterator(IntIterator stops) {
     BitSet routes = new BitSet();
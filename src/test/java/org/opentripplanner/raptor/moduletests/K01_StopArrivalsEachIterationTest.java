@@ -0,0 +1,91 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should notify a listener with the best stop arrivals after each Range Raptor iteration,
+ * so the arrivals for each departure time in the search window can be found in one search.
+ */
+public class K01_StopArrivalsEachIterationTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * Schedule:
+   *   Stop:    A       B
+   *    R1:   00:05 - 00:10
+   *          00:15 - 00:20
+   *
+   * Access (toStop & duration):
+   *   A  1m
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B))
+        .withTimetable(schedule("00:05 00:10"), schedule("00:15 00:20"))
+    );
+    requestBuilder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .allowEmptyAccessEgressPaths(true)
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_30)
+      .searchWindow(D20m)
+      .timetable(false);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @Test
+  void stopArrivalsForEachDepartureTime() {
+    Map<Integer, Integer> arrivalAtStopBByDepartureTime = new HashMap<>();
+    int[] lastDepartureTime = { T00_00 + D20m + D1m };
+
+    raptorService.routeEachIteration(
+      requestBuilder.build(),
+      data,
+      (departureTime, arrivals) -> {
+        // Range Raptor iterates from the latest to the earliest departure time
+        assertEquals(lastDepartureTime[0] - D1m, departureTime, "departure time");
+        lastDepartureTime[0] = departureTime;
+        if (arrivals.reachedByTransit(STOP_B)) {
+          arrivalAtStopBByDepartureTime.put(
+            departureTime,
+            arrivals.bestTransitArrivalTime(STOP_B)
+          );
+        }
+      }
+    );
+
+    assertEquals(T00_00, lastDepartureTime[0]);
+    assertEquals(T00_10, arrivalAtStopBByDepartureTime.get(T00_00));
+    assertEquals(T00_10, arrivalAtStopBByDepartureTime.get(T00_00 + D2m));
+    assertEquals(T00_10 + D10m, arrivalAtStopBByDepartureTime.get(T00_10));
+    assertFalse(arrivalAtStopBByDepartureTime.containsKey(T00_10 + D10m));
+  }
+}
@@ -0,0 +1,129 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+
+class HeuristicsCacheTest implements RaptorTestConstants {
+
+  private static final int EDT = T00_10;
+
+  private final TestTransitData transitData = transitDataWithKey("A");
+  private final HeuristicsCache subject = new HeuristicsCache(10, Duration.ofMinutes(1));
+
+  @Test
+  void getCachedHeuristicsForIdenticalSearch() {
+    var heuristics = mock(Heuristics.class);
+    var access = TestAccessEgress.walk(STOP_A, D1m);
+    var egress = TestAccessEgress.walk(STOP_B, D2m);
+
+    subject.put(HeuristicsCache.keyOf(transitData, request(EDT, access, egress)), heuristics);
+
+    // Access and egress are new instances with the same values
+    var key = HeuristicsCache.keyOf(
+      transitDataWithKey("A"),
+      request(EDT, TestAccessEgress.walk(STOP_A, D1m), TestAccessEgress.walk(STOP_B, D2m))
+    );
+    assertSame(heuristics, subject.get(key));
+  }
+
+  @Test
+  void dropExpiredHeuristics() {
+    var expired = new HeuristicsCache(10, Duration.ZERO);
+    var key = HeuristicsCache.keyOf(
+      transitData,
+      request(EDT, TestAccessEgress.walk(STOP_A, D1m), TestAccessEgress.walk(STOP_B, D2m))
+    );
+
+    expired.put(key, mock(Heuristics.class));
+    assertNull(expired.get(key));
+  }
+
+  @Test
+  void keyChangesWithTransitDataTimeAndAccessEgress() {
+    var access = TestAccessEgress.walk(STOP_A, D1m);
+    var egress = TestAccessEgress.walk(STOP_B, D2m);
+    var key = HeuristicsCache.keyOf(transitData, request(EDT, access, egress));
+
+    assertNotNull(key);
+    assertEquals(key, HeuristicsCache.keyOf(transitData, request(EDT, access, egress)));
+    assertNotEquals(
+      key,
+      HeuristicsCache.keyOf(transitDataWithKey("B"), request(EDT, access, egress))
+    );
+    assertNotEquals(key, HeuristicsCache.keyOf(transitData, request(EDT + 60, access, egress)));
+    assertNotEquals(
+      key,
+      HeuristicsCache.keyOf(
+        transitData,
+        request(EDT, access, TestAccessEgress.walk(STOP_B, D3m))
+      )
+    );
+    assertNotEquals(
+      key,
+      HeuristicsCache.keyOf(
+        transitData,
+        request(EDT, access, TestAccessEgress.walk(STOP_C, D2m))
+      )
+    );
+  }
+
+  @Test
+  void doNotCacheSearchesWhichCanNotBeCompared() {
+    var access = TestAccessEgress.walk(STOP_A, D1m);
+    var egress = TestAccessEgress.walk(STOP_B, D2m);
+
+    // Transit data without a key
+    assertNull(HeuristicsCache.keyOf(new TestTransitData(), request(EDT, access, egress)));
+
+    // Access with opening hours
+    var accessWithOpeningHours = TestAccessEgress.walk(STOP_A, D1m).openingHours(T00_00, T01_00);
+    assertNull(
+      HeuristicsCache.keyOf(transitData, request(EDT, accessWithOpeningHours, egress))
+    );
+
+    // A null key is ignored
+    subject.put(null, mock(Heuristics.class));
+    assertNull(subject.get(null));
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(
+    int edt,
+    RaptorAccessEgress access,
+    RaptorAccessEgress egress
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder.searchDirection(SearchDirection.FORWARD);
+    builder
+      .searchParams()
+      .earliestDepartureTime(edt)
+      .searchOneIterationOnly()
+      .addAccessPaths(access)
+      .addEgressPaths(egress);
+    return builder.build();
+  }
+
+  private static TestTransitData transitDataWithKey(String key) {
+    return new TestTransitData() {
+      @Override
+      public Object heuristicsCacheKey() {
+        return key;
+      }
+    };
+  }
+}
@@ -0,0 +1,47 @@
+package org.opentripplanner.routing.algorithm.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.model.plan.Leg;
+import org.opentripplanner.routing.services.notes.StreetNotesService;
+import org.opentripplanner.street.search.state.TestStateBuilder;
+
+class GraphPathToItineraryMapperTest {
+
+  @Test
+  void createStreetLegDetails() {
+    var leg = mapWalkLeg(true);
+
+    assertEquals(2, leg.getWalkSteps().size());
+  }
+
+  @Test
+  void skipStreetLegDetails() {
+    var leg = mapWalkLeg(false);
+
+    assertEquals(List.of(), leg.getWalkSteps());
+    assertNull(leg.getElevationProfile());
+    assertEquals(Set.of(), leg.getStreetNotes());
+    // The leg itself is still mapped
+    assertEquals(mapWalkLeg(true).getDistanceMeters(), leg.getDistanceMeters());
+  }
+
+  private static Leg mapWalkLeg(boolean streetLegDetails) {
+    var path = new GraphPath<>(TestStateBuilder.ofWalking().streetEdge().streetEdge().build());
+    var mapper = new GraphPathToItineraryMapper(
+      ZoneIds.BERLIN,
+      new StreetNotesService(),
+      0,
+      streetLegDetails
+    );
+    var legs = mapper.generateItinerary(path).getLegs();
+    assertEquals(1, legs.size());
+    return legs.get(0);
+  }
+}
@@ -0,0 +1,85 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class SearchContinuationCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.parse("2023-06-01T00:00:00Z");
+
+  private final TransitLayer transitLayer = mock(TransitLayer.class);
+  private final RaptorRoutingRequestTransitData transitData = mock(
+    RaptorRoutingRequestTransitData.class
+  );
+  private final SearchContinuationCache subject = new SearchContinuationCache(
+    10,
+    Duration.ofMinutes(1)
+  );
+
+  @Test
+  void getCachedTransitDataForSameRequest() {
+    var token = subject.put(key(transitLayer, request()), transitData);
+
+    assertNotNull(token);
+    assertSame(transitData, subject.get(token, key(transitLayer, request())));
+  }
+
+  @Test
+  void unknownToken() {
+    subject.put(key(transitLayer, request()), transitData);
+
+    var key = key(transitLayer, request());
+    assertNull(subject.get("unknown", key));
+    assertNull(subject.get(null, key));
+  }
+
+  @Test
+  void doNotReuseForAnotherRequest() {
+    var token = subject.put(key(transitLayer, request()), transitData);
+
+    var otherWalkSpeed = request();
+    otherWalkSpeed.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+    assertNull(subject.get(token, key(transitLayer, otherWalkSpeed)));
+
+    var otherServiceDays = RaptorRoutingRequestTransitData.keyOf(
+      transitLayer,
+      TIME_ZERO,
+      0,
+      2,
+      request()
+    );
+    assertNull(subject.get(token, otherServiceDays));
+  }
+
+  @Test
+  void doNotReuseAfterRealtimeUpdate() {
+    var token = subject.put(key(transitLayer, request()), transitData);
+
+    assertNull(subject.get(token, key(mock(TransitLayer.class), request())));
+  }
+
+  @Test
+  void disabledCache() {
+    var disabled = new SearchContinuationCache(0, Duration.ofMinutes(1));
+
+    assertNull(disabled.put(key(transitLayer, request()), transitData));
+    assertNull(disabled.get("token", key(transitLayer, request())));
+  }
+
+  private static Object key(TransitLayer transitLayer, RouteRequest request) {
+    return RaptorRoutingRequestTransitData.keyOf(transitLayer, TIME_ZERO, 0, 1, request);
+  }
+
+  private static RouteRequest request() {
+    return new RouteRequest();
+  }
+}
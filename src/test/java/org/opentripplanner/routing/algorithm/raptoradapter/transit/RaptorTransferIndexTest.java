@@ -0,0 +1,63 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+
+class RaptorTransferIndexTest {
+
+  private static final RaptorTransfer T_0_1 = TestTransfer.transfer(1, 60, 100);
+  private static final RaptorTransfer T_0_2 = TestTransfer.transfer(2, 120, 200);
+  private static final RaptorTransfer T_2_0 = TestTransfer.transfer(0, 30, 50);
+
+  private final RaptorTransferIndex subject = new RaptorTransferIndex(
+    List.of(List.of(T_0_1, T_0_2), List.of(), List.of(T_2_0)),
+    List.of(List.of(), List.of(), List.of())
+  );
+
+  @Test
+  void transfersByStop() {
+    var transfers = subject.forwardTransfers();
+
+    assertEquals(0, transfers.startIndex(0));
+    assertEquals(2, transfers.endIndex(0));
+    assertEquals(2, transfers.startIndex(1));
+    assertEquals(2, transfers.endIndex(1));
+    assertEquals(2, transfers.startIndex(2));
+    assertEquals(3, transfers.endIndex(2));
+
+    assertEquals(1, transfers.stop(0));
+    assertEquals(60, transfers.durationInSeconds(0));
+    assertSame(T_0_1, transfers.transfer(0));
+
+    assertEquals(2, transfers.stop(1));
+    assertEquals(120, transfers.durationInSeconds(1));
+    assertSame(T_0_2, transfers.transfer(1));
+
+    assertEquals(0, transfers.stop(2));
+    assertEquals(30, transfers.durationInSeconds(2));
+    assertSame(T_2_0, transfers.transfer(2));
+
+    var reversed = subject.reversedTransfers();
+    assertEquals(0, reversed.startIndex(2));
+    assertEquals(0, reversed.endIndex(2));
+  }
+
+  @Test
+  void transferLists() {
+    assertEquals(List.of(T_0_1, T_0_2), subject.getForwardTransfers(0));
+    assertEquals(List.of(), subject.getForwardTransfers(1));
+    assertEquals(List.of(T_2_0), subject.getForwardTransfers(2));
+    assertEquals(List.of(), subject.getReversedTransfers(0));
+
+    assertThrows(
+      UnsupportedOperationException.class,
+      () -> subject.getForwardTransfers(0).add(T_2_0)
+    );
+  }
+}
@@ -0,0 +1,52 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class RaptorRequestTransferCacheTest {
+
+  private final List<List<Transfer>> transfersByStopIndex = List.of(
+    List.of(new Transfer(1, 100)),
+    List.of()
+  );
+
+  private final RaptorRequestTransferCache subject = new RaptorRequestTransferCache(10);
+
+  @Test
+  void reuseTransfersForRequestsWithOtherNonStreetParameters() {
+    var request = new RouteRequest();
+    var other = new RouteRequest();
+    other.withPreferences(p ->
+      p
+        .withWalk(w -> w.withBoardCost(1000))
+        .withStreet(s -> s.withRoutingTimeout(Duration.ofSeconds(1)))
+    );
+
+    assertSame(
+      subject.get(transfersByStopIndex, request),
+      subject.get(transfersByStopIndex, other)
+    );
+    assertEquals(1, subject.getTransferCache().size());
+  }
+
+  @Test
+  void createNewTransfersForOtherStreetParameters() {
+    var request = new RouteRequest();
+    var other = new RouteRequest();
+    other.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+
+    var transfers = subject.get(transfersByStopIndex, request);
+    var otherTransfers = subject.get(transfersByStopIndex, other);
+
+    assertNotSame(transfers, otherTransfers);
+    // 100 meters at 0.5 m/s
+    assertEquals(200, otherTransfers.forwardTransfers().durationInSeconds(0));
+  }
+}
@@ -11,7 +11,9 @@ import static org.opentripplanner.model.plan.PlanTestConstants.place;
 import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.framework.time.TimeUtils;
@@ -52,6 +54,9 @@ public class ViaRoutingWorkerTest {
   private static List<Itinerary> firstSearch;
   private static List<Itinerary> secondSearch;
 
+  private final List<Duration> searchWindows = new ArrayList<>();
+  private final List<Instant> searchTimes = new ArrayList<>();
+
   @Test
   public void testViaRoutingWorker() {
     // Prepare test
@@ -109,10 +114,30 @@ public class ViaRoutingWorkerTest {
     );
   }
 
+  /**
+   * The second search starts at the first arrival (13:00) plus minSlack. Its search window is the
+   * spread of the arrivals (13:00 - 14:00) plus maxSlack minus minSlack, since no departure after
+   * the last arrival plus maxSlack (14:45) can be combined.
+   */
+  @Test
+  public void testSearchWindowOfNextSegment() {
+    createItinieraries();
+
+    new ViaRoutingWorker(createRouteViaRequest(), this::createRoutingResponse).route();
+
+    assertEquals(2, searchWindows.size());
+    assertEquals(Duration.ofHours(1), searchWindows.get(0));
+    assertEquals(Duration.ofMinutes(95), searchWindows.get(1));
+    assertEquals(s1i1.endTime().plusMinutes(10).toInstant(), searchTimes.get(1));
+  }
+
   /**
    * This function simulates the RoutingWorker for each request
    */
   private RoutingResponse createRoutingResponse(RouteRequest req) {
+    searchWindows.add(req.searchWindow());
+    searchTimes.add(req.dateTime());
+
     // request from A or C?
     var fromA =
       req.from().lng == A.coordinate.longitude() && req.from().lat == A.coordinate.latitude();
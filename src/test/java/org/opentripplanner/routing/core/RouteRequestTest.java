@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -69,6 +70,20 @@ class RouteRequestTest {
     assertEquals(50, clone.numItineraries());
   }
 
+  @Test
+  void streetLegDetails() {
+    RouteRequest request = new RouteRequest();
+    assertTrue(request.streetLegDetails());
+
+    request.setStreetLegDetails(false);
+    assertFalse(request.streetLegDetails());
+
+    // The accessibility score filter needs the walk steps
+    request.setWheelchair(true);
+    request.withPreferences(p -> p.withItineraryFilter(it -> it.withAccessibilityScore(true)));
+    assertTrue(request.streetLegDetails());
+  }
+
   @Test
   void testValidateEmptyRequest() {
     RouteRequest request = new RouteRequest();
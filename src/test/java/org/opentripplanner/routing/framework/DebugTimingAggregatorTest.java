@@ -0,0 +1,53 @@
+package org.opentripplanner.routing.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DebugTimingAggregatorTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final DebugTimingAggregator subject = new DebugTimingAggregator(registry, List.of());
+
+  @Test
+  void recordPhases() {
+    assertEquals("A", subject.recordPhase("linking", () -> "A"));
+    subject.recordPhase("access.WALK", () -> {});
+    subject.recordPhase("access.WALK", () -> {});
+
+    var phases = subject.getDebugOutput().phaseTimes;
+    assertEquals(
+      List.of("linking", "access.WALK", "access.WALK"),
+      phases.stream().map(it -> it.phase).toList()
+    );
+    assertTrue(phases.stream().allMatch(it -> it.time >= 0));
+
+    var timer = registry
+      .get(DebugTimingAggregator.ROUTING_PHASE)
+      .tag(DebugTimingAggregator.PHASE_TAG, "access.WALK")
+      .timer();
+    assertEquals(2, timer.count());
+  }
+
+  @Test
+  void recordPhaseWhenTaskFails() {
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        subject.recordPhase(
+          "fares",
+          () -> {
+            throw new IllegalStateException();
+          }
+        )
+    );
+    assertEquals(
+      List.of("fares"),
+      subject.getDebugOutput().phaseTimes.stream().map(it -> it.phase).toList()
+    );
+  }
+}
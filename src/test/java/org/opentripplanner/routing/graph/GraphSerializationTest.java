@@ -1,12 +1,15 @@
 package org.opentripplanner.routing.graph;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.datastore.api.FileType.OSM;
 
 import com.conveyal.object_differ.ObjectDiffer;
 import java.io.File;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.util.BitSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.jar.JarFile;
@@ -20,6 +23,7 @@ import org.opentripplanner.TestOtpModel;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.graph_builder.BuildInputFingerprints;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.service.worldenvelope.internal.DefaultWorldEnvelopeRepository;
@@ -173,16 +177,21 @@ public class GraphSerializationTest {
   ) throws Exception {
     // Now round-trip the graph through serialization.
     File tempFile = TempFile.createTempFile("graph", "pdx");
+    var buildInputs = BuildInputFingerprints.of(
+      List.of(new FileDataSource(tempFile, FileType.OSM))
+    );
     SerializedGraphObject serializedObj = new SerializedGraphObject(
       originalGraph,
       originalTransitModel,
       worldEnvelopeRepository,
       BuildConfig.DEFAULT,
       RouterConfig.DEFAULT,
+      buildInputs,
       DataImportIssueSummary.empty()
     );
     serializedObj.save(new FileDataSource(tempFile, FileType.GRAPH));
     SerializedGraphObject deserializedGraph = SerializedGraphObject.load(tempFile);
+    assertEquals(List.of(), deserializedGraph.buildInputs.listChanges(buildInputs, Set.of(OSM)));
     Graph copiedGraph1 = deserializedGraph.graph;
     TransitModel copiedTransitModel1 = deserializedGraph.transitModel;
     // Index both graph - we do no know if the original is indexed, because it is cached and
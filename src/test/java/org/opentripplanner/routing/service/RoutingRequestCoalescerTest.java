@@ -0,0 +1,254 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.api.request.RequestModes;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+
+class RoutingRequestCoalescerTest {
+
+  private static final Object TRANSIT_DATA = new Object();
+  private static final RouteRequestKey KEY = RouteRequestKey.of(request(), TRANSIT_DATA);
+  private static final Duration MAX_WAIT = Duration.ofSeconds(10);
+
+  private final AtomicInteger routingCount = new AtomicInteger();
+
+  @Test
+  void shareResponseOfRequestInFlight() throws Exception {
+    var subject = new RoutingRequestCoalescer(true, false, 10, Duration.ofSeconds(10), MAX_WAIT);
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    var first = CompletableFuture.supplyAsync(() ->
+      subject.route(
+        KEY,
+        () -> {
+          started.countDown();
+          await(release);
+          return routing().get();
+        }
+      )
+    );
+    started.await();
+    var second = CompletableFuture.supplyAsync(() -> subject.route(KEY, routing()));
+
+    // Release the first request only when the second request waits for it
+    awaitWaitingRequest(subject);
+    release.countDown();
+
+    // The trip plan is shared, the debug timing is not
+    assertSame(first.get().getTripPlan(), second.get().getTripPlan());
+    assertNotSame(
+      first.get().getDebugTimingAggregator(),
+      second.get().getDebugTimingAggregator()
+    );
+    assertEquals(1, routingCount.get());
+
+    // The request is no longer in flight, and the result is not cached
+    assertNotSame(first.get().getTripPlan(), subject.route(KEY, routing()).getTripPlan());
+    assertEquals(2, routingCount.get());
+  }
+
+  @Test
+  void routeOnItsOwnAfterMaxWait() throws Exception {
+    var subject = new RoutingRequestCoalescer(
+      true,
+      false,
+      10,
+      Duration.ofSeconds(10),
+      Duration.ofMillis(10)
+    );
+    var release = new CountDownLatch(1);
+    var first = startBlockingRequest(subject, release);
+
+    subject.route(KEY, routing());
+    assertEquals(1, routingCount.get());
+
+    release.countDown();
+    first.get();
+    assertEquals(2, routingCount.get());
+  }
+
+  @Test
+  void timeoutWhenWaitingRequestIsInterrupted() throws Exception {
+    var subject = new RoutingRequestCoalescer(true, false, 10, Duration.ofSeconds(10), MAX_WAIT);
+    var release = new CountDownLatch(1);
+    var first = startBlockingRequest(subject, release);
+
+    // The http server interrupts the request thread when the api processing timeout is reached
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(OTPRequestTimeoutException.class, () -> subject.route(KEY, routing()));
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+      release.countDown();
+    }
+    first.get();
+    assertEquals(1, routingCount.get());
+  }
+
+  @Test
+  void cacheResult() {
+    var subject = new RoutingRequestCoalescer(false, true, 10, Duration.ofSeconds(10), MAX_WAIT);
+
+    var response = subject.route(KEY, routing());
+    var cached = subject.route(KEY, routing());
+
+    assertSame(response.getTripPlan(), cached.getTripPlan());
+    assertNotSame(response.getDebugTimingAggregator(), cached.getDebugTimingAggregator());
+    assertEquals(1, routingCount.get());
+
+    var otherTransitData = RouteRequestKey.of(request(), new Object());
+    assertNotSame(response.getTripPlan(), subject.route(otherTransitData, routing()).getTripPlan());
+    assertEquals(2, routingCount.get());
+  }
+
+  @Test
+  void alwaysRouteRequestsWithoutKey() {
+    var subject = new RoutingRequestCoalescer(true, true, 10, Duration.ofSeconds(10), MAX_WAIT);
+
+    subject.route(null, routing());
+    subject.route(null, routing());
+
+    assertEquals(2, routingCount.get());
+  }
+
+  @Test
+  void doNotCacheFailures() {
+    var subject = new RoutingRequestCoalescer(true, true, 10, Duration.ofSeconds(10), MAX_WAIT);
+
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        subject.route(
+          KEY,
+          () -> {
+            throw new IllegalStateException();
+          }
+        )
+    );
+    subject.route(KEY, routing());
+
+    assertEquals(1, routingCount.get());
+  }
+
+  @Test
+  void requestKey() {
+    var request = request();
+    assertEquals(KEY, RouteRequestKey.of(request, TRANSIT_DATA));
+
+    // Only requests for exactly the same time are equal
+    request.setDateTime(request.dateTime().plusSeconds(1));
+    assertNotEquals(KEY, RouteRequestKey.of(request, TRANSIT_DATA));
+
+    // The vehicle rental availability is not part of the key
+    request = request();
+    request.journey().setModes(RequestModes.of().withDirectMode(StreetMode.BIKE_RENTAL).build());
+    assertNull(RouteRequestKey.of(request, TRANSIT_DATA));
+
+    request = request();
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+    assertNotEquals(KEY, RouteRequestKey.of(request, TRANSIT_DATA));
+
+    var withFilter = request();
+    withFilter.journey().transit().setFilters(List.of(routeFilter("F:R1")));
+    var withSameFilter = request();
+    withSameFilter.journey().transit().setFilters(List.of(routeFilter("F:R1")));
+    var withOtherFilter = request();
+    withOtherFilter.journey().transit().setFilters(List.of(routeFilter("F:R2")));
+
+    var key = RouteRequestKey.of(withFilter, TRANSIT_DATA);
+    assertNotEquals(KEY, key);
+    assertEquals(key, RouteRequestKey.of(withSameFilter, TRANSIT_DATA));
+    assertNotEquals(key, RouteRequestKey.of(withOtherFilter, TRANSIT_DATA));
+  }
+
+  private static TransitFilterRequest routeFilter(String routeIds) {
+    return TransitFilterRequest
+      .of()
+      .addSelect(SelectRequest.of().withRoutesFromString(routeIds).build())
+      .build();
+  }
+
+  private CompletableFuture<RoutingResponse> startBlockingRequest(
+    RoutingRequestCoalescer subject,
+    CountDownLatch release
+  ) throws InterruptedException {
+    var started = new CountDownLatch(1);
+    var request = CompletableFuture.supplyAsync(() ->
+      subject.route(
+        KEY,
+        () -> {
+          started.countDown();
+          await(release);
+          return routing().get();
+        }
+      )
+    );
+    started.await();
+    return request;
+  }
+
+  private Supplier<RoutingResponse> routing() {
+    return () -> {
+      routingCount.incrementAndGet();
+      var tripPlan = new TripPlan(null, null, Instant.EPOCH, List.of());
+      return new RoutingResponse(
+        tripPlan,
+        null,
+        null,
+        null,
+        List.of(),
+        new DebugTimingAggregator()
+      );
+    };
+  }
+
+  private static RouteRequest request() {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(60.0, 10.0));
+    request.setTo(new GenericLocation(60.2, 10.2));
+    request.setDateTime(Instant.parse("2023-05-01T12:00:00Z"));
+    return request;
+  }
+
+  private static void awaitWaitingRequest(RoutingRequestCoalescer subject)
+    throws InterruptedException {
+    long deadline = System.nanoTime() + MAX_WAIT.toNanos();
+    while (subject.waitingRequests() == 0) {
+      assertTrue(System.nanoTime() < deadline, "No request is waiting");
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
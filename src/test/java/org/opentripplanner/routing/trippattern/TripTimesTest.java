@@ -14,6 +14,7 @@ import org.opentripplanner.transit.model._data.TransitModelForTest;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.OccupancyStatus;
 import org.opentripplanner.transit.model.timetable.RealTimeState;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -150,6 +151,61 @@ public class TripTimesTest {
     assertFalse(updatedTripTimesA.isNoDataStop(2));
   }
 
+  @Test
+  public void testStopStatesOfCopy() {
+    TripTimes updatedTripTimesA = new TripTimes(originalTripTimes);
+    updatedTripTimesA.setCancelled(1);
+    updatedTripTimesA.setOccupancyStatus(2, OccupancyStatus.FULL);
+
+    TripTimes updatedTripTimesB = new TripTimes(updatedTripTimesA);
+    assertTrue(updatedTripTimesB.isCancelledStop(1));
+    assertEquals(OccupancyStatus.FULL, updatedTripTimesB.getOccupancyStatus(2));
+
+    // A new update starts from the default states, without changing the copied TripTimes
+    updatedTripTimesB.setRecorded(1);
+    assertFalse(updatedTripTimesB.isCancelledStop(1));
+    assertTrue(updatedTripTimesB.isRecordedStop(1));
+    assertEquals(OccupancyStatus.NO_DATA, updatedTripTimesB.getOccupancyStatus(2));
+    assertTrue(updatedTripTimesA.isCancelledStop(1));
+    assertFalse(updatedTripTimesA.isRecordedStop(1));
+    assertEquals(OccupancyStatus.FULL, updatedTripTimesA.getOccupancyStatus(2));
+  }
+
+  @Test
+  public void testTimeUpdateWithoutStopStates() {
+    TripTimes updatedTripTimesA = new TripTimes(originalTripTimes);
+    updatedTripTimesA.updateArrivalDelay(2, 30);
+
+    assertEquals(RealTimeState.UPDATED, updatedTripTimesA.getRealTimeState());
+    assertFalse(updatedTripTimesA.isCancelledStop(2));
+    assertEquals(OccupancyStatus.NO_DATA, updatedTripTimesA.getOccupancyStatus(2));
+    assertEquals(2 * 60 + 30, updatedTripTimesA.getArrivalTime(2));
+    assertEquals(2 * 60, updatedTripTimesA.getDepartureTime(2));
+  }
+
+  @Test
+  public void testTimesAreUpdatedAsDelays() {
+    TripTimes updatedTripTimesA = new TripTimes(originalTripTimes);
+    updatedTripTimesA.updateArrivalTime(1, 60 + 20);
+    updatedTripTimesA.updateDepartureTime(1, 60 + 40);
+    // Setting the scheduled time gives no delay
+    updatedTripTimesA.updateArrivalTime(2, 2 * 60);
+
+    assertEquals(20, updatedTripTimesA.getArrivalDelay(1));
+    assertEquals(40, updatedTripTimesA.getDepartureDelay(1));
+    assertEquals(0, updatedTripTimesA.getArrivalDelay(2));
+    assertEquals(2 * 60, updatedTripTimesA.getArrivalTime(2));
+    assertEquals(60, updatedTripTimesA.getScheduledArrivalTime(1));
+    assertEquals(RealTimeState.UPDATED, updatedTripTimesA.getRealTimeState());
+    assertEquals(60, originalTripTimes.getArrivalTime(1));
+
+    // A copy does not copy the updated times
+    TripTimes updatedTripTimesB = new TripTimes(updatedTripTimesA);
+    assertEquals(60, updatedTripTimesB.getArrivalTime(1));
+    assertEquals(0, updatedTripTimesB.getDepartureDelay(1));
+    assertEquals(60 + 20, updatedTripTimesA.getArrivalTime(1));
+  }
+
   @Test
   void gtfsSequence() {
     var stopIndex = originalTripTimes.gtfsSequenceOfStopIndex(2);